@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.concurrent;
+
+import io.servicetalk.concurrent.Cancellable;
+import io.servicetalk.concurrent.CompletableSource;
+import io.servicetalk.concurrent.PublisherSource;
+import io.servicetalk.concurrent.PublisherSource.Subscription;
+import io.servicetalk.concurrent.SingleSource;
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.concurrent.api.Completable;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.concurrent.api.Single;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+
+/*
+ * This benchmark measures the cost of subscribing to short synchronous operator chains of each source type. The
+ * "context" parameter selects how AsyncContext is configured:
+ * - "enabled": the default, the context is captured on subscribe and restored around every signal;
+ * - "disabled": AsyncContext.disable() is called at runtime before the chains are created;
+ * - "disabledAtStartup": -Dio.servicetalk.concurrent.api.asyncContext.disabled=true, which lets operators skip
+ *   the context handling on subscribe altogether.
+ * The system property is set from the trial setup, so it only takes effect if nothing loaded AsyncContext before,
+ * which is the case because every parameter combination runs in its own fork. Run with "-prof gc" to compare the
+ * per-subscribe allocation rates.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class AsyncContextSubscribeBenchmark {
+
+    @Param({"enabled", "disabled", "disabledAtStartup"})
+    private String context;
+
+    @Nullable
+    private PublisherSource<Integer> publisher;
+    @Nullable
+    private SingleSource<Integer> single;
+    @Nullable
+    private CompletableSource completable;
+
+    private final CountingSubscriber subscriber = new CountingSubscriber();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (context) {
+            case "enabled":
+                break;
+            case "disabled":
+                AsyncContext.disable();
+                break;
+            case "disabledAtStartup":
+                System.setProperty("io.servicetalk.concurrent.api.asyncContext.disabled", "true");
+                if (!AsyncContext.isDisabled()) {
+                    throw new IllegalStateException("AsyncContext was initialized before the property was set");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown context: " + context);
+        }
+        publisher = toSource(Publisher.from(1, 2, 3).map(i -> i + 1).filter(i -> i > 0));
+        single = toSource(Single.succeeded(1).map(i -> i + 1).beforeOnSuccess(i -> { }));
+        completable = toSource(Completable.completed().beforeOnComplete(() -> { }).afterOnComplete(() -> { }));
+    }
+
+    @Benchmark
+    public int publisher() {
+        assert publisher != null;
+        publisher.subscribe(subscriber);
+        return subscriber.count;
+    }
+
+    @Benchmark
+    public int single() {
+        assert single != null;
+        single.subscribe(subscriber);
+        return subscriber.count;
+    }
+
+    @Benchmark
+    public int completable() {
+        assert completable != null;
+        completable.subscribe(subscriber);
+        return subscriber.count;
+    }
+
+    private static final class CountingSubscriber implements PublisherSource.Subscriber<Integer>,
+                                                             SingleSource.Subscriber<Integer>,
+                                                             CompletableSource.Subscriber {
+        int count;
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onSubscribe(final Cancellable cancellable) {
+        }
+
+        @Override
+        public void onNext(@Nullable final Integer integer) {
+            ++count;
+        }
+
+        @Override
+        public void onSuccess(@Nullable final Integer result) {
+            ++count;
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            throw new IllegalStateException(t);
+        }
+
+        @Override
+        public void onComplete() {
+            ++count;
+        }
+    }
+}
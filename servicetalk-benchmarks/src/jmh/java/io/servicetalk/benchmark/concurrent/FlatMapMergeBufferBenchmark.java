@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.concurrent;
+
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.FlatMapMergeBuffer;
+import io.servicetalk.concurrent.api.Publisher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.Executors.newCachedThreadExecutor;
+
+/*
+ * This benchmark measures flatMapMerge fanning out to many mapped Publishers which emit on other threads, while the
+ * downstream consumes every item slowly. The "buffer" parameter selects:
+ * - "unbounded": the default flatMapMerge, demand is only bounded by the downstream demand;
+ * - "adaptive": an adaptive prefetch of at most 64 items per mapped Publisher;
+ * - "bytesCapped": an adaptive prefetch and at most 64KiB of buffered items.
+ * Run with "-prof gc" to compare allocation rates and retained memory.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class FlatMapMergeBufferBenchmark {
+
+    private static final int MAPPED_PUBLISHERS = 256;
+    private static final int ITEMS = 64;
+    private static final int ITEM_SIZE = 1024;
+
+    @Param({"unbounded", "adaptive", "bytesCapped"})
+    private String buffer;
+
+    @Nullable
+    private Executor executor;
+    @Nullable
+    private Publisher<byte[]> publisher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = newCachedThreadExecutor();
+        final Executor executor = this.executor;
+        final Function<Integer, Publisher<byte[]>> mapper = i -> Publisher.range(0, ITEMS)
+                .map(j -> new byte[ITEM_SIZE])
+                .publishOn(executor);
+        final Publisher<Integer> source = Publisher.range(0, MAPPED_PUBLISHERS);
+        switch (buffer) {
+            case "unbounded":
+                publisher = source.flatMapMerge(mapper, MAPPED_PUBLISHERS);
+                break;
+            case "adaptive":
+                publisher = source.flatMapMerge(mapper, MAPPED_PUBLISHERS,
+                        FlatMapMergeBuffer.adaptivePrefetch(64));
+                break;
+            case "bytesCapped":
+                publisher = source.flatMapMerge(mapper, MAPPED_PUBLISHERS,
+                        FlatMapMergeBuffer.<byte[]>adaptivePrefetch(64, 64 * 1024, bytes -> bytes.length));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown buffer: " + buffer);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        assert executor != null;
+        executor.closeAsync().toFuture().get();
+    }
+
+    @Benchmark
+    public void flatMapMerge() throws Exception {
+        assert publisher != null;
+        publisher.beforeOnNext(bytes -> Blackhole.consumeCPU(100)).ignoreElements().toFuture().get();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.concurrent;
+
+import io.servicetalk.concurrent.PublisherSource;
+import io.servicetalk.concurrent.PublisherSource.Subscription;
+import io.servicetalk.concurrent.api.Publisher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+
+/*
+ * This benchmark measures subscribing to deep chains of map and filter operators, every second stage is a filter
+ * which drops a quarter of the items. The "source" parameter selects:
+ * - "array" and "range": sources which the fused chain pulls items from directly;
+ * - "deferred": the same array behind Publisher.defer, which only allows fusing the operators with each other;
+ * - "unfused": the same array with a no-op beforeOnNext between all stages, which prevents any fusion.
+ * Compare "unfused" with the others, or run all variants against the commit before operator fusion was introduced.
+ * Run with "-prof gc" to compare allocation rates.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class OperatorFusionBenchmark {
+
+    private static final int ITEMS = 1000;
+
+    @Param({"array", "range", "deferred", "unfused"})
+    private String source;
+
+    @Param({"2", "8", "16"})
+    private int depth;
+
+    @Nullable
+    private PublisherSource<Integer> chain;
+
+    private final SumSubscriber subscriber = new SumSubscriber();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Integer[] values = new Integer[ITEMS];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = i;
+        }
+        Publisher<Integer> publisher;
+        switch (source) {
+            case "array":
+            case "unfused":
+                publisher = Publisher.from(values);
+                break;
+            case "range":
+                publisher = Publisher.range(0, ITEMS);
+                break;
+            case "deferred":
+                publisher = Publisher.defer(() -> Publisher.from(values));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown source: " + source);
+        }
+        for (int i = 0; i < depth; ++i) {
+            if ("unfused".equals(source)) {
+                publisher = publisher.beforeOnNext(item -> { });
+            }
+            publisher = (i & 1) == 0 ? publisher.map(item -> item + 1) : publisher.filter(item -> (item & 3) != 0);
+        }
+        chain = toSource(publisher);
+    }
+
+    @Benchmark
+    public long subscribe() {
+        assert chain != null;
+        chain.subscribe(subscriber);
+        return subscriber.sum;
+    }
+
+    private static final class SumSubscriber implements PublisherSource.Subscriber<Integer> {
+        long sum;
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(@Nullable final Integer item) {
+            assert item != null;
+            sum += item;
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            throw new IllegalStateException(t);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.concurrent;
+
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Publisher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.Executors.newCachedThreadExecutor;
+
+/*
+ * This benchmark measures a CPU-bound transformation of every item of a Publisher. The "mode" parameter selects:
+ * - "sequential": a plain map, all items are transformed on the subscribing thread;
+ * - "flatMapMergeSingle": one task per item submitted to the executor, the pre-existing way to use multiple threads;
+ * - "parallel": the items are transformed on 4 rails and merged in completion order;
+ * - "parallelOrdered": the items are transformed on 4 rails and merged in the order of the source.
+ * The "work" parameter is the amount of CPU work per item, see Blackhole#consumeCPU. Run with "-prof gc" to compare
+ * allocation rates, the per-item Single and task of flatMapMergeSingle are visible there.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class ParallelPublisherBenchmark {
+
+    private static final int ITEMS = 10_000;
+    private static final int RAILS = 4;
+
+    @Param({"sequential", "flatMapMergeSingle", "parallel", "parallelOrdered"})
+    private String mode;
+
+    @Param({"100", "1000"})
+    private long work;
+
+    @Nullable
+    private Executor executor;
+    @Nullable
+    private Publisher<Integer> publisher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = newCachedThreadExecutor();
+        final Executor executor = this.executor;
+        final long work = this.work;
+        final Publisher<Integer> source = Publisher.range(0, ITEMS);
+        switch (mode) {
+            case "sequential":
+                publisher = source.map(i -> transform(i, work));
+                break;
+            case "flatMapMergeSingle":
+                publisher = source.flatMapMergeSingle(i -> executor.submit(() -> transform(i, work)), RAILS * 64);
+                break;
+            case "parallel":
+                publisher = source.parallel(RAILS, executor).map(i -> transform(i, work)).merge();
+                break;
+            case "parallelOrdered":
+                publisher = source.parallel(RAILS, executor).map(i -> transform(i, work)).mergeOrdered();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        assert executor != null;
+        executor.closeAsync().toFuture().get();
+    }
+
+    @Benchmark
+    public void transform() throws Exception {
+        assert publisher != null;
+        publisher.ignoreElements().toFuture().get();
+    }
+
+    private static Integer transform(final Integer i, final long work) {
+        Blackhole.consumeCPU(work);
+        return i;
+    }
+}
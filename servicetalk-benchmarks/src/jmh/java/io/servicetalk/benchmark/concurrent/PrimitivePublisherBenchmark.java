@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.concurrent;
+
+import io.servicetalk.concurrent.api.IntPublisher;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.concurrent.api.Single;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * This benchmark compares summing a filtered and mapped range of ints with the boxed Publisher and with IntPublisher.
+ * Values are chosen outside the Integer cache, so that every boxed item allocates. Run with "-prof gc" to compare
+ * allocation rates.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class PrimitivePublisherBenchmark {
+
+    private static final int BEGIN = 1000;
+    private static final int END = BEGIN + 1000;
+
+    private final Single<Long> boxed = Publisher.range(BEGIN, END)
+            .map(i -> i * 3)
+            .filter(i -> (i & 1) == 0)
+            .collect(() -> 0L, (sum, i) -> sum + i);
+
+    private final Single<Long> primitive = IntPublisher.range(BEGIN, END)
+            .map(i -> i * 3)
+            .filter(i -> (i & 1) == 0)
+            .sum();
+
+    @Benchmark
+    public long boxed() throws Exception {
+        return boxed.toFuture().get();
+    }
+
+    @Benchmark
+    public long primitive() throws Exception {
+        return primitive.toFuture().get();
+    }
+}
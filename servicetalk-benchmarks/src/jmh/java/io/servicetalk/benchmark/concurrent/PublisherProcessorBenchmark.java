@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.concurrent;
+
+import io.servicetalk.concurrent.PublisherSource;
+import io.servicetalk.concurrent.PublisherSource.Subscription;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.Processors.newMpscPublisherProcessorDropHeadOnOverflow;
+import static io.servicetalk.concurrent.api.Processors.newPublisherProcessorDropHeadOnOverflow;
+
+/*
+ * This benchmark funnels items from 4 producer threads into a single processor, like spans reported to the zipkin
+ * HttpReporter. The subscriber requests everything upfront, so items are delivered by whichever producer thread wins
+ * the emitting lock. The "processor" parameter selects:
+ * - "dropHead": Processors.newPublisherProcessorDropHeadOnOverflow(), backed by a ConcurrentLinkedQueue;
+ * - "mpscDropHead": Processors.newMpscPublisherProcessorDropHeadOnOverflow(), backed by a bounded MPSC array queue.
+ * Run with "-prof gc" to compare allocation rates.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+@Threads(4)
+public class PublisherProcessorBenchmark {
+
+    private static final Object ITEM = new Object();
+
+    @Param({"dropHead", "mpscDropHead"})
+    private String processor;
+
+    @Nullable
+    private PublisherSource.Processor<Object, Object> stProcessor;
+    private long received;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (processor) {
+            case "dropHead":
+                stProcessor = newPublisherProcessorDropHeadOnOverflow(1024);
+                break;
+            case "mpscDropHead":
+                stProcessor = newMpscPublisherProcessorDropHeadOnOverflow(1024);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown processor: " + processor);
+        }
+        stProcessor.subscribe(new PublisherSource.Subscriber<Object>() {
+            @Override
+            public void onSubscribe(final Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(@Nullable final Object o) {
+                ++received; // only accessed while holding the emitting lock of the processor
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        assert stProcessor != null;
+        stProcessor.onComplete();
+    }
+
+    @Benchmark
+    public void onNext() {
+        assert stProcessor != null;
+        stProcessor.onNext(ITEM);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.concurrent;
+
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Executors;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/*
+ * This benchmark simulates a burst of blocking handlers offloaded to an Executor: each operation submits "tasks"
+ * tasks which block for 1ms and waits until all of them complete. The "executor" parameter selects:
+ * - "cached": Executors.newCachedThreadExecutor(), the pool used to offload blocking services by default;
+ * - "virtual": Executors.newVirtualThreadExecutor(), requires JDK 21+.
+ * The "peakThreads" counter reports the peak number of live platform threads of the JVM, which includes the carrier
+ * threads of virtual threads but not the virtual threads themselves.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class VirtualThreadExecutorBenchmark {
+
+    @Param({"cached", "virtual"})
+    private String executor;
+
+    @Param({"100", "1000"})
+    private int tasks;
+
+    private Executor stExecutor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (executor) {
+            case "cached":
+                stExecutor = Executors.newCachedThreadExecutor();
+                break;
+            case "virtual":
+                stExecutor = Executors.newVirtualThreadExecutor();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown executor: " + executor);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        stExecutor.closeAsync().toFuture().get();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class ThreadCounter {
+        private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+        public long peakThreads;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            THREAD_MX_BEAN.resetPeakThreadCount();
+            peakThreads = 0;
+        }
+
+        void update() {
+            peakThreads = THREAD_MX_BEAN.getPeakThreadCount();
+        }
+    }
+
+    @Benchmark
+    public void burst(final ThreadCounter counter) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; ++i) {
+            stExecutor.execute(() -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        if (!latch.await(10_000, MILLISECONDS)) {
+            throw new IllegalStateException("Tasks did not complete in time");
+        }
+        counter.update();
+    }
+}
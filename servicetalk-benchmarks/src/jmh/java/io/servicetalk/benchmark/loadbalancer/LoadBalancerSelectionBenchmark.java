@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.loadbalancer;
+
+import io.servicetalk.client.api.ConnectionFactory;
+import io.servicetalk.client.api.DefaultServiceDiscovererEvent;
+import io.servicetalk.client.api.LoadBalancedConnection;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.concurrent.api.Completable;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.context.api.ContextMap;
+import io.servicetalk.loadbalancer.P2CLoadBalancerFactory;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancers;
+import io.servicetalk.transport.api.TransportObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.client.api.RequestTracker.REQUEST_TRACKER_KEY;
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
+import static io.servicetalk.concurrent.api.Completable.completed;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static java.net.InetSocketAddress.createUnresolved;
+
+/*
+ * This benchmark measures the cost of a connection selection (including the request completion signals for the
+ * latency-aware load balancer) when every host already has an established connection.
+ */
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class LoadBalancerSelectionBenchmark {
+    private static final Predicate<LoadBalancedConnection> SELECTOR = __ -> true;
+
+    @Param({"roundRobin", "p2c"})
+    public String loadBalancer;
+
+    @Param({"3", "10", "100"})
+    public int hosts;
+
+    private LoadBalancer<LoadBalancedConnection> lb;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final List<ServiceDiscovererEvent<InetSocketAddress>> events = new ArrayList<>(hosts);
+        for (int i = 1; i <= hosts; ++i) {
+            events.add(new DefaultServiceDiscovererEvent<>(createUnresolved("127.0.0." + i, 0), AVAILABLE));
+        }
+        // Load balancers synchronously subscribe and will consume all events during construction.
+        lb = "p2c".equals(loadBalancer) ?
+                P2CLoadBalancerFactory.<InetSocketAddress, LoadBalancedConnection>builder("p2c").build()
+                        .newLoadBalancer(from(events), ConnFactory.INSTANCE, "benchmark") :
+                RoundRobinLoadBalancers.<InetSocketAddress, LoadBalancedConnection>builder("roundRobin").build()
+                        .newLoadBalancer(from(events), ConnFactory.INSTANCE, "benchmark");
+        // Make sure all hosts have a connection, P2C picks hosts randomly.
+        for (int i = 0; i < hosts * 100; ++i) {
+            lb.selectConnection(SELECTOR, null).toFuture().get();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        lb.closeAsync().toFuture().get();
+    }
+
+    @Benchmark
+    public LoadBalancedConnection selectConnection() throws Exception {
+        final ContextMap context = AsyncContext.context();
+        final LoadBalancedConnection connection = lb.selectConnection(SELECTOR, context).toFuture().get();
+        // Mimics what the HTTP client does around every request.
+        final RequestTracker tracker = context.remove(REQUEST_TRACKER_KEY);
+        if (tracker != null) {
+            tracker.onSuccess(tracker.beforeStart());
+        }
+        return connection;
+    }
+
+    private static final class ConnFactory implements ConnectionFactory<InetSocketAddress, LoadBalancedConnection> {
+        static final ConnFactory INSTANCE = new ConnFactory();
+
+        private ConnFactory() {
+        }
+
+        @Override
+        public Single<LoadBalancedConnection> newConnection(final InetSocketAddress inetSocketAddress,
+                                                            @Nullable final ContextMap context,
+                                                            @Nullable final TransportObserver observer) {
+            return succeeded(new LoadBalancedConnection() {
+                @Override
+                public int score() {
+                    return 0;
+                }
+
+                @Override
+                public Completable onClose() {
+                    return completed();
+                }
+
+                @Override
+                public Completable closeAsync() {
+                    return completed();
+                }
+
+                @Override
+                public Completable closeAsyncGracefully() {
+                    return completed();
+                }
+            });
+        }
+
+        @Override
+        public Completable onClose() {
+            return completed();
+        }
+
+        @Override
+        public Completable closeAsync() {
+            return completed();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.context.api.ContextMap;
+import io.servicetalk.context.api.ContextMap.Key;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.function.Supplier;
+
+import static io.servicetalk.context.api.ContextMap.Key.newIndexedKey;
+
+/*
+ * This benchmark compares ContextMap implementations backing AsyncContext for a typical request context: a tracing
+ * span, MDC state and a few other entries, all using indexed keys. The "map" parameter selects:
+ * - "copyOnWrite": CopyOnWriteContextMap, the default;
+ * - "indexed": IndexedContextMap, enabled with -Dio.servicetalk.concurrent.api.asyncContext.indexedKeys=true.
+ * Run with "-prof gc" to compare allocation rates of copy-on-write modifications.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class ContextMapBenchmark {
+    private static final Key<String> TRACING = newIndexedKey("tracing", String.class);
+    private static final Key<String> MDC = newIndexedKey("mdc", String.class);
+    private static final Key<String> AUTH = newIndexedKey("auth", String.class);
+    private static final Key<String> DEADLINE = newIndexedKey("deadline", String.class);
+    private static final Key<String> MISSING = newIndexedKey("missing", String.class);
+
+    @Param({"copyOnWrite", "indexed"})
+    private String map;
+
+    private Supplier<ContextMap> factory;
+    private ContextMap populated;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (map) {
+            case "copyOnWrite":
+                factory = CopyOnWriteContextMap::new;
+                break;
+            case "indexed":
+                factory = IndexedContextMap::new;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown map: " + map);
+        }
+        populated = populate(factory.get());
+    }
+
+    @Benchmark
+    public ContextMap putFour() {
+        return populate(factory.get());
+    }
+
+    @Benchmark
+    public void getFour(final Blackhole bh) {
+        bh.consume(populated.get(TRACING));
+        bh.consume(populated.get(MDC));
+        bh.consume(populated.get(AUTH));
+        bh.consume(populated.get(DEADLINE));
+    }
+
+    @Benchmark
+    public String getMissing() {
+        return populated.get(MISSING);
+    }
+
+    @Benchmark
+    public ContextMap copyAndPut() {
+        final ContextMap copy = populated.copy();
+        copy.put(TRACING, "child-span");
+        return copy;
+    }
+
+    private static ContextMap populate(final ContextMap contextMap) {
+        contextMap.put(TRACING, "span");
+        contextMap.put(MDC, "mdc");
+        contextMap.put(AUTH, "auth");
+        contextMap.put(DEADLINE, "deadline");
+        return contextMap;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.Cancellable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/*
+ * This benchmark measures the schedule and cancel churn of timeouts which never fire, like a request timeout in the
+ * happy path. Each thread keeps a window of "pending" scheduled timeouts and cancels the oldest one for every new
+ * timeout. The "scheduler" parameter selects:
+ * - "global": the global single threaded ScheduledThreadPoolExecutor (a heap) used by DefaultExecutor by default;
+ * - "wheel": a HashedWheelTimer with one shard per available processor (up to 4).
+ * Run with "-t" to simulate more event loop threads scheduling concurrently.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+@Threads(4)
+public class ScheduleCancelBenchmark {
+
+    @Param({"global", "wheel"})
+    private String scheduler;
+
+    @Param({"1", "10000"})
+    private int pending;
+
+    private ExecutorService jdkExecutor;
+    private HashedWheelTimer timer;
+    private Executor executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jdkExecutor = java.util.concurrent.Executors.newCachedThreadPool();
+        switch (scheduler) {
+            case "global":
+                executor = new DefaultExecutor(jdkExecutor);
+                break;
+            case "wheel":
+                timer = new HashedWheelTimer(min(4, Runtime.getRuntime().availableProcessors()), 10, MILLISECONDS,
+                        512, new DefaultThreadFactory("benchmark-timer-wheel"));
+                executor = new DefaultExecutor(jdkExecutor, timer);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scheduler: " + scheduler);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executor.closeAsync().toFuture().get();
+        if (timer != null) {
+            timer.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Window {
+        Cancellable[] cancellables;
+        int index;
+
+        @Setup(Level.Iteration)
+        public void setup(final ScheduleCancelBenchmark benchmark) {
+            cancellables = new Cancellable[benchmark.pending];
+            index = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            for (Cancellable cancellable : cancellables) {
+                if (cancellable != null) {
+                    cancellable.cancel();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Cancellable scheduleAndCancel(final Window window) {
+        final Cancellable previous = window.cancellables[window.index];
+        if (previous != null) {
+            previous.cancel();
+        }
+        final Cancellable next = executor.schedule(ScheduleCancelBenchmark::noop, 30, SECONDS);
+        window.cancellables[window.index] = next;
+        window.index = (window.index + 1) % window.cancellables.length;
+        return next;
+    }
+
+    private static void noop() {
+    }
+}
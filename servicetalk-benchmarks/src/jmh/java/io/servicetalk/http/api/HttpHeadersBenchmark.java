@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map.Entry;
+
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.DATE;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.USER_AGENT;
+
+/*
+ * This benchmark compares HttpHeaders implementations for a typical request with ~20 header fields, some of them with
+ * multiple values. The "factory" parameter selects the implementation:
+ * - "default": DefaultHttpHeadersFactory (bucketed MultiMap);
+ * - "array": ArrayHttpHeadersFactory (flat arrays with open addressing).
+ * Names passed to get/remove use a different case than the added names to exercise case-insensitive lookups.
+ * Run with "-prof gc" to compare allocation rates.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class HttpHeadersBenchmark {
+
+    private static final CharSequence[] NAMES = {
+            HOST, USER_AGENT, ACCEPT, ACCEPT_ENCODING, AUTHORIZATION, CACHE_CONTROL, CONNECTION, CONTENT_LENGTH,
+            CONTENT_TYPE, COOKIE, DATE, "x-request-id", "x-forwarded-for", "x-forwarded-for", "x-forwarded-proto",
+            "x-b3-traceid", "x-b3-spanid", "x-b3-sampled", "accept", "x-custom-header"
+    };
+    private static final CharSequence[] VALUES = {
+            "servicetalk.io", "servicetalk", "application/json", "gzip, deflate", "Bearer 0123456789abcdef",
+            "no-cache", "keep-alive", "128", "application/json", "a=b; c=d", "Tue, 15 Nov 1994 08:12:31 GMT",
+            "f81d4fae-7dec-11d0-a765-00a0c91e6bf6", "10.0.0.1", "10.0.0.2", "https", "463ac35c9f6413ad",
+            "a2fb4a1d1a96d312", "1", "text/plain", "value"
+    };
+    private static final String[] LOOKUP_NAMES = {
+            "Host", "Content-Type", "X-Forwarded-For", "X-B3-TraceId", "Accept", "X-Missing"
+    };
+
+    @Param({"default", "array"})
+    private String factory;
+
+    private HttpHeadersFactory headersFactory;
+    private HttpHeaders headers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (factory) {
+            case "default":
+                headersFactory = DefaultHttpHeadersFactory.INSTANCE;
+                break;
+            case "array":
+                headersFactory = ArrayHttpHeadersFactory.INSTANCE;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown factory: " + factory);
+        }
+        headers = newPopulatedHeaders();
+    }
+
+    @Benchmark
+    public HttpHeaders add() {
+        return newPopulatedHeaders();
+    }
+
+    @Benchmark
+    public void get(final Blackhole bh) {
+        for (String name : LOOKUP_NAMES) {
+            bh.consume(headers.get(name));
+        }
+    }
+
+    @Benchmark
+    public int iterate() {
+        int length = 0;
+        for (Entry<CharSequence, CharSequence> entry : headers) {
+            length += entry.getKey().length() + entry.getValue().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public HttpHeaders addAndRemove() {
+        final HttpHeaders result = newPopulatedHeaders();
+        for (String name : LOOKUP_NAMES) {
+            result.remove(name);
+        }
+        return result;
+    }
+
+    private HttpHeaders newPopulatedHeaders() {
+        final HttpHeaders result = headersFactory.newHeaders();
+        for (int i = 0; i < NAMES.length; ++i) {
+            result.add(NAMES[i], VALUES[i]);
+        }
+        return result;
+    }
+}
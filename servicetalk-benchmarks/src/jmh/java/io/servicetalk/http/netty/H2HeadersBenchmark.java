@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.HttpHeaders;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersDecoder;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersEncoder;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Headers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.USER_AGENT;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_JSON;
+import static io.servicetalk.http.api.HttpHeaderValues.GZIP;
+import static io.servicetalk.http.netty.H2ToStH1Utils.h1HeadersToH2Headers;
+
+/*
+ * This benchmark measures the conversion of ServiceTalk request headers to HTTP/2 headers (as done for every outbound
+ * stream) and a full round-trip through the HPACK encoder and decoder. The "headers" parameter selects the storage:
+ * - "h1": DefaultHttpHeadersFactory, headers are copied and lowercased during the conversion;
+ * - "hashed": H2HeadersFactory before it switched to FlatHttp2Headers (DefaultHttp2Headers underneath);
+ * - "flat": H2HeadersFactory (FlatHttp2Headers underneath).
+ * Run with "-prof gc" to compare allocation rates.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class H2HeadersBenchmark {
+
+    private static final int STREAM_ID = 3;
+
+    @Param({"h1", "hashed", "flat"})
+    private String headers;
+
+    private DefaultHttp2HeadersEncoder encoder;
+    private DefaultHttp2HeadersDecoder decoder;
+    private ByteBuf buffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        encoder = new DefaultHttp2HeadersEncoder();
+        decoder = new DefaultHttp2HeadersDecoder(true);
+        buffer = UnpooledByteBufAllocator.DEFAULT.heapBuffer(1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buffer.release();
+    }
+
+    @Benchmark
+    public Http2Headers toH2Headers() {
+        return newH2Headers();
+    }
+
+    @Benchmark
+    public HttpHeaders roundTrip() throws Http2Exception {
+        buffer.clear();
+        encoder.encodeHeaders(STREAM_ID, newH2Headers(), buffer);
+        return new NettyH2HeadersToHttpHeaders(decoder.decodeHeaders(STREAM_ID, buffer), true, false);
+    }
+
+    private Http2Headers newH2Headers() {
+        final HttpHeaders h1Headers = newHeaders();
+        h1Headers.set(CONTENT_TYPE, APPLICATION_JSON)
+                .set(CONTENT_LENGTH, "128")
+                .set(ACCEPT, APPLICATION_JSON)
+                .set(ACCEPT_ENCODING, GZIP)
+                .set(USER_AGENT, "servicetalk")
+                .set("x-request-id", "f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        final Http2Headers h2Headers = h1HeadersToH2Headers(h1Headers);
+        h2Headers.method("POST");
+        h2Headers.scheme("https");
+        h2Headers.path("/api/v1/resource");
+        h2Headers.authority("servicetalk.io");
+        return h2Headers;
+    }
+
+    private HttpHeaders newHeaders() {
+        switch (headers) {
+            case "h1":
+                return DefaultHttpHeadersFactory.INSTANCE.newHeaders();
+            case "hashed":
+                return new NettyH2HeadersToHttpHeaders(new DefaultHttp2Headers(true, 16), true, false);
+            case "flat":
+                return H2HeadersFactory.INSTANCE.newHeaders();
+            default:
+                throw new IllegalArgumentException("Unknown headers: " + headers);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.transport.netty.internal.NoopTransportObserver.NoopStreamObserver;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferUtils.release;
+import static io.servicetalk.transport.netty.internal.CloseHandler.UNSUPPORTED_PROTOCOL_CLOSE_HANDLER;
+
+/*
+ * This benchmark compares reading of HTTP/2 DATA frames when the data is copied to unpooled memory (default) vs when
+ * pooled memory is passed to the user as a releasable Buffer (see H2ProtocolConfigBuilder#pooledInboundBuffers).
+ * Run with "-prof gc" to compare allocation rates.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class H2InboundDataBenchmark {
+
+    @Param({"256", "16384"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean pooled;
+
+    private byte[] data;
+
+    private EmbeddedChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        channel = new EmbeddedChannel(new H2ToStH1ServerDuplexHandler(DEFAULT_ALLOCATOR,
+                DefaultHttpHeadersFactory.INSTANCE, pooled, UNSUPPORTED_PROTOCOL_CLOSE_HANDLER,
+                NoopStreamObserver.INSTANCE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int readDataFrame() {
+        // Simulates a socket read into pooled memory
+        final ByteBuf content = PooledByteBufAllocator.DEFAULT.directBuffer(size).writeBytes(data);
+        channel.writeInbound(new DefaultHttp2DataFrame(content, false));
+
+        final Buffer buffer = channel.readInbound();
+        final int readableBytes = buffer.readableBytes();
+        release(buffer);
+        return readableBytes;
+    }
+}
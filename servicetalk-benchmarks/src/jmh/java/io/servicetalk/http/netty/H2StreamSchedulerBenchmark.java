@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.concurrent.Cancellable;
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.concurrent.api.Completable;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.http.api.StreamingHttpClient;
+import io.servicetalk.http.netty.H2ProtocolConfig.StreamScheduler;
+import io.servicetalk.transport.api.ServerContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h2;
+import static java.net.InetAddress.getLoopbackAddress;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Latency of small HTTP/2 responses which share a connection with large streaming responses.
+ * <p>
+ * {@value #BULK_STREAMS} large downloads of {@value #BULK_CHUNKS} x {@value #BULK_CHUNK_SIZE} bytes keep running
+ * on the connection while the benchmark sends small requests. Select the stream scheduler of the server with
+ * {@code -p scheduler=uniform|weightedFair|deficitRoundRobin}. Compare the percentiles of the sample-time results.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(MICROSECONDS)
+public class H2StreamSchedulerBenchmark {
+    static {
+        AsyncContext.disable(); // reduce noise in benchmarks.
+    }
+
+    private static final int BULK_STREAMS = 4;
+    private static final int BULK_CHUNKS = 256;
+    private static final int BULK_CHUNK_SIZE = 64 * 1024;
+    private static final int SMALL_PAYLOAD_SIZE = 64;
+
+    @Param({"uniform", "weightedFair", "deficitRoundRobin"})
+    public String scheduler;
+
+    private ServerContext serverContext;
+    private StreamingHttpClient client;
+    private BlockingHttpClient blockingClient;
+    private final List<Cancellable> bulkDownloads = new ArrayList<>(BULK_STREAMS);
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final Buffer bulkChunk = DEFAULT_ALLOCATOR.newBuffer(BULK_CHUNK_SIZE).writerIndex(BULK_CHUNK_SIZE);
+        final Buffer smallPayload = DEFAULT_ALLOCATOR.newBuffer(SMALL_PAYLOAD_SIZE).writerIndex(SMALL_PAYLOAD_SIZE);
+        serverContext = HttpServers.forAddress(new InetSocketAddress(getLoopbackAddress(), 0))
+                .protocols(h2().streamScheduler(streamScheduler(scheduler)).build())
+                .executionStrategy(offloadNone())
+                .listenStreamingAndAwait((ctx, request, responseFactory) -> succeeded(
+                        "/bulk".equals(request.path()) ?
+                                responseFactory.ok().payloadBody(Publisher.range(0, BULK_CHUNKS)
+                                        .map(__ -> bulkChunk.duplicate())) :
+                                responseFactory.ok().payloadBody(Publisher.from(smallPayload.duplicate()))));
+        // HTTP/2 multiplexes all requests on one connection, so small and bulk responses compete for it.
+        client = HttpClients.forResolvedAddress(serverContext.listenAddress())
+                .protocols(h2().build())
+                .executionStrategy(offloadNone())
+                .buildStreaming();
+        blockingClient = client.asBlockingClient();
+        blockingClient.request(blockingClient.get("/small"));   // establish the connection
+
+        for (int i = 0; i < BULK_STREAMS; ++i) {
+            bulkDownloads.add(Completable.defer(() -> client.request(client.get("/bulk"))
+                            .flatMapCompletable(response -> response.payloadBody().ignoreElements()))
+                    .repeat(__ -> true)
+                    .ignoreElements()
+                    .subscribe());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            bulkDownloads.forEach(Cancellable::cancel);
+            client.close();
+        } finally {
+            serverContext.close();
+        }
+    }
+
+    @Benchmark
+    public HttpResponse smallResponse() throws Exception {
+        return blockingClient.request(blockingClient.get("/small"));
+    }
+
+    private static StreamScheduler streamScheduler(final String scheduler) {
+        switch (scheduler) {
+            case "uniform":
+                return H2StreamSchedulers.uniform();
+            case "weightedFair":
+                return H2StreamSchedulers.weightedFair();
+            case "deficitRoundRobin":
+                return H2StreamSchedulers.deficitRoundRobin();
+            default:
+                throw new IllegalArgumentException("Unknown scheduler: " + scheduler);
+        }
+    }
+}
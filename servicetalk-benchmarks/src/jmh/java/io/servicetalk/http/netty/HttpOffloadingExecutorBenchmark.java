@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Executors;
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.transport.api.IoExecutor;
+import io.servicetalk.transport.api.ServerContext;
+import io.servicetalk.transport.netty.internal.NettyIoExecutors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static java.net.InetAddress.getLoopbackAddress;
+
+/*
+ * This benchmark measures HTTP/1.1 request-response round trips over the loopback interface with a server which
+ * offloads every request from its event loops to an Executor, using the default execution strategy. The client does
+ * not offload. The "executor" parameter selects the server Executor:
+ * - "cached": Executors.newCachedThreadExecutor(), a ThreadPoolExecutor with a single shared queue;
+ * - "workStealing": Executors.newWorkStealingExecutor(), with one queue per worker and event loop affinity.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class HttpOffloadingExecutorBenchmark {
+    static {
+        AsyncContext.disable(); // reduce noise in benchmarks.
+    }
+
+    private static final int IO_THREADS = 4;
+
+    @Param({"cached", "workStealing"})
+    public String executor;
+
+    private IoExecutor ioExecutor;
+    private Executor serverExecutor;
+    private ServerContext serverContext;
+    private BlockingHttpClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        switch (executor) {
+            case "cached":
+                serverExecutor = Executors.newCachedThreadExecutor();
+                break;
+            case "workStealing":
+                serverExecutor = Executors.newWorkStealingExecutor();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown executor: " + executor);
+        }
+        ioExecutor = NettyIoExecutors.createIoExecutor(IO_THREADS, "benchmark-io");
+        serverContext = HttpServers.forAddress(new InetSocketAddress(getLoopbackAddress(), 0))
+                .ioExecutor(ioExecutor)
+                .executor(serverExecutor)
+                .listenAndAwait((ctx, request, responseFactory) ->
+                        succeeded(responseFactory.ok().payloadBody(request.payloadBody())));
+        client = HttpClients.forResolvedAddress(serverContext.listenAddress())
+                .ioExecutor(ioExecutor)
+                .executionStrategy(offloadNone())
+                .buildBlocking();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            client.close();
+        } finally {
+            try {
+                serverContext.close();
+            } finally {
+                try {
+                    ioExecutor.closeAsync().toFuture().get();
+                } finally {
+                    serverExecutor.closeAsync().toFuture().get();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(16)
+    public HttpResponse concurrentRoundTrips() throws Exception {
+        return client.request(client.get("/"));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpRequestMetaData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferUtils.getByteBufAllocator;
+import static io.servicetalk.http.api.HttpRequestMethod.GET;
+import static io.servicetalk.transport.netty.internal.CloseHandler.UNSUPPORTED_PROTOCOL_CLOSE_HANDLER;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/*
+ * This benchmark measures decoding of an HTTP/1.1 request with a typical set of header fields, the request-decoder
+ * counterpart of HttpResponseDecoderBenchmark. Header field-names are written in:
+ * - "canonical" case, as most browsers and HTTP/1.x clients do (like "Content-Type");
+ * - "lowercase", as sent by clients which share header constants with HTTP/2;
+ * - "custom", names which are not well-known and always have to be sliced from the inbound buffer.
+ * Compare results with the commit before the SWAR scanning was introduced to see the difference, and run with
+ * "-prof gc" to compare allocation rates.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class HttpRequestDecoderBenchmark {
+
+    private static final String[][] HEADERS = {
+            {"Host", "servicetalk.io"},
+            {"User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15"},
+            {"Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"},
+            {"Accept-Language", "en-US,en;q=0.5"},
+            {"Accept-Encoding", "gzip, deflate, br"},
+            {"Connection", "keep-alive"},
+            {"Cookie", "session=0123456789abcdef; theme=dark"},
+            {"Cache-Control", "no-cache"},
+            {"If-None-Match", "\"33a64df551425fcc55e4d42a148795d9f25f89d4\""},
+            {"Content-Length", "0"},
+    };
+
+    @Param({"canonical", "lowercase", "custom"})
+    private String names;
+
+    private ByteBuf requestByteBuf;
+    private EmbeddedChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final StringBuilder request = new StringBuilder(512).append("GET /api/v1/resource?id=42 HTTP/1.1\r\n");
+        for (String[] header : HEADERS) {
+            final String name;
+            switch (names) {
+                case "canonical":
+                    name = header[0];
+                    break;
+                case "lowercase":
+                    name = header[0].toLowerCase(Locale.ROOT);
+                    break;
+                case "custom":
+                    name = "X-" + header[0];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown names: " + names);
+            }
+            request.append(name).append(": ").append(header[1]).append("\r\n");
+        }
+        request.append("\r\n");
+        requestByteBuf = getByteBufAllocator(DEFAULT_ALLOCATOR).directBuffer(request.length())
+                .writeBytes(request.toString().getBytes(US_ASCII));
+
+        channel = new EmbeddedChannel(new HttpRequestDecoder(new NoopQueue<>(),
+                getByteBufAllocator(DEFAULT_ALLOCATOR), DefaultHttpHeadersFactory.INSTANCE, 8192, 8192,
+                false, false, UNSUPPORTED_PROTOCOL_CLOSE_HANDLER));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int decode() {
+        channel.writeInbound(requestByteBuf.duplicate());
+
+        final HttpRequestMetaData request = channel.readInbound();
+        final HttpHeaders trailers = channel.readInbound();
+
+        if (request.method() != GET) {
+            throw new IllegalStateException("Unexpected method: " + request.method());
+        }
+
+        return request.headers().size() + trailers.size();
+    }
+
+    private static final class NoopQueue<T> extends ArrayDeque<T> {
+        private static final long serialVersionUID = 6294278046474478291L;
+
+        @Override
+        public boolean add(final T t) {
+            return true;  // Methods are only needed to decode responses, don't accumulate them
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.transport.api.IoExecutor;
+import io.servicetalk.transport.api.ServerContext;
+import io.servicetalk.transport.netty.internal.NettyIoExecutors;
+import io.servicetalk.transport.netty.internal.NettyIoThreadFactory;
+
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.transport.netty.internal.NettyIoExecutors.fromNettyEventLoopGroup;
+import static java.net.InetAddress.getLoopbackAddress;
+
+/**
+ * End-to-end HTTP/1.1 request-response round trips over the loopback interface using different transports.
+ * <p>
+ * Select the transport with {@code -p transport=nio|native|io_uring}, where {@code native} is the transport picked by
+ * default (epoll on Linux and kqueue on macOS). {@code io_uring} requires a recent Linux kernel.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class HttpTransportBenchmark {
+    static {
+        AsyncContext.disable(); // reduce noise in benchmarks.
+    }
+
+    private static final int IO_THREADS = 2;
+
+    @Param({"nio", "native", "io_uring"})
+    public String transport;
+
+    @Param({"16", "8192"})
+    public int payloadSize;
+
+    private IoExecutor ioExecutor;
+    private ServerContext serverContext;
+    private BlockingHttpClient client;
+    private Buffer payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ioExecutor = newIoExecutor(transport);
+        payload = DEFAULT_ALLOCATOR.fromAscii(new String(new char[payloadSize]).replace('\0', 'a'));
+        serverContext = HttpServers.forAddress(new InetSocketAddress(getLoopbackAddress(), 0))
+                .ioExecutor(ioExecutor)
+                .executionStrategy(offloadNone())
+                .listenAndAwait((ctx, request, responseFactory) ->
+                        succeeded(responseFactory.ok().payloadBody(request.payloadBody())));
+        client = HttpClients.forResolvedAddress(serverContext.listenAddress())
+                .ioExecutor(ioExecutor)
+                .executionStrategy(offloadNone())
+                .buildBlocking();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            client.close();
+        } finally {
+            try {
+                serverContext.close();
+            } finally {
+                ioExecutor.closeAsync().toFuture().get();
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public HttpResponse roundTrip() throws Exception {
+        return client.request(client.post("/").payloadBody(payload.duplicate()));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public HttpResponse concurrentRoundTrips() throws Exception {
+        return client.request(client.post("/").payloadBody(payload.duplicate()));
+    }
+
+    private static IoExecutor newIoExecutor(final String transport) {
+        final String threadNamePrefix = "benchmark-" + transport;
+        switch (transport) {
+            case "nio":
+                return fromNettyEventLoopGroup(new NioEventLoopGroup(IO_THREADS,
+                        new NettyIoThreadFactory(threadNamePrefix)), true);
+            case "native":
+                return NettyIoExecutors.createIoExecutor(IO_THREADS, threadNamePrefix);
+            case "io_uring":
+                return NettyIoExecutors.createIoUringIoExecutor(IO_THREADS, threadNamePrefix);
+            default:
+                throw new IllegalArgumentException("Unknown transport: " + transport);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 
+import java.io.File;
 import javax.annotation.Nullable;
 
 import static io.netty.buffer.Unpooled.EMPTY_BUFFER;
@@ -89,8 +90,8 @@ public final class BufferUtils {
         if (buffer instanceof NettyBuffer) {
             return ((NettyBuffer) buffer).buffer;
         }
-        if (buffer instanceof WrappedBuffer) {
-            return toByteBufNoThrow(((WrappedBuffer) buffer).buffer);
+        if (buffer instanceof DelegatingBuffer) {
+            return toByteBufNoThrow(((DelegatingBuffer) buffer).delegate());
         }
         if (buffer instanceof EmptyBuffer) {
             return EMPTY_BUFFER;
@@ -119,6 +120,106 @@ public final class BufferUtils {
         return new NettyBuffer<>(buffer);
     }
 
+    /**
+     * Return a releasable {@link Buffer} for the given reference counted {@link ByteBuf}.
+     * <p>
+     * Ownership of one reference of the passed {@code buffer} is transferred to the returned {@link Buffer} and has to
+     * be given back via {@link #release(Buffer)} once the data is consumed. This allows to pass pooled memory to the
+     * user without copying it.
+     * <p>
+     * The returned {@link Buffer} also implements {@link AutoCloseable}, closing it is equivalent to
+     * {@link #release(Buffer)}. Consumers which do not depend on this module use this to copy the data out of pooled
+     * memory and release it when they need to keep the data beyond the current signal (e.g. when aggregating).
+     *
+     * @param buffer the buffer to wrap.
+     * @return the created buffer.
+     */
+    public static Buffer newReleasableBufferFrom(ByteBuf buffer) {
+        return new ReleasableNettyBuffer(buffer);
+    }
+
+    /**
+     * Return a read-only {@link Buffer} which represents a region of the given {@link File}.
+     * <p>
+     * The content is memory-mapped only when accessed, transports may transfer the region to a socket directly instead,
+     * see {@link FileRegionBuffer}. The file must not be modified while the returned {@link Buffer} is in use.
+     *
+     * @param file the {@link File} to read.
+     * @param position the position in the file where the region starts.
+     * @param count the number of bytes in the region.
+     * @return the created buffer.
+     */
+    public static Buffer newFileRegionBuffer(File file, long position, int count) {
+        return new FileRegionBuffer(file, position, count);
+    }
+
+    /**
+     * Determines if the passed {@link Buffer} was created by {@link #newReleasableBufferFrom(ByteBuf)} and has to be
+     * released after use.
+     *
+     * @param buffer the {@link Buffer} to check.
+     * @return {@code true} if the passed {@link Buffer} has to be released via {@link #release(Buffer)}.
+     */
+    public static boolean isReleasable(Buffer buffer) {
+        return unwrapReleasable(buffer) != null;
+    }
+
+    /**
+     * Releases the passed {@link Buffer} if it was created by {@link #newReleasableBufferFrom(ByteBuf)}, otherwise
+     * this method is a noop.
+     *
+     * @param buffer the {@link Buffer} to release.
+     * @return {@code true} if and only if the reference count of the underlying memory became {@code 0} and the memory
+     * was deallocated.
+     */
+    public static boolean release(Buffer buffer) {
+        final ReleasableNettyBuffer releasable = unwrapReleasable(buffer);
+        return releasable != null && releasable.release();
+    }
+
+    /**
+     * Increments the reference count of the passed {@link Buffer} if it was created by
+     * {@link #newReleasableBufferFrom(ByteBuf)}, otherwise this method is a noop. Each call must be balanced with a
+     * call to {@link #release(Buffer)}.
+     *
+     * @param buffer the {@link Buffer} to retain.
+     * @return the passed {@code buffer}.
+     */
+    public static Buffer retain(Buffer buffer) {
+        final ReleasableNettyBuffer releasable = unwrapReleasable(buffer);
+        if (releasable != null) {
+            releasable.retain();
+        }
+        return buffer;
+    }
+
+    /**
+     * Records the current access location of the passed {@link Buffer} for debugging purposes if it was created by
+     * {@link #newReleasableBufferFrom(ByteBuf)}, otherwise this method is a noop.
+     *
+     * @param buffer the {@link Buffer} to touch.
+     * @param hint an additional information to record in case a leak is detected.
+     * @return the passed {@code buffer}.
+     */
+    public static Buffer touch(Buffer buffer, Object hint) {
+        final ReleasableNettyBuffer releasable = unwrapReleasable(buffer);
+        if (releasable != null) {
+            releasable.touch(hint);
+        }
+        return buffer;
+    }
+
+    @Nullable
+    private static ReleasableNettyBuffer unwrapReleasable(Buffer buffer) {
+        if (buffer instanceof ReleasableNettyBuffer) {
+            return (ReleasableNettyBuffer) buffer;
+        }
+        if (buffer instanceof WrappedBuffer) {
+            return unwrapReleasable(((WrappedBuffer) buffer).buffer);
+        }
+        return null;
+    }
+
     /**
      * Calculate the max bytes length of UTF8 character sequence.
      * @param data the data to be encoded in UTF8.
@@ -0,0 +1,815 @@
+/*
+ * Copyright © 2018 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.buffer.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.ByteProcessor;
+
+import io.netty.util.internal.StringUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A {@link Buffer} which delegates all calls to another {@link Buffer}.
+ */
+abstract class DelegatingBuffer implements Buffer {
+
+    /**
+     * Returns the {@link Buffer} to delegate calls to.
+     *
+     * @return the {@link Buffer} to delegate calls to.
+     */
+    abstract Buffer delegate();
+
+    @Override
+    public int capacity() {
+        return delegate().capacity();
+    }
+
+    @Override
+    public Buffer capacity(int newCapacity) {
+        delegate().capacity(newCapacity);
+        return this;
+    }
+
+    @Override
+    public int maxCapacity() {
+        return delegate().maxCapacity();
+    }
+
+    @Override
+    public int readerIndex() {
+        return delegate().readerIndex();
+    }
+
+    @Override
+    public Buffer readerIndex(int readerIndex) {
+        delegate().readerIndex(readerIndex);
+        return this;
+    }
+
+    @Override
+    public int writerIndex() {
+        return delegate().writerIndex();
+    }
+
+    @Override
+    public Buffer writerIndex(int writerIndex) {
+        delegate().writerIndex(writerIndex);
+        return this;
+    }
+
+    @Override
+    public int readableBytes() {
+        return delegate().readableBytes();
+    }
+
+    @Override
+    public int writableBytes() {
+        return delegate().writableBytes();
+    }
+
+    @Override
+    public int maxWritableBytes() {
+        return delegate().maxWritableBytes();
+    }
+
+    @Override
+    public Buffer ensureWritable(int minWritableBytes) {
+        delegate().ensureWritable(minWritableBytes);
+        return this;
+    }
+
+    @Override
+    public int ensureWritable(int minWritableBytes, boolean force) {
+        return delegate().ensureWritable(minWritableBytes, force);
+    }
+
+    @Override
+    public Buffer clear() {
+        delegate().clear();
+        return this;
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return delegate().getBoolean(index);
+    }
+
+    @Override
+    public byte getByte(int index) {
+        return delegate().getByte(index);
+    }
+
+    @Override
+    public short getUnsignedByte(int index) {
+        return delegate().getUnsignedByte(index);
+    }
+
+    @Override
+    public short getShort(int index) {
+        return delegate().getShort(index);
+    }
+
+    @Override
+    public short getShortLE(int index) {
+        return delegate().getShortLE(index);
+    }
+
+    @Override
+    public int getUnsignedShort(int index) {
+        return delegate().getUnsignedShort(index);
+    }
+
+    @Override
+    public int getUnsignedShortLE(int index) {
+        return delegate().getUnsignedShortLE(index);
+    }
+
+    @Override
+    public int getMedium(int index) {
+        return delegate().getMedium(index);
+    }
+
+    @Override
+    public int getMediumLE(int index) {
+        return delegate().getMediumLE(index);
+    }
+
+    @Override
+    public int getUnsignedMedium(int index) {
+        return delegate().getUnsignedMedium(index);
+    }
+
+    @Override
+    public int getUnsignedMediumLE(int index) {
+        return delegate().getUnsignedMediumLE(index);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return delegate().getInt(index);
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        return delegate().getIntLE(index);
+    }
+
+    @Override
+    public long getUnsignedInt(int index) {
+        return delegate().getUnsignedInt(index);
+    }
+
+    @Override
+    public long getUnsignedIntLE(int index) {
+        return delegate().getUnsignedIntLE(index);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return delegate().getLong(index);
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        return delegate().getLongLE(index);
+    }
+
+    @Override
+    public char getChar(int index) {
+        return delegate().getChar(index);
+    }
+
+    @Override
+    public float getFloat(int index) {
+        return delegate().getFloat(index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return delegate().getDouble(index);
+    }
+
+    @Override
+    public Buffer getBytes(int index, Buffer dst) {
+        delegate().getBytes(index, dst);
+        return this;
+    }
+
+    @Override
+    public Buffer getBytes(int index, Buffer dst, int length) {
+        delegate().getBytes(index, dst, length);
+        return this;
+    }
+
+    @Override
+    public Buffer getBytes(int index, Buffer dst, int dstIndex, int length) {
+        delegate().getBytes(index, dst, dstIndex, length);
+
+        return this;
+    }
+
+    @Override
+    public Buffer getBytes(int index, byte[] dst) {
+        delegate().getBytes(index, dst);
+        return this;
+    }
+
+    @Override
+    public Buffer getBytes(int index, byte[] dst, int dstIndex, int length) {
+        delegate().getBytes(index, dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public Buffer getBytes(int index, ByteBuffer dst) {
+        delegate().getBytes(index, dst);
+        return this;
+    }
+
+    @Override
+    public Buffer setBoolean(int index, boolean value) {
+        delegate().setBoolean(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setByte(int index, int value) {
+        delegate().setByte(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setShort(int index, int value) {
+        delegate().setShort(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setShortLE(int index, int value) {
+        delegate().setShortLE(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setMedium(int index, int value) {
+        delegate().setMedium(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setMediumLE(int index, int value) {
+        delegate().setMediumLE(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setInt(int index, int value) {
+        delegate().setInt(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setIntLE(int index, int value) {
+        delegate().setIntLE(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setLong(int index, long value) {
+        delegate().setLong(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setLongLE(int index, long value) {
+        delegate().setLongLE(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setChar(int index, int value) {
+        delegate().setChar(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setFloat(int index, float value) {
+        delegate().setFloat(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setDouble(int index, double value) {
+        delegate().setDouble(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer setBytes(int index, Buffer src) {
+        delegate().setBytes(index, src);
+        return this;
+    }
+
+    @Override
+    public Buffer setBytes(int index, Buffer src, int length) {
+        delegate().setBytes(index, src, length);
+        return this;
+    }
+
+    @Override
+    public Buffer setBytes(int index, Buffer src, int srcIndex, int length) {
+        delegate().setBytes(index, src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public Buffer setBytes(int index, byte[] src) {
+        delegate().setBytes(index, src);
+        return this;
+    }
+
+    @Override
+    public Buffer setBytes(int index, byte[] src, int srcIndex, int length) {
+        delegate().setBytes(index, src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public Buffer setBytes(int index, ByteBuffer src) {
+        delegate().setBytes(index, src);
+        return this;
+    }
+
+    @Override
+    public int setBytes(int index, InputStream src, int length) throws IOException {
+        return delegate().setBytes(index, src, length);
+    }
+
+    @Override
+    public int setBytesUntilEndStream(int index, InputStream src, int chunkSize) throws IOException {
+        return delegate().setBytesUntilEndStream(index, src, chunkSize);
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return delegate().readBoolean();
+    }
+
+    @Override
+    public byte readByte() {
+        return delegate().readByte();
+    }
+
+    @Override
+    public short readUnsignedByte() {
+        return delegate().readUnsignedByte();
+    }
+
+    @Override
+    public short readShort() {
+        return delegate().readShort();
+    }
+
+    @Override
+    public short readShortLE() {
+        return delegate().readShortLE();
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        return delegate().readUnsignedShort();
+    }
+
+    @Override
+    public int readUnsignedShortLE() {
+        return delegate().readUnsignedShortLE();
+    }
+
+    @Override
+    public int readMedium() {
+        return delegate().readMedium();
+    }
+
+    @Override
+    public int readMediumLE() {
+        return delegate().readMediumLE();
+    }
+
+    @Override
+    public int readUnsignedMedium() {
+        return delegate().readUnsignedMedium();
+    }
+
+    @Override
+    public int readUnsignedMediumLE() {
+        return delegate().readUnsignedMediumLE();
+    }
+
+    @Override
+    public int readInt() {
+        return delegate().readInt();
+    }
+
+    @Override
+    public int readIntLE() {
+        return delegate().readIntLE();
+    }
+
+    @Override
+    public long readUnsignedInt() {
+        return delegate().readUnsignedInt();
+    }
+
+    @Override
+    public long readUnsignedIntLE() {
+        return delegate().readUnsignedIntLE();
+    }
+
+    @Override
+    public long readLong() {
+        return delegate().readLong();
+    }
+
+    @Override
+    public long readLongLE() {
+        return delegate().readLongLE();
+    }
+
+    @Override
+    public char readChar() {
+        return delegate().readChar();
+    }
+
+    @Override
+    public float readFloat() {
+        return delegate().readFloat();
+    }
+
+    @Override
+    public double readDouble() {
+        return delegate().readDouble();
+    }
+
+    @Override
+    public Buffer readSlice(int length) {
+        return delegate().readSlice(length);
+    }
+
+    @Override
+    public Buffer readBytes(int length) {
+        return delegate().readBytes(length);
+    }
+
+    @Override
+    public Buffer readBytes(Buffer dst) {
+        delegate().readBytes(dst);
+        return this;
+    }
+
+    @Override
+    public Buffer readBytes(Buffer dst, int length) {
+        delegate().readBytes(dst, length);
+        return this;
+    }
+
+    @Override
+    public Buffer readBytes(Buffer dst, int dstIndex, int length) {
+        delegate().readBytes(dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public Buffer readBytes(byte[] dst) {
+        delegate().readBytes(dst);
+        return this;
+    }
+
+    @Override
+    public Buffer readBytes(byte[] dst, int dstIndex, int length) {
+        delegate().readBytes(dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public Buffer readBytes(ByteBuffer dst) {
+        delegate().readBytes(dst);
+        return this;
+    }
+
+    @Override
+    public Buffer skipBytes(int length) {
+        delegate().skipBytes(length);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBoolean(boolean value) {
+        delegate().writeBoolean(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeByte(int value) {
+        delegate().writeByte(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeShort(int value) {
+        delegate().writeShort(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeShortLE(int value) {
+        delegate().writeShortLE(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeMedium(int value) {
+        delegate().writeMedium(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeMediumLE(int value) {
+        delegate().writeMediumLE(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeInt(int value) {
+        delegate().writeInt(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeIntLE(int value) {
+        delegate().writeIntLE(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeLong(long value) {
+        delegate().writeLong(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeLongLE(long value) {
+        delegate().writeLongLE(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeChar(int value) {
+        delegate().writeChar(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeFloat(float value) {
+        delegate().writeFloat(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeDouble(double value) {
+        delegate().writeDouble(value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(Buffer src) {
+        delegate().writeBytes(src);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(Buffer src, int length) {
+        delegate().writeBytes(src, length);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(Buffer src, int srcIndex, int length) {
+        delegate().writeBytes(src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(byte[] src) {
+        delegate().writeBytes(src);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(byte[] src, int srcIndex, int length) {
+        delegate().writeBytes(src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(ByteBuffer src) {
+        delegate().writeBytes(src);
+        return this;
+    }
+
+    @Override
+    public int writeBytes(InputStream src, int length) throws IOException {
+        return delegate().writeBytes(src, length);
+    }
+
+    @Override
+    public int writeBytesUntilEndStream(InputStream src, int chunkSize) throws IOException {
+        return delegate().writeBytesUntilEndStream(src, chunkSize);
+    }
+
+    @Override
+    public Buffer writeAscii(CharSequence seq) {
+        delegate().writeAscii(seq);
+        return this;
+    }
+
+    @Override
+    public Buffer writeUtf8(CharSequence seq) {
+        delegate().writeUtf8(seq);
+        return this;
+    }
+
+    @Override
+    public Buffer writeUtf8(CharSequence seq, int ensureWritable) {
+        delegate().writeUtf8(seq, ensureWritable);
+        return this;
+    }
+
+    @Override
+    public Buffer writeCharSequence(CharSequence seq, Charset charset) {
+        delegate().writeCharSequence(seq, charset);
+        return this;
+    }
+
+    @Override
+    public int indexOf(int fromIndex, int toIndex, byte value) {
+        return delegate().indexOf(fromIndex, toIndex, value);
+    }
+
+    @Override
+    public int bytesBefore(byte value) {
+        return delegate().bytesBefore(value);
+    }
+
+    @Override
+    public int bytesBefore(int length, byte value) {
+        return delegate().bytesBefore(length, value);
+    }
+
+    @Override
+    public int bytesBefore(int index, int length, byte value) {
+        return delegate().bytesBefore(index, length, value);
+    }
+
+    @Override
+    public Buffer copy() {
+        return delegate().copy();
+    }
+
+    @Override
+    public Buffer copy(int index, int length) {
+        return delegate().copy(index, length);
+    }
+
+    @Override
+    public Buffer slice() {
+        return delegate().slice();
+    }
+
+    @Override
+    public Buffer slice(int index, int length) {
+        return delegate().slice(index, length);
+    }
+
+    @Override
+    public Buffer duplicate() {
+        return delegate().duplicate();
+    }
+
+    @Override
+    public int nioBufferCount() {
+        return delegate().nioBufferCount();
+    }
+
+    @Override
+    public ByteBuffer toNioBuffer() {
+        return delegate().toNioBuffer();
+    }
+
+    @Override
+    public ByteBuffer toNioBuffer(int index, int length) {
+        return delegate().toNioBuffer(index, length);
+    }
+
+    @Override
+    public ByteBuffer[] toNioBuffers() {
+        return delegate().toNioBuffers();
+    }
+
+    @Override
+    public ByteBuffer[] toNioBuffers(int index, int length) {
+        return delegate().toNioBuffers(index, length);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return delegate().isReadOnly();
+    }
+
+    @Override
+    public Buffer asReadOnly() {
+        return delegate().asReadOnly();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return delegate().isDirect();
+    }
+
+    @Override
+    public boolean hasArray() {
+        return delegate().hasArray();
+    }
+
+    @Override
+    public byte[] array() {
+        return delegate().array();
+    }
+
+    @Override
+    public int arrayOffset() {
+        return delegate().arrayOffset();
+    }
+
+    @Override
+    public String toString(Charset charset) {
+        return delegate().toString(charset);
+    }
+
+    @Override
+    public String toString(int index, int length, Charset charset) {
+        return delegate().toString(index, length, charset);
+    }
+
+    @Override
+    public String toString() {
+        return StringUtil.simpleClassName(this) + '(' + delegate().toString() + ')';
+    }
+
+    @Override
+    public int forEachByte(ByteProcessor processor) {
+        return delegate().forEachByte(processor);
+    }
+
+    @Override
+    public int forEachByte(int index, int length, ByteProcessor processor) {
+        return delegate().forEachByte(index, length, processor);
+    }
+
+    @Override
+    public int forEachByteDesc(ByteProcessor processor) {
+        return delegate().forEachByteDesc(processor);
+    }
+
+    @Override
+    public int forEachByteDesc(int index, int length, ByteProcessor processor) {
+        return delegate().forEachByteDesc(index, length, processor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return delegate().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate().hashCode();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.buffer.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A read-only {@link Buffer} which represents a region of a file.
+ * <p>
+ * The content is memory-mapped lazily, when it is accessed for the first time. Transports that can transfer a file
+ * directly to a socket (for example, using {@code sendfile}) use {@link #file()} and {@link #fileOffset()} instead and
+ * never access the content. Indexes and sizes are available without mapping the file.
+ * <p>
+ * The mapping is released when the {@link Buffer} is garbage collected.
+ */
+public final class FileRegionBuffer extends DelegatingBuffer {
+    private final File file;
+    private final long position;
+    private final int count;
+    @Nullable
+    private Buffer mapped;
+
+    FileRegionBuffer(final File file, final long position, final int count) {
+        if (position < 0) {
+            throw new IllegalArgumentException("position: " + position + " (expected >=0)");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("count: " + count + " (expected >=0)");
+        }
+        this.file = requireNonNull(file);
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * Returns the {@link File} this {@link Buffer} represents a region of.
+     *
+     * @return the {@link File} this {@link Buffer} represents a region of.
+     */
+    public File file() {
+        return file;
+    }
+
+    /**
+     * Returns the offset in the {@link #file()} which corresponds to the {@link #readerIndex()} of this
+     * {@link Buffer}.
+     *
+     * @return the offset in the {@link #file()} of the {@link #readableBytes() readable bytes}.
+     */
+    public long fileOffset() {
+        return position + readerIndex();
+    }
+
+    @Override
+    Buffer delegate() {
+        Buffer mapped = this.mapped;
+        if (mapped == null) {
+            this.mapped = mapped = map();
+        }
+        return mapped;
+    }
+
+    private Buffer map() {
+        // The mapping stays valid after the channel is closed.
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            return DEFAULT_ALLOCATOR.wrap(channel.map(READ_ONLY, position, count));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map " + count + " bytes at position " + position +
+                    " of file " + file, e);
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return mapped == null ? count : mapped.capacity();
+    }
+
+    @Override
+    public int maxCapacity() {
+        return mapped == null ? count : mapped.maxCapacity();
+    }
+
+    @Override
+    public int readerIndex() {
+        return mapped == null ? 0 : mapped.readerIndex();
+    }
+
+    @Override
+    public int writerIndex() {
+        return mapped == null ? count : mapped.writerIndex();
+    }
+
+    @Override
+    public int readableBytes() {
+        return mapped == null ? count : mapped.readableBytes();
+    }
+
+    @Override
+    public int writableBytes() {
+        return 0;
+    }
+
+    @Override
+    public int maxWritableBytes() {
+        return 0;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public Buffer asReadOnly() {
+        return this;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return true;
+    }
+
+    @Override
+    public boolean hasArray() {
+        return false;
+    }
+
+    @Override
+    public Buffer duplicate() {
+        return mapped == null ? new FileRegionBuffer(file, position, count) : mapped.duplicate();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() +
+                "{file=" + file +
+                ", position=" + position +
+                ", count=" + count +
+                ", mapped=" + mapped +
+                '}';
+    }
+}
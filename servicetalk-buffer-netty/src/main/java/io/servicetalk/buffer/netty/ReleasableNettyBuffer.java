@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.buffer.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+
+import io.netty.buffer.ByteBuf;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+
+/**
+ * A {@link Buffer} which wraps a (potentially pooled) reference counted {@link ByteBuf} and owns a single reference to
+ * it. The reference has to be given back via {@link BufferUtils#release(Buffer)} once the data is consumed.
+ * <p>
+ * Derived buffers ({@link #slice()}, {@link #duplicate()}, etc.) share the underlying memory but not the ownership, and
+ * therefore are not valid after this {@link Buffer} is released. Copies ({@link #copy()}, {@link #readBytes(int)}) are
+ * allocated in unpooled memory so they never need to be released.
+ * <p>
+ * This class implements {@link AutoCloseable}, {@link #close()} releases the owned reference. This allows modules
+ * which do not depend on Netty (e.g. payload aggregation and deserialization) to detect pooled memory and give it back
+ * once it is consumed.
+ * <p>
+ * Leak detection is provided by the {@link ByteBuf} allocator (see {@code io.netty.util.ResourceLeakDetector}).
+ */
+final class ReleasableNettyBuffer extends NettyBuffer<ByteBuf> implements AutoCloseable {
+
+    /**
+     * Create a new instance.
+     *
+     * @param buffer the buffer to wrap, ownership of one reference is transferred to the new instance.
+     */
+    ReleasableNettyBuffer(final ByteBuf buffer) {
+        super(buffer);
+    }
+
+    /**
+     * Returns the reference count of the underlying {@link ByteBuf}.
+     *
+     * @return the reference count of the underlying {@link ByteBuf}.
+     */
+    int refCnt() {
+        return buffer.refCnt();
+    }
+
+    /**
+     * Increments the reference count of the underlying {@link ByteBuf}.
+     *
+     * @return {@code this}.
+     */
+    ReleasableNettyBuffer retain() {
+        buffer.retain();
+        return this;
+    }
+
+    /**
+     * Decrements the reference count of the underlying {@link ByteBuf}.
+     *
+     * @return {@code true} if and only if the reference count became {@code 0} and the memory was deallocated.
+     */
+    boolean release() {
+        return buffer.release();
+    }
+
+    /**
+     * Records the current access location for debugging purposes when a leak is detected.
+     *
+     * @param hint an additional information to record.
+     * @return {@code this}.
+     */
+    ReleasableNettyBuffer touch(final Object hint) {
+        buffer.touch(hint);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    @Override
+    public Buffer readBytes(final int length) {
+        final Buffer copy = DEFAULT_ALLOCATOR.newBuffer(length, isDirect());
+        copy.writeBytes(this, length);
+        return copy;
+    }
+
+    @Override
+    public Buffer copy() {
+        return copy(readerIndex(), readableBytes());
+    }
+
+    @Override
+    public Buffer copy(final int index, final int length) {
+        final Buffer copy = DEFAULT_ALLOCATOR.newBuffer(length, isDirect());
+        copy.writeBytes(this, index, length);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "ReleasableNettyBuffer{" +
+                "buffer=" + buffer +
+                '}';
+    }
+}
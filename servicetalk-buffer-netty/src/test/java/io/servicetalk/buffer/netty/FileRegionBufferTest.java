@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.buffer.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.servicetalk.buffer.netty.BufferUtils.newFileRegionBuffer;
+import static io.servicetalk.buffer.netty.BufferUtils.toByteBufNoThrow;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileRegionBufferTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.write(tempDir.resolve("content.txt"), "hello world".getBytes(US_ASCII)).toFile();
+    }
+
+    @Test
+    void indexesWithoutContentAccess() {
+        FileRegionBuffer buffer = (FileRegionBuffer) newFileRegionBuffer(file, 3, 5);
+        assertThat(buffer.readerIndex(), is(0));
+        assertThat(buffer.writerIndex(), is(5));
+        assertThat(buffer.readableBytes(), is(5));
+        assertThat(buffer.writableBytes(), is(0));
+        assertThat(buffer.isReadOnly(), is(true));
+        assertThat(buffer.asReadOnly(), is(sameInstance(buffer)));
+        assertThat(buffer.file(), is(file));
+        assertThat(buffer.fileOffset(), is(3L));
+    }
+
+    @Test
+    void contentIsMapped() {
+        FileRegionBuffer buffer = (FileRegionBuffer) newFileRegionBuffer(file, 3, 5);
+        assertThat(buffer.toString(US_ASCII), is("lo wo"));
+        assertThat(buffer.readByte(), is((byte) 'l'));
+        assertThat(buffer.readableBytes(), is(4));
+        assertThat(buffer.fileOffset(), is(4L));
+        ByteBuf byteBuf = toByteBufNoThrow(buffer);
+        assertThat(byteBuf, is(notNullValue()));
+        assertThat(byteBuf.toString(US_ASCII), is("o wo"));
+    }
+
+    @Test
+    void duplicateIsIndependent() {
+        Buffer buffer = newFileRegionBuffer(file, 0, 5);
+        Buffer duplicate = buffer.duplicate();
+        assertThat(duplicate, is(instanceOf(FileRegionBuffer.class)));
+        buffer.skipBytes(2);
+        assertThat(duplicate.readableBytes(), is(5));
+        assertThat(duplicate.toString(US_ASCII), is("hello"));
+    }
+
+    @Test
+    void writesAreRejected() {
+        Buffer buffer = newFileRegionBuffer(file, 0, 5);
+        assertThrows(ReadOnlyBufferException.class, () -> buffer.setByte(0, 'a'));
+    }
+
+    @Test
+    void missingFile() {
+        Buffer buffer = newFileRegionBuffer(new File(tempDir.toFile(), "missing"), 0, 5);
+        assertThat(buffer.readableBytes(), is(5));
+        assertThrows(UncheckedIOException.class, () -> buffer.getByte(0));
+    }
+
+    @Test
+    void invalidRegion() {
+        assertThrows(IllegalArgumentException.class, () -> newFileRegionBuffer(file, -1, 5));
+        assertThrows(IllegalArgumentException.class, () -> newFileRegionBuffer(file, 0, -1));
+    }
+}
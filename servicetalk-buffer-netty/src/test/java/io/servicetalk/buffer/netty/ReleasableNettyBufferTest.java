@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.buffer.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferUtils.isReleasable;
+import static io.servicetalk.buffer.netty.BufferUtils.newReleasableBufferFrom;
+import static io.servicetalk.buffer.netty.BufferUtils.release;
+import static io.servicetalk.buffer.netty.BufferUtils.retain;
+import static io.servicetalk.buffer.netty.BufferUtils.toByteBuf;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+class ReleasableNettyBufferTest {
+
+    @Test
+    void releaseDeallocatesPooledMemory() {
+        ByteBuf pooled = PooledByteBufAllocator.DEFAULT.directBuffer(16).writeBytes("hello".getBytes(US_ASCII));
+        Buffer buffer = newReleasableBufferFrom(pooled);
+        assertThat(isReleasable(buffer), is(true));
+        assertThat(toByteBuf(buffer), sameInstance(pooled));
+        assertThat(buffer.toString(US_ASCII), is("hello"));
+        assertThat(release(buffer), is(true));
+        assertThat(pooled.refCnt(), is(0));
+    }
+
+    @Test
+    void retainIsBalancedByRelease() {
+        ByteBuf pooled = PooledByteBufAllocator.DEFAULT.heapBuffer(16);
+        Buffer buffer = retain(newReleasableBufferFrom(pooled));
+        assertThat(pooled.refCnt(), is(2));
+        assertThat(release(buffer), is(false));
+        assertThat(release(buffer), is(true));
+        assertThat(pooled.refCnt(), is(0));
+    }
+
+    @Test
+    void wrappedReleasableBufferCanBeReleased() {
+        ByteBuf pooled = PooledByteBufAllocator.DEFAULT.heapBuffer(16);
+        Buffer wrapped = new WrappedBuffer(newReleasableBufferFrom(pooled));
+        assertThat(isReleasable(wrapped), is(true));
+        assertThat(release(wrapped), is(true));
+        assertThat(pooled.refCnt(), is(0));
+    }
+
+    @Test
+    void closeReleases() throws Exception {
+        ByteBuf pooled = PooledByteBufAllocator.DEFAULT.heapBuffer(16);
+        Buffer buffer = newReleasableBufferFrom(pooled);
+        assertThat(buffer, instanceOf(AutoCloseable.class));
+        ((AutoCloseable) buffer).close();
+        assertThat(pooled.refCnt(), is(0));
+    }
+
+    @Test
+    void copiesAreUnpooled() {
+        ByteBuf pooled = PooledByteBufAllocator.DEFAULT.directBuffer(16).writeBytes("hello".getBytes(US_ASCII));
+        Buffer buffer = newReleasableBufferFrom(pooled);
+        Buffer copy = buffer.copy();
+        Buffer read = buffer.readBytes(2);
+        assertThat(release(buffer), is(true));
+        assertThat(isReleasable(copy), is(false));
+        assertThat(isReleasable(read), is(false));
+        assertThat(toByteBuf(copy).alloc().isDirectBufferPooled(), is(false));
+        assertThat(toByteBuf(read).alloc().isDirectBufferPooled(), is(false));
+        assertThat(copy.toString(US_ASCII), is("hello"));
+        assertThat(read.toString(US_ASCII), is("he"));
+    }
+
+    @Test
+    void nonReleasableBufferIsNoop() {
+        Buffer buffer = DEFAULT_ALLOCATOR.fromAscii("hello");
+        assertThat(isReleasable(buffer), is(false));
+        assertThat(release(retain(buffer)), is(false));
+        assertThat(buffer.toString(US_ASCII), is("hello"));
+    }
+
+    @Test
+    void derivedBuffersAreNotReleasable() {
+        ByteBuf pooled = PooledByteBufAllocator.DEFAULT.heapBuffer(16).writeBytes("hello".getBytes(US_ASCII));
+        Buffer buffer = newReleasableBufferFrom(pooled);
+        try {
+            assertThat(isReleasable(buffer.slice()), is(false));
+            assertThat(isReleasable(buffer.duplicate()), is(false));
+        } finally {
+            release(buffer);
+        }
+    }
+}
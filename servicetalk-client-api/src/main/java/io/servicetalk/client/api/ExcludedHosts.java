@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.client.api;
+
+import io.servicetalk.context.api.ContextMap;
+
+import java.util.Set;
+
+import static io.servicetalk.context.api.ContextMap.Key.newKey;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+
+/**
+ * A hint for a {@link LoadBalancer} to select hosts that were not selected for related requests before, for example for
+ * hedged requests.
+ * <p>
+ * A client puts an instance into the {@link ContextMap} passed to
+ * {@link LoadBalancer#selectConnection(java.util.function.Predicate, ContextMap)} under {@link #EXCLUDED_HOSTS_KEY}
+ * and shares the same instance with the contexts of the related requests. A {@link LoadBalancer} which supports this
+ * hint {@link #add(Object) adds} the address of every host it selects and prefers hosts which are not
+ * {@link #contains(Object) contained} yet. If only excluded hosts are available, they are still selected.
+ */
+public final class ExcludedHosts {
+
+    /**
+     * {@link ContextMap.Key} under which a client can share {@link ExcludedHosts} with a {@link LoadBalancer}.
+     */
+    public static final ContextMap.Key<ExcludedHosts> EXCLUDED_HOSTS_KEY =
+            newKey("EXCLUDED_HOSTS_KEY", ExcludedHosts.class);
+
+    private final Set<Object> addresses = newKeySet(2);
+
+    /**
+     * Adds the address of a selected host.
+     *
+     * @param address the resolved address of the host.
+     */
+    public void add(final Object address) {
+        addresses.add(address);
+    }
+
+    /**
+     * Determines if a host should be avoided.
+     *
+     * @param address the resolved address of the host.
+     * @return {@code true} if the host was already selected for a related request.
+     */
+    public boolean contains(final Object address) {
+        return addresses.contains(address);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + addresses;
+    }
+}
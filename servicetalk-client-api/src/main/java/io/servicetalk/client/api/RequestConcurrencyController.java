@@ -53,4 +53,27 @@ public interface RequestConcurrencyController {
      * Generally called from a {@link Publisher#beforeFinally(Runnable)} after a {@link #tryRequest()}.
      */
     void requestFinished();
+
+    /**
+     * Returns the number of requests which were {@link Result#Accepted accepted} and did not
+     * {@link #requestFinished() finish} yet.
+     * <p>
+     * Together with {@link #maxConcurrentRequests()} this describes the occupancy of the resource, for example, the
+     * number of active streams of an HTTP/2 connection.
+     *
+     * @return the number of active requests, or {@code -1} if it is not known.
+     */
+    default int activeRequests() {
+        return -1;
+    }
+
+    /**
+     * Returns the current maximum number of concurrent requests. The value may change over time, for example, when
+     * an HTTP/2 peer updates its {@code SETTINGS_MAX_CONCURRENT_STREAMS}.
+     *
+     * @return the current maximum number of concurrent requests, or {@code -1} if it is not known.
+     */
+    default int maxConcurrentRequests() {
+        return -1;
+    }
 }
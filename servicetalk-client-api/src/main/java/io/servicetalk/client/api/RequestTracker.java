@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.client.api;
+
+import io.servicetalk.context.api.ContextMap;
+
+import static io.servicetalk.context.api.ContextMap.Key.newKey;
+
+/**
+ * A tracker of request lifecycle which allows a {@link LoadBalancer} to learn about the outcome of requests sent over
+ * the connections it selected.
+ * <p>
+ * A {@link LoadBalancer} that is interested in request completion signals puts an instance of this interface into the
+ * {@link ContextMap} passed to {@link LoadBalancer#selectConnection(java.util.function.Predicate, ContextMap)} under
+ * {@link #REQUEST_TRACKER_KEY}. The protocol client takes (removes) it from the context after the connection is
+ * selected and notifies it when the request starts and when it terminates.
+ */
+public interface RequestTracker {
+
+    /**
+     * {@link ContextMap.Key} under which a {@link LoadBalancer} can share a {@link RequestTracker} with the client.
+     */
+    ContextMap.Key<RequestTracker> REQUEST_TRACKER_KEY = newKey("REQUEST_TRACKER_KEY", RequestTracker.class);
+
+    /**
+     * Invoked before a request is sent.
+     *
+     * @return the current time in nanoseconds, must be passed back to one of the terminal methods.
+     */
+    long beforeStart();
+
+    /**
+     * Invoked when a request completes successfully, including the full consumption of the response.
+     *
+     * @param beforeStartTimeNs value returned from {@link #beforeStart()}.
+     */
+    void onSuccess(long beforeStartTimeNs);
+
+    /**
+     * Invoked when a request fails.
+     *
+     * @param beforeStartTimeNs value returned from {@link #beforeStart()}.
+     * @param cause the cause of the failure.
+     */
+    void onError(long beforeStartTimeNs, Throwable cause);
+
+    /**
+     * Invoked when a request is cancelled by the caller before it terminates.
+     *
+     * @param beforeStartTimeNs value returned from {@link #beforeStart()}.
+     */
+    void onCancel(long beforeStartTimeNs);
+}
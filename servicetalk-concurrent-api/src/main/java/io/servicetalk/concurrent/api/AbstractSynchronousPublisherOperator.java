@@ -41,6 +41,10 @@ abstract class AbstractSynchronousPublisherOperator<T, R> extends AbstractNoHand
         this.original = requireNonNull(original);
     }
 
+    final Publisher<T> original() {
+        return original;
+    }
+
     @Override
     final void handleSubscribe(Subscriber<? super R> subscriber,
                                ContextMap contextMap, AsyncContextProvider contextProvider) {
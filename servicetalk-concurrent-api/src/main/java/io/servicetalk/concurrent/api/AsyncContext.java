@@ -47,6 +47,14 @@ public final class AsyncContext {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AsyncContext.class);
 
+    /**
+     * Set {@code -Dio.servicetalk.concurrent.api.asyncContext.disabled=true} to disable AsyncContext for the lifetime
+     * of the JVM. Unlike {@link #disable()}, the {@link NoopAsyncContextProvider} is used from the start, no
+     * {@link Executor} is ever wrapped, and operators check this constant once per subscribe to skip capturing and
+     * wrapping entirely.
+     */
+    static final boolean DISABLED_AT_STARTUP =
+            Boolean.getBoolean("io.servicetalk.concurrent.api.asyncContext.disabled");
     private static final int STATE_DISABLED = -1;
     private static final int STATE_INIT = 0;
     private static final int STATE_AUTO_ENABLED = 1;
@@ -56,13 +64,15 @@ public final class AsyncContext {
      * {@link #STATE_DISABLED} is a terminal state. Because we favor going to the disabled state we don't have to worry
      * about concurrent {@link #enable()} and {@link #disable()} calls.
      */
-    private static final AtomicInteger ENABLED_STATE = new AtomicInteger(STATE_INIT);
+    private static final AtomicInteger ENABLED_STATE =
+            new AtomicInteger(DISABLED_AT_STARTUP ? STATE_DISABLED : STATE_INIT);
     /**
      * This is currently not volatile as we rely upon external synchronization for this to be made visible. The current
      * use case for this is a "once at start up" to {@link #disable()} this mechanism completely. This is currently a
      * best effort mechanism for performance reasons, and we can re-evaluate later if more strict behavior is required.
      */
-    private static AsyncContextProvider provider = DefaultAsyncContextProvider.INSTANCE;
+    private static AsyncContextProvider provider = DISABLED_AT_STARTUP ? NoopAsyncContextProvider.INSTANCE :
+            DefaultAsyncContextProvider.INSTANCE;
 
     private AsyncContext() {
         // no instances
@@ -529,6 +539,9 @@ public final class AsyncContext {
      * plugin enabled/disable state.
      */
     static void enable() {
+        if (DISABLED_AT_STARTUP) {
+            return;
+        }
         for (;;) {
             final int enabledState = ENABLED_STATE.get();
             if (ENABLED_STATE.compareAndSet(enabledState, STATE_ENABLED)) {
@@ -21,10 +21,16 @@ import io.servicetalk.context.api.ContextMapHolder;
 import static java.lang.ThreadLocal.withInitial;
 
 final class AsyncContextMapThreadLocal {
+    /**
+     * Set to {@code true} to store {@link AsyncContext} in an {@link IndexedContextMap}, which accesses values of
+     * {@link ContextMap.Key#newIndexedKey(String, Class) indexed keys} without hashing.
+     */
+    private static final boolean USE_INDEXED_CONTEXT_MAP =
+            Boolean.getBoolean("io.servicetalk.concurrent.api.asyncContext.indexedKeys");
     static final ThreadLocal<ContextMap> CONTEXT_THREAD_LOCAL = withInitial(AsyncContextMapThreadLocal::newContextMap);
 
     private static ContextMap newContextMap() {
-        return new CopyOnWriteContextMap();
+        return USE_INDEXED_CONTEXT_MAP ? new IndexedContextMap() : new CopyOnWriteContextMap();
     }
 
     ContextMap get() {
@@ -1727,6 +1727,12 @@ public abstract class Completable {
      * @param subscriber {@link Subscriber} to subscribe for the result.
      */
     protected final void subscribeInternal(Subscriber subscriber) {
+        if (AsyncContext.DISABLED_AT_STARTUP) {
+            // Constant for the lifetime of the JVM, there is nothing to capture or restore.
+            handleSubscribe(requireNonNull(subscriber), NoopAsyncContextProvider.INSTANCE.context(),
+                    NoopAsyncContextProvider.INSTANCE);
+            return;
+        }
         AsyncContextProvider contextProvider = AsyncContext.provider();
         ContextMap contextMap = contextForSubscribe(contextProvider);
         subscribeWithContext(subscriber, contextProvider, contextMap);
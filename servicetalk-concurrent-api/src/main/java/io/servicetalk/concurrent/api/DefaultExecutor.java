@@ -38,7 +38,11 @@ import javax.annotation.Nullable;
 
 import static io.servicetalk.concurrent.Cancellable.IGNORE_CANCEL;
 import static io.servicetalk.utils.internal.ThrowableUtils.throwException;
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Thread.NORM_PRIORITY;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -56,6 +60,16 @@ final class DefaultExecutor extends AbstractExecutor implements Consumer<Runnabl
     private static final ScheduledThreadPoolExecutor GLOBAL_SINGLE_THREADED_SCHEDULED_EXECUTOR =
             new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory("servicetalk-global-scheduler",
                     true, NORM_PRIORITY));
+    /**
+     * Set to {@code true} to schedule the tasks of all executors without their own scheduler (including
+     * {@link Executors#global()}, which is the default for timeout operators) on a global sharded
+     * {@link HashedWheelTimer} instead of {@link #GLOBAL_SINGLE_THREADED_SCHEDULED_EXECUTOR}. Individual executors can
+     * opt in via {@link Executors#fromWithTimerWheel(java.util.concurrent.Executor)}.
+     */
+    private static final String TIMER_WHEEL_PROPERTY = "io.servicetalk.concurrent.api.timerWheel";
+    private static final String TIMER_WHEEL_SHARDS_PROPERTY = TIMER_WHEEL_PROPERTY + ".shards";
+    private static final String TIMER_WHEEL_TICK_MILLIS_PROPERTY = TIMER_WHEEL_PROPERTY + ".tickMillis";
+    private static final boolean USE_TIMER_WHEEL = Boolean.getBoolean(TIMER_WHEEL_PROPERTY);
     private static final RejectedExecutionHandler DEFAULT_REJECTION_HANDLER = new AbortPolicy();
 
     private final InternalExecutor executor;
@@ -80,7 +94,17 @@ final class DefaultExecutor extends AbstractExecutor implements Consumer<Runnabl
 
     DefaultExecutor(java.util.concurrent.Executor jdkExecutor, boolean interruptOnCancel) {
         // Since we run blocking task, we should try interrupt when cancelled.
-        this(jdkExecutor, new SingleThreadedScheduler(jdkExecutor), interruptOnCancel);
+        this(jdkExecutor, USE_TIMER_WHEEL ? new TimerWheelScheduler(jdkExecutor, GlobalTimerWheel.INSTANCE) :
+                new SingleThreadedScheduler(jdkExecutor), interruptOnCancel);
+    }
+
+    DefaultExecutor(java.util.concurrent.Executor jdkExecutor, HashedWheelTimer timer) {
+        // Since we run blocking task, we should try interrupt when cancelled.
+        this(jdkExecutor, new TimerWheelScheduler(jdkExecutor, timer), true);
+    }
+
+    static DefaultExecutor withGlobalTimerWheel(java.util.concurrent.Executor jdkExecutor) {
+        return new DefaultExecutor(jdkExecutor, GlobalTimerWheel.INSTANCE);
     }
 
     DefaultExecutor(java.util.concurrent.Executor jdkExecutor, ScheduledExecutorService scheduler) {
@@ -263,24 +287,7 @@ final class DefaultExecutor extends AbstractExecutor implements Consumer<Runnabl
             // When using the global scheduler, offload timer ticks to the user specified Executor since user code
             // executed on the timer tick can block.
             ScheduledFuture<?> future = GLOBAL_SINGLE_THREADED_SCHEDULED_EXECUTOR.schedule(
-                    () -> {
-                        try {
-                            offloadExecutor.execute(task);
-                        } catch (RejectedExecutionException e) {
-                            LOGGER.error("Executor {} rejected a scheduled task: {}. Fallback to executing the task " +
-                                            "on the current scheduler thread: {}",
-                                    offloadExecutor, task, Thread.currentThread().getName(), e);
-                            try {
-                                task.run();
-                            } catch (Throwable taskFailure) {
-                                LOGGER.error("Scheduled task {} threw an exception on the scheduler thread.",
-                                        task, taskFailure);
-                            }
-                        } catch (Throwable t) {
-                            LOGGER.error("Unexpected exception while offloading scheduled task: {} to executor: {}.",
-                                    task, offloadExecutor, t);
-                        }
-                    }, delay, unit);
+                    () -> offloadTick(offloadExecutor, task, LOGGER), delay, unit);
             // Schedulers are only used to generate a tick and should not execute any user code (unless the
             // offloadExecutor throws). This means they will never run any blocking code and hence it does not matter
             // whether we use the interruptOnCancel as sent by the user upon creation in the scheduler. User code
@@ -289,4 +296,67 @@ final class DefaultExecutor extends AbstractExecutor implements Consumer<Runnabl
             return () -> future.cancel(true);
         }
     }
+
+    private static final class TimerWheelScheduler implements InternalScheduler {
+
+        private static final Logger LOGGER = LoggerFactory.getLogger(TimerWheelScheduler.class);
+
+        private final java.util.concurrent.Executor offloadExecutor;
+        private final HashedWheelTimer timer;
+
+        TimerWheelScheduler(final java.util.concurrent.Executor offloadExecutor, final HashedWheelTimer timer) {
+            this.offloadExecutor = offloadExecutor;
+            this.timer = timer;
+        }
+
+        @Override
+        public String toString() {
+            return "TimerWheelScheduler{offload=Executor@" +
+                    Integer.toHexString(System.identityHashCode(offloadExecutor)) + ", timer=" + timer + '}';
+        }
+
+        @Override
+        public void close() {
+            // The timer may be shared with other executors, its lifetime is managed by the owner.
+        }
+
+        @Override
+        public Cancellable schedule(final Runnable task, final long delay, final TimeUnit unit) {
+            // Same as SingleThreadedScheduler, the timer thread only generates the tick and never runs user code.
+            return timer.schedule(() -> offloadTick(offloadExecutor, task, LOGGER), delay, unit);
+        }
+    }
+
+    private static void offloadTick(final java.util.concurrent.Executor offloadExecutor, final Runnable task,
+                                    final Logger logger) {
+        try {
+            offloadExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.error("Executor {} rejected a scheduled task: {}. Fallback to executing the task " +
+                            "on the current scheduler thread: {}",
+                    offloadExecutor, task, Thread.currentThread().getName(), e);
+            try {
+                task.run();
+            } catch (Throwable taskFailure) {
+                logger.error("Scheduled task {} threw an exception on the scheduler thread.", task, taskFailure);
+            }
+        } catch (Throwable t) {
+            logger.error("Unexpected exception while offloading scheduled task: {} to executor: {}.",
+                    task, offloadExecutor, t);
+        }
+    }
+
+    /**
+     * Lazily creates the global {@link HashedWheelTimer}, only if it is selected via system properties or used by
+     * {@link Executors#fromWithTimerWheel(java.util.concurrent.Executor)}.
+     */
+    private static final class GlobalTimerWheel {
+        static final HashedWheelTimer INSTANCE = new HashedWheelTimer(
+                max(1, getInteger(TIMER_WHEEL_SHARDS_PROPERTY, min(4, Runtime.getRuntime().availableProcessors()))),
+                max(1, getInteger(TIMER_WHEEL_TICK_MILLIS_PROPERTY, 10)), MILLISECONDS, 512,
+                new DefaultThreadFactory("servicetalk-global-timer-wheel", true, NORM_PRIORITY));
+
+        private GlobalTimerWheel() {
+        }
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+/**
+ * A {@link WorkStealingExecutor} which delegates to an {@link Executor} created for a
+ * {@link WorkStealingExecutorService}, possibly wrapped by {@link ExecutorPlugin}s.
+ */
+final class DefaultWorkStealingExecutor extends DelegatingExecutor implements WorkStealingExecutor {
+    private final WorkStealingExecutorService executorService;
+
+    DefaultWorkStealingExecutor(final Executor delegate, final WorkStealingExecutorService executorService) {
+        super(delegate);
+        this.executorService = executorService;
+    }
+
+    @Override
+    public int workers() {
+        return executorService.workers();
+    }
+
+    @Override
+    public long queueDepth() {
+        return executorService.queueDepth();
+    }
+
+    @Override
+    public int queueDepth(final int worker) {
+        return executorService.queueDepth(worker);
+    }
+
+    @Override
+    public long steals() {
+        return executorService.steals();
+    }
+}
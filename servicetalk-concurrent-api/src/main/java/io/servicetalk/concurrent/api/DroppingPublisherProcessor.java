@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.PublisherSource;
+
+/**
+ * A {@link PublisherSource.Processor} with a bounded buffer that drops items when more items are added than can be
+ * buffered, and counts the dropped items.
+ *
+ * @param <T> The {@link PublisherSource} type and {@link PublisherSource.Subscriber} type of the
+ * {@link PublisherSource.Processor}.
+ * @see Processors#newMpscPublisherProcessorDropHeadOnOverflow(int)
+ * @see Processors#newMpscPublisherProcessorDropTailOnOverflow(int)
+ */
+public interface DroppingPublisherProcessor<T> extends PublisherSource.Processor<T, T> {
+
+    /**
+     * Returns the number of items dropped so far because the buffer was full.
+     *
+     * @return the number of items dropped so far because the buffer was full.
+     */
+    long droppedItems();
+}
@@ -24,6 +24,7 @@ import java.util.concurrent.TimeUnit;
 
 import static io.servicetalk.concurrent.api.GlobalExecutor.GLOBAL_EXECUTOR;
 import static io.servicetalk.concurrent.api.ImmediateExecutor.IMMEDIATE_EXECUTOR;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Utility methods to create various {@link Executor}s.
@@ -104,6 +105,85 @@ public final class Executors {
                 new DefaultExecutor(1, Integer.MAX_VALUE, new SynchronousQueue<>(), threadFactory));
     }
 
+    /**
+     * Creates a new {@link WorkStealingExecutor} with one worker per available processor.
+     *
+     * @return A new {@link WorkStealingExecutor}.
+     * @see #newWorkStealingExecutor(int, ThreadFactory)
+     */
+    public static WorkStealingExecutor newWorkStealingExecutor() {
+        return newWorkStealingExecutor(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new {@link WorkStealingExecutor} with a fixed number of workers as specified by the {@code workers}.
+     *
+     * @param workers Number of worker threads used by the newly created {@link WorkStealingExecutor}.
+     * @return A new {@link WorkStealingExecutor}.
+     * @see #newWorkStealingExecutor(int, ThreadFactory)
+     */
+    public static WorkStealingExecutor newWorkStealingExecutor(int workers) {
+        return newWorkStealingExecutor(workers, new DefaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@link WorkStealingExecutor} with a fixed number of workers as specified by the {@code workers}.
+     * <p>
+     * Unlike {@link #newFixedSizeExecutor(int)}, which shares a single queue between all threads, every worker has
+     * its own queue. A thread which submits tasks, like an event loop thread offloading requests, always queues on the
+     * same worker, and idle workers steal tasks from busy ones. Tasks are queued without a bound, so this
+     * {@link Executor} is best suited for tasks which don't block for a long time.
+     *
+     * @param workers Number of worker threads used by the newly created {@link WorkStealingExecutor}.
+     * @param threadFactory {@link ThreadFactory} to use.
+     * @return A new {@link WorkStealingExecutor}.
+     */
+    public static WorkStealingExecutor newWorkStealingExecutor(int workers, ThreadFactory threadFactory) {
+        final WorkStealingExecutorService executorService = new WorkStealingExecutorService(workers, threadFactory);
+        return new DefaultWorkStealingExecutor(EXECUTOR_PLUGINS.wrapExecutor(new DefaultExecutor(executorService)),
+                executorService);
+    }
+
+    /**
+     * Creates a new {@link Executor} that starts a new virtual thread for each task.
+     * <p>
+     * Virtual threads are cheap to block, which makes this {@link Executor} a good fit to offload blocking user code
+     * without growing a pool of platform threads under bursts of load. Virtual threads require JDK 21+, use
+     * {@link #isVirtualThreadExecutorSupported()} to check whether the running JDK supports them.
+     *
+     * @return A new {@link Executor}.
+     * @throws UnsupportedOperationException if the running JDK does not support virtual threads.
+     */
+    public static Executor newVirtualThreadExecutor() {
+        return newVirtualThreadExecutor("servicetalk-virtual-executor-");
+    }
+
+    /**
+     * Creates a new {@link Executor} that starts a new virtual thread for each task.
+     * <p>
+     * Virtual threads are cheap to block, which makes this {@link Executor} a good fit to offload blocking user code
+     * without growing a pool of platform threads under bursts of load. Virtual threads require JDK 21+, use
+     * {@link #isVirtualThreadExecutorSupported()} to check whether the running JDK supports them.
+     *
+     * @param threadNamePrefix the prefix for the name of all created threads, followed by a sequence number.
+     * @return A new {@link Executor}.
+     * @throws UnsupportedOperationException if the running JDK does not support virtual threads.
+     */
+    public static Executor newVirtualThreadExecutor(String threadNamePrefix) {
+        return EXECUTOR_PLUGINS.wrapExecutor(
+                new DefaultExecutor(VirtualThreads.newThreadPerTaskExecutor(requireNonNull(threadNamePrefix))));
+    }
+
+    /**
+     * Returns {@code true} if the running JDK supports virtual threads and
+     * {@link #newVirtualThreadExecutor() a virtual-thread Executor} can be created.
+     *
+     * @return {@code true} if the running JDK supports virtual threads.
+     */
+    public static boolean isVirtualThreadExecutorSupported() {
+        return VirtualThreads.isAvailable();
+    }
+
     /**
      * Creates a new {@link Executor} from the provided {@code jdkExecutor}. <p>
      * Delayed task execution will be delegated to a global scheduler, unless passed
@@ -125,6 +205,33 @@ public final class Executors {
         return EXECUTOR_PLUGINS.wrapExecutor(new DefaultExecutor(jdkExecutor));
     }
 
+    /**
+     * Creates a new {@link Executor} from the provided {@code jdkExecutor} which schedules delayed tasks on a global
+     * sharded hashed timer wheel. <p>
+     * Unlike the global scheduler used by {@link #from(java.util.concurrent.Executor)}, the timer wheel schedules and
+     * cancels tasks in constant time and without contention between threads, which suits many short timeouts that are
+     * usually cancelled before they fire. Delayed tasks fire with the granularity of the timer tick (10ms by default).
+     * The timer wheel is shared by all {@link Executor}s created by this method, and also used by all {@link Executor}s
+     * with the global scheduler if the {@code io.servicetalk.concurrent.api.timerWheel} system property is set to
+     * {@code true}. The number of shards and the tick duration can be configured with the
+     * {@code io.servicetalk.concurrent.api.timerWheel.shards} and
+     * {@code io.servicetalk.concurrent.api.timerWheel.tickMillis} system properties.<p>
+     * When a running task is cancelled, the thread running it will be interrupted.
+     * <p><strong>Long running tasks</strong></p>
+     * {@link java.util.concurrent.Executor} implementations are expected to run long running (blocking) tasks which may
+     * depend on other tasks submitted to the same {@link java.util.concurrent.Executor} instance.
+     * In order to avoid deadlocks, it is generally a good idea to not allow task queuing in the
+     * {@link java.util.concurrent.Executor}.
+     *
+     * @param jdkExecutor {@link java.util.concurrent.Executor} to use for executing tasks, including the delayed ones.
+     * The lifetime of this object is transferred to the return value. In other words {@link Executor#closeAsync()} will
+     * call {@link ExecutorService#shutdown()} (if possible).
+     * @return {@link Executor} that wraps the passed {@code jdkExecutor}.
+     */
+    public static Executor fromWithTimerWheel(java.util.concurrent.Executor jdkExecutor) {
+        return EXECUTOR_PLUGINS.wrapExecutor(DefaultExecutor.withGlobalTimerWheel(jdkExecutor));
+    }
+
     /**
      * Creates a new {@link Executor} from the provided {@link ExecutorService}. <p>
      * Delayed task execution will be delegated to a global scheduler, unless passed {@link ExecutorService}
@@ -34,6 +34,10 @@ final class FilterPublisher<T> extends AbstractSynchronousPublisherOperator<T, T
         this.filterSupplier = filterSupplier;
     }
 
+    Supplier<? extends Predicate<? super T>> filterSupplier() {
+        return filterSupplier;
+    }
+
     static <T> Supplier<? extends Predicate<? super T>> newDistinctSupplier() {
         return () -> new Predicate<T>() {
             private final Set<T> set = new HashSet<>();
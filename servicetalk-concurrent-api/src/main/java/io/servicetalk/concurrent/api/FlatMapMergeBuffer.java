@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounds the signals buffered by {@link Publisher#flatMapMerge(Function, int, FlatMapMergeBuffer)} and
+ * {@link Publisher#flatMapMergeDelayError(Function, int, FlatMapMergeBuffer)}, and exposes metrics about them.
+ * <p>
+ * Demand distributed to each mapped {@link Publisher} is capped by an adaptive prefetch: it starts at
+ * {@link #maxPrefetch()}, is halved every time items of a mapped {@link Publisher} had to be buffered because the
+ * downstream didn't keep up, and doubled again otherwise. Optionally, the size of buffered items can be capped per
+ * subscribe: once the estimated size reaches {@link #maxBufferedBytes()}, mapped {@link Publisher}s don't receive more
+ * demand until buffered items are delivered downstream. Demand which is already outstanding is not revoked, so the
+ * buffered size may exceed the cap by the items still requested from mapped {@link Publisher}s, which the adaptive
+ * prefetch keeps small.
+ * <p>
+ * The same instance can be shared by multiple operators and subscribes, metrics are aggregated over all of them.
+ *
+ * @param <R> Type of items emitted by the mapped {@link Publisher}s.
+ */
+public final class FlatMapMergeBuffer<R> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<FlatMapMergeBuffer> bufferedItemsUpdater =
+            AtomicLongFieldUpdater.newUpdater(FlatMapMergeBuffer.class, "bufferedItems");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<FlatMapMergeBuffer> bufferedBytesUpdater =
+            AtomicLongFieldUpdater.newUpdater(FlatMapMergeBuffer.class, "bufferedBytes");
+
+    private final int maxPrefetch;
+    private final long maxBufferedBytes;
+    @Nullable
+    private final ToLongFunction<? super R> sizeEstimator;
+    private volatile long bufferedItems;
+    private volatile long bufferedBytes;
+
+    private FlatMapMergeBuffer(final int maxPrefetch, final long maxBufferedBytes,
+                               @Nullable final ToLongFunction<? super R> sizeEstimator) {
+        if (maxPrefetch <= 0) {
+            throw new IllegalArgumentException("maxPrefetch: " + maxPrefetch + " (expected >0)");
+        }
+        if (maxBufferedBytes <= 0) {
+            throw new IllegalArgumentException("maxBufferedBytes: " + maxBufferedBytes + " (expected >0)");
+        }
+        this.maxPrefetch = maxPrefetch;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    /**
+     * Creates a new instance which caps the demand of each mapped {@link Publisher} with an adaptive prefetch.
+     *
+     * @param maxPrefetch the maximum amount of demand outstanding for each mapped {@link Publisher}.
+     * @param <R> Type of items emitted by the mapped {@link Publisher}s.
+     * @return a new instance which caps the demand of each mapped {@link Publisher} with an adaptive prefetch.
+     */
+    public static <R> FlatMapMergeBuffer<R> adaptivePrefetch(int maxPrefetch) {
+        return new FlatMapMergeBuffer<>(maxPrefetch, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates a new instance which caps the demand of each mapped {@link Publisher} with an adaptive prefetch, and
+     * the estimated size of buffered items per subscribe.
+     *
+     * @param maxPrefetch the maximum amount of demand outstanding for each mapped {@link Publisher}.
+     * @param maxBufferedBytes the estimated size of buffered items per subscribe, after which mapped
+     * {@link Publisher}s don't receive more demand.
+     * @param sizeEstimator estimates the size of each item, like {@code Buffer::readableBytes} for
+     * {@code Buffer}s.
+     * @param <R> Type of items emitted by the mapped {@link Publisher}s.
+     * @return a new instance which caps the demand of each mapped {@link Publisher} with an adaptive prefetch, and
+     * the estimated size of buffered items per subscribe.
+     */
+    public static <R> FlatMapMergeBuffer<R> adaptivePrefetch(int maxPrefetch, long maxBufferedBytes,
+                                                             ToLongFunction<? super R> sizeEstimator) {
+        return new FlatMapMergeBuffer<>(maxPrefetch, maxBufferedBytes, requireNonNull(sizeEstimator));
+    }
+
+    /**
+     * Returns the maximum amount of demand outstanding for each mapped {@link Publisher}.
+     *
+     * @return the maximum amount of demand outstanding for each mapped {@link Publisher}.
+     */
+    public int maxPrefetch() {
+        return maxPrefetch;
+    }
+
+    /**
+     * Returns the estimated size of buffered items per subscribe, after which mapped {@link Publisher}s don't receive
+     * more demand, or {@link Long#MAX_VALUE} if the size is not capped.
+     *
+     * @return the estimated size of buffered items per subscribe, after which mapped {@link Publisher}s don't receive
+     * more demand, or {@link Long#MAX_VALUE} if the size is not capped.
+     */
+    public long maxBufferedBytes() {
+        return maxBufferedBytes;
+    }
+
+    /**
+     * Returns the number of items currently buffered by all operators using this instance.
+     *
+     * @return the number of items currently buffered by all operators using this instance.
+     */
+    public long bufferedItems() {
+        return bufferedItems;
+    }
+
+    /**
+     * Returns the estimated size of items currently buffered by all operators using this instance, or {@code 0} if
+     * the size is not capped.
+     *
+     * @return the estimated size of items currently buffered by all operators using this instance, or {@code 0} if
+     * the size is not capped.
+     */
+    public long bufferedBytes() {
+        return bufferedBytes;
+    }
+
+    boolean capsBufferedBytes() {
+        return sizeEstimator != null;
+    }
+
+    long estimateSize(@Nullable final R item) {
+        return sizeEstimator == null ? 0 : sizeEstimator.applyAsLong(item);
+    }
+
+    void addBuffered(final long items, final long bytes) {
+        bufferedItemsUpdater.getAndAdd(this, items);
+        if (bytes != 0) {
+            bufferedBytesUpdater.getAndAdd(this, bytes);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{maxPrefetch=" + maxPrefetch +
+                ", maxBufferedBytes=" + maxBufferedBytes +
+                ", bufferedItems=" + bufferedItems +
+                ", bufferedBytes=" + bufferedBytes + '}';
+    }
+}
@@ -18,6 +18,9 @@ package io.servicetalk.concurrent.api;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import static io.servicetalk.concurrent.internal.FlowControlUtils.addWithOverflowProtection;
 import static io.servicetalk.concurrent.internal.SubscriberUtils.deliverCompleteFromSource;
 import static io.servicetalk.concurrent.internal.SubscriberUtils.handleExceptionFromOnSubscribe;
@@ -30,7 +33,7 @@ import static java.util.Objects.requireNonNull;
  * As returned by {@link Publisher#from(Object[])}.
  * @param <T> Type of items emitted by this {@link Publisher}.
  */
-final class FromArrayPublisher<T> extends AbstractSynchronousPublisher<T> {
+final class FromArrayPublisher<T> extends AbstractSynchronousPublisher<T> implements FusibleSource<T> {
     private static final Logger LOGGER = LoggerFactory.getLogger(FromArrayPublisher.class);
     private final T[] values;
 
@@ -39,6 +42,11 @@ final class FromArrayPublisher<T> extends AbstractSynchronousPublisher<T> {
         this.values = requireNonNull(values);
     }
 
+    @Override
+    public Iterator<T> newIterator() {
+        return new ArrayIterator<>(values);
+    }
+
     @Override
     void doSubscribe(Subscriber<? super T> s) {
         if (values.length != 0) {
@@ -117,4 +125,26 @@ final class FromArrayPublisher<T> extends AbstractSynchronousPublisher<T> {
             }
         }
     }
+
+    private static final class ArrayIterator<T> implements Iterator<T> {
+        private final T[] values;
+        private int index;
+
+        ArrayIterator(final T[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < values.length;
+        }
+
+        @Override
+        public T next() {
+            if (index >= values.length) {
+                throw new NoSuchElementException();
+            }
+            return values[index++];
+        }
+    }
 }
@@ -28,7 +28,7 @@ import static io.servicetalk.concurrent.internal.SubscriberUtils.isRequestNValid
 import static io.servicetalk.concurrent.internal.SubscriberUtils.newExceptionForInvalidRequestN;
 import static java.util.Objects.requireNonNull;
 
-final class FromIterablePublisher<T> extends AbstractSynchronousPublisher<T> {
+final class FromIterablePublisher<T> extends AbstractSynchronousPublisher<T> implements FusibleSource<T> {
     private static final Logger LOGGER = LoggerFactory.getLogger(FromIterablePublisher.class);
 
     private final Iterable<? extends T> iterable;
@@ -44,6 +44,11 @@ final class FromIterablePublisher<T> extends AbstractSynchronousPublisher<T> {
                 new FromIterablePublisher<>(iterable);
     }
 
+    @Override
+    public Iterator<? extends T> newIterator() {
+        return iterable.iterator();
+    }
+
     @Override
     void doSubscribe(final Subscriber<? super T> subscriber) {
         try {
@@ -0,0 +1,367 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.internal.ConcurrentSubscription;
+import io.servicetalk.context.api.ContextMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.internal.AutoClosableUtils.closeAndReThrow;
+import static io.servicetalk.concurrent.internal.FlowControlUtils.addWithOverflowProtection;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.checkDuplicateSubscription;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.deliverCompleteFromSource;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.deliverErrorFromSource;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.handleExceptionFromOnSubscribe;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.isRequestNValid;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.newExceptionForInvalidRequestN;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Consecutive {@link Publisher#map(Function)} and {@link Publisher#filter(Supplier)} operators fused into a single
+ * operator.
+ * <p>
+ * Synchronous operators already share the {@link AsyncContext} of their {@link Subscriber}, but each one still adds a
+ * {@link Subscriber} to the chain, and every item filtered out costs a {@link Subscription#request(long)} round trip
+ * to the source. This operator applies all stages in a single {@link Subscriber#onNext(Object)} (macro-fusion). If the
+ * source is a {@link FusibleSource}, items are pulled from the source directly and filtered items don't consume
+ * demand at all (micro-fusion).
+ *
+ * @param <T> Type of items emitted by the source {@link Publisher}.
+ * @param <R> Type of items emitted by this {@link Publisher}.
+ */
+final class FusedMapFilterPublisher<T, R> extends AbstractNoHandleSubscribePublisher<R> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FusedMapFilterPublisher.class);
+
+    private final Publisher<T> original;
+    /**
+     * A {@link Function} for each map stage and a {@link Supplier} of a {@link Predicate} for each filter stage.
+     */
+    private final Object[] stages;
+    private final boolean[] filters;
+    private final boolean hasFilter;
+
+    private FusedMapFilterPublisher(final Publisher<T> original, final Object[] stages, final boolean[] filters) {
+        this.original = original;
+        this.stages = stages;
+        this.filters = filters;
+        boolean hasFilter = false;
+        for (boolean filter : filters) {
+            hasFilter |= filter;
+        }
+        this.hasFilter = hasFilter;
+    }
+
+    /**
+     * Creates a {@link Publisher} which applies {@code mapper} to the items of {@code source}, fused with the
+     * preceding stages if possible.
+     *
+     * @param source the source {@link Publisher}.
+     * @param mapper the mapper for each item.
+     * @param <T> Type of items emitted by {@code source}.
+     * @param <R> Type of items emitted by the returned {@link Publisher}.
+     * @return a {@link Publisher} which applies {@code mapper} to the items of {@code source}.
+     */
+    static <T, R> Publisher<R> newMapPublisher(final Publisher<T> source,
+                                              final Function<? super T, ? extends R> mapper) {
+        requireNonNull(mapper);
+        final Publisher<?> fused = fuse(source, mapper, false);
+        return fused != null ? uncheckedCast(fused) : new MapPublisher<>(source, mapper);
+    }
+
+    /**
+     * Creates a {@link Publisher} which filters the items of {@code source}, fused with the preceding stages if
+     * possible.
+     *
+     * @param source the source {@link Publisher}.
+     * @param filterSupplier the {@link Supplier} of a {@link Predicate} per subscribe.
+     * @param <T> Type of items emitted by {@code source}.
+     * @return a {@link Publisher} which filters the items of {@code source}.
+     */
+    static <T> Publisher<T> newFilterPublisher(final Publisher<T> source,
+                                               final Supplier<? extends Predicate<? super T>> filterSupplier) {
+        requireNonNull(filterSupplier);
+        final Publisher<?> fused = fuse(source, filterSupplier, true);
+        return fused != null ? uncheckedCast(fused) : new FilterPublisher<>(source, filterSupplier);
+    }
+
+    @Nullable
+    private static Publisher<?> fuse(final Publisher<?> source, final Object stage, final boolean filter) {
+        if (source instanceof FusedMapFilterPublisher) {
+            final FusedMapFilterPublisher<?, ?> fused = (FusedMapFilterPublisher<?, ?>) source;
+            final Object[] stages = Arrays.copyOf(fused.stages, fused.stages.length + 1);
+            final boolean[] filters = Arrays.copyOf(fused.filters, fused.filters.length + 1);
+            stages[stages.length - 1] = stage;
+            filters[filters.length - 1] = filter;
+            return new FusedMapFilterPublisher<>(fused.original, stages, filters);
+        } else if (source instanceof MapPublisher) {
+            final MapPublisher<?, ?> map = (MapPublisher<?, ?>) source;
+            return new FusedMapFilterPublisher<>(map.original(), new Object[] {map.mapper(), stage},
+                    new boolean[] {false, filter});
+        } else if (source instanceof FilterPublisher) {
+            final FilterPublisher<?> filterPublisher = (FilterPublisher<?>) source;
+            return new FusedMapFilterPublisher<>(filterPublisher.original(),
+                    new Object[] {filterPublisher.filterSupplier(), stage}, new boolean[] {true, filter});
+        } else if (source instanceof FusibleSource) {
+            return new FusedMapFilterPublisher<>(source, new Object[] {stage}, new boolean[] {filter});
+        }
+        return null;
+    }
+
+    @Override
+    void handleSubscribe(final Subscriber<? super R> subscriber,
+                         final ContextMap contextMap, final AsyncContextProvider contextProvider) {
+        final Object[] operations;
+        try {
+            operations = newOperations();
+        } catch (Throwable t) {
+            deliverErrorFromSource(subscriber, t);
+            return;
+        }
+        if (original instanceof FusibleSource) {
+            // We bypass the source, so we need to wrap the Subscriber to save/restore the AsyncContext like a
+            // synchronous source does.
+            subscribeToSource(((FusibleSource<?>) original),
+                    contextProvider.wrapPublisherSubscriber(subscriber, contextMap), operations);
+        } else {
+            original.delegateSubscribe(new FusedSubscriber<>(subscriber, operations, filters, hasFilter),
+                    contextMap, contextProvider);
+        }
+    }
+
+    private void subscribeToSource(final FusibleSource<?> source, final Subscriber<? super R> subscriber,
+                                   final Object[] operations) {
+        final Iterator<?> iterator;
+        try {
+            iterator = requireNonNull(source.newIterator());
+            if (!iterator.hasNext()) {
+                deliverCompleteFromSource(subscriber);
+                return;
+            }
+        } catch (Throwable t) {
+            deliverErrorFromSource(subscriber, t);
+            return;
+        }
+        try {
+            subscriber.onSubscribe(new FusedSourceSubscription<>(iterator, subscriber, operations, filters));
+        } catch (Throwable t) {
+            handleExceptionFromOnSubscribe(subscriber, t);
+        }
+    }
+
+    /**
+     * Returns the operations for a new subscribe: the mapper of each map stage and a new {@link Predicate} for each
+     * filter stage.
+     */
+    private Object[] newOperations() {
+        if (!hasFilter) {
+            return stages;
+        }
+        final Object[] operations = stages.clone();
+        for (int i = 0; i < operations.length; ++i) {
+            if (filters[i]) {
+                final Supplier<?> filterSupplier = (Supplier<?>) operations[i];
+                operations[i] = requireNonNull(filterSupplier.get(),
+                        () -> "Supplier " + filterSupplier + " returned null");
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Applies all operations to an item.
+     *
+     * @return the result of the last stage, or {@code FILTERED} if the item was filtered out.
+     */
+    @Nullable
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Object apply(@Nullable Object item, final Object[] operations, final boolean[] filters) {
+        for (int i = 0; i < operations.length; ++i) {
+            if (filters[i]) {
+                if (!((Predicate) operations[i]).test(item)) {
+                    return FILTERED;
+                }
+            } else {
+                item = ((Function) operations[i]).apply(item);
+            }
+        }
+        return item;
+    }
+
+    private static final Object FILTERED = new Object();
+
+    @SuppressWarnings("unchecked")
+    private static <R> Publisher<R> uncheckedCast(final Publisher<?> publisher) {
+        return (Publisher<R>) publisher;
+    }
+
+    private static final class FusedSubscriber<T, R> implements Subscriber<T> {
+        private final Subscriber<? super R> subscriber;
+        private final Object[] operations;
+        private final boolean[] filters;
+        private final boolean hasFilter;
+        @Nullable
+        private Subscription subscription;
+
+        FusedSubscriber(final Subscriber<? super R> subscriber, final Object[] operations, final boolean[] filters,
+                        final boolean hasFilter) {
+            this.subscriber = requireNonNull(subscriber);
+            this.operations = operations;
+            this.filters = filters;
+            this.hasFilter = hasFilter;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            if (!hasFilter) {
+                subscriber.onSubscribe(s);
+            } else if (checkDuplicateSubscription(subscription, s)) {
+                // Filtered items are requested again, possibly concurrently with the downstream.
+                subscription = ConcurrentSubscription.wrap(s);
+                subscriber.onSubscribe(subscription);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNext(@Nullable final T t) {
+            // If an operation throws we propagate to the caller which is responsible to terminate its subscriber and
+            // cancel the subscription.
+            final Object result = apply(t, operations, filters);
+            if (result != FILTERED) {
+                subscriber.onNext((R) result);
+            } else {
+                assert subscription != null;
+                subscription.request(1); // Since we filtered one item.
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            subscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+    }
+
+    /**
+     * Pulls items from a {@link FusibleSource} and applies all operations before delivering them. Filtered items don't
+     * consume demand.
+     */
+    private static final class FusedSourceSubscription<R> implements Subscription {
+        private final Iterator<?> iterator;
+        private final Subscriber<? super R> subscriber;
+        private final Object[] operations;
+        private final boolean[] filters;
+        private long requestN;
+        private boolean ignoreRequests;
+
+        FusedSourceSubscription(final Iterator<?> iterator, final Subscriber<? super R> subscriber,
+                                final Object[] operations, final boolean[] filters) {
+            this.iterator = iterator;
+            this.subscriber = subscriber;
+            this.operations = operations;
+            this.filters = filters;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void request(final long n) {
+            if (!isRequestNValid(n) && requestN >= 0) {
+                sendOnError(newExceptionForInvalidRequestN(n));
+                return;
+            }
+            requestN = addWithOverflowProtection(requestN, n);
+            if (ignoreRequests) {
+                return;
+            }
+            ignoreRequests = true;
+            try {
+                while (requestN > 0) {
+                    if (!iterator.hasNext()) {
+                        sendOnComplete();
+                        return;
+                    }
+                    final Object result = apply(iterator.next(), operations, filters);
+                    if (result != FILTERED) {
+                        --requestN;
+                        subscriber.onNext((R) result);
+                    }
+                }
+                if (requestN < 0) {
+                    // cancelled while delivering an item
+                    return;
+                }
+                // Demand is met, end the source immediately if possible. Items are only pulled on demand, so that
+                // operations never run for items which are not requested.
+                if (!iterator.hasNext()) {
+                    sendOnComplete();
+                    return;
+                }
+            } catch (Throwable cause) {
+                sendOnError(cause);
+                return;
+            }
+            ignoreRequests = false;
+        }
+
+        @Override
+        public void cancel() {
+            cleanupForCancel();
+            if (iterator instanceof AutoCloseable) {
+                closeAndReThrow((AutoCloseable) iterator);
+            }
+        }
+
+        private void cleanupForCancel() {
+            requestN = -1;
+            ignoreRequests = true;
+        }
+
+        private void sendOnError(final Throwable cause) {
+            try {
+                cancel();
+            } catch (Throwable t) {
+                cause.addSuppressed(t);
+            }
+            try {
+                subscriber.onError(cause);
+            } catch (Throwable t) {
+                LOGGER.info("Ignoring exception from onError of Subscriber {}.", subscriber, t);
+            }
+        }
+
+        private void sendOnComplete() {
+            cleanupForCancel();
+            try {
+                subscriber.onComplete();
+            } catch (Throwable t) {
+                LOGGER.info("Ignoring exception from onComplete of Subscriber {}.", subscriber, t);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import java.util.Iterator;
+
+/**
+ * A synchronous {@link Publisher} source whose items can be pulled directly by a fused downstream operator, instead
+ * of being pushed with an {@link PublisherSource.Subscriber#onNext(Object)} call per item.
+ *
+ * @param <T> Type of items emitted.
+ * @see FusedMapFilterPublisher
+ */
+interface FusibleSource<T> {
+
+    /**
+     * Returns a new {@link Iterator} over the items this source emits to each {@link PublisherSource.Subscriber}.
+     *
+     * @return a new {@link Iterator} over the items this source emits to each {@link PublisherSource.Subscriber}.
+     */
+    Iterator<? extends T> newIterator();
+}
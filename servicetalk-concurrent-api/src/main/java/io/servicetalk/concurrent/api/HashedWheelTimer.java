@@ -0,0 +1,339 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.Cancellable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.utils.internal.PlatformDependent.newUnboundedMpscQueue;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+
+/**
+ * A hashed timer wheel with {@code O(1)} schedule and cancel.
+ * <p>
+ * Unlike a {@link java.util.concurrent.ScheduledThreadPoolExecutor}, which keeps all tasks in a heap, tasks are hashed
+ * into buckets by their deadline and a worker thread only visits one bucket per tick. Tasks whose deadline is further
+ * away than one revolution of the wheel stay in their bucket for the remaining number of rounds. The precision of the
+ * timer is one tick, tasks never run before their deadline.
+ * <p>
+ * The timer is split into independent shards, each with its own wheel and worker thread. A scheduling thread always
+ * uses the same shard, so event loop threads which schedule most of the timeouts don't contend with each other.
+ * Scheduled tasks run on the worker thread and therefore must not block.
+ */
+final class HashedWheelTimer implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final Shard[] shards;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param shards the number of independent wheels, each with its own worker thread.
+     * @param tickDuration the duration of one tick.
+     * @param tickUnit the {@link TimeUnit} of {@code tickDuration}.
+     * @param ticksPerWheel the number of buckets of each wheel, rounded up to a power of two.
+     * @param threadFactory the {@link ThreadFactory} used to create worker threads.
+     */
+    HashedWheelTimer(final int shards, final long tickDuration, final TimeUnit tickUnit, final int ticksPerWheel,
+                     final ThreadFactory threadFactory) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards: " + shards + " (expected >0)");
+        }
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration: " + tickDuration + " (expected >0)");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("ticksPerWheel: " + ticksPerWheel + " (expected >0 and <=2^30)");
+        }
+        final long tickNanos = tickUnit.toNanos(tickDuration);
+        final int buckets = ticksPerWheel == 1 ? 1 : highestOneBit(ticksPerWheel - 1) << 1;
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; ++i) {
+            this.shards[i] = new Shard(tickNanos, buckets);
+        }
+        for (Shard shard : this.shards) {
+            final Thread worker = threadFactory.newThread(shard);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Schedules a task to run on a worker thread after the passed delay.
+     *
+     * @param task the task to run, must not block.
+     * @param delay the delay after which the task runs.
+     * @param unit the {@link TimeUnit} of {@code delay}.
+     * @return a {@link Cancellable} which removes the task from the timer.
+     */
+    Cancellable schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        final Shard shard = shards.length == 1 ? shards[0] :
+                shards[(System.identityHashCode(Thread.currentThread()) & Integer.MAX_VALUE) % shards.length];
+        return shard.schedule(task, unit.toNanos(delay));
+    }
+
+    /**
+     * Returns the number of tasks which are scheduled and not yet expired or cancelled.
+     *
+     * @return the number of tasks which are scheduled and not yet expired or cancelled.
+     */
+    long pendingTasks() {
+        long pending = 0;
+        for (Shard shard : shards) {
+            pending += shard.pendingTasks();
+        }
+        return pending;
+    }
+
+    /**
+     * Stops all worker threads. Tasks which did not run yet are dropped.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return HashedWheelTimer.class.getSimpleName() + "{shards=" + shards.length + '}';
+    }
+
+    private static final class Shard implements Runnable {
+        private static final AtomicIntegerFieldUpdater<Shard> activeTasksUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Shard.class, "activeTasks");
+
+        private final long tickNanos;
+        private final long startTime;
+        private final Bucket[] wheel;
+        private final int mask;
+        private final Queue<Timeout> scheduled = newUnboundedMpscQueue();
+        private final Queue<Timeout> cancelled = newUnboundedMpscQueue();
+        private volatile int activeTasks;
+        private volatile boolean closed;
+        @Nullable
+        private volatile Thread workerThread;
+        /**
+         * Only accessed from the worker thread.
+         */
+        private long tick;
+
+        Shard(final long tickNanos, final int buckets) {
+            this.tickNanos = tickNanos;
+            this.startTime = System.nanoTime();
+            wheel = new Bucket[buckets];
+            for (int i = 0; i < buckets; ++i) {
+                wheel[i] = new Bucket();
+            }
+            mask = buckets - 1;
+        }
+
+        Cancellable schedule(final Runnable task, final long delayNanos) {
+            if (closed) {
+                throw new IllegalStateException("Timer is closed, task rejected: " + task);
+            }
+            long deadline = System.nanoTime() - startTime + max(0, delayNanos);
+            if (deadline < 0 && delayNanos > 0) {
+                deadline = Long.MAX_VALUE;  // Guard against overflow
+            }
+            final Timeout timeout = new Timeout(this, task, deadline);
+            activeTasksUpdater.incrementAndGet(this);
+            scheduled.add(timeout);
+            return timeout;
+        }
+
+        int pendingTasks() {
+            return activeTasks;
+        }
+
+        void close() {
+            closed = true;
+            final Thread worker = workerThread;
+            if (worker != null) {
+                LockSupport.unpark(worker);
+            }
+        }
+
+        @Override
+        public void run() {
+            workerThread = Thread.currentThread();
+            while (!closed) {
+                final long tickDeadline = (tick + 1) * tickNanos;
+                long sleepNanos;
+                while ((sleepNanos = tickDeadline - (System.nanoTime() - startTime)) > 0 && !closed) {
+                    LockSupport.parkNanos(this, sleepNanos);
+                }
+                if (closed) {
+                    break;
+                }
+                removeCancelled();
+                transferScheduled();
+                expire(wheel[(int) (tick & mask)]);
+                ++tick;
+            }
+        }
+
+        private void removeCancelled() {
+            Timeout timeout;
+            while ((timeout = cancelled.poll()) != null) {
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                }
+            }
+        }
+
+        private void transferScheduled() {
+            Timeout timeout;
+            while ((timeout = scheduled.poll()) != null) {
+                if (timeout.state != Timeout.STATE_INIT) {
+                    continue;  // Cancelled before it was added to the wheel.
+                }
+                final long expirationTick = timeout.deadline / tickNanos;
+                // Tasks which should have already expired go into the current bucket.
+                timeout.remainingRounds = (max(expirationTick, tick) - tick) / wheel.length;
+                wheel[(int) (max(expirationTick, tick) & mask)].add(timeout);
+            }
+        }
+
+        private void expire(final Bucket bucket) {
+            Timeout timeout = bucket.head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    bucket.remove(timeout);
+                    timeout.expire();
+                } else {
+                    --timeout.remainingRounds;
+                }
+                timeout = next;
+            }
+        }
+
+        void cancelled(final Timeout timeout) {
+            activeTasksUpdater.decrementAndGet(this);
+            cancelled.add(timeout);
+            // No need to wake up the worker thread, the timeout is removed with the next tick.
+        }
+
+        void expired() {
+            activeTasksUpdater.decrementAndGet(this);
+        }
+    }
+
+    /**
+     * A doubly linked list of {@link Timeout}s, only accessed from the worker thread.
+     */
+    private static final class Bucket {
+        @Nullable
+        Timeout head;
+        @Nullable
+        Timeout tail;
+
+        void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (tail == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(final Timeout timeout) {
+            final Timeout next = timeout.next;
+            final Timeout prev = timeout.prev;
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                head = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            } else {
+                tail = prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    private static final class Timeout implements Cancellable {
+        private static final int STATE_INIT = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> stateUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final Shard shard;
+        private final Runnable task;
+        /**
+         * Deadline in nanoseconds, relative to the start time of the {@link Shard}.
+         */
+        final long deadline;
+        volatile int state;
+
+        // Only accessed from the worker thread:
+        long remainingRounds;
+        @Nullable
+        Bucket bucket;
+        @Nullable
+        Timeout next;
+        @Nullable
+        Timeout prev;
+
+        Timeout(final Shard shard, final Runnable task, final long deadline) {
+            this.shard = shard;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void cancel() {
+            if (stateUpdater.compareAndSet(this, STATE_INIT, STATE_CANCELLED)) {
+                shard.cancelled(this);
+            }
+        }
+
+        void expire() {
+            if (stateUpdater.compareAndSet(this, STATE_INIT, STATE_EXPIRED)) {
+                shard.expired();
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    LOGGER.error("Scheduled task {} threw an exception on the timer thread.", task, t);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return Timeout.class.getSimpleName() + "{deadline=" + deadline + "ns, task=" + task + '}';
+        }
+    }
+}
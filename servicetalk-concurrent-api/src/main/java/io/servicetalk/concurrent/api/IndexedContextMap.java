@@ -0,0 +1,312 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.internal.ContextMapUtils;
+import io.servicetalk.context.api.ContextMap;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.internal.ContextMapUtils.ensureType;
+import static java.lang.Math.max;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A Copy-on-Write {@link ContextMap} which stores values of {@link Key#newIndexedKey(String, Class) indexed keys} in
+ * an array slot derived from the {@link Key#index() key index}.
+ * <p>
+ * Lookups of indexed keys are a single array access, and modifications clone a small array sized by the highest index
+ * in use. Keys which are not indexed are stored in a lazily created {@link CopyOnWriteContextMap}.
+ */
+final class IndexedContextMap implements ContextMap {
+    private static final Object[] EMPTY_SLOTS = new Object[0];
+    /**
+     * Marks a present key with a {@code null} value, {@code null} slots are absent keys.
+     */
+    private static final Object NULL_VALUE = new Object();
+    private static final AtomicReferenceFieldUpdater<IndexedContextMap, Object[]> slotsUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(IndexedContextMap.class, Object[].class, "slots");
+    private static final AtomicReferenceFieldUpdater<IndexedContextMap, CopyOnWriteContextMap> othersUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(IndexedContextMap.class, CopyOnWriteContextMap.class, "others");
+
+    /**
+     * Key-value pairs: the key at {@code 2 * index} and the value at {@code 2 * index + 1}.
+     */
+    private volatile Object[] slots;
+    @Nullable
+    private volatile CopyOnWriteContextMap others;
+
+    IndexedContextMap() {
+        this(EMPTY_SLOTS, null);
+    }
+
+    private IndexedContextMap(final Object[] slots, @Nullable final CopyOnWriteContextMap others) {
+        this.slots = slots;
+        this.others = others;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        final Object[] slots = this.slots;
+        for (int i = 1; i < slots.length; i += 2) {
+            if (slots[i] != null) {
+                ++size;
+            }
+        }
+        final CopyOnWriteContextMap others = this.others;
+        return others == null ? size : size + others.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Key<?> key) {
+        final int index = key.index();
+        if (index < 0) {
+            final CopyOnWriteContextMap others = this.others;
+            return others != null && others.containsKey(key);
+        }
+        final Object[] slots = this.slots;
+        final int i = valueSlot(index);
+        return i < slots.length && slots[i] != null;
+    }
+
+    @Override
+    public boolean containsValue(@Nullable final Object value) {
+        final Object[] slots = this.slots;
+        final Object wrapped = value == null ? NULL_VALUE : value;
+        for (int i = 1; i < slots.length; i += 2) {
+            if (slots[i] != null && slots[i].equals(wrapped)) {
+                return true;
+            }
+        }
+        final CopyOnWriteContextMap others = this.others;
+        return others != null && others.containsValue(value);
+    }
+
+    @Override
+    public <T> boolean contains(final Key<T> key, @Nullable final T value) {
+        if (key.index() < 0) {
+            final CopyOnWriteContextMap others = this.others;
+            return others != null && others.contains(key, value);
+        }
+        final Object[] slots = this.slots;
+        final int i = valueSlot(key.index());
+        return i < slots.length && slots[i] != null && Objects.equals(unwrap(slots[i]), value);
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(final Key<T> key) {
+        final int index = key.index();
+        if (index < 0) {
+            final CopyOnWriteContextMap others = this.others;
+            return others == null ? null : others.get(key);
+        }
+        final Object[] slots = this.slots;
+        final int i = valueSlot(index);
+        return i < slots.length ? unwrap(slots[i]) : null;
+    }
+
+    @Nullable
+    @Override
+    public <T> T getOrDefault(final Key<T> key, final T defaultValue) {
+        final int index = key.index();
+        if (index < 0) {
+            final CopyOnWriteContextMap others = this.others;
+            return others == null ? defaultValue : others.getOrDefault(key, defaultValue);
+        }
+        final Object[] slots = this.slots;
+        final int i = valueSlot(index);
+        return i < slots.length && slots[i] != null ? unwrap(slots[i]) : defaultValue;
+    }
+
+    @Nullable
+    @Override
+    public <T> T put(final Key<T> key, @Nullable final T value) {
+        final int index = requireNonNull(key).index();
+        if (index < 0) {
+            return others().put(key, value);
+        }
+        ensureType(key, value);
+        final int i = valueSlot(index);
+        for (;;) {
+            final Object[] current = slots;
+            if (slotsUpdater.compareAndSet(this, current, withValue(current, key, i, value))) {
+                return i < current.length ? unwrap(current[i]) : null;
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T putIfAbsent(final Key<T> key, @Nullable final T value) {
+        final int index = requireNonNull(key).index();
+        if (index < 0) {
+            return others().putIfAbsent(key, value);
+        }
+        ensureType(key, value);
+        final int i = valueSlot(index);
+        for (;;) {
+            final Object[] current = slots;
+            final T prev = i < current.length ? unwrap(current[i]) : null;
+            if (prev != null || slotsUpdater.compareAndSet(this, current, withValue(current, key, i, value))) {
+                return prev;
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeIfAbsent(final Key<T> key, final Function<Key<T>, T> computeFunction) {
+        final int index = requireNonNull(key).index();
+        if (index < 0) {
+            return others().computeIfAbsent(key, computeFunction);
+        }
+        requireNonNull(computeFunction);
+        final int i = valueSlot(index);
+        for (;;) {
+            final Object[] current = slots;
+            final T prev = i < current.length ? unwrap(current[i]) : null;
+            if (prev != null) {
+                return prev;
+            }
+            // Same as CopyOnWriteContextMap, a computed null value is stored.
+            final T value = computeFunction.apply(key);
+            ensureType(key, value);
+            if (slotsUpdater.compareAndSet(this, current, withValue(current, key, i, value))) {
+                return value;
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T remove(final Key<T> key) {
+        final int index = key.index();
+        if (index < 0) {
+            final CopyOnWriteContextMap others = this.others;
+            return others == null ? null : others.remove(key);
+        }
+        final int i = valueSlot(index);
+        for (;;) {
+            final Object[] current = slots;
+            if (i >= current.length || current[i] == null) {
+                return null;
+            }
+            final Object[] next = current.clone();
+            next[i - 1] = null;
+            next[i] = null;
+            if (slotsUpdater.compareAndSet(this, current, next)) {
+                return unwrap(current[i]);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        slots = EMPTY_SLOTS;
+        others = null;
+    }
+
+    @Nullable
+    @Override
+    public Key<?> forEach(final BiPredicate<Key<?>, Object> consumer) {
+        final Object[] slots = this.slots;
+        for (int i = 0; i < slots.length; i += 2) {
+            if (slots[i] != null) {
+                final Key<?> key = (Key<?>) slots[i];
+                if (!consumer.test(key, unwrap(slots[i + 1]))) {
+                    return key;
+                }
+            }
+        }
+        final CopyOnWriteContextMap others = this.others;
+        return others == null ? null : others.forEach(consumer);
+    }
+
+    @Override
+    public ContextMap copy() {
+        final CopyOnWriteContextMap others = this.others;
+        // Both, the slots array and the CopyOnWriteContextMap state, are immutable and can be shared.
+        return new IndexedContextMap(slots, others == null ? null : (CopyOnWriteContextMap) others.copy());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContextMap)) {
+            return false;
+        }
+        return ContextMapUtils.equals(this, (ContextMap) o);
+    }
+
+    @Override
+    public int hashCode() {
+        final int[] hash = new int[1];
+        forEach((key, value) -> {
+            hash[0] += key.hashCode() ^ Objects.hashCode(value);
+            return true;
+        });
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        return ContextMapUtils.toString(this);
+    }
+
+    private CopyOnWriteContextMap others() {
+        CopyOnWriteContextMap others = this.others;
+        if (others == null) {
+            others = new CopyOnWriteContextMap();
+            if (!othersUpdater.compareAndSet(this, null, others)) {
+                others = this.others;
+                assert others != null;
+            }
+        }
+        return others;
+    }
+
+    private static int valueSlot(final int index) {
+        return (index << 1) + 1;
+    }
+
+    private static Object[] withValue(final Object[] current, final Key<?> key, final int valueSlot,
+                                      @Nullable final Object value) {
+        final Object[] next = Arrays.copyOf(current, max(current.length, valueSlot + 1));
+        next[valueSlot - 1] = key;
+        next[valueSlot] = value == null ? NULL_VALUE : value;
+        return next;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <T> T unwrap(@Nullable final Object value) {
+        return value == NULL_VALUE ? null : (T) value;
+    }
+}
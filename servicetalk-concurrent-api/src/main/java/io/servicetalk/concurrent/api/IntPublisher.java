@@ -0,0 +1,575 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.PublisherSource.Subscription;
+import io.servicetalk.concurrent.SingleSource;
+import io.servicetalk.concurrent.internal.ConcurrentSubscription;
+import io.servicetalk.concurrent.internal.DelayedCancellable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.internal.FlowControlUtils.addWithOverflowProtection;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.checkDuplicateSubscription;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.isRequestNValid;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.newExceptionForInvalidRequestN;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Publisher} of primitive {@code int}s which delivers items without boxing them.
+ * <p>
+ * Sources and operators follow the same backpressure and cancellation semantics as {@link Publisher}: items are only
+ * delivered after they are requested via {@link Subscription#request(long)}, and no items are delivered after
+ * {@link Subscription#cancel()}. All sources are synchronous, so items are delivered on the thread which requests
+ * them. Use {@link #mapToObj(IntFunction)} to continue with a regular {@link Publisher}, which also captures the
+ * {@link AsyncContext} like other {@link Publisher} sources do.
+ */
+public abstract class IntPublisher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IntPublisher.class);
+
+    IntPublisher() {
+    }
+
+    /**
+     * Create a new {@link IntPublisher} that when subscribed will emit all {@code int}s within the range of
+     * [{@code begin}, {@code end}).
+     *
+     * @param begin The beginning of the range (inclusive).
+     * @param end The end of the range (exclusive).
+     * @return a new {@link IntPublisher} that when subscribed will emit all {@code int}s within the range of
+     * [{@code begin}, {@code end}).
+     * @see Publisher#range(int, int)
+     */
+    public static IntPublisher range(int begin, int end) {
+        return range(begin, end, 1);
+    }
+
+    /**
+     * Create a new {@link IntPublisher} that when subscribed will emit all {@code int}s within the range of
+     * [{@code begin}, {@code end}) with an increment of {@code stride} between each signal.
+     *
+     * @param begin The beginning of the range (inclusive).
+     * @param end The end of the range (exclusive).
+     * @param stride The amount to increment in between each signal.
+     * @return a new {@link IntPublisher} that when subscribed will emit all {@code int}s within the range of
+     * [{@code begin}, {@code end}) with an increment of {@code stride} between each signal.
+     * @see Publisher#range(int, int, int)
+     */
+    public static IntPublisher range(int begin, int end, int stride) {
+        if (begin > end) {
+            throw new IllegalArgumentException("begin(" + begin + ") > end(" + end + ")");
+        }
+        if (stride <= 0) {
+            throw new IllegalArgumentException("stride: " + stride + " (expected >0)");
+        }
+        return new IntRangePublisher(begin, end, stride);
+    }
+
+    /**
+     * Create a new {@link IntPublisher} that emits all {@code values} to its {@link IntSubscriber} and then
+     * {@link IntSubscriber#onComplete()}.
+     *
+     * @param values Values that the returned {@link IntPublisher} will emit. The array is not copied.
+     * @return a new {@link IntPublisher} that emits all {@code values} to its {@link IntSubscriber} and then
+     * {@link IntSubscriber#onComplete()}.
+     * @see Publisher#from(Object[])
+     */
+    public static IntPublisher from(int... values) {
+        return new FromIntArrayPublisher(requireNonNull(values));
+    }
+
+    /**
+     * Transforms elements emitted by this {@link IntPublisher} into a different value.
+     *
+     * @param mapper Function to transform each item emitted by this {@link IntPublisher}.
+     * @return An {@link IntPublisher} that transforms elements emitted by this {@link IntPublisher} into a different
+     * value.
+     * @see Publisher#map(java.util.function.Function)
+     */
+    public final IntPublisher map(IntUnaryOperator mapper) {
+        requireNonNull(mapper);
+        return new IntPublisher() {
+            @Override
+            void handleSubscribe(final IntSubscriber subscriber) {
+                IntPublisher.this.handleSubscribe(new MapIntSubscriber(subscriber, mapper));
+            }
+        };
+    }
+
+    /**
+     * Filters items emitted by this {@link IntPublisher}.
+     *
+     * @param predicate for the filter.
+     * @return An {@link IntPublisher} that only emits the items that pass the {@code predicate}.
+     * @see Publisher#filter(java.util.function.Predicate)
+     */
+    public final IntPublisher filter(IntPredicate predicate) {
+        requireNonNull(predicate);
+        return new IntPublisher() {
+            @Override
+            void handleSubscribe(final IntSubscriber subscriber) {
+                IntPublisher.this.handleSubscribe(new FilterIntSubscriber(subscriber, predicate));
+            }
+        };
+    }
+
+    /**
+     * Transforms elements emitted by this {@link IntPublisher} into {@code long}s.
+     *
+     * @param mapper Function to transform each item emitted by this {@link IntPublisher}.
+     * @return A {@link LongPublisher} that emits the transformed elements emitted by this {@link IntPublisher}.
+     */
+    public final LongPublisher mapToLong(IntToLongFunction mapper) {
+        requireNonNull(mapper);
+        return new LongPublisher() {
+            @Override
+            void handleSubscribe(final LongPublisher.LongSubscriber subscriber) {
+                IntPublisher.this.handleSubscribe(new IntSubscriber() {
+                    @Override
+                    public void onSubscribe(final Subscription subscription) {
+                        subscriber.onSubscribe(subscription);
+                    }
+
+                    @Override
+                    public void onNext(final int item) {
+                        subscriber.onNext(mapper.applyAsLong(item));
+                    }
+
+                    @Override
+                    public void onError(final Throwable t) {
+                        subscriber.onError(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        subscriber.onComplete();
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Transforms elements emitted by this {@link IntPublisher} into objects, continuing with a regular
+     * {@link Publisher}.
+     *
+     * @param mapper Function to transform each item emitted by this {@link IntPublisher}.
+     * @param <R> Type of items emitted by the returned {@link Publisher}.
+     * @return A {@link Publisher} that emits the transformed elements emitted by this {@link IntPublisher}.
+     */
+    public final <R> Publisher<R> mapToObj(IntFunction<? extends R> mapper) {
+        requireNonNull(mapper);
+        return new AbstractSynchronousPublisher<R>() {
+            @Override
+            void doSubscribe(final Subscriber<? super R> subscriber) {
+                IntPublisher.this.handleSubscribe(new IntSubscriber() {
+                    @Override
+                    public void onSubscribe(final Subscription subscription) {
+                        subscriber.onSubscribe(subscription);
+                    }
+
+                    @Override
+                    public void onNext(final int item) {
+                        subscriber.onNext(mapper.apply(item));
+                    }
+
+                    @Override
+                    public void onError(final Throwable t) {
+                        subscriber.onError(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        subscriber.onComplete();
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Boxes elements emitted by this {@link IntPublisher}, continuing with a regular {@link Publisher}.
+     *
+     * @return A {@link Publisher} that emits the elements emitted by this {@link IntPublisher}.
+     */
+    public final Publisher<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    /**
+     * Sums all elements emitted by this {@link IntPublisher}.
+     *
+     * @return A {@link Single} that completes with the sum of all elements emitted by this {@link IntPublisher}, or
+     * {@code 0} if no elements are emitted.
+     */
+    public final Single<Long> sum() {
+        return new AbstractSynchronousSingle<Long>() {
+            @Override
+            void doSubscribe(final Subscriber<? super Long> subscriber) {
+                IntPublisher.this.handleSubscribe(new SumSubscriber(subscriber));
+            }
+        };
+    }
+
+    /**
+     * Collects all elements emitted by this {@link IntPublisher} into an array.
+     *
+     * @return A {@link Single} that completes with an array of all elements emitted by this {@link IntPublisher}, in
+     * the order in which they are emitted.
+     */
+    public final Single<int[]> collectToArray() {
+        return new AbstractSynchronousSingle<int[]>() {
+            @Override
+            void doSubscribe(final Subscriber<? super int[]> subscriber) {
+                IntPublisher.this.handleSubscribe(new ToArraySubscriber(subscriber));
+            }
+        };
+    }
+
+    /**
+     * Subscribes to this {@link IntPublisher}.
+     *
+     * @param subscriber the {@link IntSubscriber} which receives the items.
+     */
+    public final void subscribe(IntSubscriber subscriber) {
+        handleSubscribe(requireNonNull(subscriber));
+    }
+
+    /**
+     * Handles a subscriber to this {@link IntPublisher}.
+     *
+     * @param subscriber the subscriber.
+     */
+    abstract void handleSubscribe(IntSubscriber subscriber);
+
+    /**
+     * A {@link io.servicetalk.concurrent.PublisherSource.Subscriber} of primitive {@code int}s.
+     */
+    public interface IntSubscriber {
+        /**
+         * Callback to receive a {@link Subscription} for this {@link IntSubscriber}.
+         *
+         * @param subscription {@link Subscription} for this {@link IntSubscriber}.
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Callback to receive an item for this {@link IntSubscriber}.
+         *
+         * @param item the item.
+         */
+        void onNext(int item);
+
+        /**
+         * Callback to receive an error for this {@link IntSubscriber}.
+         *
+         * @param t the error.
+         */
+        void onError(Throwable t);
+
+        /**
+         * Callback to signal completion of the {@link IntPublisher} for this {@link IntSubscriber}.
+         */
+        void onComplete();
+    }
+
+    private static final class IntRangePublisher extends IntPublisher {
+        private final int begin;
+        private final int end;
+        private final int stride;
+
+        IntRangePublisher(final int begin, final int end, final int stride) {
+            this.begin = begin;
+            this.end = end;
+            this.stride = stride;
+        }
+
+        @Override
+        void handleSubscribe(final IntSubscriber subscriber) {
+            subscribeWith(subscriber, new SourceSubscription(subscriber) {
+                private int index = begin;
+
+                @Override
+                boolean hasNext() {
+                    return index < end;
+                }
+
+                @Override
+                int next() {
+                    final int next = index;
+                    index += (int) min(stride, (long) end - index);
+                    return next;
+                }
+            });
+        }
+    }
+
+    private static final class FromIntArrayPublisher extends IntPublisher {
+        private final int[] values;
+
+        FromIntArrayPublisher(final int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        void handleSubscribe(final IntSubscriber subscriber) {
+            subscribeWith(subscriber, new SourceSubscription(subscriber) {
+                private int index;
+
+                @Override
+                boolean hasNext() {
+                    return index < values.length;
+                }
+
+                @Override
+                int next() {
+                    return values[index++];
+                }
+            });
+        }
+    }
+
+    private static void subscribeWith(final IntSubscriber subscriber, final SourceSubscription subscription) {
+        try {
+            subscriber.onSubscribe(subscription);
+        } catch (Throwable t) {
+            // Same best effort as SubscriberUtils#handleExceptionFromOnSubscribe.
+            subscription.cancel();
+            try {
+                subscriber.onError(t);
+            } catch (Throwable t2) {
+                LOGGER.info("Ignoring exception from onError of Subscriber {}.", subscriber, t2);
+            }
+            LOGGER.warn("Unexpected exception from onSubscribe of Subscriber {}.", subscriber, t);
+        }
+    }
+
+    /**
+     * Delivers items on demand from a synchronous source, like the {@link Publisher#range(int, int)} source.
+     */
+    private abstract static class SourceSubscription implements Subscription {
+        private final IntSubscriber subscriber;
+        private long pendingN;
+
+        SourceSubscription(final IntSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        abstract boolean hasNext();
+
+        abstract int next();
+
+        @Override
+        public final void request(final long n) {
+            if (pendingN < 0) {
+                return;
+            }
+            if (!isRequestNValid(n)) {
+                sendOnError(newExceptionForInvalidRequestN(n));
+                return;
+            }
+            if (pendingN != 0) {
+                // this call is re-entrant. just add to pending and deliver onNext when the stack unwinds.
+                pendingN = addWithOverflowProtection(pendingN, n);
+                return;
+            }
+            pendingN = addWithOverflowProtection(pendingN, n);
+            for (; pendingN > 0 && hasNext(); --pendingN) {
+                try {
+                    subscriber.onNext(next());
+                } catch (Throwable cause) {
+                    sendOnError(cause);
+                    return;
+                }
+            }
+            if (pendingN >= 0 && !hasNext()) {
+                sendComplete();
+            }
+        }
+
+        @Override
+        public final void cancel() {
+            pendingN = -1; // must be negative value to prevent signal after terminal event.
+        }
+
+        private void sendOnError(final Throwable cause) {
+            cancel();
+            try {
+                subscriber.onError(cause);
+            } catch (Throwable t) {
+                LOGGER.info("Ignoring exception from onError of Subscriber {}.", subscriber, t);
+            }
+        }
+
+        private void sendComplete() {
+            cancel();
+            try {
+                subscriber.onComplete();
+            } catch (Throwable t) {
+                LOGGER.info("Ignoring exception from onComplete of Subscriber {}.", subscriber, t);
+            }
+        }
+    }
+
+    private static final class MapIntSubscriber implements IntSubscriber {
+        private final IntSubscriber subscriber;
+        private final IntUnaryOperator mapper;
+
+        MapIntSubscriber(final IntSubscriber subscriber, final IntUnaryOperator mapper) {
+            this.subscriber = subscriber;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            subscriber.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(final int item) {
+            // If the mapper throws we propagate to the source which is responsible to terminate its subscriber and
+            // cancel the subscription.
+            subscriber.onNext(mapper.applyAsInt(item));
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            subscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+    }
+
+    private static final class FilterIntSubscriber implements IntSubscriber {
+        private final IntSubscriber subscriber;
+        private final IntPredicate predicate;
+        @Nullable
+        private Subscription subscription;
+
+        FilterIntSubscriber(final IntSubscriber subscriber, final IntPredicate predicate) {
+            this.subscriber = subscriber;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            if (checkDuplicateSubscription(subscription, s)) {
+                subscription = ConcurrentSubscription.wrap(s);
+                subscriber.onSubscribe(subscription);
+            }
+        }
+
+        @Override
+        public void onNext(final int item) {
+            if (predicate.test(item)) {
+                subscriber.onNext(item);
+            } else {
+                assert subscription != null;
+                subscription.request(1); // Since we filtered one item.
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            subscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+    }
+
+    private static final class SumSubscriber extends DelayedCancellable implements IntSubscriber {
+        private final SingleSource.Subscriber<? super Long> subscriber;
+        private long sum;
+
+        SumSubscriber(final SingleSource.Subscriber<? super Long> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            subscriber.onSubscribe(this);
+            // A synchronous source delivers all items from request(n), cancel must reach it while it does.
+            delayedCancellable(s);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final int item) {
+            sum += item;
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            subscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onSuccess(sum);
+        }
+    }
+
+    private static final class ToArraySubscriber extends DelayedCancellable implements IntSubscriber {
+        private final SingleSource.Subscriber<? super int[]> subscriber;
+        private int[] items = new int[16];
+        private int size;
+
+        ToArraySubscriber(final SingleSource.Subscriber<? super int[]> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            subscriber.onSubscribe(this);
+            // A synchronous source delivers all items from request(n), cancel must reach it while it does.
+            delayedCancellable(s);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size << 1);
+            }
+            items[size++] = item;
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            subscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onSuccess(size == items.length ? items : Arrays.copyOf(items, size));
+        }
+    }
+}
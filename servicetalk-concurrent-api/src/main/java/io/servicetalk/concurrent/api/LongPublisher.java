@@ -0,0 +1,537 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.PublisherSource.Subscription;
+import io.servicetalk.concurrent.SingleSource;
+import io.servicetalk.concurrent.internal.ConcurrentSubscription;
+import io.servicetalk.concurrent.internal.DelayedCancellable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.internal.FlowControlUtils.addWithOverflowProtection;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.checkDuplicateSubscription;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.isRequestNValid;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.newExceptionForInvalidRequestN;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Publisher} of primitive {@code long}s which delivers items without boxing them.
+ * <p>
+ * Sources and operators follow the same backpressure and cancellation semantics as {@link Publisher}: items are only
+ * delivered after they are requested via {@link Subscription#request(long)}, and no items are delivered after
+ * {@link Subscription#cancel()}. All sources are synchronous, so items are delivered on the thread which requests
+ * them. Use {@link #mapToObj(LongFunction)} to continue with a regular {@link Publisher}, which also captures the
+ * {@link AsyncContext} like other {@link Publisher} sources do.
+ */
+public abstract class LongPublisher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LongPublisher.class);
+
+    LongPublisher() {
+    }
+
+    /**
+     * Create a new {@link LongPublisher} that when subscribed will emit all {@code long}s within the range of
+     * [{@code begin}, {@code end}).
+     *
+     * @param begin The beginning of the range (inclusive).
+     * @param end The end of the range (exclusive).
+     * @return a new {@link LongPublisher} that when subscribed will emit all {@code long}s within the range of
+     * [{@code begin}, {@code end}).
+     */
+    public static LongPublisher range(long begin, long end) {
+        return range(begin, end, 1);
+    }
+
+    /**
+     * Create a new {@link LongPublisher} that when subscribed will emit all {@code long}s within the range of
+     * [{@code begin}, {@code end}) with an increment of {@code stride} between each signal.
+     *
+     * @param begin The beginning of the range (inclusive).
+     * @param end The end of the range (exclusive).
+     * @param stride The amount to increment in between each signal.
+     * @return a new {@link LongPublisher} that when subscribed will emit all {@code long}s within the range of
+     * [{@code begin}, {@code end}) with an increment of {@code stride} between each signal.
+     */
+    public static LongPublisher range(long begin, long end, long stride) {
+        if (begin > end) {
+            throw new IllegalArgumentException("begin(" + begin + ") > end(" + end + ")");
+        }
+        if (stride <= 0) {
+            throw new IllegalArgumentException("stride: " + stride + " (expected >0)");
+        }
+        return new LongRangePublisher(begin, end, stride);
+    }
+
+    /**
+     * Create a new {@link LongPublisher} that emits all {@code values} to its {@link LongSubscriber} and then
+     * {@link LongSubscriber#onComplete()}.
+     *
+     * @param values Values that the returned {@link LongPublisher} will emit. The array is not copied.
+     * @return a new {@link LongPublisher} that emits all {@code values} to its {@link LongSubscriber} and then
+     * {@link LongSubscriber#onComplete()}.
+     * @see Publisher#from(Object[])
+     */
+    public static LongPublisher from(long... values) {
+        return new FromLongArrayPublisher(requireNonNull(values));
+    }
+
+    /**
+     * Transforms elements emitted by this {@link LongPublisher} into a different value.
+     *
+     * @param mapper Function to transform each item emitted by this {@link LongPublisher}.
+     * @return A {@link LongPublisher} that transforms elements emitted by this {@link LongPublisher} into a different
+     * value.
+     * @see Publisher#map(java.util.function.Function)
+     */
+    public final LongPublisher map(LongUnaryOperator mapper) {
+        requireNonNull(mapper);
+        return new LongPublisher() {
+            @Override
+            void handleSubscribe(final LongSubscriber subscriber) {
+                LongPublisher.this.handleSubscribe(new MapLongSubscriber(subscriber, mapper));
+            }
+        };
+    }
+
+    /**
+     * Filters items emitted by this {@link LongPublisher}.
+     *
+     * @param predicate for the filter.
+     * @return A {@link LongPublisher} that only emits the items that pass the {@code predicate}.
+     * @see Publisher#filter(java.util.function.Predicate)
+     */
+    public final LongPublisher filter(LongPredicate predicate) {
+        requireNonNull(predicate);
+        return new LongPublisher() {
+            @Override
+            void handleSubscribe(final LongSubscriber subscriber) {
+                LongPublisher.this.handleSubscribe(new FilterLongSubscriber(subscriber, predicate));
+            }
+        };
+    }
+
+    /**
+     * Transforms elements emitted by this {@link LongPublisher} into objects, continuing with a regular
+     * {@link Publisher}.
+     *
+     * @param mapper Function to transform each item emitted by this {@link LongPublisher}.
+     * @param <R> Type of items emitted by the returned {@link Publisher}.
+     * @return A {@link Publisher} that emits the transformed elements emitted by this {@link LongPublisher}.
+     */
+    public final <R> Publisher<R> mapToObj(LongFunction<? extends R> mapper) {
+        requireNonNull(mapper);
+        return new AbstractSynchronousPublisher<R>() {
+            @Override
+            void doSubscribe(final Subscriber<? super R> subscriber) {
+                LongPublisher.this.handleSubscribe(new LongSubscriber() {
+                    @Override
+                    public void onSubscribe(final Subscription subscription) {
+                        subscriber.onSubscribe(subscription);
+                    }
+
+                    @Override
+                    public void onNext(final long item) {
+                        subscriber.onNext(mapper.apply(item));
+                    }
+
+                    @Override
+                    public void onError(final Throwable t) {
+                        subscriber.onError(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        subscriber.onComplete();
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Boxes elements emitted by this {@link LongPublisher}, continuing with a regular {@link Publisher}.
+     *
+     * @return A {@link Publisher} that emits the elements emitted by this {@link LongPublisher}.
+     */
+    public final Publisher<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+
+    /**
+     * Sums all elements emitted by this {@link LongPublisher}.
+     *
+     * @return A {@link Single} that completes with the sum of all elements emitted by this {@link LongPublisher}, or
+     * {@code 0} if no elements are emitted.
+     */
+    public final Single<Long> sum() {
+        return new AbstractSynchronousSingle<Long>() {
+            @Override
+            void doSubscribe(final Subscriber<? super Long> subscriber) {
+                LongPublisher.this.handleSubscribe(new SumSubscriber(subscriber));
+            }
+        };
+    }
+
+    /**
+     * Collects all elements emitted by this {@link LongPublisher} into an array.
+     *
+     * @return A {@link Single} that completes with an array of all elements emitted by this {@link LongPublisher}, in
+     * the order in which they are emitted.
+     */
+    public final Single<long[]> collectToArray() {
+        return new AbstractSynchronousSingle<long[]>() {
+            @Override
+            void doSubscribe(final Subscriber<? super long[]> subscriber) {
+                LongPublisher.this.handleSubscribe(new ToArraySubscriber(subscriber));
+            }
+        };
+    }
+
+    /**
+     * Subscribes to this {@link LongPublisher}.
+     *
+     * @param subscriber the {@link LongSubscriber} which receives the items.
+     */
+    public final void subscribe(LongSubscriber subscriber) {
+        handleSubscribe(requireNonNull(subscriber));
+    }
+
+    /**
+     * Handles a subscriber to this {@link LongPublisher}.
+     *
+     * @param subscriber the subscriber.
+     */
+    abstract void handleSubscribe(LongSubscriber subscriber);
+
+    /**
+     * A {@link io.servicetalk.concurrent.PublisherSource.Subscriber} of primitive {@code long}s.
+     */
+    public interface LongSubscriber {
+        /**
+         * Callback to receive a {@link Subscription} for this {@link LongSubscriber}.
+         *
+         * @param subscription {@link Subscription} for this {@link LongSubscriber}.
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Callback to receive an item for this {@link LongSubscriber}.
+         *
+         * @param item the item.
+         */
+        void onNext(long item);
+
+        /**
+         * Callback to receive an error for this {@link LongSubscriber}.
+         *
+         * @param t the error.
+         */
+        void onError(Throwable t);
+
+        /**
+         * Callback to signal completion of the {@link LongPublisher} for this {@link LongSubscriber}.
+         */
+        void onComplete();
+    }
+
+    private static final class LongRangePublisher extends LongPublisher {
+        private final long begin;
+        private final long end;
+        private final long stride;
+
+        LongRangePublisher(final long begin, final long end, final long stride) {
+            this.begin = begin;
+            this.end = end;
+            this.stride = stride;
+        }
+
+        @Override
+        void handleSubscribe(final LongSubscriber subscriber) {
+            subscribeWith(subscriber, new SourceSubscription(subscriber) {
+                private long index = begin;
+
+                @Override
+                boolean hasNext() {
+                    return index < end;
+                }
+
+                @Override
+                long next() {
+                    final long next = index;
+                    // The distance to the end may overflow, in which case it is larger than any stride.
+                    final long remaining = end - index;
+                    index = remaining > 0 && remaining <= stride ? end : index + stride;
+                    return next;
+                }
+            });
+        }
+    }
+
+    private static final class FromLongArrayPublisher extends LongPublisher {
+        private final long[] values;
+
+        FromLongArrayPublisher(final long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        void handleSubscribe(final LongSubscriber subscriber) {
+            subscribeWith(subscriber, new SourceSubscription(subscriber) {
+                private int index;
+
+                @Override
+                boolean hasNext() {
+                    return index < values.length;
+                }
+
+                @Override
+                long next() {
+                    return values[index++];
+                }
+            });
+        }
+    }
+
+    private static void subscribeWith(final LongSubscriber subscriber, final SourceSubscription subscription) {
+        try {
+            subscriber.onSubscribe(subscription);
+        } catch (Throwable t) {
+            // Same best effort as SubscriberUtils#handleExceptionFromOnSubscribe.
+            subscription.cancel();
+            try {
+                subscriber.onError(t);
+            } catch (Throwable t2) {
+                LOGGER.info("Ignoring exception from onError of Subscriber {}.", subscriber, t2);
+            }
+            LOGGER.warn("Unexpected exception from onSubscribe of Subscriber {}.", subscriber, t);
+        }
+    }
+
+    /**
+     * Delivers items on demand from a synchronous source, like {@link IntPublisher}.
+     */
+    private abstract static class SourceSubscription implements Subscription {
+        private final LongSubscriber subscriber;
+        private long pendingN;
+
+        SourceSubscription(final LongSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        abstract boolean hasNext();
+
+        abstract long next();
+
+        @Override
+        public final void request(final long n) {
+            if (pendingN < 0) {
+                return;
+            }
+            if (!isRequestNValid(n)) {
+                sendOnError(newExceptionForInvalidRequestN(n));
+                return;
+            }
+            if (pendingN != 0) {
+                // this call is re-entrant. just add to pending and deliver onNext when the stack unwinds.
+                pendingN = addWithOverflowProtection(pendingN, n);
+                return;
+            }
+            pendingN = addWithOverflowProtection(pendingN, n);
+            for (; pendingN > 0 && hasNext(); --pendingN) {
+                try {
+                    subscriber.onNext(next());
+                } catch (Throwable cause) {
+                    sendOnError(cause);
+                    return;
+                }
+            }
+            if (pendingN >= 0 && !hasNext()) {
+                sendComplete();
+            }
+        }
+
+        @Override
+        public final void cancel() {
+            pendingN = -1; // must be negative value to prevent signal after terminal event.
+        }
+
+        private void sendOnError(final Throwable cause) {
+            cancel();
+            try {
+                subscriber.onError(cause);
+            } catch (Throwable t) {
+                LOGGER.info("Ignoring exception from onError of Subscriber {}.", subscriber, t);
+            }
+        }
+
+        private void sendComplete() {
+            cancel();
+            try {
+                subscriber.onComplete();
+            } catch (Throwable t) {
+                LOGGER.info("Ignoring exception from onComplete of Subscriber {}.", subscriber, t);
+            }
+        }
+    }
+
+    private static final class MapLongSubscriber implements LongSubscriber {
+        private final LongSubscriber subscriber;
+        private final LongUnaryOperator mapper;
+
+        MapLongSubscriber(final LongSubscriber subscriber, final LongUnaryOperator mapper) {
+            this.subscriber = subscriber;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            subscriber.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(final long item) {
+            // If the mapper throws we propagate to the source which is responsible to terminate its subscriber and
+            // cancel the subscription.
+            subscriber.onNext(mapper.applyAsLong(item));
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            subscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+    }
+
+    private static final class FilterLongSubscriber implements LongSubscriber {
+        private final LongSubscriber subscriber;
+        private final LongPredicate predicate;
+        @Nullable
+        private Subscription subscription;
+
+        FilterLongSubscriber(final LongSubscriber subscriber, final LongPredicate predicate) {
+            this.subscriber = subscriber;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            if (checkDuplicateSubscription(subscription, s)) {
+                subscription = ConcurrentSubscription.wrap(s);
+                subscriber.onSubscribe(subscription);
+            }
+        }
+
+        @Override
+        public void onNext(final long item) {
+            if (predicate.test(item)) {
+                subscriber.onNext(item);
+            } else {
+                assert subscription != null;
+                subscription.request(1); // Since we filtered one item.
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            subscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+    }
+
+    private static final class SumSubscriber extends DelayedCancellable implements LongSubscriber {
+        private final SingleSource.Subscriber<? super Long> subscriber;
+        private long sum;
+
+        SumSubscriber(final SingleSource.Subscriber<? super Long> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            subscriber.onSubscribe(this);
+            // A synchronous source delivers all items from request(n), cancel must reach it while it does.
+            delayedCancellable(s);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final long item) {
+            sum += item;
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            subscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onSuccess(sum);
+        }
+    }
+
+    private static final class ToArraySubscriber extends DelayedCancellable implements LongSubscriber {
+        private final SingleSource.Subscriber<? super long[]> subscriber;
+        private long[] items = new long[16];
+        private int size;
+
+        ToArraySubscriber(final SingleSource.Subscriber<? super long[]> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            subscriber.onSubscribe(this);
+            // A synchronous source delivers all items from request(n), cancel must reach it while it does.
+            delayedCancellable(s);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final long item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size << 1);
+            }
+            items[size++] = item;
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            subscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onSuccess(size == items.length ? items : Arrays.copyOf(items, size));
+        }
+    }
+}
@@ -33,6 +33,10 @@ final class MapPublisher<R, T> extends AbstractSynchronousPublisherOperator<T, R
         this.mapper = requireNonNull(mapper);
     }
 
+    Function<? super T, ? extends R> mapper() {
+        return mapper;
+    }
+
     @Override
     public Subscriber<? super T> apply(Subscriber<? super R> originalSubscriber) {
         return new MapSubscriber<>(originalSubscriber, mapper);
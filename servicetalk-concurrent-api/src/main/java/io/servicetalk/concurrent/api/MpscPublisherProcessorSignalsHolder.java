@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.internal.QueueFullException;
+import io.servicetalk.concurrent.internal.TerminalNotification;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.ProcessorBufferUtils.consumeIfTerminal;
+import static io.servicetalk.concurrent.api.SubscriberApiUtils.unwrapNullUnchecked;
+import static io.servicetalk.concurrent.api.SubscriberApiUtils.wrapNull;
+import static io.servicetalk.concurrent.internal.TerminalNotification.complete;
+import static io.servicetalk.concurrent.internal.TerminalNotification.error;
+import static io.servicetalk.utils.internal.PlatformDependent.newMpmcQueue;
+import static io.servicetalk.utils.internal.PlatformDependent.newMpscQueue;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+
+/**
+ * A {@link PublisherProcessorSignalsHolder} which stores items in a bounded array queue, drops items on overflow and
+ * counts the dropped items.
+ * <p>
+ * Unlike {@link PublisherProcessorSignalHolders#fixedSizeDropHead(int)}, the terminal signal is kept outside of the
+ * queue and no lock is taken. When the newest item is dropped, the queue is MPSC. When the oldest item is dropped,
+ * producers which need to drop an item poll the head of the queue concurrently with the consumer, so the queue is
+ * MPMC: polling claims the head with a CAS on the consumer index, and only one of the racing threads gets each item.
+ *
+ * @param <T> Type of items stored in this holder.
+ */
+final class MpscPublisherProcessorSignalsHolder<T> implements PublisherProcessorSignalsHolder<T> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<MpscPublisherProcessorSignalsHolder> bufferedUpdater =
+            newUpdater(MpscPublisherProcessorSignalsHolder.class, "buffered");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpscPublisherProcessorSignalsHolder> droppedUpdater =
+            AtomicLongFieldUpdater.newUpdater(MpscPublisherProcessorSignalsHolder.class, "dropped");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<MpscPublisherProcessorSignalsHolder, TerminalNotification>
+            terminalUpdater = AtomicReferenceFieldUpdater.newUpdater(MpscPublisherProcessorSignalsHolder.class,
+            TerminalNotification.class, "terminal");
+
+    private final int maxBuffer;
+    private final boolean dropHead;
+    private final Queue<Object> items;
+
+    private volatile int buffered;
+    private volatile long dropped;
+    @Nullable
+    private volatile TerminalNotification terminal;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxBuffer Maximum number of items that can be buffered.
+     * @param dropHead {@code true} to drop the oldest buffered item when the buffer is full, {@code false} to drop
+     * the item being added.
+     */
+    MpscPublisherProcessorSignalsHolder(final int maxBuffer, final boolean dropHead) {
+        if (maxBuffer <= 0) {
+            throw new IllegalArgumentException("maxBuffer: " + maxBuffer + " (expected > 0)");
+        }
+        this.maxBuffer = maxBuffer;
+        this.dropHead = dropHead;
+        items = dropHead ? newMpmcQueue(maxBuffer) : newMpscQueue(maxBuffer);
+    }
+
+    @Override
+    public void add(@Nullable final T item) {
+        for (;;) {
+            final int cBuffered = buffered;
+            if (cBuffered < maxBuffer) {
+                if (bufferedUpdater.compareAndSet(this, cBuffered, cBuffered + 1)) {
+                    if (!items.offer(wrapNull(item))) {
+                        throw new QueueFullException("publisher-processor-items", maxBuffer);
+                    }
+                    return;
+                }
+            } else if (!dropHead) {
+                droppedUpdater.incrementAndGet(this);
+                return;
+            } else if (items.poll() != null) {
+                // Either this producer or the consumer gets the oldest item. If concurrent adds reserved all slots
+                // without having offered their items yet, poll() returns null and we retry.
+                bufferedUpdater.decrementAndGet(this);
+                droppedUpdater.incrementAndGet(this);
+            }
+        }
+    }
+
+    @Override
+    public void terminate() {
+        terminalUpdater.compareAndSet(this, null, complete());
+    }
+
+    @Override
+    public void terminate(final Throwable cause) {
+        terminalUpdater.compareAndSet(this, null, error(cause));
+    }
+
+    @Override
+    public boolean tryConsume(final ProcessorSignalsConsumer<T> consumer) {
+        // Read the terminal before polling: all items added before termination are visible in the queue then.
+        final TerminalNotification terminal = this.terminal;
+        final Object item = items.poll();
+        if (item != null) {
+            bufferedUpdater.decrementAndGet(this);
+            consumer.consumeItem(unwrapNullUnchecked(item));
+            return true;
+        }
+        return consumeIfTerminal(consumer, terminal);
+    }
+
+    @Override
+    public boolean tryConsumeTerminal(final ProcessorSignalsConsumer<T> consumer) {
+        final TerminalNotification terminal = this.terminal;
+        return terminal != null && items.isEmpty() && consumeIfTerminal(consumer, terminal);
+    }
+
+    /**
+     * Returns the number of items dropped so far because the buffer was full.
+     *
+     * @return the number of items dropped so far because the buffer was full.
+     */
+    long droppedItems() {
+        return dropped;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static io.servicetalk.concurrent.api.PublisherParallelMerge.FILTERED;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Publisher} split into a fixed number of rails, which process items in parallel on an
+ * {@link io.servicetalk.concurrent.Executor}.
+ * <p>
+ * Items of the source {@link Publisher} are assigned to the rails round-robin. Operators added via
+ * {@link #map(Function)} and {@link #filter(Predicate)} are applied on the rails, and at most one thread executes a
+ * given rail at any time. Each rail drains all items which are queued for it in a single task, so the cost of
+ * offloading is amortized over multiple items. This is intended for CPU-bound transformations, for which
+ * {@link Publisher#flatMapMergeSingle(Function, int)} would create a {@link Single} and a task per item.
+ * <p>
+ * Results are merged back into a {@link Publisher} via {@link #merge()}, which emits results as soon as they are
+ * available, or {@link #mergeOrdered()}, which preserves the order of the source {@link Publisher}. Demand from the
+ * source {@link Publisher} is bounded by {@code rails * prefetch} items and replenished in batches.
+ * <p>
+ * Operators of a {@link ParallelPublisher} are not allowed to block and must be thread-safe, they may be invoked
+ * concurrently from different rails.
+ *
+ * @param <T> Type of items emitted by the rails.
+ * @see Publisher#parallel(int, io.servicetalk.concurrent.Executor)
+ */
+public final class ParallelPublisher<T> {
+    private final Publisher<?> source;
+    private final int rails;
+    private final int prefetch;
+    private final io.servicetalk.concurrent.Executor executor;
+    /**
+     * All operators of the rails, composed into a single function which returns {@link PublisherParallelMerge#FILTERED}
+     * for items which are filtered out.
+     */
+    private final Function<Object, Object> railFunction;
+
+    ParallelPublisher(final Publisher<?> source, final int rails, final int prefetch,
+                      final io.servicetalk.concurrent.Executor executor) {
+        this(source, rails, prefetch, executor, Function.identity());
+    }
+
+    private ParallelPublisher(final Publisher<?> source, final int rails, final int prefetch,
+                              final io.servicetalk.concurrent.Executor executor,
+                              final Function<Object, Object> railFunction) {
+        if (rails <= 0) {
+            throw new IllegalArgumentException("rails: " + rails + " (expected >0)");
+        }
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch: " + prefetch + " (expected >0)");
+        }
+        this.source = source;
+        this.rails = rails;
+        this.prefetch = prefetch;
+        this.executor = requireNonNull(executor);
+        this.railFunction = railFunction;
+    }
+
+    /**
+     * Returns the number of rails.
+     *
+     * @return the number of rails.
+     */
+    public int rails() {
+        return rails;
+    }
+
+    /**
+     * Transforms each item on the rails.
+     *
+     * @param mapper Function to transform each item. It may be invoked concurrently from different rails.
+     * @param <R> Type of the items emitted by the rails after the transformation.
+     * @return A new {@link ParallelPublisher} which applies {@code mapper} on the rails.
+     * @see Publisher#map(Function)
+     */
+    public <R> ParallelPublisher<R> map(final Function<? super T, ? extends R> mapper) {
+        requireNonNull(mapper);
+        return new ParallelPublisher<>(source, rails, prefetch, executor, railFunction.andThen(item -> {
+            @SuppressWarnings("unchecked")
+            final T t = (T) item;
+            return item == FILTERED ? FILTERED : mapper.apply(t);
+        }));
+    }
+
+    /**
+     * Filters items on the rails.
+     *
+     * @param predicate Evaluated for each item, only items for which it returns {@code true} are emitted. It may be
+     * invoked concurrently from different rails.
+     * @return A new {@link ParallelPublisher} which applies {@code predicate} on the rails.
+     * @see Publisher#filter(Predicate)
+     */
+    public ParallelPublisher<T> filter(final Predicate<? super T> predicate) {
+        requireNonNull(predicate);
+        return new ParallelPublisher<>(source, rails, prefetch, executor, railFunction.andThen(item -> {
+            @SuppressWarnings("unchecked")
+            final T t = (T) item;
+            return item == FILTERED || !predicate.test(t) ? FILTERED : item;
+        }));
+    }
+
+    /**
+     * Merges the results of all rails into a {@link Publisher}, in the order they become available.
+     *
+     * @return A {@link Publisher} which emits the results of all rails, in no particular order.
+     */
+    public Publisher<T> merge() {
+        return merge(false);
+    }
+
+    /**
+     * Merges the results of all rails into a {@link Publisher}, preserving the order of the source
+     * {@link Publisher}.
+     * <p>
+     * A result which is slow to compute delays all results after it, while the other rails continue to process items
+     * within the prefetch limit.
+     *
+     * @return A {@link Publisher} which emits the results of all rails, in the order of the source {@link Publisher}.
+     */
+    public Publisher<T> mergeOrdered() {
+        return merge(true);
+    }
+
+    private Publisher<T> merge(final boolean ordered) {
+        @SuppressWarnings("unchecked")
+        final Publisher<Object> objectSource = (Publisher<Object>) source;
+        return new PublisherParallelMerge<>(objectSource, rails, prefetch, executor, railFunction, ordered);
+    }
+}
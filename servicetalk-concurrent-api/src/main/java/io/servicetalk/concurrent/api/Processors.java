@@ -166,6 +166,62 @@ public final class Processors {
         return newPublisherProcessor(fixedSizeDropTail(maxBuffer));
     }
 
+    /**
+     * Create a new {@link DroppingPublisherProcessor} that allows for a single
+     * {@link PublisherSource.Subscriber#subscribe(PublisherSource.Subscriber) subscribe}. The returned
+     * {@link PublisherSource.Processor} provides all the expected API guarantees when used as a
+     * {@link PublisherSource} but does not expect the same guarantees when used as a
+     * {@link PublisherSource.Subscriber}. As an example, users are not expected to call
+     * {@link PublisherSource.Subscriber#onSubscribe(Subscription)} or they can call any of the
+     * {@link PublisherSource.Subscriber} methods concurrently and/or multiple times.
+     * <p>
+     * Only allows for {@code maxBuffer} number of items to be added through
+     * {@link PublisherSource.Processor#onNext(Object)} without being delivered to its
+     * {@link PublisherSource.Subscriber}. If more items are added without being delivered, the oldest buffered item
+     * (head) will be dropped and counted by {@link DroppingPublisherProcessor#droppedItems()}.
+     * <p>
+     * Items are buffered in a bounded multi-producer single-consumer array queue and delivered in batches up to the
+     * outstanding demand, which makes this processor a good fit to funnel items from many producer threads.
+     *
+     * @param maxBuffer Maximum number of items to buffer.
+     * @param <T> The {@link PublisherSource} type and {@link PublisherSource.Subscriber} type of the
+     * {@link PublisherSource.Processor}.
+     * @return a new {@link DroppingPublisherProcessor} that allows for a single
+     * {@link PublisherSource.Subscriber#subscribe(PublisherSource.Subscriber) subscribe}.
+     */
+    public static <T> DroppingPublisherProcessor<T> newMpscPublisherProcessorDropHeadOnOverflow(
+            final int maxBuffer) {
+        return new MpscPublisherProcessor<>(new MpscPublisherProcessorSignalsHolder<>(maxBuffer, true));
+    }
+
+    /**
+     * Create a new {@link DroppingPublisherProcessor} that allows for a single
+     * {@link PublisherSource.Subscriber#subscribe(PublisherSource.Subscriber) subscribe}. The returned
+     * {@link PublisherSource.Processor} provides all the expected API guarantees when used as a
+     * {@link PublisherSource} but does not expect the same guarantees when used as a
+     * {@link PublisherSource.Subscriber}. As an example, users are not expected to call
+     * {@link PublisherSource.Subscriber#onSubscribe(Subscription)} or they can call any of the
+     * {@link PublisherSource.Subscriber} methods concurrently and/or multiple times.
+     * <p>
+     * Only allows for {@code maxBuffer} number of items to be added through
+     * {@link PublisherSource.Processor#onNext(Object)} without being delivered to its
+     * {@link PublisherSource.Subscriber}. If more items are added without being delivered, the latest item (tail)
+     * will be dropped and counted by {@link DroppingPublisherProcessor#droppedItems()}.
+     * <p>
+     * Items are buffered in a bounded multi-producer single-consumer array queue and delivered in batches up to the
+     * outstanding demand, which makes this processor a good fit to funnel items from many producer threads.
+     *
+     * @param maxBuffer Maximum number of items to buffer.
+     * @param <T> The {@link PublisherSource} type and {@link PublisherSource.Subscriber} type of the
+     * {@link PublisherSource.Processor}.
+     * @return a new {@link DroppingPublisherProcessor} that allows for a single
+     * {@link PublisherSource.Subscriber#subscribe(PublisherSource.Subscriber) subscribe}.
+     */
+    public static <T> DroppingPublisherProcessor<T> newMpscPublisherProcessorDropTailOnOverflow(
+            final int maxBuffer) {
+        return new MpscPublisherProcessor<>(new MpscPublisherProcessorSignalsHolder<>(maxBuffer, false));
+    }
+
     /**
      * Create a new {@link PublisherSource.Processor} that allows for a single
      * {@link PublisherSource.Subscriber#subscribe(PublisherSource.Subscriber) subscribe}. The returned
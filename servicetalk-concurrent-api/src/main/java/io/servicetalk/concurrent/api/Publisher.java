@@ -53,9 +53,12 @@ import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
 import static io.servicetalk.concurrent.api.Completable.completed;
+import static io.servicetalk.concurrent.api.CompositeExceptionUtils.maxDelayedErrors;
 import static io.servicetalk.concurrent.api.EmptyPublisher.emptyPublisher;
 import static io.servicetalk.concurrent.api.Executors.global;
 import static io.servicetalk.concurrent.api.FilterPublisher.newDistinctSupplier;
+import static io.servicetalk.concurrent.api.FusedMapFilterPublisher.newFilterPublisher;
+import static io.servicetalk.concurrent.api.FusedMapFilterPublisher.newMapPublisher;
 import static io.servicetalk.concurrent.api.NeverPublisher.neverPublisher;
 import static io.servicetalk.concurrent.api.PublisherDoOnUtils.doOnCancelSupplier;
 import static io.servicetalk.concurrent.api.PublisherDoOnUtils.doOnCompleteSupplier;
@@ -118,7 +121,7 @@ public abstract class Publisher<T> {
      * @see <a href="https://reactivex.io/documentation/operators/map.html">ReactiveX map operator.</a>
      */
     public final <R> Publisher<R> map(Function<? super T, ? extends R> mapper) {
-        return new MapPublisher<>(this, mapper);
+        return newMapPublisher(this, mapper);
     }
 
     /**
@@ -209,7 +212,7 @@ public abstract class Publisher<T> {
      * @see <a href="https://reactivex.io/documentation/operators/distinct.html">ReactiveX distinct operator.</a>
      */
     final Publisher<T> filter(Supplier<? extends Predicate<? super T>> filterSupplier) {
-        return new FilterPublisher<>(this, filterSupplier);
+        return newFilterPublisher(this, filterSupplier);
     }
 
     /**
@@ -830,6 +833,27 @@ public abstract class Publisher<T> {
         return new PublisherFlatMapMerge<>(this, mapper, false, maxConcurrency);
     }
 
+    /**
+     * Map each element of this {@link Publisher} into a {@link Publisher}&lt;{@link R}&gt; and flatten all signals
+     * emitted from each mapped {@link Publisher}&lt;{@link R}&gt; into the returned
+     * {@link Publisher}&lt;{@link R}&gt;, bounding the signals buffered by this operator.
+     * <p>
+     * This is the same as {@link #flatMapMerge(Function, int)} just that demand distributed to each mapped
+     * {@link Publisher} adapts to the downstream consumption and is capped as configured by {@code buffer}. This
+     * bounds the memory used by this operator when fanning out to many mapped {@link Publisher}s and the downstream
+     * is slow.
+     * @param mapper Convert each item emitted by this {@link Publisher} into another {@link Publisher}.
+     * @param maxConcurrency Maximum amount of outstanding upstream {@link Subscription#request(long) demand}.
+     * @param buffer Bounds and metrics for the signals buffered by this operator.
+     * @param <R> The type of mapped {@link Publisher}.
+     * @return A new {@link Publisher} which flattens the emissions from all mapped {@link Publisher}s.
+     * @see <a href="https://reactivex.io/documentation/operators/flatmap.html">ReactiveX flatMap operator.</a>
+     */
+    public final <R> Publisher<R> flatMapMerge(Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                               int maxConcurrency, FlatMapMergeBuffer<? super R> buffer) {
+        return new PublisherFlatMapMerge<>(this, mapper, 0, maxConcurrency, requireNonNull(buffer));
+    }
+
     /**
      * Map each element of this {@link Publisher} into a {@link Publisher}&lt;{@link R}&gt; and flatten all signals
      * emitted from each mapped {@link Publisher}&lt;{@link R}&gt; into the returned
@@ -981,6 +1005,28 @@ public abstract class Publisher<T> {
         return new PublisherFlatMapMerge<>(this, mapper, maxDelayedErrorsHint, maxConcurrency);
     }
 
+    /**
+     * Map each element of this {@link Publisher} into a {@link Publisher}&lt;{@link R}&gt; and flatten all signals
+     * emitted from each mapped {@link Publisher}&lt;{@link R}&gt; into the returned
+     * {@link Publisher}&lt;{@link R}&gt;, bounding the signals buffered by this operator.
+     * <p>
+     * This is the same as {@link #flatMapMergeDelayError(Function, int)} just that demand distributed to each mapped
+     * {@link Publisher} adapts to the downstream consumption and is capped as configured by {@code buffer}. This
+     * bounds the memory used by this operator when fanning out to many mapped {@link Publisher}s and the downstream
+     * is slow.
+     * @param mapper Convert each item emitted by this {@link Publisher} into another {@link Publisher}.
+     * @param maxConcurrency Maximum amount of outstanding upstream {@link Subscription#request(long) demand}.
+     * @param buffer Bounds and metrics for the signals buffered by this operator.
+     * @param <R> The type of mapped {@link Publisher}.
+     * @return A new {@link Publisher} which flattens the emissions from all mapped {@link Publisher}s.
+     * @see <a href="https://reactivex.io/documentation/operators/flatmap.html">ReactiveX flatMap operator.</a>
+     */
+    public final <R> Publisher<R> flatMapMergeDelayError(Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                                         int maxConcurrency, FlatMapMergeBuffer<? super R> buffer) {
+        return new PublisherFlatMapMerge<>(this, mapper, maxDelayedErrors(true), maxConcurrency,
+                requireNonNull(buffer));
+    }
+
     /**
      * This method is similar to {@link #map(Function)} but the result is asynchronous and results are unordered. More
      * specifically, map each element of this {@link Publisher} into a {@link Single}&lt;{@link R}&gt; and flatten all
@@ -1212,6 +1258,46 @@ public abstract class Publisher<T> {
         return new PublisherFlatMapSingle<>(this, mapper, maxDelayedErrorsHint, maxConcurrency);
     }
 
+    /**
+     * Splits this {@link Publisher} into {@code rails} rails, which process items in parallel on {@code executor}.
+     * <p>
+     * This is intended for CPU-bound transformations which are too expensive for the thread that emits the items.
+     * Unlike {@link #flatMapMergeSingle(Function, int)}, which creates a {@link Single} and schedules a task per item,
+     * each rail drains all its queued items in a single task. Use {@link ParallelPublisher#merge()} or
+     * {@link ParallelPublisher#mergeOrdered()} to convert the result back into a {@link Publisher}.
+     * <p>
+     * At most {@code rails * 64} items are requested from this {@link Publisher} ahead of the downstream
+     * {@link Subscriber}. See {@link #parallel(int, int, io.servicetalk.concurrent.Executor)} to change this limit.
+     *
+     * @param rails The number of rails, typically the number of threads available to {@code executor}.
+     * @param executor The {@link io.servicetalk.concurrent.Executor} used to process the rails.
+     * @return A {@link ParallelPublisher} which processes the items of this {@link Publisher} on {@code rails} rails.
+     * @see ParallelPublisher
+     */
+    public final ParallelPublisher<T> parallel(int rails, io.servicetalk.concurrent.Executor executor) {
+        return parallel(rails, 64, executor);
+    }
+
+    /**
+     * Splits this {@link Publisher} into {@code rails} rails, which process items in parallel on {@code executor}.
+     * <p>
+     * This is intended for CPU-bound transformations which are too expensive for the thread that emits the items.
+     * Unlike {@link #flatMapMergeSingle(Function, int)}, which creates a {@link Single} and schedules a task per item,
+     * each rail drains all its queued items in a single task. Use {@link ParallelPublisher#merge()} or
+     * {@link ParallelPublisher#mergeOrdered()} to convert the result back into a {@link Publisher}.
+     *
+     * @param rails The number of rails, typically the number of threads available to {@code executor}.
+     * @param prefetch The number of items per rail which are requested from this {@link Publisher} ahead of the
+     * downstream {@link Subscriber}. Demand is replenished in batches, after three quarters of these items were
+     * delivered.
+     * @param executor The {@link io.servicetalk.concurrent.Executor} used to process the rails.
+     * @return A {@link ParallelPublisher} which processes the items of this {@link Publisher} on {@code rails} rails.
+     * @see ParallelPublisher
+     */
+    public final ParallelPublisher<T> parallel(int rails, int prefetch, io.servicetalk.concurrent.Executor executor) {
+        return new ParallelPublisher<>(this, rails, prefetch, executor);
+    }
+
     /**
      * Map each element of this {@link Publisher} into a {@link Completable} and flatten all signals
      * such that the returned {@link Completable} terminates when all mapped {@link Completable}s have terminated
@@ -4164,6 +4250,12 @@ public abstract class Publisher<T> {
      * @param subscriber {@link Subscriber} to subscribe for the result.
      */
     protected void subscribeInternal(Subscriber<? super T> subscriber) {
+        if (AsyncContext.DISABLED_AT_STARTUP) {
+            // Constant for the lifetime of the JVM, there is nothing to capture or restore.
+            handleSubscribe(requireNonNull(subscriber), NoopAsyncContextProvider.INSTANCE.context(),
+                    NoopAsyncContextProvider.INSTANCE);
+            return;
+        }
         AsyncContextProvider contextProvider = AsyncContext.provider();
         ContextMap contextMap = contextForSubscribe(contextProvider);
         subscribeWithContext(subscriber, contextProvider, contextMap);
@@ -4364,6 +4456,7 @@ public abstract class Publisher<T> {
      * @return a new {@link Publisher} that when subscribed will emit all {@link Integer}s within the range of
      * [{@code begin}, {@code end}).
      * @see <a href="https://reactivex.io/documentation/operators/range.html">Range.</a>
+     * @see IntPublisher#range(int, int)
      */
     public static Publisher<Integer> range(int begin, int end) {
         return new RangeIntPublisher(begin, end);
@@ -4378,6 +4471,7 @@ public abstract class Publisher<T> {
      * @return a new {@link Publisher} that when subscribed will emit all {@link Integer}s within the range of
      * [{@code begin}, {@code end}) with an increment of {@code stride} between each signal.
      * @see <a href="https://reactivex.io/documentation/operators/range.html">Range.</a>
+     * @see IntPublisher#range(int, int, int)
      */
     public static Publisher<Integer> range(int begin, int end, int stride) {
         return new RangeIntPublisher(begin, end, stride);
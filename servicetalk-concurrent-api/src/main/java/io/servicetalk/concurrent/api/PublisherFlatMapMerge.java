@@ -25,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -74,6 +75,8 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
     private final Function<? super T, ? extends Publisher<? extends R>> mapper;
     private final int maxConcurrency;
     private final int maxDelayedErrors;
+    @Nullable
+    private final FlatMapMergeBuffer<? super R> buffer;
 
     PublisherFlatMapMerge(Publisher<T> original, Function<? super T, ? extends Publisher<? extends R>> mapper,
                           boolean delayError) {
@@ -87,6 +90,11 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
 
     PublisherFlatMapMerge(Publisher<T> original, Function<? super T, ? extends Publisher<? extends R>> mapper,
                           int maxDelayedErrors, int maxConcurrency) {
+        this(original, mapper, maxDelayedErrors, maxConcurrency, null);
+    }
+
+    PublisherFlatMapMerge(Publisher<T> original, Function<? super T, ? extends Publisher<? extends R>> mapper,
+                          int maxDelayedErrors, int maxConcurrency, @Nullable FlatMapMergeBuffer<? super R> buffer) {
         super(original);
         if (maxConcurrency <= 0) {
             throw new IllegalArgumentException("maxConcurrency: " + maxConcurrency + " (expected >0)");
@@ -97,6 +105,7 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
         this.mapper = requireNonNull(mapper);
         this.maxConcurrency = maxConcurrency;
         this.maxDelayedErrors = maxDelayedErrors;
+        this.buffer = buffer;
     }
 
     @Override
@@ -106,6 +115,11 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
 
     private static final class FlatMapSubscriber<T, R> implements Subscriber<T>, Subscription {
         private static final Object MAPPED_SOURCE_COMPLETE = new Object();
+        /**
+         * Marks {@link #bufferedItems} and {@link #bufferedBytes} as released, far enough from {@link Long#MIN_VALUE}
+         * that later updates don't overflow.
+         */
+        private static final long BUFFER_RELEASED = Long.MIN_VALUE >> 1;
         @SuppressWarnings("rawtypes")
         private static final AtomicReferenceFieldUpdater<FlatMapSubscriber, Throwable> pendingErrorUpdater =
                 newUpdater(FlatMapSubscriber.class, Throwable.class, "pendingError");
@@ -124,6 +138,12 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
         @SuppressWarnings("rawtypes")
         private static final AtomicIntegerFieldUpdater<FlatMapSubscriber> activeMappedSourcesUpdater =
                 AtomicIntegerFieldUpdater.newUpdater(FlatMapSubscriber.class, "activeMappedSources");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<FlatMapSubscriber> bufferedItemsUpdater =
+                AtomicLongFieldUpdater.newUpdater(FlatMapSubscriber.class, "bufferedItems");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<FlatMapSubscriber> bufferedBytesUpdater =
+                AtomicLongFieldUpdater.newUpdater(FlatMapSubscriber.class, "bufferedBytes");
         @Nullable
         private volatile Throwable pendingError;
         @SuppressWarnings("UnusedDeclaration")
@@ -133,6 +153,9 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
         private volatile int activeMappedSources;
         private volatile long pendingDemand;
         private volatile long mappedDemand;
+        // Only used if there is a FlatMapMergeBuffer, accounts for items in the signals queue.
+        private volatile long bufferedItems;
+        private volatile long bufferedBytes;
         // protected by emitting lock, or only accessed inside the Subscriber thread
         private boolean targetTerminated;
         /**
@@ -148,19 +171,31 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
         private final Queue<Object> signals;
         private final PublisherFlatMapMerge<T, R> source;
         private final CancellableSet cancellableSet;
+        /**
+         * Mapped subscribers which exhausted their demand while {@link FlatMapMergeBuffer#maxBufferedBytes()} was
+         * reached, {@code null} if the buffered bytes are not capped.
+         */
+        @Nullable
+        private final Queue<FlatMapPublisherSubscriber<T, R>> starvedSubscribers;
 
         FlatMapSubscriber(PublisherFlatMapMerge<T, R> source, Subscriber<? super R> target) {
             this.source = source;
             this.target = target;
             signals = newUnboundedMpscQueue(4);
             cancellableSet = new CancellableSet(min(16, source.maxConcurrency));
+            starvedSubscribers = source.buffer != null && source.buffer.capsBufferedBytes() ?
+                    new ConcurrentLinkedQueue<>() : null;
         }
 
         @Override
         public void cancel() {
             // invalidate pendingDemand as a best effort to avoid further signal delivery.
             pendingDemand = -1;
-            doCancel(true);
+            try {
+                doCancel(true);
+            } finally {
+                releaseBuffered();
+            }
         }
 
         @Override
@@ -238,7 +273,7 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
             mappedDemandUpdater.getAndAccumulate(this, n, FlowControlUtils::addWithUnderOverflowProtection);
         }
 
-        private int reserveMappedDemandQuota() {
+        private int reserveMappedDemandQuota(final int maxQuota) {
             for (;;) {
                 final long prevDemand = mappedDemand;
                 if (prevDemand <= 0) {
@@ -252,7 +287,7 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
                         return MIN_MAPPED_DEMAND;
                     }
                 } else {
-                    final int quota = calculateRequestNQuota(prevDemand);
+                    final int quota = min(maxQuota, calculateRequestNQuota(prevDemand));
                     if (mappedDemandUpdater.compareAndSet(this, prevDemand, prevDemand - quota)) {
                         return quota;
                     }
@@ -261,12 +296,68 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
         }
 
         private void distributeMappedDemand(FlatMapPublisherSubscriber<T, R> hungrySubscriber) {
-            final int quota = reserveMappedDemandQuota();
+            if (starvedSubscribers != null && isBufferFull()) {
+                starvedSubscribers.offer(hungrySubscriber);
+                // The buffer may have been drained concurrently, before the subscriber was added.
+                if (!isBufferFull()) {
+                    releaseStarvedSubscribers();
+                }
+                return;
+            }
+            requestFromMapped(hungrySubscriber);
+        }
+
+        private void requestFromMapped(FlatMapPublisherSubscriber<T, R> hungrySubscriber) {
+            final int quota = reserveMappedDemandQuota(hungrySubscriber.nextPrefetch(source.buffer));
             if (!hungrySubscriber.request(quota)) {
                 incMappedDemand(quota);
             }
         }
 
+        private boolean isBufferFull() {
+            assert source.buffer != null;
+            return bufferedBytes >= source.buffer.maxBufferedBytes();
+        }
+
+        private void releaseStarvedSubscribers() {
+            assert starvedSubscribers != null;
+            FlatMapPublisherSubscriber<T, R> starved;
+            while (!isBufferFull() && (starved = starvedSubscribers.poll()) != null) {
+                requestFromMapped(starved);
+            }
+        }
+
+        private void onItemBuffered(final Object item) {
+            final FlatMapMergeBuffer<? super R> buffer = source.buffer;
+            if (buffer != null) {
+                addBuffered(buffer, 1, buffer.estimateSize(unwrapNullUnchecked(item)));
+            }
+        }
+
+        private void onSignalPolled(final Object item) {
+            final FlatMapMergeBuffer<? super R> buffer = source.buffer;
+            if (buffer != null && !(item instanceof TerminalNotification) &&
+                    !(item instanceof FlatMapPublisherSubscriber)) {
+                addBuffered(buffer, -1, -buffer.estimateSize(unwrapNullUnchecked(item)));
+            }
+        }
+
+        private void addBuffered(final FlatMapMergeBuffer<? super R> buffer, final long items, final long bytes) {
+            // Negative previous values mean that the buffer was already released, see releaseBuffered().
+            final boolean itemsReleased = bufferedItemsUpdater.getAndAdd(this, items) < 0;
+            final boolean bytesReleased = bytes != 0 && bufferedBytesUpdater.getAndAdd(this, bytes) < 0;
+            buffer.addBuffered(itemsReleased ? 0 : items, bytesReleased ? 0 : bytes);
+        }
+
+        private void releaseBuffered() {
+            final FlatMapMergeBuffer<? super R> buffer = source.buffer;
+            if (buffer != null) {
+                final long items = bufferedItemsUpdater.getAndSet(this, BUFFER_RELEASED);
+                final long bytes = bufferedBytesUpdater.getAndSet(this, BUFFER_RELEASED);
+                buffer.addBuffered(items < 0 ? 0 : -items, bytes < 0 ? 0 : -bytes);
+            }
+        }
+
         private int calculateRequestNQuota(long availableRequestN) {
             // Get an approximate quota to distribute to each active mapped subscriber.
             return (int) min(Integer.MAX_VALUE, max(availableRequestN / source.maxConcurrency, MIN_MAPPED_DEMAND));
@@ -306,6 +397,9 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
             //    emitting lock.
             if (subscriber.hasSignalsQueued() || (needsDemand && !tryDecrementPendingDemand())) {
                 subscriber.markSignalsQueued();
+                if (needsDemand) {
+                    onItemBuffered(item);
+                }
                 enqueueAndDrain(item);
             } else if (item == MAPPED_SOURCE_COMPLETE) {
                 try {
@@ -331,6 +425,9 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
                             FlowControlUtils::addWithOverflowProtectionIfNotNegative);
                 }
                 subscriber.markSignalsQueued();
+                if (needsDemand) {
+                    onItemBuffered(item);
+                }
                 enqueueAndDrain(item);
             }
         }
@@ -398,10 +495,16 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
                         while (emittedCount < prevDemand && (t = signals.poll()) != null) {
                             if (t == MAPPED_SOURCE_COMPLETE) {
                                 ++mappedSourcesCompleted;
-                            } else if (sendToTarget(t)) {
-                                ++emittedCount;
+                            } else {
+                                onSignalPolled(t);
+                                if (sendToTarget(t)) {
+                                    ++emittedCount;
+                                }
                             }
                         }
+                        if (starvedSubscribers != null && !starvedSubscribers.isEmpty() && !isBufferFull()) {
+                            releaseStarvedSubscribers();
+                        }
 
                         // check if a terminal event is pending, or give back demand.
                         if (emittedCount == prevDemand) {
@@ -462,6 +565,7 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
                 return false;
             } else if (item instanceof TerminalNotification) {
                 signals.clear();
+                releaseBuffered();
                 targetTerminated = true;
                 final Throwable currPendingError = pendingError;
                 if (currPendingError != null) {
@@ -486,6 +590,7 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
             // requestN, failure to enqueue).
             if (upstreamError != null && !targetTerminated) {
                 signals.clear();
+                releaseBuffered();
                 targetTerminated = true;
                 target.onError(upstreamError);
             }
@@ -546,11 +651,32 @@ final class PublisherFlatMapMerge<T, R> extends AbstractAsynchronousPublisherOpe
              * happens-before relationship between requesting elements and receiving elements</a>.
              */
             private boolean signalsQueued;
+            /**
+             * The cap for the next {@link #request(int)} if there is a {@link FlatMapMergeBuffer}. Only accessed while
+             * distributing demand to this subscriber, which is sequential for the same reasons as
+             * {@link #signalsQueued}.
+             */
+            private int prefetch;
 
             FlatMapPublisherSubscriber(FlatMapSubscriber<T, R> parent) {
                 this.parent = parent;
             }
 
+            int nextPrefetch(@Nullable final FlatMapMergeBuffer<?> buffer) {
+                if (buffer == null) {
+                    return Integer.MAX_VALUE;
+                }
+                if (prefetch == 0) {
+                    prefetch = buffer.maxPrefetch();
+                } else if (signalsQueued) {
+                    // Items had to be queued since the last request, the downstream doesn't keep up with this source.
+                    prefetch = max(1, prefetch >>> 1);
+                } else {
+                    prefetch = (int) min(buffer.maxPrefetch(), prefetch * 2L);
+                }
+                return prefetch;
+            }
+
             boolean request(int n) {
                 assert n > 0;
                 assert subscription != null;
@@ -0,0 +1,343 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.internal.ConcurrentSubscription;
+import io.servicetalk.concurrent.internal.FlowControlUtils;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.SubscriberApiUtils.unwrapNullUnchecked;
+import static io.servicetalk.concurrent.api.SubscriberApiUtils.wrapNull;
+import static io.servicetalk.concurrent.internal.ConcurrentUtils.releaseLock;
+import static io.servicetalk.concurrent.internal.ConcurrentUtils.tryAcquireLock;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.checkDuplicateSubscription;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.isRequestNValid;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.newExceptionForInvalidRequestN;
+import static io.servicetalk.utils.internal.PlatformDependent.newUnboundedMpscQueue;
+import static io.servicetalk.utils.internal.PlatformDependent.newUnboundedSpscQueue;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implementation of {@link ParallelPublisher#merge()} and {@link ParallelPublisher#mergeOrdered()}.
+ * <p>
+ * Items are assigned to the rails round-robin. Each rail is drained by a single task at a time on the
+ * {@link io.servicetalk.concurrent.Executor}, which processes all queued items before it completes, so there is no
+ * task per item. Upstream demand is bounded by {@code rails * prefetch} and replenished in batches, after items were
+ * delivered downstream.
+ * Because of the round-robin assignment, the ordered merge only has to take results from the rails in turn.
+ *
+ * @param <T> Type of original {@link Publisher}.
+ * @param <R> Type of {@link Publisher} returned by the operator.
+ */
+final class PublisherParallelMerge<T, R> extends AbstractAsynchronousPublisherOperator<T, R> {
+    /**
+     * Result of the rail function for items which are filtered out.
+     */
+    static final Object FILTERED = new Object();
+    /**
+     * Maximum number of results a rail produces before it attempts to deliver them downstream.
+     */
+    private static final int RAIL_DRAIN_BATCH = 32;
+
+    private final int rails;
+    private final int prefetch;
+    private final io.servicetalk.concurrent.Executor executor;
+    private final Function<Object, Object> railFunction;
+    private final boolean ordered;
+
+    PublisherParallelMerge(final Publisher<T> original, final int rails, final int prefetch,
+                           final io.servicetalk.concurrent.Executor executor,
+                           final Function<Object, Object> railFunction, final boolean ordered) {
+        super(original);
+        this.rails = rails;
+        this.prefetch = prefetch;
+        this.executor = requireNonNull(executor);
+        this.railFunction = requireNonNull(railFunction);
+        this.ordered = ordered;
+    }
+
+    @Override
+    public Subscriber<? super T> apply(final Subscriber<? super R> subscriber) {
+        return new ParallelSubscriber<>(this, subscriber);
+    }
+
+    private static final class ParallelSubscriber<T, R> implements Subscriber<T>, Subscription {
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<ParallelSubscriber> emittingLockUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(ParallelSubscriber.class, "emittingLock");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<ParallelSubscriber> requestedUpdater =
+                AtomicLongFieldUpdater.newUpdater(ParallelSubscriber.class, "requested");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<ParallelSubscriber, Throwable> errorUpdater =
+                AtomicReferenceFieldUpdater.newUpdater(ParallelSubscriber.class, Throwable.class, "error");
+
+        private final Subscriber<? super R> target;
+        private final io.servicetalk.concurrent.Executor executor;
+        private final Function<Object, Object> railFunction;
+        private final Rail[] rails;
+        /**
+         * Results of all rails for the unordered merge, {@code null} for the ordered merge.
+         */
+        @Nullable
+        private final Queue<Object> results;
+        private final long replenishLimit;
+        private final long initialDemand;
+        @Nullable
+        private Subscription subscription;
+        @SuppressWarnings("UnusedDeclaration")
+        private volatile int emittingLock;
+        private volatile long requested;
+        @Nullable
+        private volatile Throwable error;
+        /**
+         * Only written from the upstream {@link Subscriber} thread.
+         */
+        private volatile long received;
+        private volatile boolean upstreamComplete;
+        private volatile boolean cancelled;
+        // only accessed from the upstream Subscriber thread
+        private int nextRail;
+        // protected by emitting lock
+        private int emittingRail;
+        private long consumed;
+        private long consumedSinceReplenish;
+        private boolean terminated;
+
+        ParallelSubscriber(final PublisherParallelMerge<T, R> source, final Subscriber<? super R> target) {
+            this.target = target;
+            executor = source.executor;
+            railFunction = source.railFunction;
+            final int initialCapacity = min(source.prefetch, 16);
+            results = source.ordered ? null : newUnboundedMpscQueue(initialCapacity);
+            rails = new Rail[source.rails];
+            for (int i = 0; i < rails.length; ++i) {
+                rails[i] = new Rail(this, newUnboundedSpscQueue(initialCapacity),
+                        results != null ? results : newUnboundedSpscQueue(initialCapacity));
+            }
+            initialDemand = (long) source.rails * source.prefetch;
+            // Replenish upstream demand in batches, before the rails run out of items.
+            replenishLimit = initialDemand - (initialDemand >> 2);
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            if (!checkDuplicateSubscription(subscription, s)) {
+                return;
+            }
+            // Demand is replenished from the emitting thread while it may be cancelled from the downstream.
+            subscription = ConcurrentSubscription.wrap(s);
+            target.onSubscribe(this);
+            subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(@Nullable final T t) {
+            if (cancelled || error != null) {
+                return;
+            }
+            final Rail rail = rails[nextRail];
+            nextRail = nextRail == rails.length - 1 ? 0 : nextRail + 1;
+            // Count the item before it can be consumed, so that completion never sees more consumed than received
+            // items. There is a single writer, so a non-atomic increment is safe.
+            received = received + 1;
+            rail.input.offer(wrapNull(t));
+            rail.schedule();
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            if (errorUpdater.compareAndSet(this, null, t)) {
+                drain();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamComplete = true;
+            drain();
+        }
+
+        @Override
+        public void request(final long n) {
+            if (isRequestNValid(n)) {
+                requestedUpdater.accumulateAndGet(this, n, FlowControlUtils::addWithOverflowProtectionIfNotNegative);
+            } else {
+                errorUpdater.compareAndSet(this, null, newExceptionForInvalidRequestN(n));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            assert subscription != null;
+            subscription.cancel();
+        }
+
+        void onRailError(final Throwable cause) {
+            errorUpdater.compareAndSet(this, null, cause);
+            drain();
+        }
+
+        boolean isDone() {
+            return cancelled || error != null;
+        }
+
+        void drain() {
+            boolean tryAcquire = true;
+            while (tryAcquire && tryAcquireLock(emittingLockUpdater, this)) {
+                try {
+                    drainHoldingLock();
+                } catch (Throwable cause) {
+                    // The downstream Subscriber threw, we can't deliver anything else.
+                    terminateWithError(cause);
+                }
+                tryAcquire = !releaseLock(emittingLockUpdater, this);
+            }
+        }
+
+        private void drainHoldingLock() {
+            if (terminated || cancelled) {
+                return;
+            }
+            final long demand = requested;
+            long emitted = 0;
+            try {
+                for (;;) {
+                    final Throwable cause = error;
+                    if (cause != null) {
+                        terminateWithError(cause);
+                        return;
+                    }
+                    final Queue<Object> queue = results != null ? results : rails[emittingRail].output;
+                    final Object next = queue.peek();
+                    if (next == null) {
+                        // Read the flag before the count, the count is written before the flag.
+                        if (upstreamComplete && consumed == received) {
+                            terminated = true;
+                            target.onComplete();
+                        }
+                        return;
+                    }
+                    if (next != FILTERED && emitted == demand) {
+                        return;
+                    }
+                    queue.poll();
+                    if (results == null) {
+                        emittingRail = emittingRail == rails.length - 1 ? 0 : emittingRail + 1;
+                    }
+                    ++consumed;
+                    if (next != FILTERED) {
+                        ++emitted;
+                        target.onNext(unwrapNullUnchecked(next));
+                        if (cancelled) {
+                            return;
+                        }
+                    }
+                    if (++consumedSinceReplenish == replenishLimit) {
+                        consumedSinceReplenish = 0;
+                        assert subscription != null;
+                        subscription.request(replenishLimit);
+                    }
+                }
+            } finally {
+                if (emitted != 0) {
+                    requestedUpdater.accumulateAndGet(this, -emitted,
+                            FlowControlUtils::addWithOverflowProtectionIfNotNegative);
+                }
+            }
+        }
+
+        private void terminateWithError(final Throwable cause) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            cancelled = true;
+            try {
+                assert subscription != null;
+                subscription.cancel();
+            } finally {
+                target.onError(cause);
+            }
+        }
+    }
+
+    private static final class Rail implements Runnable {
+        private static final AtomicIntegerFieldUpdater<Rail> scheduledUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Rail.class, "scheduled");
+
+        private final ParallelSubscriber<?, ?> parent;
+        final Queue<Object> input;
+        final Queue<Object> output;
+        private volatile int scheduled;
+
+        Rail(final ParallelSubscriber<?, ?> parent, final Queue<Object> input, final Queue<Object> output) {
+            this.parent = parent;
+            this.input = input;
+            this.output = output;
+        }
+
+        void schedule() {
+            if (scheduledUpdater.compareAndSet(this, 0, 1)) {
+                try {
+                    parent.executor.execute(this);
+                } catch (Throwable cause) {
+                    parent.onRailError(cause);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int sinceDrain = 0;
+            for (;;) {
+                Object item;
+                while ((item = input.poll()) != null) {
+                    if (parent.isDone()) {
+                        input.clear();
+                        return; // Stay scheduled, nothing else will be processed.
+                    }
+                    final Object result;
+                    try {
+                        result = parent.railFunction.apply(unwrapNullUnchecked(item));
+                    } catch (Throwable cause) {
+                        parent.onRailError(cause);
+                        return;
+                    }
+                    output.offer(result == FILTERED ? FILTERED : wrapNull(result));
+                    if (++sinceDrain == RAIL_DRAIN_BATCH || input.isEmpty()) {
+                        sinceDrain = 0;
+                        parent.drain();
+                    }
+                }
+                scheduled = 0;
+                // Items may have been added after the last poll, but before the rail was marked as not scheduled.
+                if (input.isEmpty() || !scheduledUpdater.compareAndSet(this, 0, 1)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -40,7 +40,7 @@ import static io.servicetalk.concurrent.internal.SubscriberUtils.safeOnError;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
 
-final class PublisherProcessor<T> extends Publisher<T> implements Processor<T, T>, Subscription {
+class PublisherProcessor<T> extends Publisher<T> implements Processor<T, T>, Subscription {
     private static final Logger LOGGER = LoggerFactory.getLogger(PublisherProcessor.class);
     @SuppressWarnings("rawtypes")
     private static final ProcessorSignalsConsumer CANCELLED = new NoopProcessorSignalsConsumer();
@@ -173,24 +173,7 @@ final class PublisherProcessor<T> extends Publisher<T> implements Processor<T, T
     private void emitSignalsHoldingLock(final SubscriberProcessorSignalsConsumer<T> target) {
         for (;;) {
             final long cPending = pending;
-            if (cPending > 0 && pendingUpdater.compareAndSet(this, cPending, cPending - 1)) {
-                final boolean consumed;
-                try {
-                    consumed = buffer.tryConsume(target);
-                } catch (Throwable t) {
-                    earlyTerminateConsumerHoldingLock(target, t);
-                    return;
-                }
-
-                if (target.isTerminated()) {
-                    pending = Long.MIN_VALUE;
-                } else if (!consumed) {
-                    // we optimistically decremented pending, so increment back again.
-                    pendingUpdater.accumulateAndGet(this, 1,
-                            FlowControlUtils::addWithOverflowProtectionIfNotNegative);
-                    return;
-                }
-            } else if (cPending < 0) {
+            if (cPending < 0) {
                 // cancelled or already terminated
                 return;
             } else if (cPending == 0) {
@@ -204,6 +187,32 @@ final class PublisherProcessor<T> extends Publisher<T> implements Processor<T, T
                 }
                 return;
             }
+
+            // Drain up to the outstanding demand and only update pending once per batch. pending can only be
+            // incremented or set to a negative value concurrently, so it is safe to subtract the emitted count later.
+            long emitted = 0;
+            boolean consumed = true;
+            try {
+                while (emitted < cPending && (consumed = buffer.tryConsume(target))) {
+                    if (target.isTerminated()) {
+                        pending = Long.MIN_VALUE;
+                        return;
+                    }
+                    ++emitted;
+                    if (pending < 0) {
+                        // cancelled while delivering the item
+                        return;
+                    }
+                }
+            } catch (Throwable t) {
+                earlyTerminateConsumerHoldingLock(target, t);
+                return;
+            }
+            pendingUpdater.accumulateAndGet(this, -emitted,
+                    FlowControlUtils::addWithOverflowProtectionIfNotNegative);
+            if (!consumed) {
+                return;
+            }
         }
     }
 
@@ -20,13 +20,16 @@ import io.servicetalk.concurrent.PublisherSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import static io.servicetalk.concurrent.internal.FlowControlUtils.addWithOverflowProtection;
 import static io.servicetalk.concurrent.internal.SubscriberUtils.isRequestNValid;
 import static io.servicetalk.concurrent.internal.SubscriberUtils.newExceptionForInvalidRequestN;
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 
-final class RangeIntPublisher extends AbstractSynchronousPublisher<Integer> {
+final class RangeIntPublisher extends AbstractSynchronousPublisher<Integer> implements FusibleSource<Integer> {
     private static final Logger LOGGER = LoggerFactory.getLogger(RangeIntPublisher.class);
     private final int begin;
     private final int end;
@@ -48,6 +51,28 @@ final class RangeIntPublisher extends AbstractSynchronousPublisher<Integer> {
         this.stride = stride;
     }
 
+    @Override
+    public Iterator<Integer> newIterator() {
+        return new Iterator<Integer>() {
+            private int index = begin;
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public Integer next() {
+                if (index >= end) {
+                    throw new NoSuchElementException();
+                }
+                final int next = index;
+                index += (int) min(stride, (long) end - index);
+                return next;
+            }
+        };
+    }
+
     @Override
     void doSubscribe(final Subscriber<? super Integer> subscriber) {
         subscriber.onSubscribe(new RangeIntSubscription(subscriber));
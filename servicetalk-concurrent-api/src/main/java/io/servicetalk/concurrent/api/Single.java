@@ -1863,6 +1863,12 @@ public abstract class Single<T> {
      * @param subscriber {@link Subscriber} to subscribe for the result.
      */
     protected final void subscribeInternal(Subscriber<? super T> subscriber) {
+        if (AsyncContext.DISABLED_AT_STARTUP) {
+            // Constant for the lifetime of the JVM, there is nothing to capture or restore.
+            handleSubscribe(requireNonNull(subscriber), NoopAsyncContextProvider.INSTANCE.context(),
+                    NoopAsyncContextProvider.INSTANCE);
+            return;
+        }
         subscribeAndReturnContext(subscriber, AsyncContext.provider());
     }
 
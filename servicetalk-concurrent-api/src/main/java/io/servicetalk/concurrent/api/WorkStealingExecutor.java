@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+/**
+ * An {@link Executor} backed by a fixed number of workers, each with its own task deque, where idle workers steal
+ * tasks from busy ones.
+ * <p>
+ * Tasks submitted from the same thread, for example from the same event loop thread, prefer the same worker to keep
+ * cache locality. Tasks submitted from a worker thread are queued on that worker. Tasks don't run in the order they
+ * were submitted: a worker runs the most recently queued task first, and idle workers steal the oldest ones.
+ *
+ * @see Executors#newWorkStealingExecutor(int)
+ */
+public interface WorkStealingExecutor extends Executor {
+
+    /**
+     * Returns the number of workers.
+     *
+     * @return the number of workers.
+     */
+    int workers();
+
+    /**
+     * Returns the number of tasks that are queued on all workers and did not start yet.
+     *
+     * @return the number of tasks that are queued on all workers and did not start yet.
+     */
+    long queueDepth();
+
+    /**
+     * Returns the number of tasks that are queued on a worker and did not start yet.
+     *
+     * @param worker the index of the worker, between {@code 0} and {@link #workers()} (exclusive).
+     * @return the number of tasks that are queued on a worker and did not start yet.
+     */
+    int queueDepth(int worker);
+
+    /**
+     * Returns the number of tasks that ran on another worker than the one they were queued on.
+     *
+     * @return the number of tasks that ran on another worker than the one they were queued on.
+     */
+    long steals();
+}
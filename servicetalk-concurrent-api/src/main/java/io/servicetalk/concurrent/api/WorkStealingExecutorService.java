@@ -0,0 +1,326 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A fixed size thread pool where every worker has its own deque and idle workers steal tasks from busy ones.
+ * <p>
+ * A {@link java.util.concurrent.ThreadPoolExecutor} has a single queue which all submitting threads contend on. Here, a
+ * submitting thread always enqueues to the same affine worker, so tasks offloaded from one event loop thread tend to
+ * run on the same worker thread and with warm caches, while tasks submitted from a worker thread stay on that worker.
+ * A worker takes the most recently submitted task from the tail of its own deque, whose data is most likely still in
+ * the cache, and steals the oldest task from the head of other deques when it runs out of work. So the load is still
+ * balanced when submitting threads are unevenly loaded, and the tasks which have been waiting the longest behind a
+ * busy or blocked worker are the first ones to move to an idle worker.
+ */
+final class WorkStealingExecutorService extends AbstractExecutorService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkStealingExecutorService.class);
+    private static final ThreadLocal<Worker> CURRENT_WORKER = new ThreadLocal<>();
+    private static final AtomicIntegerFieldUpdater<WorkStealingExecutorService> idleWorkersUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(WorkStealingExecutorService.class, "idleWorkers");
+    private static final int RUNNING = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP = 2;
+
+    private final Worker[] workers;
+    private final CountDownLatch terminated;
+    private volatile int state;
+    private volatile int idleWorkers;
+
+    /**
+     * Creates a new instance and starts all worker threads.
+     *
+     * @param workers the number of worker threads.
+     * @param threadFactory the {@link ThreadFactory} used to create worker threads.
+     */
+    WorkStealingExecutorService(final int workers, final ThreadFactory threadFactory) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers: " + workers + " (expected >0)");
+        }
+        requireNonNull(threadFactory);
+        this.workers = new Worker[workers];
+        for (int i = 0; i < workers; ++i) {
+            this.workers[i] = new Worker(this, i);
+        }
+        terminated = new CountDownLatch(workers);
+        for (Worker worker : this.workers) {
+            final Thread thread = threadFactory.newThread(worker);
+            worker.thread = thread;
+            thread.start();
+        }
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        requireNonNull(task);
+        if (state != RUNNING) {
+            throw new RejectedExecutionException("Executor " + this + " is shut down.");
+        }
+        final Worker worker = affineWorker();
+        Worker.queuedUpdater.incrementAndGet(worker);
+        worker.tasks.offerLast(task);
+        if (state != RUNNING && worker.tasks.removeLastOccurrence(task)) {
+            // Raced with shutdown, and nobody will run the task any more.
+            Worker.queuedUpdater.decrementAndGet(worker);
+            throw new RejectedExecutionException("Executor " + this + " is shut down.");
+        }
+        if (!worker.unpark() && idleWorkers > 0) {
+            // The affine worker is busy, let an idle worker steal the task.
+            for (int i = 1; i < workers.length; ++i) {
+                if (workers[(worker.index + i) % workers.length].unpark()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return the number of worker threads.
+     */
+    int workers() {
+        return workers.length;
+    }
+
+    /**
+     * Returns the number of tasks that are queued on all workers and did not start yet.
+     *
+     * @return the number of tasks that are queued on all workers and did not start yet.
+     */
+    long queueDepth() {
+        long depth = 0;
+        for (Worker worker : workers) {
+            depth += worker.queued;
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of tasks that are queued on a worker and did not start yet.
+     *
+     * @param worker the index of the worker, between {@code 0} and {@link #workers()} (exclusive).
+     * @return the number of tasks that are queued on a worker and did not start yet.
+     */
+    int queueDepth(final int worker) {
+        return workers[worker].queued;
+    }
+
+    /**
+     * Returns the number of tasks that ran on another worker than the one they were queued on.
+     *
+     * @return the number of tasks that ran on another worker than the one they were queued on.
+     */
+    long steals() {
+        long steals = 0;
+        for (Worker worker : workers) {
+            steals += worker.steals;
+        }
+        return steals;
+    }
+
+    @Override
+    public void shutdown() {
+        if (state == RUNNING) {
+            state = SHUTDOWN;
+        }
+        unparkAll();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        state = STOP;
+        final List<Runnable> pending = new ArrayList<>();
+        for (Worker worker : workers) {
+            Runnable task;
+            while ((task = worker.tasks.pollFirst()) != null) {
+                Worker.queuedUpdater.decrementAndGet(worker);
+                pending.add(task);
+            }
+            final Thread thread = worker.thread;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+        unparkAll();
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return state != RUNNING;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return WorkStealingExecutorService.class.getSimpleName() + "{workers=" + workers.length +
+                ", state=" + state + '}';
+    }
+
+    private Worker affineWorker() {
+        final Worker current = CURRENT_WORKER.get();
+        if (current != null && current.executor == this) {
+            return current;
+        }
+        return workers.length == 1 ? workers[0] :
+                workers[(System.identityHashCode(Thread.currentThread()) & Integer.MAX_VALUE) % workers.length];
+    }
+
+    private void unparkAll() {
+        for (Worker worker : workers) {
+            worker.unpark();
+        }
+    }
+
+    private boolean hasQueuedTasks() {
+        for (Worker worker : workers) {
+            if (!worker.tasks.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Worker implements Runnable {
+        static final AtomicIntegerFieldUpdater<Worker> queuedUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Worker.class, "queued");
+        static final AtomicIntegerFieldUpdater<Worker> parkedUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Worker.class, "parked");
+
+        final WorkStealingExecutorService executor;
+        final int index;
+        final ConcurrentLinkedDeque<Runnable> tasks = new ConcurrentLinkedDeque<>();
+        volatile int queued;
+        volatile long steals;
+        volatile int parked;
+        @Nullable
+        volatile Thread thread;
+
+        Worker(final WorkStealingExecutorService executor, final int index) {
+            this.executor = executor;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            CURRENT_WORKER.set(this);
+            try {
+                for (;;) {
+                    Runnable task = tasks.pollLast();
+                    if (task != null) {
+                        queuedUpdater.decrementAndGet(this);
+                    } else {
+                        task = steal();
+                    }
+                    if (task != null) {
+                        runTask(task);
+                    } else if (executor.state == STOP || (executor.state == SHUTDOWN && !executor.hasQueuedTasks())) {
+                        break;
+                    } else {
+                        park();
+                    }
+                }
+            } finally {
+                CURRENT_WORKER.remove();
+                executor.terminated.countDown();
+            }
+        }
+
+        /**
+         * Tries to wake up this worker if it is parked.
+         *
+         * @return {@code true} if this worker was parked and is now woken up.
+         */
+        boolean unpark() {
+            if (parked != 0 && parkedUpdater.compareAndSet(this, 1, 0)) {
+                idleWorkersUpdater.decrementAndGet(executor);
+                final Thread thread = this.thread;
+                assert thread != null;
+                LockSupport.unpark(thread);
+                return true;
+            }
+            return false;
+        }
+
+        @Nullable
+        private Runnable steal() {
+            final Worker[] workers = executor.workers;
+            for (int i = 1; i < workers.length; ++i) {
+                final Worker victim = workers[(index + i) % workers.length];
+                final Runnable task = victim.tasks.pollFirst();
+                if (task != null) {
+                    queuedUpdater.decrementAndGet(victim);
+                    steals = steals + 1; // single writer
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        private void park() {
+            parked = 1;
+            idleWorkersUpdater.incrementAndGet(executor);
+            // Re-check after announcing that we are parked: a task submitted before it observed the flag is visible
+            // now, a task submitted after will unpark us.
+            if (executor.state == RUNNING && !executor.hasQueuedTasks()) {
+                LockSupport.park(this);
+            }
+            if (parkedUpdater.compareAndSet(this, 1, 0)) {
+                // Nobody unparked us, so we have to update the idle count ourselves.
+                idleWorkersUpdater.decrementAndGet(executor);
+            }
+        }
+
+        private void runTask(final Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                LOGGER.error("Unexpected exception from task {} on {}.", task, executor, t);
+            }
+            if (executor.state != STOP) {
+                // Clear the interrupt status, possibly caused by a cancelled task, before running the next one.
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.test.internal.TestPublisherSubscriber;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Publisher.fromIterable;
+import static io.servicetalk.concurrent.api.Publisher.range;
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+class FusedMapFilterPublisherTest {
+
+    private final TestPublisher<Integer> source = new TestPublisher.Builder<Integer>()
+            .disableAutoOnSubscribe().build();
+    private final TestPublisherSubscriber<String> subscriber = new TestPublisherSubscriber<>();
+
+    @Test
+    void consecutiveStagesAreFused() {
+        Publisher<String> publisher = source.map(i -> i + 1).filter(i -> i % 2 == 0).map(String::valueOf);
+        assertThat(publisher, instanceOf(FusedMapFilterPublisher.class));
+    }
+
+    @Test
+    void singleStageOverFusibleSourceIsFused() {
+        assertThat(from(1, 2).map(String::valueOf), instanceOf(FusedMapFilterPublisher.class));
+        assertThat(range(0, 2).filter(i -> i > 0), instanceOf(FusedMapFilterPublisher.class));
+        assertThat(fromIterable(asList(1, 2)).map(String::valueOf), instanceOf(FusedMapFilterPublisher.class));
+    }
+
+    @Test
+    void singleStageIsNotFused() {
+        assertThat(source.map(String::valueOf), instanceOf(MapPublisher.class));
+        assertThat(source.filter(i -> i > 0), instanceOf(FilterPublisher.class));
+    }
+
+    @Test
+    void filteredItemsAreRequestedFromSource() {
+        toSource(source.map(i -> i * 2).filter(i -> i % 3 != 0).map(String::valueOf)).subscribe(subscriber);
+        TestSubscription subscription = new TestSubscription();
+        source.onSubscribe(subscription);
+
+        subscriber.awaitSubscription().request(2);
+        assertThat(subscription.requested(), is(2L));
+        source.onNext(1, 3);
+        assertThat(subscription.requested(), is(3L));
+        source.onNext(4);
+        assertThat(subscriber.takeOnNext(2), contains("2", "8"));
+        source.onComplete();
+        subscriber.awaitOnComplete();
+    }
+
+    @Test
+    void errorFromMapperIsPropagated() {
+        toSource(source.map(i -> {
+            throw DELIBERATE_EXCEPTION;
+        }).filter(i -> true).map(String::valueOf)).subscribe(subscriber);
+        TestSubscription subscription = new TestSubscription();
+        source.onSubscribe(subscription);
+
+        subscriber.awaitSubscription().request(1);
+        source.onNext(1);
+        assertThat(subscriber.awaitOnError(), is(sameInstance(DELIBERATE_EXCEPTION)));
+    }
+
+    @Test
+    void filteredItemsDoNotConsumeDemandFromFusibleSource() {
+        toSource(range(0, 10).filter(i -> i % 3 == 0).map(String::valueOf)).subscribe(subscriber);
+        subscriber.awaitSubscription().request(2);
+        assertThat(subscriber.takeOnNext(2), contains("0", "3"));
+        subscriber.awaitSubscription().request(2);
+        assertThat(subscriber.takeOnNext(2), contains("6", "9"));
+        subscriber.awaitOnComplete();
+    }
+
+    @Test
+    void fusibleSourceCompletesWhenAllItemsAreFiltered() {
+        toSource(from(1, 2, 3).filter(i -> false).map(String::valueOf)).subscribe(subscriber);
+        subscriber.awaitSubscription().request(1);
+        subscriber.awaitOnComplete();
+    }
+
+    @Test
+    void errorFromMapperOverFusibleSource() {
+        toSource(from(1, 2, 3).map(i -> {
+            if (i == 2) {
+                throw DELIBERATE_EXCEPTION;
+            }
+            return String.valueOf(i);
+        })).subscribe(subscriber);
+        subscriber.awaitSubscription().request(3);
+        assertThat(subscriber.takeOnNext(), is("1"));
+        assertThat(subscriber.awaitOnError(), is(sameInstance(DELIBERATE_EXCEPTION)));
+    }
+
+    @Test
+    void filterIsCreatedPerSubscribe() {
+        AtomicInteger created = new AtomicInteger();
+        Publisher<String> publisher = from(1, 1, 2).map(i -> i + 1).filter(() -> {
+            created.incrementAndGet();
+            return FilterPublisher.<Integer>newDistinctSupplier().get();
+        }).map(String::valueOf);
+        toSource(publisher).subscribe(subscriber);
+        subscriber.awaitSubscription().request(3);
+        assertThat(subscriber.takeOnNext(2), contains("2", "3"));
+        subscriber.awaitOnComplete();
+
+        TestPublisherSubscriber<String> subscriber2 = new TestPublisherSubscriber<>();
+        toSource(publisher).subscribe(subscriber2);
+        subscriber2.awaitSubscription().request(3);
+        assertThat(subscriber2.takeOnNext(2), contains("2", "3"));
+        subscriber2.awaitOnComplete();
+        assertThat(created.get(), is(2));
+    }
+
+    @Test
+    void cancelClosesIterator() {
+        AtomicBoolean closed = new AtomicBoolean();
+        toSource(fromIterable(() -> new ClosableIterator(closed)).map(String::valueOf)).subscribe(subscriber);
+        subscriber.awaitSubscription().request(1);
+        assertThat(subscriber.takeOnNext(), is("0"));
+        subscriber.awaitSubscription().cancel();
+        assertThat(closed.get(), is(true));
+    }
+
+    private static final class ClosableIterator implements Iterator<Integer>, AutoCloseable {
+        private final AtomicBoolean closed;
+        private int next;
+
+        ClosableIterator(final AtomicBoolean closed) {
+            this.closed = closed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+
+        @Override
+        public Integer next() {
+            return next++;
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.Cancellable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedWheelTimerTest {
+
+    // A small wheel, so that the tests exercise tasks which wait for multiple rounds.
+    private final HashedWheelTimer timer = new HashedWheelTimer(2, 1, MILLISECONDS, 8,
+            new DefaultThreadFactory("timer-wheel-test"));
+
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    @Test
+    void tasksDoNotRunBeforeDeadline() throws Exception {
+        final BlockingQueue<Boolean> onTime = new LinkedBlockingQueue<>();
+        final long[] delays = {0, 1, 5, 20, 50};
+        for (long delay : delays) {
+            final long start = System.nanoTime();
+            timer.schedule(() -> onTime.add(System.nanoTime() - start >= MILLISECONDS.toNanos(delay)),
+                    delay, MILLISECONDS);
+        }
+        for (int i = 0; i < delays.length; ++i) {
+            assertThat(onTime.poll(5, SECONDS), is(true));
+        }
+        assertThat(timer.pendingTasks(), is(0L));
+    }
+
+    @Test
+    void taskRunsAfterMultipleRounds() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        timer.schedule(latch::countDown, 30, MILLISECONDS);
+        assertTrue(latch.await(5, SECONDS));
+        assertThat(NANOSECONDS.toMillis(System.nanoTime() - start), greaterThanOrEqualTo(30L));
+    }
+
+    @Test
+    void cancelledTaskDoesNotRun() throws Exception {
+        final AtomicBoolean ran = new AtomicBoolean();
+        final Cancellable cancellable = timer.schedule(() -> ran.set(true), 10, MILLISECONDS);
+        assertThat(timer.pendingTasks(), is(1L));
+        cancellable.cancel();
+        assertThat(timer.pendingTasks(), is(0L));
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(latch::countDown, 20, MILLISECONDS);
+        assertTrue(latch.await(5, SECONDS));
+        assertThat(ran.get(), is(false));
+    }
+
+    @Test
+    void longDelayDoesNotOverflow() {
+        final Cancellable cancellable = timer.schedule(() -> { }, Long.MAX_VALUE, NANOSECONDS);
+        assertThat(timer.pendingTasks(), is(1L));
+        cancellable.cancel();
+        assertThat(timer.pendingTasks(), is(0L));
+    }
+
+    @Test
+    void rejectsTasksAfterClose() {
+        timer.close();
+        assertThrows(IllegalStateException.class, () -> timer.schedule(() -> { }, 1, MILLISECONDS));
+    }
+
+    @Test
+    void executorOffloadsTicks() throws Exception {
+        final Executor executor = new DefaultExecutor(java.util.concurrent.Executors.newCachedThreadPool(
+                new DefaultThreadFactory("timer-wheel-offload")), timer);
+        try {
+            final BlockingQueue<Thread> thread = new LinkedBlockingQueue<>();
+            executor.schedule(() -> thread.add(Thread.currentThread()), 10, MILLISECONDS);
+            final String name = thread.take().getName();
+            assertTrue(name.startsWith("timer-wheel-offload"), name);
+        } finally {
+            executor.closeAsync().toFuture().get();
+        }
+    }
+
+    @Test
+    void executorWithGlobalTimerWheel() throws Exception {
+        final Executor executor = Executors.fromWithTimerWheel(java.util.concurrent.Executors.newCachedThreadPool(
+                new DefaultThreadFactory("global-timer-wheel-offload")));
+        try {
+            final BlockingQueue<Thread> thread = new LinkedBlockingQueue<>();
+            executor.schedule(() -> thread.add(Thread.currentThread()), 10, MILLISECONDS);
+            final String name = thread.take().getName();
+            assertTrue(name.startsWith("global-timer-wheel-offload"), name);
+        } finally {
+            executor.closeAsync().toFuture().get();
+        }
+    }
+}
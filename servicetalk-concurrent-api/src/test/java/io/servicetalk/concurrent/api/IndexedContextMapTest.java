@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.context.api.ContextMap;
+import io.servicetalk.context.api.ContextMap.Key;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.servicetalk.context.api.ContextMap.Key.newIndexedKey;
+import static io.servicetalk.context.api.ContextMap.Key.newKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IndexedContextMapTest {
+    private static final Key<String> INDEXED_1 = newIndexedKey("indexed-1", String.class);
+    private static final Key<String> INDEXED_2 = newIndexedKey("indexed-2", String.class);
+    private static final Key<String> OTHER = newKey("other", String.class);
+
+    private final ContextMap map = new IndexedContextMap();
+
+    @Test
+    void putGetRemoveIndexedAndOtherKeys() {
+        assertThat(map.put(INDEXED_2, "v2"), is(nullValue()));
+        assertThat(map.put(OTHER, "o"), is(nullValue()));
+        assertThat(map.put(INDEXED_1, "v1"), is(nullValue()));
+        assertThat(map.size(), is(3));
+        assertThat(map.get(INDEXED_1), is("v1"));
+        assertThat(map.get(INDEXED_2), is("v2"));
+        assertThat(map.get(OTHER), is("o"));
+
+        assertThat(map.put(INDEXED_1, "v3"), is("v1"));
+        assertThat(map.remove(INDEXED_1), is("v3"));
+        assertThat(map.containsKey(INDEXED_1), is(false));
+        assertThat(map.remove(OTHER), is("o"));
+        assertThat(map.size(), is(1));
+    }
+
+    @Test
+    void nullValues() {
+        map.put(INDEXED_1, null);
+        assertThat(map.containsKey(INDEXED_1), is(true));
+        assertThat(map.contains(INDEXED_1, null), is(true));
+        assertThat(map.containsValue(null), is(true));
+        assertThat(map.getOrDefault(INDEXED_1, "default"), is(nullValue()));
+        assertThat(map.putIfAbsent(INDEXED_1, "v1"), is(nullValue()));
+        assertThat(map.get(INDEXED_1), is("v1"));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        map.put(INDEXED_1, "v1");
+        map.put(OTHER, "o");
+        final ContextMap copy = map.copy();
+        assertThat(copy, is(map));
+        copy.put(INDEXED_1, "v2");
+        copy.put(OTHER, "o2");
+        assertThat(map.get(INDEXED_1), is("v1"));
+        assertThat(map.get(OTHER), is("o"));
+        assertThat(copy.get(INDEXED_1), is("v2"));
+    }
+
+    @Test
+    void forEachVisitsIndexedKeysFirst() {
+        map.put(OTHER, "o");
+        map.put(INDEXED_2, "v2");
+        map.put(INDEXED_1, "v1");
+        final List<String> names = new ArrayList<>();
+        map.forEach((key, value) -> names.add(key.name()));
+        assertThat(names, contains("indexed-1", "indexed-2", "other"));
+    }
+
+    @Test
+    void equalToCopyOnWriteContextMap() {
+        final ContextMap other = new CopyOnWriteContextMap();
+        map.put(INDEXED_1, "v1");
+        map.put(OTHER, "o");
+        other.put(OTHER, "o");
+        other.put(INDEXED_1, "v1");
+        assertThat(map.equals(other), is(true));
+        assertThat(other.equals(map), is(true));
+        map.clear();
+        assertThat(map.isEmpty(), is(true));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void rejectsValueOfWrongType() {
+        assertThrows(IllegalArgumentException.class, () -> map.put((Key) INDEXED_1, 1));
+    }
+}
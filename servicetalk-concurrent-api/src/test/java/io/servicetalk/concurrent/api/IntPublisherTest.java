@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.PublisherSource.Subscription;
+import io.servicetalk.concurrent.api.IntPublisher.IntSubscriber;
+import io.servicetalk.concurrent.test.internal.TestSingleSubscriber;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntPublisherTest {
+
+    private final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+    @Test
+    void invalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> IntPublisher.range(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> IntPublisher.range(0, 1, 0));
+    }
+
+    @Test
+    void rangeStride() throws Exception {
+        assertThat(IntPublisher.range(0, 10, 3).collectToArray().toFuture().get(), is(new int[] {0, 3, 6, 9}));
+        assertThat(IntPublisher.range(Integer.MAX_VALUE - 3, Integer.MAX_VALUE, 2).collectToArray().toFuture().get(),
+                is(new int[] {Integer.MAX_VALUE - 3, Integer.MAX_VALUE - 1}));
+    }
+
+    @Test
+    void mapAndFilter() throws Exception {
+        assertThat(IntPublisher.from(1, 2, 3, 4, 5).map(i -> i * 10).filter(i -> i != 30).collectToArray()
+                .toFuture().get(), is(new int[] {10, 20, 40, 50}));
+    }
+
+    @Test
+    void sum() throws Exception {
+        assertThat(IntPublisher.range(0, 100).sum().toFuture().get(), is(4950L));
+        assertThat(IntPublisher.from(Integer.MAX_VALUE, Integer.MAX_VALUE).sum().toFuture().get(),
+                is(2L * Integer.MAX_VALUE));
+        assertThat(IntPublisher.from().sum().toFuture().get(), is(0L));
+    }
+
+    @Test
+    void boxed() throws Exception {
+        assertThat(IntPublisher.range(0, 3).boxed().toFuture().get(), contains(0, 1, 2));
+    }
+
+    @Test
+    void mapToLong() throws Exception {
+        assertThat(IntPublisher.from(1, 2).mapToLong(i -> i * 10_000_000_000L).sum().toFuture().get(),
+                is(30_000_000_000L));
+    }
+
+    @Test
+    void respectsDemand() {
+        IntPublisher.range(0, 10).filter(i -> (i & 1) == 0).subscribe(subscriber);
+        assertThat(subscriber.items, is(empty()));
+        subscriber.request(2);
+        assertThat(subscriber.items, contains(0, 2));
+        subscriber.request(3);
+        assertThat(subscriber.items, contains(0, 2, 4, 6, 8));
+        assertThat(subscriber.completed, is(true));
+    }
+
+    @Test
+    void reentrantRequest() {
+        subscriber.requestOnNext = true;
+        IntPublisher.range(0, 5).subscribe(subscriber);
+        subscriber.request(1);
+        assertThat(subscriber.items, contains(0, 1, 2, 3, 4));
+        assertThat(subscriber.completed, is(true));
+    }
+
+    @Test
+    void cancel() {
+        IntPublisher.range(0, 10).subscribe(subscriber);
+        subscriber.request(2);
+        subscriber.cancel();
+        subscriber.request(2);
+        assertThat(subscriber.items, contains(0, 1));
+        assertThat(subscriber.completed, is(false));
+        assertThat(subscriber.error, is(nullValue()));
+    }
+
+    @Test
+    void cancelSumWhileSourceDeliversItems() {
+        TestSingleSubscriber<Long> sumSubscriber = new TestSingleSubscriber<>();
+        List<Integer> mapped = new ArrayList<>();
+        toSource(IntPublisher.range(0, 10).map(i -> {
+            mapped.add(i);
+            if (i == 2) {
+                sumSubscriber.awaitSubscription().cancel();
+            }
+            return i;
+        }).sum()).subscribe(sumSubscriber);
+        assertThat(mapped, contains(0, 1, 2));
+        assertThat(sumSubscriber.pollTerminal(10, MILLISECONDS), is(nullValue()));
+    }
+
+    @Test
+    void invalidRequestN() {
+        IntPublisher.from(1).subscribe(subscriber);
+        subscriber.request(-1);
+        assertThat(subscriber.error, instanceOf(IllegalArgumentException.class));
+    }
+
+    @Test
+    void errorFromMapper() {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> IntPublisher.from(1, 2)
+                .map(i -> {
+                    throw DELIBERATE_EXCEPTION;
+                }).sum().toFuture().get());
+        assertThat(e.getCause(), is(sameInstance(DELIBERATE_EXCEPTION)));
+    }
+
+    private static final class RecordingSubscriber implements IntSubscriber {
+        final List<Integer> items = new ArrayList<>();
+        @Nullable
+        Subscription subscription;
+        @Nullable
+        Throwable error;
+        boolean completed;
+        boolean requestOnNext;
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final int item) {
+            items.add(item);
+            if (requestOnNext) {
+                request(1);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        void request(long n) {
+            assert subscription != null;
+            subscription.request(n);
+        }
+
+        void cancel() {
+            assert subscription != null;
+            subscription.cancel();
+        }
+    }
+}
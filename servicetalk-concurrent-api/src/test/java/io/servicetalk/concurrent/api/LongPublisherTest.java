@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.test.internal.TestSingleSubscriber;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongPublisherTest {
+
+    @Test
+    void invalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> LongPublisher.range(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> LongPublisher.range(0, 1, 0));
+    }
+
+    @Test
+    void cancelCollectToArrayWhileSourceDeliversItems() {
+        TestSingleSubscriber<long[]> arraySubscriber = new TestSingleSubscriber<>();
+        List<Long> mapped = new ArrayList<>();
+        toSource(LongPublisher.range(0, 10).map(i -> {
+            mapped.add(i);
+            if (i == 2) {
+                arraySubscriber.awaitSubscription().cancel();
+            }
+            return i;
+        }).collectToArray()).subscribe(arraySubscriber);
+        assertThat(mapped, contains(0L, 1L, 2L));
+        assertThat(arraySubscriber.pollTerminal(10, MILLISECONDS), is(nullValue()));
+    }
+
+    @Test
+    void rangeBeyondIntegers() throws Exception {
+        assertThat(LongPublisher.range(Integer.MAX_VALUE - 1L, Integer.MAX_VALUE + 2L).collectToArray().toFuture()
+                .get(), is(new long[] {Integer.MAX_VALUE - 1L, Integer.MAX_VALUE, Integer.MAX_VALUE + 1L}));
+    }
+
+    @Test
+    void rangeStrideDoesNotOverflow() throws Exception {
+        assertThat(LongPublisher.range(Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE).collectToArray().toFuture()
+                .get(), is(new long[] {Long.MIN_VALUE, -1, Long.MAX_VALUE - 1}));
+    }
+
+    @Test
+    void mapFilterAndSum() throws Exception {
+        assertThat(LongPublisher.range(0, 10).map(i -> i * 3).filter(i -> (i & 1) == 0).sum().toFuture().get(),
+                is(60L));
+    }
+
+    @Test
+    void boxed() throws Exception {
+        assertThat(LongPublisher.from(1, 2).boxed().toFuture().get(), contains(1L, 2L));
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.test.internal.TestPublisherSubscriber;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.servicetalk.concurrent.api.Processors.newMpscPublisherProcessorDropHeadOnOverflow;
+import static io.servicetalk.concurrent.api.Processors.newMpscPublisherProcessorDropTailOnOverflow;
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class MpscPublisherProcessorSignalsHolderTest {
+    @SuppressWarnings("unchecked")
+    private final ProcessorSignalsConsumer<Integer> consumer = mock(ProcessorSignalsConsumer.class);
+
+    @Test
+    void invalidMaxBuffer() {
+        assertThrows(IllegalArgumentException.class, () -> new MpscPublisherProcessorSignalsHolder<>(0, true));
+    }
+
+    @Test
+    void dropHead() {
+        MpscPublisherProcessorSignalsHolder<Integer> buffer = new MpscPublisherProcessorSignalsHolder<>(2, true);
+        buffer.add(1);
+        buffer.add(2);
+        buffer.add(3); // overflow, drops 1
+        assertThat("Unexpected dropped items.", buffer.droppedItems(), is(1L));
+        assertThat("Item not consumed.", buffer.tryConsume(consumer), is(true));
+        assertThat("Item not consumed.", buffer.tryConsume(consumer), is(true));
+        assertThat("Item consumed when empty.", buffer.tryConsume(consumer), is(false));
+        verify(consumer).consumeItem(2);
+        verify(consumer).consumeItem(3);
+        verifyNoMoreInteractions(consumer);
+    }
+
+    @Test
+    void dropHeadConcurrentlyWithConsumer() throws Exception {
+        final int producers = 4;
+        final int itemsPerProducer = 10_000;
+        MpscPublisherProcessorSignalsHolder<Integer> buffer = new MpscPublisherProcessorSignalsHolder<>(8, true);
+        AtomicInteger consumed = new AtomicInteger();
+        ProcessorSignalsConsumer<Integer> countingConsumer = new ProcessorSignalsConsumer<Integer>() {
+            @Override
+            public void consumeItem(final Integer item) {
+                consumed.incrementAndGet();
+            }
+
+            @Override
+            public void consumeTerminal(final Throwable cause) {
+            }
+
+            @Override
+            public void consumeTerminal() {
+            }
+        };
+        CyclicBarrier barrier = new CyclicBarrier(producers + 1);
+        List<Thread> threads = new ArrayList<>(producers);
+        for (int i = 0; i < producers; ++i) {
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+                for (int j = 0; j < itemsPerProducer; ++j) {
+                    buffer.add(j);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        barrier.await();
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                buffer.tryConsume(countingConsumer);
+            }
+            thread.join();
+        }
+        while (buffer.tryConsume(countingConsumer)) {
+            // drain the remaining items
+        }
+        assertThat("Items lost or delivered twice.", consumed.get() + buffer.droppedItems(),
+                is((long) producers * itemsPerProducer));
+    }
+
+    @Test
+    void dropTail() {
+        MpscPublisherProcessorSignalsHolder<Integer> buffer = new MpscPublisherProcessorSignalsHolder<>(2, false);
+        buffer.add(1);
+        buffer.add(2);
+        buffer.add(3); // overflow, drops 3
+        assertThat("Unexpected dropped items.", buffer.droppedItems(), is(1L));
+        assertThat("Item not consumed.", buffer.tryConsume(consumer), is(true));
+        buffer.add(4);
+        assertThat("Unexpected dropped items.", buffer.droppedItems(), is(1L));
+        assertThat("Item not consumed.", buffer.tryConsume(consumer), is(true));
+        assertThat("Item not consumed.", buffer.tryConsume(consumer), is(true));
+        verify(consumer).consumeItem(1);
+        verify(consumer).consumeItem(2);
+        verify(consumer).consumeItem(4);
+        verifyNoMoreInteractions(consumer);
+    }
+
+    @Test
+    void nullItem() {
+        MpscPublisherProcessorSignalsHolder<Integer> buffer = new MpscPublisherProcessorSignalsHolder<>(1, true);
+        buffer.add(null);
+        assertThat("Item not consumed.", buffer.tryConsume(consumer), is(true));
+        verify(consumer).consumeItem(null);
+        verifyNoMoreInteractions(consumer);
+    }
+
+    @Test
+    void consumeTerminalAfterItems() {
+        MpscPublisherProcessorSignalsHolder<Integer> buffer = new MpscPublisherProcessorSignalsHolder<>(2, true);
+        buffer.add(1);
+        buffer.terminate(DELIBERATE_EXCEPTION);
+        buffer.terminate(); // ignored, already terminated
+        assertThat("Terminal consumed before items.", buffer.tryConsumeTerminal(consumer), is(false));
+        verifyNoInteractions(consumer);
+        assertThat("Item not consumed.", buffer.tryConsume(consumer), is(true));
+        assertThat("Terminal not consumed.", buffer.tryConsume(consumer), is(true));
+        InOrder order = inOrder(consumer);
+        order.verify(consumer).consumeItem(1);
+        order.verify(consumer).consumeTerminal(DELIBERATE_EXCEPTION);
+        verifyNoMoreInteractions(consumer);
+    }
+
+    @Test
+    void processorDeliversLatestItemsUpToDemand() {
+        DroppingPublisherProcessor<Integer> processor = newMpscPublisherProcessorDropHeadOnOverflow(3);
+        TestPublisherSubscriber<Integer> subscriber = new TestPublisherSubscriber<>();
+        toSource(processor).subscribe(subscriber);
+        for (int i = 0; i < 5; ++i) {
+            processor.onNext(i);
+        }
+        processor.onComplete();
+        assertThat("Unexpected dropped items.", processor.droppedItems(), is(2L));
+        subscriber.awaitSubscription().request(2);
+        assertThat(subscriber.takeOnNext(2), contains(2, 3));
+        subscriber.awaitSubscription().request(2);
+        assertThat(subscriber.takeOnNext(), is(4));
+        subscriber.awaitOnComplete();
+    }
+
+    @Test
+    void processorDropsTail() {
+        DroppingPublisherProcessor<Integer> processor = newMpscPublisherProcessorDropTailOnOverflow(2);
+        TestPublisherSubscriber<Integer> subscriber = new TestPublisherSubscriber<>();
+        toSource(processor).subscribe(subscriber);
+        processor.onNext(1);
+        processor.onNext(2);
+        processor.onNext(3);
+        assertThat("Unexpected dropped items.", processor.droppedItems(), is(1L));
+        subscriber.awaitSubscription().request(Long.MAX_VALUE);
+        assertThat(subscriber.takeOnNext(2), contains(1, 2));
+        processor.onNext(4);
+        assertThat(subscriber.takeOnNext(), is(4));
+        processor.onError(DELIBERATE_EXCEPTION);
+        assertThat(subscriber.awaitOnError(), is(DELIBERATE_EXCEPTION));
+    }
+}
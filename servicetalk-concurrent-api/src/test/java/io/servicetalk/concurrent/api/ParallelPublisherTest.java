@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.test.internal.TestPublisherSubscriber;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import static io.servicetalk.concurrent.api.ExecutorExtension.withCachedExecutor;
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelPublisherTest {
+    private static final int ITEMS = 10_000;
+
+    @RegisterExtension
+    static final ExecutorExtension<Executor> EXEC = withCachedExecutor().setClassLevel(true);
+
+    private final TestPublisher<Integer> publisher = new TestPublisher<>();
+    private final TestSubscription subscription = new TestSubscription();
+    private final TestPublisherSubscriber<Integer> subscriber = new TestPublisherSubscriber<>();
+
+    @Test
+    void mergeOrderedPreservesOrder() throws Exception {
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final Collection<Integer> result = Publisher.range(0, ITEMS).parallel(4, EXEC.executor())
+                .map(i -> {
+                    threads.add(Thread.currentThread());
+                    return i * 2;
+                })
+                .mergeOrdered().toFuture().get();
+        assertThat(new ArrayList<>(result), is(range(0, ITEMS).map(i -> i * 2).boxed().collect(toList())));
+        assertThat(threads, hasSize(greaterThan(0)));
+        assertThat(threads.contains(Thread.currentThread()), is(false));
+    }
+
+    @Test
+    void mergeEmitsAllItems() throws Exception {
+        final Collection<Integer> result = Publisher.range(0, ITEMS).parallel(4, EXEC.executor())
+                .map(i -> i + 1)
+                .merge().toFuture().get();
+        assertThat(new ArrayList<>(result), containsInAnyOrder(range(1, ITEMS + 1).boxed().toArray()));
+    }
+
+    @Test
+    void filterDropsItemsAndKeepsOrder() throws Exception {
+        final Collection<Integer> result = Publisher.range(0, ITEMS).parallel(3, 16, EXEC.executor())
+                .filter(i -> i % 3 == 0)
+                .map(i -> i / 3)
+                .mergeOrdered().toFuture().get();
+        assertThat(new ArrayList<>(result), is(range(0, (ITEMS + 2) / 3).boxed().collect(toList())));
+    }
+
+    @Test
+    void mapperErrorIsPropagated() {
+        final ExecutionException e = assertThrows(ExecutionException.class,
+                () -> Publisher.range(0, ITEMS).parallel(4, EXEC.executor())
+                        .map(i -> {
+                            if (i == ITEMS / 2) {
+                                throw DELIBERATE_EXCEPTION;
+                            }
+                            return i;
+                        })
+                        .merge().toFuture().get());
+        assertThat(e.getCause(), is(sameInstance(DELIBERATE_EXCEPTION)));
+    }
+
+    @Test
+    void upstreamDemandIsBoundedAndReplenishedInBatches() throws Exception {
+        toSource(publisher.parallel(2, 4, EXEC.executor()).mergeOrdered()).subscribe(subscriber);
+        publisher.onSubscribe(subscription);
+        assertThat(subscription.requested(), is(8L));
+
+        publisher.onNext(range(0, 8).boxed().toArray(Integer[]::new));
+        subscriber.awaitSubscription().request(5);
+        assertThat(subscriber.takeOnNext(5), is(range(0, 5).boxed().collect(toList())));
+        assertThat("Demand replenished before a batch was consumed", subscription.requested(), is(8L));
+
+        subscriber.awaitSubscription().request(1);
+        assertThat(subscriber.takeOnNext(), is(5));
+        subscription.awaitRequestN(14);
+        assertThat(subscription.requested(), is(14L));
+
+        subscriber.awaitSubscription().request(2);
+        assertThat(subscriber.takeOnNext(2), is(range(6, 8).boxed().collect(toList())));
+        publisher.onComplete();
+        subscriber.awaitOnComplete();
+    }
+
+    @Test
+    void upstreamErrorIsPropagated() {
+        toSource(publisher.parallel(2, EXEC.executor()).merge()).subscribe(subscriber);
+        publisher.onSubscribe(subscription);
+        publisher.onError(DELIBERATE_EXCEPTION);
+        assertThat(subscriber.awaitOnError(), is(sameInstance(DELIBERATE_EXCEPTION)));
+    }
+
+    @Test
+    void cancelIsPropagated() {
+        toSource(publisher.parallel(2, EXEC.executor()).merge()).subscribe(subscriber);
+        publisher.onSubscribe(subscription);
+        subscriber.awaitSubscription().cancel();
+        assertThat(subscription.isCancelled(), is(true));
+    }
+
+    @Test
+    void invalidRailsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Publisher.range(0, 1).parallel(0, EXEC.executor()));
+    }
+}
@@ -1417,6 +1417,108 @@ class PublisherFlatMapMergeTest {
         assertFalse(timedOut, "The countDownLatch didn't timeout, and there was also no exception?!");
     }
 
+    @Test
+    void prefetchCapsMappedDemand() throws InterruptedException {
+        List<TestSubscriptionPublisherPair<Integer>> mappedPublishers = new ArrayList<>();
+        FlatMapMergeBuffer<Integer> buffer = FlatMapMergeBuffer.adaptivePrefetch(4);
+        toSource(publisher.flatMapMerge(i -> {
+            TestSubscriptionPublisherPair<Integer> pair = new TestSubscriptionPublisherPair<>(i);
+            mappedPublishers.add(pair);
+            return pair.mappedPublisher;
+        }, 2, buffer)).subscribe(subscriber);
+        subscriber.awaitSubscription().request(Long.MAX_VALUE);
+
+        publisher.onNext(1);
+        assertThat(mappedPublishers, hasSize(1));
+        TestSubscriptionPublisherPair<Integer> first = mappedPublishers.get(0);
+        first.doOnSubscribe(1);
+        verifyCumulativeDemand(first.mappedSubscription, 4);
+
+        first.mappedPublisher.onNext(1, 2, 3, 4);
+        verifyCumulativeDemand(first.mappedSubscription, 8);
+        assertThat(subscriber.pollAllOnNext(), contains(1, 2, 3, 4));
+        assertThat(buffer.bufferedItems(), is(0L));
+
+        first.mappedPublisher.onComplete();
+        publisher.onComplete();
+        subscriber.awaitOnComplete();
+    }
+
+    @Test
+    void bufferedBytesCapStarvesMappedPublishers() throws InterruptedException {
+        List<TestSubscriptionPublisherPair<Integer>> mappedPublishers = new ArrayList<>();
+        FlatMapMergeBuffer<Integer> buffer = FlatMapMergeBuffer.adaptivePrefetch(4, 1, i -> 1);
+        toSource(publisher.flatMapMergeDelayError(i -> {
+            TestSubscriptionPublisherPair<Integer> pair = new TestSubscriptionPublisherPair<>(i);
+            mappedPublishers.add(pair);
+            return pair.mappedPublisher;
+        }, 2, buffer)).subscribe(subscriber);
+        subscriber.awaitSubscription().request(2);
+
+        publisher.onNext(1, 2);
+        assertThat(mappedPublishers, hasSize(2));
+        TestSubscriptionPublisherPair<Integer> first = mappedPublishers.get(0);
+        TestSubscriptionPublisherPair<Integer> second = mappedPublishers.get(1);
+        first.doOnSubscribe(1);
+        verifyCumulativeDemand(first.mappedSubscription, 1);
+        second.doOnSubscribe(2);
+        verifyCumulativeDemand(second.mappedSubscription, 1);
+
+        first.mappedPublisher.onNext(1);
+        verifyCumulativeDemand(first.mappedSubscription, 2);
+        second.mappedPublisher.onNext(2);
+        verifyCumulativeDemand(second.mappedSubscription, 2);
+        assertThat(subscriber.pollAllOnNext(), contains(1, 2));
+
+        // No downstream demand, items are buffered.
+        first.mappedPublisher.onNext(3);
+        second.mappedPublisher.onNext(4);
+        assertThat(buffer.bufferedItems(), is(2L));
+        assertThat(buffer.bufferedBytes(), is(2L));
+
+        // The buffer is still full after delivering one item, the first mapped Publisher doesn't get more demand.
+        subscriber.awaitSubscription().request(1);
+        assertThat(subscriber.pollAllOnNext(), contains(3));
+        assertThat(buffer.bufferedItems(), is(1L));
+        assertThat(first.mappedSubscription.requested(), is(2L));
+
+        subscriber.awaitSubscription().request(1);
+        assertThat(subscriber.pollAllOnNext(), contains(4));
+        assertThat(buffer.bufferedItems(), is(0L));
+        assertThat(buffer.bufferedBytes(), is(0L));
+        verifyCumulativeDemand(first.mappedSubscription, 3);
+        verifyCumulativeDemand(second.mappedSubscription, 3);
+
+        first.mappedPublisher.onComplete();
+        second.mappedPublisher.onComplete();
+        publisher.onComplete();
+        subscriber.awaitOnComplete();
+    }
+
+    @Test
+    void bufferIsReleasedOnCancel() throws InterruptedException {
+        List<TestSubscriptionPublisherPair<Integer>> mappedPublishers = new ArrayList<>();
+        FlatMapMergeBuffer<Integer> buffer = FlatMapMergeBuffer.adaptivePrefetch(4, 100, i -> 10);
+        toSource(publisher.flatMapMerge(i -> {
+            TestSubscriptionPublisherPair<Integer> pair = new TestSubscriptionPublisherPair<>(i);
+            mappedPublishers.add(pair);
+            return pair.mappedPublisher;
+        }, 2, buffer)).subscribe(subscriber);
+
+        publisher.onNext(1);
+        TestSubscriptionPublisherPair<Integer> first = mappedPublishers.get(0);
+        first.doOnSubscribe(1);
+        verifyCumulativeDemand(first.mappedSubscription, 1);
+        first.mappedPublisher.onNext(1);
+        assertThat(buffer.bufferedItems(), is(1L));
+        assertThat(buffer.bufferedBytes(), is(10L));
+
+        subscriber.awaitSubscription().cancel();
+        assertThat(buffer.bufferedItems(), is(0L));
+        assertThat(buffer.bufferedBytes(), is(0L));
+        assertTrue(first.mappedSubscription.isCancelled());
+    }
+
     private static final class TestSubscriptionPublisherPair<T> {
         @Nullable
         final T item;
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.context.api.ContextMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.context.api.ContextMap.Key.newKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadExecutorTest {
+    private static final ContextMap.Key<String> KEY = newKey("key", String.class);
+
+    @Nullable
+    private Executor executor;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (executor != null) {
+            executor.closeAsync().toFuture().get();
+        }
+    }
+
+    @Test
+    void runsTasksOnVirtualThreads() throws Exception {
+        assumeTrue(Executors.isVirtualThreadExecutorSupported(), "Virtual threads require JDK 21+");
+        executor = Executors.newVirtualThreadExecutor("test-virtual-");
+        final Thread thread = executor.submit(Thread::currentThread).toFuture().get();
+        final Method isVirtual = Thread.class.getMethod("isVirtual");
+        assertThat((Boolean) isVirtual.invoke(thread), is(true));
+        assertThat(thread.getName(), startsWith("test-virtual-"));
+    }
+
+    @Test
+    void propagatesAsyncContext() throws Exception {
+        assumeTrue(Executors.isVirtualThreadExecutorSupported(), "Virtual threads require JDK 21+");
+        executor = Executors.newVirtualThreadExecutor();
+        AsyncContext.put(KEY, "value");
+        try {
+            assertThat(executor.submit(() -> AsyncContext.get(KEY)).toFuture().get(), is("value"));
+        } finally {
+            AsyncContext.remove(KEY);
+        }
+    }
+
+    @Test
+    void unsupportedBeforeJdk21() {
+        assumeFalse(Executors.isVirtualThreadExecutorSupported(), "Virtual threads are supported");
+        assertThrows(UnsupportedOperationException.class, Executors::newVirtualThreadExecutor);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.context.api.ContextMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.context.api.ContextMap.Key.newKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorkStealingExecutorTest {
+    private static final ContextMap.Key<String> KEY = newKey("key", String.class);
+
+    @Nullable
+    private WorkStealingExecutor executor;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (executor != null) {
+            executor.closeAsync().toFuture().get();
+        }
+    }
+
+    @Test
+    void invalidWorkers() {
+        assertThrows(IllegalArgumentException.class, () -> Executors.newWorkStealingExecutor(0));
+    }
+
+    @Test
+    void runsAllTasks() throws Exception {
+        executor = Executors.newWorkStealingExecutor(4);
+        final int tasks = 10_000;
+        final AtomicInteger ran = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; ++i) {
+            executor.execute(() -> {
+                ran.incrementAndGet();
+                done.countDown();
+            });
+        }
+        done.await();
+        assertThat(ran.get(), is(tasks));
+        assertThat(executor.workers(), is(4));
+        assertThat(executor.queueDepth(), is(0L));
+    }
+
+    @Test
+    void idleWorkersStealFromBusyWorker() throws Exception {
+        executor = Executors.newWorkStealingExecutor(2);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        // Tasks submitted from the same thread are queued on the same worker, so the other worker has to steal one
+        // of them while both tasks wait for each other.
+        executor.execute(() -> {
+            blocked.countDown();
+            awaitUninterruptibly(release);
+            done.countDown();
+        });
+        executor.execute(() -> {
+            awaitUninterruptibly(blocked);
+            release.countDown();
+            done.countDown();
+        });
+        done.await();
+        assertThat(executor.steals(), greaterThan(0L));
+    }
+
+    @Test
+    void oldestTaskOfBlockedWorkerIsStolenFirst() throws Exception {
+        executor = Executors.newWorkStealingExecutor(2);
+        final WorkStealingExecutor stealing = executor;
+        final CountDownLatch thiefBusy = new CountDownLatch(1);
+        final CountDownLatch releaseThief = new CountDownLatch(1);
+        final CountDownLatch releaseOwner = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        final Queue<Integer> order = new ConcurrentLinkedQueue<>();
+        stealing.execute(() -> {
+            // Tasks submitted from a worker are queued on the same worker. The other worker is idle and steals this
+            // one, which keeps it busy until all the following tasks are queued.
+            stealing.execute(() -> {
+                thiefBusy.countDown();
+                awaitUninterruptibly(releaseThief);
+            });
+            awaitUninterruptibly(thiefBusy);
+            for (int i = 0; i < 3; ++i) {
+                final int task = i;
+                stealing.execute(() -> {
+                    order.add(task);
+                    done.countDown();
+                });
+            }
+            releaseThief.countDown();
+            // This worker is blocked, so the other worker has to steal all the queued tasks.
+            awaitUninterruptibly(releaseOwner);
+        });
+        try {
+            done.await();
+            assertThat(order, contains(0, 1, 2));
+        } finally {
+            releaseOwner.countDown();
+        }
+    }
+
+    @Test
+    void propagatesAsyncContext() throws Exception {
+        executor = Executors.newWorkStealingExecutor(2);
+        AsyncContext.put(KEY, "value");
+        try {
+            assertThat(executor.submit(() -> AsyncContext.get(KEY)).toFuture().get(), is("value"));
+        } finally {
+            AsyncContext.remove(KEY);
+        }
+    }
+
+    @Test
+    void rejectsAfterClose() throws Exception {
+        final WorkStealingExecutor executor = Executors.newWorkStealingExecutor(2);
+        executor.closeAsync().toFuture().get();
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        for (;;) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ignored) {
+                // retry
+            }
+        }
+    }
+}
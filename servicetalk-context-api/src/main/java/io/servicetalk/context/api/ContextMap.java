@@ -17,6 +17,7 @@ package io.servicetalk.context.api;
 
 import java.util.ConcurrentModificationException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import javax.annotation.Nullable;
@@ -37,13 +38,20 @@ public interface ContextMap {
      * @param <T> The type of value associated with a {@link Key}.
      */
     final class Key<T> {
+        /**
+         * Maximum number of {@link #newIndexedKey(String, Class) indexed keys}.
+         */
+        private static final int MAX_INDEXED_KEYS = 256;
+        private static final AtomicInteger nextIndex = new AtomicInteger();
 
         private final String name;
         private final Class<T> type;
+        private final int index;
 
-        private Key(final String name, final Class<T> type) {
+        private Key(final String name, final Class<T> type, final int index) {
             this.name = requireNonNull(name);
             this.type = requireNonNull(type);
+            this.index = index;
         }
 
         /**
@@ -76,7 +84,44 @@ public interface ContextMap {
          * debugging visibility.
          */
         public static <T> Key<T> newKey(final String name, final Class<T> type) {
-            return new Key<>(name, type);
+            return new Key<>(name, type, -1);
+        }
+
+        /**
+         * Creates a new {@link Key} with the specified name and type, and registers it to get a dense
+         * {@link #index() index}.
+         * <p>
+         * {@link ContextMap} implementations may use the index to store the value in an array slot, without hashing
+         * or comparing keys. This is intended for a small number of well-known keys which are accessed frequently
+         * (like tracing or MDC state) and must be created once, typically as a {@code static final} constant. At most
+         * 256 indexed keys can be created per class loader.
+         *
+         * @param name The name of the key. This <strong>WILL NOT</strong> be used in comparisons between {@link Key}
+         * objects.
+         * @param type The type of the key. This <strong>WILL NOT</strong> be used in comparisons between {@link Key}
+         * objects.
+         * @param <T> The value type associated with the {@link Key}.
+         * @return A new {@link Key} with a dense {@link #index() index}.
+         * @throws IllegalStateException if the maximum number of indexed keys has been reached.
+         */
+        public static <T> Key<T> newIndexedKey(final String name, final Class<T> type) {
+            final int index = nextIndex.getAndIncrement();
+            if (index >= MAX_INDEXED_KEYS) {
+                nextIndex.decrementAndGet();
+                throw new IllegalStateException("Maximum number of indexed keys (" + MAX_INDEXED_KEYS +
+                        ") reached, can not create an indexed key with name: " + name);
+            }
+            return new Key<>(name, type, index);
+        }
+
+        /**
+         * Returns the dense index of a key created via {@link #newIndexedKey(String, Class)}.
+         *
+         * @return the dense index of this key in the range {@code [0, 256)}, or {@code -1} if this key is not
+         * indexed.
+         */
+        public int index() {
+            return index;
         }
 
         @Override
@@ -23,10 +23,12 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 
+import static io.servicetalk.context.api.ContextMap.Key.newIndexedKey;
 import static io.servicetalk.context.api.ContextMap.Key.newKey;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 
 class ContextMapTest {
@@ -55,4 +57,13 @@ class ContextMapTest {
         List<String> castList = key.type().cast(Arrays.asList("test"));
         assertThat(castList, contains("test"));
     }
+
+    @Test
+    void testIndexedKey() {
+        ContextMap.Key<String> first = newIndexedKey("first", String.class);
+        ContextMap.Key<String> second = newIndexedKey("second", String.class);
+        assertThat(first.index(), greaterThanOrEqualTo(0));
+        assertThat(second.index(), is(first.index() + 1));
+        assertThat(newKey("key", String.class).index(), is(-1));
+    }
 }
@@ -52,6 +52,7 @@ import static io.servicetalk.grpc.api.GrpcUtils.readGrpcMessageEncodingRaw;
 import static io.servicetalk.grpc.api.GrpcUtils.serializerDeserializer;
 import static io.servicetalk.grpc.api.GrpcUtils.validateResponseAndGetPayload;
 import static io.servicetalk.grpc.internal.DeadlineUtils.GRPC_DEADLINE_KEY;
+import static io.servicetalk.http.api.HttpContextKeys.HTTP_IDEMPOTENT_REQUEST;
 import static java.util.Objects.requireNonNull;
 
 final class DefaultGrpcClientCallFactory implements GrpcClientCallFactory {
@@ -104,6 +105,9 @@ final class DefaultGrpcClientCallFactory implements GrpcClientCallFactory {
             initRequest(httpRequest, metadata, requestContentType, serializer.messageEncoding(), acceptedEncoding,
                     timeout);
             httpRequest.payloadBody(serializer.serialize(request, client.executionContext().bufferAllocator()));
+            if (methodDescriptor.isIdempotent()) {
+                httpRequest.context().put(HTTP_IDEMPOTENT_REQUEST, Boolean.TRUE);
+            }
             return client.request(httpRequest)
                     .map(response -> {
                         extractResponseContext(response, metadata);
@@ -240,6 +244,9 @@ final class DefaultGrpcClientCallFactory implements GrpcClientCallFactory {
             initRequest(httpRequest, metadata, requestContentType, serializer.messageEncoding(), acceptedEncoding,
                     timeout);
             httpRequest.payloadBody(serializer.serialize(request, client.executionContext().bufferAllocator()));
+            if (methodDescriptor.isIdempotent()) {
+                httpRequest.context().put(HTTP_IDEMPOTENT_REQUEST, Boolean.TRUE);
+            }
             try {
                 final HttpResponse response = client.request(httpRequest);
                 extractResponseContext(response, metadata);
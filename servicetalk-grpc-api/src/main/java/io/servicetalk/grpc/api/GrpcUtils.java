@@ -109,6 +109,7 @@ import static io.servicetalk.http.api.HttpResponseStatus.SERVICE_UNAVAILABLE;
 import static io.servicetalk.http.api.HttpResponseStatus.StatusClass.CLIENT_ERROR_4XX;
 import static io.servicetalk.http.api.HttpResponseStatus.TOO_MANY_REQUESTS;
 import static io.servicetalk.http.api.HttpResponseStatus.UNAUTHORIZED;
+import static io.servicetalk.utils.internal.ReleasableBufferUtils.release;
 import static java.lang.String.valueOf;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
@@ -320,6 +321,9 @@ final class GrpcUtils {
             // In case the grpc-status is received in headers, we expect an empty messageBody, draining should not see
             // any other frames. However, the messageBody won't complete until after the request stream completes too.
             final Completable drainResponse = response.messageBody().beforeOnNext(frame -> {
+                if (frame instanceof Buffer) {
+                    release((Buffer) frame);
+                }
                 throw new GrpcStatusException(new GrpcStatus(INTERNAL,
                         "Violation of the protocol: received unexpected " +
                                 (frame instanceof HttpHeaders ? "Trailers" : "Data") +
@@ -668,6 +672,7 @@ final class GrpcUtils {
         private final String javaMethodName;
         private final ParameterDescriptor<Req> requestDescriptor;
         private final ParameterDescriptor<Resp> responseDescriptor;
+        private final boolean idempotent;
 
         @Deprecated
         DefaultMethodDescriptor(final String httpPath, final boolean reqIsStreaming,
@@ -691,20 +696,36 @@ final class GrpcUtils {
                                 final CharSequence respContentType,
                                 final SerializerDeserializer<Resp> respSerializer,
                                 final ToIntFunction<Resp> respBytesEstimator) {
+            this(httpPath, javaMethodName, reqIsStreaming, reqIsAsync, reqClass, reqContentType, reqSerializer,
+                    reqBytesEstimator, respIsStreaming, respIsAsync, respClass, respContentType, respSerializer,
+                    respBytesEstimator, false);
+        }
+
+        DefaultMethodDescriptor(final String httpPath, final String javaMethodName, final boolean reqIsStreaming,
+                                final boolean reqIsAsync, final Class<Req> reqClass, final CharSequence reqContentType,
+                                final SerializerDeserializer<Req> reqSerializer,
+                                final ToIntFunction<Req> reqBytesEstimator, final boolean respIsStreaming,
+                                final boolean respIsAsync, final Class<Resp> respClass,
+                                final CharSequence respContentType,
+                                final SerializerDeserializer<Resp> respSerializer,
+                                final ToIntFunction<Resp> respBytesEstimator, final boolean idempotent) {
             this(httpPath, javaMethodName,
                     new DefaultParameterDescriptor<>(reqIsStreaming, reqIsAsync, reqClass,
                             new DefaultSerializerDescriptor<>(reqContentType, reqSerializer, reqBytesEstimator)),
                     new DefaultParameterDescriptor<>(respIsStreaming, respIsAsync, respClass,
-                            new DefaultSerializerDescriptor<>(respContentType, respSerializer, respBytesEstimator)));
+                            new DefaultSerializerDescriptor<>(respContentType, respSerializer, respBytesEstimator)),
+                    idempotent);
         }
 
         private DefaultMethodDescriptor(final String httpPath, final String javaMethodName,
                                         final ParameterDescriptor<Req> requestDescriptor,
-                                        final ParameterDescriptor<Resp> responseDescriptor) {
+                                        final ParameterDescriptor<Resp> responseDescriptor,
+                                        final boolean idempotent) {
             this.httpPath = requireNonNull(httpPath);
             this.javaMethodName = requireNonNull(javaMethodName);
             this.requestDescriptor = requireNonNull(requestDescriptor);
             this.responseDescriptor = requireNonNull(responseDescriptor);
+            this.idempotent = idempotent;
         }
 
         private static String extractJavaMethodName(String httpPath) {
@@ -739,6 +760,11 @@ final class GrpcUtils {
         public ParameterDescriptor<Resp> responseDescriptor() {
             return responseDescriptor;
         }
+
+        @Override
+        public boolean isIdempotent() {
+            return idempotent;
+        }
     }
 
     /**
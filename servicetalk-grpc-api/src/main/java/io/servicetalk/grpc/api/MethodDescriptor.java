@@ -48,4 +48,14 @@ public interface MethodDescriptor<Req, Resp> {
      * @return the {@link ParameterDescriptor} for the response.
      */
     ParameterDescriptor<Resp> responseDescriptor();
+
+    /**
+     * Determine if this method is
+     * <a href="https://protobuf.dev/reference/protobuf/google.protobuf/#idempotency-level">idempotent</a>, which means
+     * it can be safely invoked more than once with the same request (for example retried or hedged).
+     * @return {@code true} if this method is idempotent.
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
 }
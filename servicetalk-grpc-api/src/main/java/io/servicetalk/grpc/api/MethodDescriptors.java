@@ -57,4 +57,37 @@ public final class MethodDescriptors {
                 reqContentType, reqSerializer, reqBytesEstimator, respIsStreaming, respIsAsync, respClass,
                 respContentType, respSerializer, respBytesEstimator);
     }
+
+    /**
+     * Create a new {@link MethodDescriptor}.
+     * @param httpPath See {@link MethodDescriptor#httpPath()}.
+     * @param javaMethodName See {@link MethodDescriptor#javaMethodName()}.
+     * @param reqIsStreaming {@link ParameterDescriptor#isStreaming()} for the request.
+     * @param reqIsAsync {@link ParameterDescriptor#isAsync()} for the request.
+     * @param reqClass {@link ParameterDescriptor#parameterClass()} for the request.
+     * @param reqContentType {@link SerializerDescriptor#contentType()} for the request.
+     * @param reqSerializer {@link SerializerDescriptor#serializer()} for the request.
+     * @param reqBytesEstimator {@link SerializerDescriptor#bytesEstimator()} for the request.
+     * @param respIsStreaming {@link ParameterDescriptor#isStreaming()} for the response.
+     * @param respIsAsync {@link ParameterDescriptor#isAsync()} for the response.
+     * @param respClass {@link ParameterDescriptor#parameterClass()} for the response.
+     * @param respContentType {@link SerializerDescriptor#contentType()} for the response.
+     * @param respSerializer {@link SerializerDescriptor#serializer()} for the response.
+     * @param respBytesEstimator {@link SerializerDescriptor#bytesEstimator()} for the response.
+     * @param idempotent See {@link MethodDescriptor#isIdempotent()}.
+     * @param <Req> The request type.
+     * @param <Resp> The response type.
+     * @return A {@link MethodDescriptor} as described by all parameters.
+     */
+    public static <Req, Resp> MethodDescriptor<Req, Resp> newMethodDescriptor(
+            final String httpPath, final String javaMethodName, final boolean reqIsStreaming, final boolean reqIsAsync,
+            final Class<Req> reqClass, final CharSequence reqContentType,
+            final SerializerDeserializer<Req> reqSerializer, final ToIntFunction<Req> reqBytesEstimator,
+            final boolean respIsStreaming, final boolean respIsAsync, final Class<Resp> respClass,
+            final CharSequence respContentType, final SerializerDeserializer<Resp> respSerializer,
+            final ToIntFunction<Resp> respBytesEstimator, final boolean idempotent) {
+        return new GrpcUtils.DefaultMethodDescriptor<>(httpPath, javaMethodName, reqIsStreaming, reqIsAsync, reqClass,
+                reqContentType, reqSerializer, reqBytesEstimator, respIsStreaming, respIsAsync, respClass,
+                respContentType, respSerializer, respBytesEstimator, idempotent);
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.grpc.api;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferUtils.newReleasableBufferFrom;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.serializer.utils.StringSerializer.stringSerializer;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+class GrpcStreamingDeserializerTest {
+
+    @Test
+    void pooledChunksAreReleased() throws Exception {
+        ByteBuf framed = Unpooled.buffer();
+        writeMessage(framed, "foo");
+        writeMessage(framed, "barbaz");
+        // Split in the middle of the first message's length prefix and in the middle of the second message's payload.
+        ByteBuf first = pooled(framed, 3);
+        ByteBuf second = pooled(framed, 9);
+        ByteBuf third = pooled(framed, framed.readableBytes());
+
+        GrpcStreamingDeserializer<String> deserializer = new GrpcStreamingDeserializer<>(stringSerializer(US_ASCII));
+        assertThat(deserializer.deserialize(from(newReleasableBufferFrom(first), newReleasableBufferFrom(second),
+                newReleasableBufferFrom(third)), DEFAULT_ALLOCATOR).toFuture().get(), contains("foo", "barbaz"));
+
+        assertThat(first.refCnt(), is(0));
+        assertThat(second.refCnt(), is(0));
+        assertThat(third.refCnt(), is(0));
+    }
+
+    private static void writeMessage(ByteBuf dst, String message) {
+        dst.writeByte(0).writeInt(message.length()).writeBytes(message.getBytes(US_ASCII));
+    }
+
+    private static ByteBuf pooled(ByteBuf src, int length) {
+        return PooledByteBufAllocator.DEFAULT.directBuffer(length).writeBytes(src, length);
+    }
+}
@@ -18,6 +18,7 @@ package io.servicetalk.grpc.netty;
 import io.servicetalk.buffer.api.BufferAllocator;
 import io.servicetalk.concurrent.api.Executor;
 import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.SingleTerminalSignalConsumer;
 import io.servicetalk.grpc.api.GrpcBindableService;
 import io.servicetalk.grpc.api.GrpcExceptionMapperServiceFilter;
 import io.servicetalk.grpc.api.GrpcExecutionStrategy;
@@ -42,6 +43,7 @@ import java.util.Arrays;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.concurrent.api.Executors.newVirtualThreadExecutor;
 import static io.servicetalk.concurrent.internal.FutureUtils.awaitResult;
 import static io.servicetalk.grpc.api.GrpcExecutionStrategies.defaultStrategy;
 import static io.servicetalk.grpc.api.GrpcFilters.newGrpcDeadlineServerFilterFactory;
@@ -139,7 +141,31 @@ final class DefaultGrpcServerBuilder implements GrpcServerBuilder, ServerBinder
      */
     private Single<GrpcServerContext> doListen(final GrpcServiceFactory<?> serviceFactory) {
         interceptorBuilder = preBuild();
-        return serviceFactory.bind(this, interceptorBuilder.contextBuilder.build());
+        final Single<GrpcServerContext> bind = serviceFactory.bind(this, interceptorBuilder.contextBuilder.build());
+        final Executor virtualThreadExecutor = interceptorBuilder.virtualThreadExecutor;
+        if (virtualThreadExecutor == null) {
+            return bind;
+        }
+        // The virtual-thread Executor is owned by the server, close it together with the server or right away if the
+        // server fails to start.
+        return bind.whenFinally(new SingleTerminalSignalConsumer<GrpcServerContext>() {
+            @Override
+            public void onSuccess(@Nullable final GrpcServerContext serverContext) {
+                assert serverContext != null;
+                serverContext.onClose().afterFinally(() -> virtualThreadExecutor.closeAsync().subscribe())
+                        .subscribe();
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                virtualThreadExecutor.closeAsync().subscribe();
+            }
+
+            @Override
+            public void cancel() {
+                virtualThreadExecutor.closeAsync().subscribe();
+            }
+        });
     }
 
     private ExecutionContextInterceptorHttpServerBuilder preBuild() {
@@ -184,6 +210,9 @@ final class DefaultGrpcServerBuilder implements GrpcServerBuilder, ServerBinder
                     // which is not compatible with gRPC.
                     .executionStrategy(defaultStrategy());
 
+        @Nullable
+        private Executor virtualThreadExecutor;
+
         ExecutionContextInterceptorHttpServerBuilder(final HttpServerBuilder delegate) {
             super(delegate);
         }
@@ -199,6 +228,21 @@ final class DefaultGrpcServerBuilder implements GrpcServerBuilder, ServerBinder
         public HttpServerBuilder executor(final Executor executor) {
             contextBuilder.executor(executor);
             delegate().executor(executor);
+            if (virtualThreadExecutor != null) {
+                virtualThreadExecutor.closeAsync().subscribe();
+                virtualThreadExecutor = null;
+            }
+            return this;
+        }
+
+        @Override
+        public HttpServerBuilder offloadToVirtualThreads() {
+            // A new builder is created for every server, so it is safe to create the Executor here. gRPC routes need
+            // to see the same Executor as the HTTP server, hence it is passed as a regular Executor and owned by
+            // DefaultGrpcServerBuilder.
+            final Executor executor = newVirtualThreadExecutor();
+            executor(executor);
+            virtualThreadExecutor = executor;
             return this;
         }
 
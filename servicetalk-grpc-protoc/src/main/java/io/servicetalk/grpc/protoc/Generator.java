@@ -16,6 +16,7 @@
 package io.servicetalk.grpc.protoc;
 
 import com.google.protobuf.DescriptorProtos.MethodDescriptorProto;
+import com.google.protobuf.DescriptorProtos.MethodOptions.IdempotencyLevel;
 import com.google.protobuf.DescriptorProtos.ServiceDescriptorProto;
 import com.google.protobuf.DescriptorProtos.SourceCodeInfo;
 import com.squareup.javapoet.ClassName;
@@ -36,6 +37,8 @@ import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import javax.lang.model.element.Modifier;
 
+import static com.google.protobuf.DescriptorProtos.MethodOptions.IdempotencyLevel.IDEMPOTENT;
+import static com.google.protobuf.DescriptorProtos.MethodOptions.IdempotencyLevel.NO_SIDE_EFFECTS;
 import static com.squareup.javapoet.MethodSpec.constructorBuilder;
 import static com.squareup.javapoet.MethodSpec.methodBuilder;
 import static com.squareup.javapoet.TypeName.BOOLEAN;
@@ -338,12 +341,15 @@ final class Generator {
     private static FieldSpec newMethodDescriptorSpec(
             final ClassName inClass, final ClassName outClass, final String javaMethodName,
             final boolean clientStreaming, final boolean serverStreaming, final String methodHttpPath,
-            final ParameterizedTypeName methodDescriptorType, final String methodDescFieldName, final boolean isAsync) {
+            final ParameterizedTypeName methodDescriptorType, final String methodDescFieldName, final boolean isAsync,
+            final boolean idempotent) {
+        // Only pass the idempotent flag when it is set to keep the generated code unchanged for other methods.
         return FieldSpec.builder(methodDescriptorType, methodDescFieldName)
                 .addModifiers(PRIVATE, STATIC, FINAL)
                 .initializer("$T.newMethodDescriptor($S, $S, $L, $L, $T.class, $S, " +
                                 "$T.$L.serializerDeserializer($T.parser()), $T::getSerializedSize, $L, $L, " +
-                                "$T.class, $S, $T.$L.serializerDeserializer($T.parser()), $T::getSerializedSize)",
+                                "$T.class, $S, $T.$L.serializerDeserializer($T.parser()), $T::getSerializedSize" +
+                                (idempotent ? ", true)" : ")"),
                         GrpcMethodDescriptors, methodHttpPath, javaMethodName,
                         clientStreaming, clientStreaming && isAsync, inClass, PROTO_CONTENT_TYPE,
                         ProtobufSerializerFactory, PROTOBUF, inClass, inClass,
@@ -351,6 +357,11 @@ final class Generator {
                         ProtobufSerializerFactory, PROTOBUF, outClass, outClass).build();
     }
 
+    private static boolean isIdempotent(final MethodDescriptorProto methodProto) {
+        final IdempotencyLevel level = methodProto.getOptions().getIdempotencyLevel();
+        return level == IDEMPOTENT || level == NO_SIDE_EFFECTS;
+    }
+
     private String addServiceRpcInterfaceSpec(final State state,
                                               final TypeSpec.Builder serviceClassBuilder,
                                               final MethodDescriptorProto methodProto,
@@ -367,7 +378,7 @@ final class Generator {
         final String javaMethodName = routeName(methodProto);
         serviceClassBuilder.addField(newMethodDescriptorSpec(inClass, outClass, javaMethodName,
                 methodProto.getClientStreaming(), methodProto.getServerStreaming(), methodHttpPath,
-                methodDescriptorType, methodDescFieldName, isAsync));
+                methodDescriptorType, methodDescFieldName, isAsync, isIdempotent(methodProto)));
 
         final FieldSpec.Builder pathSpecBuilder = FieldSpec.builder(String.class, PATH)
                 .addJavadoc(JAVADOC_DEPRECATED + "Use {@link #$L}." + lineSeparator(), methodDescriptor)
@@ -0,0 +1,1069 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.caseInsensitiveHashCode;
+import static io.servicetalk.buffer.api.CharSequences.contentEquals;
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.http.api.DefaultHttpSetCookie.parseSetCookie;
+import static io.servicetalk.http.api.HeaderUtils.DEFAULT_HEADER_FILTER;
+import static io.servicetalk.http.api.HeaderUtils.domainMatches;
+import static io.servicetalk.http.api.HeaderUtils.isSetCookieNameMatches;
+import static io.servicetalk.http.api.HeaderUtils.parseCookiePair;
+import static io.servicetalk.http.api.HeaderUtils.pathMatches;
+import static io.servicetalk.http.api.HeaderUtils.removeCookiePairs;
+import static io.servicetalk.http.api.HeaderUtils.validateToken;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.SET_COOKIE;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.emptySet;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link HttpHeaders} backed by parallel arrays of names, values and hash codes.
+ * <p>
+ * Entries are appended to the arrays, so iteration follows the insertion order. Entries with the same name are
+ * linked by index in insertion order, and an open addressing table maps every distinct name to the index of its first
+ * entry. Removed entries leave holes which are compacted when the arrays are full. Adding a header does not allocate
+ * unless the arrays have to grow.
+ * <p>
+ * Names are compared case-insensitively and values case-sensitively, consistent with {@link DefaultHttpHeaders}.
+ */
+final class ArrayHttpHeaders implements HttpHeaders {
+    private static final int MIN_CAPACITY = 8;
+    private static final int NONE = -1;
+    private static final CharSequence[] EMPTY_CHAR_SEQUENCES = new CharSequence[0];
+    private static final int[] EMPTY_INTS = new int[0];
+    /**
+     * Shared by empty instances, never written to: a single empty slot terminates all probe sequences.
+     */
+    private static final int[] EMPTY_TABLE = new int[1];
+
+    private final boolean validateNames;
+    private final boolean validateCookies;
+    private final boolean validateValues;
+
+    /**
+     * {@code null} if the entry was removed.
+     */
+    private CharSequence[] names;
+    private CharSequence[] values;
+    private int[] hashes;
+    /**
+     * Index of the next entry with the same name, or {@link #NONE}.
+     */
+    private int[] nextSameName;
+    /**
+     * Index of the last entry with the same name. Only maintained for the first entry of each name.
+     */
+    private int[] lastSameName;
+    /**
+     * Open addressing table with linear probing: {@code index + 1} of the first entry of each name, or {@code 0}.
+     */
+    private int[] table;
+    /**
+     * Number of used array slots, including removed entries.
+     */
+    private int count;
+    private int size;
+    /**
+     * Incremented when indexes of entries change, to detect stale iterators.
+     */
+    private int compactions;
+
+    /**
+     * Create a new instance.
+     *
+     * @param sizeHint A hint as to how many header fields are expected.
+     * @param validateNames {@code true} to validate header names.
+     * @param validateCookies {@code true} to validate cookie contents when parsing.
+     * @param validateValues {@code true} to validate header values.
+     */
+    ArrayHttpHeaders(final int sizeHint, final boolean validateNames, final boolean validateCookies,
+                     final boolean validateValues) {
+        this.validateNames = validateNames;
+        this.validateCookies = validateCookies;
+        this.validateValues = validateValues;
+        if (sizeHint <= 0) {
+            // Empty trailers are common, defer the allocation until the first entry is added.
+            names = EMPTY_CHAR_SEQUENCES;
+            values = EMPTY_CHAR_SEQUENCES;
+            hashes = EMPTY_INTS;
+            nextSameName = EMPTY_INTS;
+            lastSameName = EMPTY_INTS;
+            table = EMPTY_TABLE;
+        } else {
+            allocate(sizeHint <= MIN_CAPACITY ? MIN_CAPACITY : Integer.highestOneBit(sizeHint - 1) << 1);
+        }
+    }
+
+    private void allocate(final int capacity) {
+        names = new CharSequence[capacity];
+        values = new CharSequence[capacity];
+        hashes = new int[capacity];
+        nextSameName = new int[capacity];
+        lastSameName = new int[capacity];
+        // Keep the load factor of the table at or below 0.5.
+        table = new int[capacity << 1];
+    }
+
+    @Nullable
+    @Override
+    public CharSequence get(final CharSequence name) {
+        final int slot = findSlot(name, caseInsensitiveHashCode(name));
+        return slot < 0 ? null : values[table[slot] - 1];
+    }
+
+    @Nullable
+    @Override
+    public CharSequence getAndRemove(final CharSequence name) {
+        final int slot = findSlot(name, caseInsensitiveHashCode(name));
+        if (slot < 0) {
+            return null;
+        }
+        final CharSequence value = values[table[slot] - 1];
+        removeAll(slot);
+        return value;
+    }
+
+    @Override
+    public Iterator<? extends CharSequence> valuesIterator(final CharSequence name) {
+        final int slot = findSlot(name, caseInsensitiveHashCode(name));
+        return slot < 0 ? emptyIterator() : new ValuesIterator(table[slot] - 1);
+    }
+
+    @Override
+    public boolean contains(final CharSequence name) {
+        return findSlot(name, caseInsensitiveHashCode(name)) >= 0;
+    }
+
+    @Override
+    public boolean contains(final CharSequence name, final CharSequence value) {
+        return contains(name, value, true);
+    }
+
+    @Override
+    public boolean containsIgnoreCase(final CharSequence name, final CharSequence value) {
+        return contains(name, value, false);
+    }
+
+    private boolean contains(final CharSequence name, final CharSequence value, final boolean caseSensitive) {
+        final int slot = findSlot(name, caseInsensitiveHashCode(name));
+        if (slot < 0) {
+            return false;
+        }
+        for (int i = table[slot] - 1; i != NONE; i = nextSameName[i]) {
+            if (caseSensitive ? contentEquals(value, values[i]) : contentEqualsIgnoreCase(value, values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<? extends CharSequence> names() {
+        if (size == 0) {
+            return emptySet();
+        }
+        final Set<CharSequence> result = new LinkedHashSet<>((int) (size / .75f) + 1);
+        for (int i = 0; i < count; ++i) {
+            final CharSequence name = names[i];
+            // Only add the first entry of each name, the set itself is case-sensitive.
+            if (name != null && table[findSlot(name, hashes[i])] - 1 == i) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence value) {
+        final CharSequence validName = validateName(name);
+        append(validName, validateValue(value), caseInsensitiveHashCode(validName));
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        final CharSequence validName = validateName(name);
+        final int hash = caseInsensitiveHashCode(validName);
+        for (CharSequence value : values) {
+            append(validName, validateValue(value), hash);
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence... values) {
+        final CharSequence validName = validateName(name);
+        final int hash = caseInsensitiveHashCode(validName);
+        for (CharSequence value : values) {
+            append(validName, validateValue(value), hash);
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final HttpHeaders headers) {
+        if (headers == this) {
+            return this;
+        }
+        if (headers instanceof ArrayHttpHeaders) {
+            // Fast path: hash codes are already computed.
+            final ArrayHttpHeaders rhs = (ArrayHttpHeaders) headers;
+            for (int i = 0; i < rhs.count; ++i) {
+                final CharSequence name = rhs.names[i];
+                if (name != null) {
+                    append(validateName(name), validateValue(rhs.values[i]), rhs.hashes[i]);
+                }
+            }
+        } else { // Slow copy
+            for (final Map.Entry<? extends CharSequence, ? extends CharSequence> header : headers) {
+                add(header.getKey(), header.getValue());
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence value) {
+        final CharSequence validName = validateName(name);
+        final CharSequence validValue = validateValue(value);
+        final int hash = caseInsensitiveHashCode(validName);
+        removeAll(validName, hash);
+        append(validName, validValue, hash);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        final CharSequence validName = validateName(name);
+        final int hash = caseInsensitiveHashCode(validName);
+        removeAll(validName, hash);
+        for (CharSequence value : values) {
+            append(validName, validateValue(value), hash);
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence... values) {
+        final CharSequence validName = validateName(name);
+        final int hash = caseInsensitiveHashCode(validName);
+        removeAll(validName, hash);
+        for (CharSequence value : values) {
+            append(validName, validateValue(value), hash);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean remove(final CharSequence name) {
+        return removeAll(name, caseInsensitiveHashCode(name));
+    }
+
+    @Override
+    public boolean remove(final CharSequence name, final CharSequence value) {
+        return remove(name, value, true);
+    }
+
+    @Override
+    public boolean removeIgnoreCase(final CharSequence name, final CharSequence value) {
+        return remove(name, value, false);
+    }
+
+    private boolean remove(final CharSequence name, final CharSequence value, final boolean caseSensitive) {
+        final int slot = findSlot(name, caseInsensitiveHashCode(name));
+        if (slot < 0) {
+            return false;
+        }
+        final int sizeBefore = size;
+        int prev = NONE;
+        int i = table[slot] - 1;
+        while (i != NONE) {
+            final int next = nextSameName[i];
+            if (caseSensitive ? contentEquals(value, values[i]) : contentEqualsIgnoreCase(value, values[i])) {
+                if (unlink(slot, prev, i)) {
+                    // The last entry of the chain was removed.
+                    break;
+                }
+            } else {
+                prev = i;
+            }
+            i = next;
+        }
+        return sizeBefore != size;
+    }
+
+    @Override
+    public HttpHeaders clear() {
+        Arrays.fill(names, 0, count, null);
+        Arrays.fill(values, 0, count, null);
+        if (size != 0) {
+            Arrays.fill(table, 0);
+        }
+        count = 0;
+        size = 0;
+        ++compactions;
+        return this;
+    }
+
+    @Override
+    public Iterator<Map.Entry<CharSequence, CharSequence>> iterator() {
+        return new EntryIterator();
+    }
+
+    @Nullable
+    @Override
+    public HttpCookiePair getCookie(final CharSequence name) {
+        final int slot = findSlot(COOKIE, caseInsensitiveHashCode(COOKIE));
+        if (slot < 0) {
+            return null;
+        }
+        for (int i = table[slot] - 1; i != NONE; i = nextSameName[i]) {
+            HttpCookiePair cookiePair = parseCookiePair(values[i], name);
+            if (cookiePair != null) {
+                return cookiePair;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public HttpSetCookie getSetCookie(final CharSequence name) {
+        final int slot = findSlot(SET_COOKIE, caseInsensitiveHashCode(SET_COOKIE));
+        if (slot < 0) {
+            return null;
+        }
+        for (int i = table[slot] - 1; i != NONE; i = nextSameName[i]) {
+            HttpSetCookie setCookie = HeaderUtils.parseSetCookie(values[i], name, validateCookies);
+            if (setCookie != null) {
+                return setCookie;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator() {
+        final Iterator<? extends CharSequence> valueItr = valuesIterator(COOKIE);
+        return valueItr.hasNext() ? new CookiesIterator(valueItr) : emptyIterator();
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator(final CharSequence name) {
+        final Iterator<? extends CharSequence> valueItr = valuesIterator(COOKIE);
+        return valueItr.hasNext() ? new CookiesByNameIterator(valueItr, name) : emptyIterator();
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator() {
+        final Iterator<? extends CharSequence> valueItr = valuesIterator(SET_COOKIE);
+        return valueItr.hasNext() ? new SetCookiesIterator(valueItr) : emptyIterator();
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name) {
+        final Iterator<? extends CharSequence> valueItr = valuesIterator(SET_COOKIE);
+        while (valueItr.hasNext()) {
+            HttpSetCookie setCookie = HeaderUtils.parseSetCookie(valueItr.next(), name, validateCookies);
+            if (setCookie != null) {
+                return new SetCookiesByNameIterator(valueItr, setCookie);
+            }
+        }
+        return emptyIterator();
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name, final CharSequence domain,
+                                                                   final CharSequence path) {
+        final Iterator<? extends CharSequence> valueItr = valuesIterator(SET_COOKIE);
+        while (valueItr.hasNext()) {
+            // In the future we could attempt to delay full parsing of the cookie until after the domain/path have
+            // been matched, but for simplicity just do the parsing ahead of time.
+            HttpSetCookie setCookie = HeaderUtils.parseSetCookie(valueItr.next(), name, validateCookies);
+            if (setCookie != null && domainMatches(domain, setCookie.domain()) &&
+                    pathMatches(path, setCookie.path())) {
+                return new SetCookiesByNameDomainPathIterator(valueItr, setCookie, domain, path);
+            }
+        }
+        return emptyIterator();
+    }
+
+    @Override
+    public HttpHeaders addCookie(final HttpCookiePair cookie) {
+        // HTTP/1.x requires that all cookies/crumbs are combined into a single Cookie header.
+        // https://tools.ietf.org/html/rfc6265#section-5.4
+        final CharSequence encoded = cookie.encoded();
+        final int slot = findSlot(COOKIE, caseInsensitiveHashCode(COOKIE));
+        if (slot >= 0) {
+            final int i = table[slot] - 1;
+            values[i] = values[i] + "; " + encoded;
+            return this;
+        }
+        return add(COOKIE, encoded);
+    }
+
+    @Override
+    public HttpHeaders addSetCookie(final HttpSetCookie cookie) {
+        return add(SET_COOKIE, cookie.encoded());
+    }
+
+    @Override
+    public boolean removeCookies(final CharSequence name) {
+        final Iterator<? extends CharSequence> valuesItr = valuesIterator(COOKIE);
+        List<CharSequence> cookiesToAdd = null;
+        final int sizeBefore = size();
+        while (valuesItr.hasNext()) {
+            CharSequence newHeaderValue = removeCookiePairs(valuesItr.next(), name);
+            if (newHeaderValue != null) {
+                if (newHeaderValue.length() != 0) {
+                    if (cookiesToAdd == null) {
+                        cookiesToAdd = new ArrayList<>(4);
+                    }
+                    cookiesToAdd.add(newHeaderValue);
+                }
+                valuesItr.remove();
+            }
+        }
+        if (cookiesToAdd != null) {
+            for (CharSequence cookies : cookiesToAdd) {
+                add(COOKIE, cookies);
+            }
+            return true;
+        }
+        return sizeBefore != size();
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name) {
+        final int sizeBefore = size();
+        final Iterator<? extends CharSequence> valueItr = valuesIterator(SET_COOKIE);
+        while (valueItr.hasNext()) {
+            if (isSetCookieNameMatches(valueItr.next(), name)) {
+                valueItr.remove();
+            }
+        }
+        return sizeBefore != size();
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name, final CharSequence domain, final CharSequence path) {
+        final int sizeBefore = size();
+        final Iterator<? extends CharSequence> valueItr = valuesIterator(SET_COOKIE);
+        while (valueItr.hasNext()) {
+            // In the future we could attempt to delay full parsing of the cookie until after the domain/path have
+            // been matched, but for simplicity just do the parsing ahead of time.
+            HttpSetCookie setCookie = HeaderUtils.parseSetCookie(valueItr.next(), name, false);
+            if (setCookie != null && domainMatches(domain, setCookie.domain()) &&
+                    pathMatches(path, setCookie.path())) {
+                valueItr.remove();
+            }
+        }
+        return sizeBefore != size();
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (int slot = 0; slot < table.length; ++slot) {
+            if (table[slot] != 0) {
+                int i = table[slot] - 1;
+                int nameResult = hashes[i];
+                do {
+                    nameResult = 31 * nameResult + caseInsensitiveHashCode(values[i]);
+                    i = nextSameName[i];
+                } while (i != NONE);
+                // The order of names is not defined, combine their hash codes in an order-independent way.
+                result += nameResult;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArrayHttpHeaders)) {
+            return false;
+        }
+        final ArrayHttpHeaders rhs = (ArrayHttpHeaders) o;
+        if (size != rhs.size) {
+            return false;
+        }
+        for (int slot = 0; slot < table.length; ++slot) {
+            if (table[slot] != 0) {
+                int i = table[slot] - 1;
+                final int rhsSlot = rhs.findSlot(names[i], hashes[i]);
+                if (rhsSlot < 0) {
+                    return false;
+                }
+                int j = rhs.table[rhsSlot] - 1;
+                do {
+                    if (!contentEquals(values[i], rhs.values[j])) {
+                        return false;
+                    }
+                    i = nextSameName[i];
+                    j = rhs.nextSameName[j];
+                } while (i != NONE && j != NONE);
+                if (i != j) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return toString(DEFAULT_HEADER_FILTER);
+    }
+
+    private CharSequence validateName(@Nullable final CharSequence name) {
+        if (name == null || name.length() == 0) {
+            throw new IllegalArgumentException("Empty header names are not allowed");
+        }
+        if (validateNames) {
+            validateToken(name);
+        }
+        return name;
+    }
+
+    private CharSequence validateValue(final CharSequence value) {
+        if (validateValues) {
+            HeaderUtils.validateHeaderValue(value);
+        }
+        return value;
+    }
+
+    /**
+     * Find the slot of the table which references the first entry with the passed name.
+     *
+     * @return the index of the slot, or {@code -(empty slot index) - 1} if there are no entries with the passed name.
+     */
+    private int findSlot(final CharSequence name, final int hash) {
+        final int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            final int i = entry - 1;
+            if (hashes[i] == hash && contentEqualsIgnoreCase(name, names[i])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private static int spread(final int hash) {
+        // Mix the high bits in, only the low bits select the slot.
+        return hash ^ (hash >>> 16);
+    }
+
+    private void append(final CharSequence name, final CharSequence value, final int hash) {
+        if (count == names.length) {
+            ensureCapacity();
+        }
+        final int i = count++;
+        names[i] = name;
+        values[i] = value;
+        hashes[i] = hash;
+        link(i);
+        ++size;
+    }
+
+    private void link(final int i) {
+        nextSameName[i] = NONE;
+        final int slot = findSlot(names[i], hashes[i]);
+        if (slot >= 0) {
+            final int first = table[slot] - 1;
+            nextSameName[lastSameName[first]] = i;
+            lastSameName[first] = i;
+        } else {
+            table[-slot - 1] = i + 1;
+            lastSameName[i] = i;
+        }
+    }
+
+    private void ensureCapacity() {
+        if (count == 0) {
+            allocate(MIN_CAPACITY);
+        } else if (count - size >= count >>> 1) {
+            // At least half of the entries were removed, compact in place.
+            int write = 0;
+            for (int read = 0; read < count; ++read) {
+                if (names[read] != null) {
+                    names[write] = names[read];
+                    values[write] = values[read];
+                    hashes[write] = hashes[read];
+                    ++write;
+                }
+            }
+            Arrays.fill(names, write, count, null);
+            Arrays.fill(values, write, count, null);
+            count = write;
+            ++compactions;
+            relinkAll();
+        } else {
+            final int capacity = names.length << 1;
+            names = Arrays.copyOf(names, capacity);
+            values = Arrays.copyOf(values, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            nextSameName = Arrays.copyOf(nextSameName, capacity);
+            lastSameName = Arrays.copyOf(lastSameName, capacity);
+            final int[] oldTable = table;
+            table = new int[capacity << 1];
+            // Indexes of entries don't change, only the table has to be rebuilt.
+            for (int entry : oldTable) {
+                if (entry != 0) {
+                    insertIntoTable(entry - 1);
+                }
+            }
+        }
+    }
+
+    private void relinkAll() {
+        Arrays.fill(table, 0);
+        for (int i = 0; i < count; ++i) {
+            link(i);
+        }
+    }
+
+    private void insertIntoTable(final int i) {
+        final int mask = table.length - 1;
+        int slot = spread(hashes[i]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = i + 1;
+    }
+
+    private boolean removeAll(final CharSequence name, final int hash) {
+        final int slot = findSlot(name, hash);
+        if (slot < 0) {
+            return false;
+        }
+        removeAll(slot);
+        return true;
+    }
+
+    private void removeAll(final int slot) {
+        int i = table[slot] - 1;
+        do {
+            names[i] = null;
+            values[i] = null;
+            --size;
+            i = nextSameName[i];
+        } while (i != NONE);
+        deleteSlot(slot);
+    }
+
+    /**
+     * Removes the entry {@code i} from the chain of entries with the same name.
+     *
+     * @param slot the slot which references the first entry of the chain.
+     * @param prev the entry preceding {@code i} in the chain, or {@link #NONE} if {@code i} is the first entry.
+     * @param i the entry to remove.
+     * @return {@code true} if the chain became empty and the slot was deleted.
+     */
+    private boolean unlink(final int slot, final int prev, final int i) {
+        final int next = nextSameName[i];
+        boolean slotDeleted = false;
+        if (prev == NONE) {
+            if (next == NONE) {
+                deleteSlot(slot);
+                slotDeleted = true;
+            } else {
+                table[slot] = next + 1;
+                lastSameName[next] = lastSameName[i];
+            }
+        } else {
+            nextSameName[prev] = next;
+            final int first = table[slot] - 1;
+            if (lastSameName[first] == i) {
+                lastSameName[first] = prev;
+            }
+        }
+        names[i] = null;
+        values[i] = null;
+        --size;
+        return slotDeleted;
+    }
+
+    /**
+     * Removes the entry {@code i}, finding its position in the chain of entries with the same name.
+     */
+    private void removeEntry(final int i) {
+        final int slot = findSlot(names[i], hashes[i]);
+        assert slot >= 0;
+        int prev = NONE;
+        for (int j = table[slot] - 1; j != i; j = nextSameName[j]) {
+            prev = j;
+        }
+        unlink(slot, prev, i);
+    }
+
+    /**
+     * Deletes a slot from the table, shifting back the following slots of the same cluster to keep probe sequences
+     * intact.
+     */
+    private void deleteSlot(int hole) {
+        final int mask = table.length - 1;
+        int j = hole;
+        for (;;) {
+            j = (j + 1) & mask;
+            final int entry = table[j];
+            if (entry == 0) {
+                break;
+            }
+            final int home = spread(hashes[entry - 1]) & mask;
+            // Move the entry if its home slot is not cyclically within (hole, j].
+            if (hole <= j ? (home <= hole || home > j) : (home <= hole && home > j)) {
+                table[hole] = entry;
+                hole = j;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private final class ValuesIterator implements Iterator<CharSequence> {
+        private final int expectedCompactions = compactions;
+        private int next;
+        @Nullable
+        private CharSequence nextValue;
+        private int current = NONE;
+
+        ValuesIterator(final int first) {
+            next = first;
+            // The first value is eagerly loaded.
+            nextValue = values[first];
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != NONE;
+        }
+
+        @Override
+        public CharSequence next() {
+            if (next == NONE) {
+                throw new NoSuchElementException();
+            }
+            if (expectedCompactions != compactions) {
+                throw new ConcurrentModificationException();
+            }
+            final CharSequence value = nextValue;
+            current = next;
+            next = nextSameName[current];
+            nextValue = next == NONE ? null : values[next];
+            assert value != null;
+            return value;
+        }
+
+        @Override
+        public void remove() {
+            if (current == NONE) {
+                throw new IllegalStateException();
+            }
+            if (expectedCompactions != compactions || names[current] == null) {
+                throw new ConcurrentModificationException();
+            }
+            removeEntry(current);
+            current = NONE;
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<CharSequence, CharSequence>> {
+        private final int expectedCompactions = compactions;
+        private int next = nextEntry(0);
+        private int current = NONE;
+
+        private int nextEntry(int i) {
+            while (i < count && names[i] == null) {
+                ++i;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public Map.Entry<CharSequence, CharSequence> next() {
+            if (next >= count) {
+                throw new NoSuchElementException();
+            }
+            if (expectedCompactions != compactions) {
+                throw new ConcurrentModificationException();
+            }
+            current = next;
+            next = nextEntry(current + 1);
+            return new ArrayEntry(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current == NONE) {
+                throw new IllegalStateException();
+            }
+            if (expectedCompactions != compactions || names[current] == null) {
+                throw new ConcurrentModificationException();
+            }
+            removeEntry(current);
+            current = NONE;
+        }
+    }
+
+    private final class ArrayEntry implements Map.Entry<CharSequence, CharSequence> {
+        private final int expectedCompactions = compactions;
+        private final int index;
+        private final CharSequence key;
+        private CharSequence value;
+
+        ArrayEntry(final int index) {
+            this.index = index;
+            key = names[index];
+            value = values[index];
+        }
+
+        @Override
+        public CharSequence getKey() {
+            return key;
+        }
+
+        @Override
+        public CharSequence getValue() {
+            return value;
+        }
+
+        @Override
+        public CharSequence setValue(final CharSequence value) {
+            requireNonNull(value);
+            final CharSequence oldValue = this.value;
+            if (expectedCompactions == compactions && names[index] == key) {
+                values[index] = validateValue(value);
+            }
+            this.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return key.equals(other.getKey()) && value.equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+    }
+
+    @SuppressWarnings("ClassNameSameAsAncestorName")
+    private static final class CookiesIterator extends HeaderUtils.CookiesIterator {
+        private final Iterator<? extends CharSequence> valueItr;
+        @Nullable
+        private CharSequence headerValue;
+
+        CookiesIterator(final Iterator<? extends CharSequence> valueItr) {
+            this.valueItr = valueItr;
+            if (valueItr.hasNext()) {
+                headerValue = valueItr.next();
+                initNext(headerValue);
+            }
+        }
+
+        @Nullable
+        @Override
+        protected CharSequence cookieHeaderValue() {
+            return headerValue;
+        }
+
+        @Override
+        protected void advanceCookieHeaderValue() {
+            headerValue = valueItr.hasNext() ? valueItr.next() : null;
+        }
+    }
+
+    @SuppressWarnings("ClassNameSameAsAncestorName")
+    private static final class CookiesByNameIterator extends HeaderUtils.CookiesByNameIterator {
+        private final Iterator<? extends CharSequence> valueItr;
+        @Nullable
+        private CharSequence headerValue;
+
+        CookiesByNameIterator(final Iterator<? extends CharSequence> valueItr, final CharSequence name) {
+            super(name);
+            this.valueItr = valueItr;
+            if (valueItr.hasNext()) {
+                headerValue = valueItr.next();
+                initNext(headerValue);
+            }
+        }
+
+        @Nullable
+        @Override
+        protected CharSequence cookieHeaderValue() {
+            return headerValue;
+        }
+
+        @Override
+        protected void advanceCookieHeaderValue() {
+            headerValue = valueItr.hasNext() ? valueItr.next() : null;
+        }
+    }
+
+    private final class SetCookiesIterator implements Iterator<HttpSetCookie> {
+        private final Iterator<? extends CharSequence> valueItr;
+
+        SetCookiesIterator(final Iterator<? extends CharSequence> valueItr) {
+            this.valueItr = valueItr;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return valueItr.hasNext();
+        }
+
+        @Override
+        public HttpSetCookie next() {
+            return parseSetCookie(valueItr.next(), validateCookies);
+        }
+
+        @Override
+        public void remove() {
+            valueItr.remove();
+        }
+    }
+
+    private final class SetCookiesByNameIterator implements Iterator<HttpSetCookie> {
+        private final Iterator<? extends CharSequence> valueItr;
+        @Nullable
+        private HttpSetCookie next;
+
+        SetCookiesByNameIterator(final Iterator<? extends CharSequence> valueItr, final HttpSetCookie next) {
+            this.valueItr = valueItr;
+            this.next = next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public HttpSetCookie next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            HttpSetCookie currentCookie = next;
+            next = null;
+            while (valueItr.hasNext()) {
+                next = HeaderUtils.parseSetCookie(valueItr.next(), currentCookie.name(), validateCookies);
+                if (next != null) {
+                    break;
+                }
+            }
+            return currentCookie;
+        }
+
+        @Override
+        public void remove() {
+            valueItr.remove();
+        }
+    }
+
+    private final class SetCookiesByNameDomainPathIterator implements Iterator<HttpSetCookie> {
+        private final Iterator<? extends CharSequence> valueItr;
+        private final CharSequence domain;
+        private final CharSequence path;
+        @Nullable
+        private HttpSetCookie next;
+
+        SetCookiesByNameDomainPathIterator(final Iterator<? extends CharSequence> valueItr,
+                                           final HttpSetCookie next, final CharSequence domain,
+                                           final CharSequence path) {
+            this.valueItr = valueItr;
+            this.domain = domain;
+            this.path = path;
+            this.next = next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public HttpSetCookie next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            HttpSetCookie currentCookie = next;
+            next = null;
+            while (valueItr.hasNext()) {
+                // In the future we could attempt to delay full parsing of the cookie until after the domain/path have
+                // been matched, but for simplicity just do the parsing ahead of time.
+                HttpSetCookie setCookie = HeaderUtils.parseSetCookie(valueItr.next(), currentCookie.name(),
+                        validateCookies);
+                if (setCookie != null && domainMatches(domain, setCookie.domain()) &&
+                        pathMatches(path, setCookie.path())) {
+                    next = setCookie;
+                    break;
+                }
+            }
+            return currentCookie;
+        }
+
+        @Override
+        public void remove() {
+            valueItr.remove();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+/**
+ * {@link HttpHeadersFactory} which creates {@link HttpHeaders} backed by flat arrays and an open addressing table.
+ * <p>
+ * Header fields are iterated in insertion order and adding a header field does not allocate unless the arrays have to
+ * grow, which makes this factory a good fit for messages with a few dozen header fields. Names are compared
+ * case-insensitively and values case-sensitively, the same as for {@link DefaultHttpHeadersFactory}.
+ */
+public final class ArrayHttpHeadersFactory implements HttpHeadersFactory {
+
+    public static final HttpHeadersFactory INSTANCE = new ArrayHttpHeadersFactory(true, true, false);
+
+    private final boolean validateNames;
+    private final boolean validateCookies;
+    private final boolean validateValues;
+    private final int headersSizeHint;
+    private final int trailersSizeHint;
+
+    /**
+     * Create an instance of the factory with the default size hint.
+     *
+     * @param validateNames {@code true} to validate header/trailer names.
+     * @param validateCookies {@code true} to validate cookie contents when parsing.
+     * @param validateValues {@code true} to validate header/trailer values.
+     */
+    public ArrayHttpHeadersFactory(final boolean validateNames, final boolean validateCookies,
+                                   final boolean validateValues) {
+        this(validateNames, validateCookies, validateValues, 16, 4);
+    }
+
+    /**
+     * Create an instance of the factory.
+     *
+     * @param validateNames {@code true} to validate header/trailer names.
+     * @param validateCookies {@code true} to validate cookie contents when parsing.
+     * @param validateValues {@code true} to validate header/trailer values.
+     * @param headersSizeHint A hint as to how many header fields are expected.
+     * @param trailersSizeHint A hint as to how many trailer fields are expected.
+     */
+    public ArrayHttpHeadersFactory(final boolean validateNames, final boolean validateCookies,
+                                   final boolean validateValues,
+                                   final int headersSizeHint, final int trailersSizeHint) {
+        this.validateNames = validateNames;
+        this.validateCookies = validateCookies;
+        this.validateValues = validateValues;
+        this.headersSizeHint = headersSizeHint;
+        this.trailersSizeHint = trailersSizeHint;
+    }
+
+    @Override
+    public HttpHeaders newHeaders() {
+        return new ArrayHttpHeaders(headersSizeHint, validateNames, validateCookies, validateValues);
+    }
+
+    @Override
+    public HttpHeaders newTrailers() {
+        return new ArrayHttpHeaders(trailersSizeHint, validateNames, validateCookies, validateValues);
+    }
+
+    @Override
+    public HttpHeaders newEmptyTrailers() {
+        return new ArrayHttpHeaders(0, validateNames, validateCookies, validateValues);
+    }
+
+    @Override
+    public boolean validateNames() {
+        return validateNames;
+    }
+
+    @Override
+    public boolean validateCookies() {
+        return validateCookies;
+    }
+
+    @Override
+    public boolean validateValues() {
+        return validateValues;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() +
+                "{validateNames=" + validateNames +
+                ", validateCookies=" + validateCookies +
+                ", validateValues=" + validateValues +
+                ", headersSizeHint=" + headersSizeHint +
+                ", trailersSizeHint=" + trailersSizeHint +
+                '}';
+    }
+}
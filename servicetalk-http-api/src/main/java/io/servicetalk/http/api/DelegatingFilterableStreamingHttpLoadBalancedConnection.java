@@ -52,6 +52,16 @@ public class DelegatingFilterableStreamingHttpLoadBalancedConnection
         return delegate.tryReserve();
     }
 
+    @Override
+    public int activeRequests() {
+        return delegate.activeRequests();
+    }
+
+    @Override
+    public int maxConcurrentRequests() {
+        return delegate.maxConcurrentRequests();
+    }
+
     @Override
     public int score() {
         return delegate.score();
@@ -188,6 +188,12 @@ public class DelegatingHttpServerBuilder implements HttpServerBuilder {
         return this;
     }
 
+    @Override
+    public HttpServerBuilder offloadToVirtualThreads() {
+        delegate = delegate.offloadToVirtualThreads();
+        return this;
+    }
+
     @Override
     public HttpServerBuilder bufferAllocator(final BufferAllocator allocator) {
         delegate = delegate.bufferAllocator(allocator);
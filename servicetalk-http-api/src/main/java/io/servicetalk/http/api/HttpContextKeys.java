@@ -58,6 +58,17 @@ public final class HttpContextKeys {
     public static final Key<Boolean> HTTP_FORCE_NEW_CONNECTION =
             newKey("HTTP_FORCE_NEW_CONNECTION", Boolean.class);
 
+    /**
+     * If set to true, marks the request as idempotent even if its {@link HttpRequestMethod} is not, which allows
+     * filters to send it more than once (for example, retry or hedge it).
+     * <p>
+     * gRPC clients set this key for unary calls of methods marked as idempotent.
+     *
+     * @see HttpRequestMethod.Properties#isIdempotent()
+     */
+    public static final Key<Boolean> HTTP_IDEMPOTENT_REQUEST =
+            newKey("HTTP_IDEMPOTENT_REQUEST", Boolean.class);
+
     private HttpContextKeys() {
         // No instances
     }
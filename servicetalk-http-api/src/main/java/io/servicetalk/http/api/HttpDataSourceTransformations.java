@@ -40,6 +40,7 @@ import static io.servicetalk.concurrent.api.Publisher.empty;
 import static io.servicetalk.concurrent.api.Single.succeeded;
 import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
 import static io.servicetalk.concurrent.internal.SubscriberUtils.checkDuplicateSubscription;
+import static io.servicetalk.utils.internal.ReleasableBufferUtils.copyAndRelease;
 import static io.servicetalk.utils.internal.ThrowableUtils.addSuppressed;
 import static java.lang.Integer.MAX_VALUE;
 import static java.lang.System.nanoTime;
@@ -317,7 +318,8 @@ final class HttpDataSourceTransformations {
         return payloadAndTrailers.collect(PayloadAndTrailers::new, (pair, nextItem) -> {
             if (nextItem instanceof Buffer) {
                 try {
-                    Buffer buffer = (Buffer) nextItem;
+                    // The aggregated payload outlives the delivered chunk, pooled memory is copied and released.
+                    Buffer buffer = copyAndRelease((Buffer) nextItem, allocator);
                     if (isAlwaysEmpty(pair.payload)) {
                         pair.payload = buffer;
                     } else if (pair.payload instanceof CompositeBuffer) {
@@ -212,6 +212,16 @@ public interface HttpLoadBalancerFactory<ResolvedAddress>
             return controller.tryReserve();
         }
 
+        @Override
+        public int activeRequests() {
+            return controller.activeRequests();
+        }
+
+        @Override
+        public int maxConcurrentRequests() {
+            return controller.maxConcurrentRequests();
+        }
+
         @Override
         public Completable releaseAsync() {
             return controller.releaseAsync();
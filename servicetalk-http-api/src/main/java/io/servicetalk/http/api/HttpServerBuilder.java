@@ -16,8 +16,10 @@
 package io.servicetalk.http.api;
 
 import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.concurrent.api.AsyncContext;
 import io.servicetalk.concurrent.api.Completable;
 import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Executors;
 import io.servicetalk.concurrent.api.Single;
 import io.servicetalk.logging.api.LogLevel;
 import io.servicetalk.transport.api.ConnectExecutionStrategy;
@@ -394,6 +396,29 @@ public interface HttpServerBuilder {
      */
     HttpServerBuilder executor(Executor executor);
 
+    /**
+     * Sets a new {@link Executors#newVirtualThreadExecutor() virtual-thread Executor} to be used by this server.
+     * <p>
+     * The server owns this {@link Executor}: a new one is created for every server started by this builder and it is
+     * closed when that server is closed. A later call to {@link #executor(Executor)} replaces this setting, in which
+     * case the caller keeps ownership of the passed {@link Executor}.
+     * <p>
+     * The configured {@link #executionStrategy(HttpExecutionStrategy) HttpExecutionStrategy} still decides which
+     * paths are offloaded, for example the invocation of a {@link BlockingHttpService}. Every offloaded task runs
+     * on its own virtual thread, so blocking user code does not grow a pool of platform threads under bursts of load.
+     * {@link AsyncContext} is propagated the same way as for other {@link Executor}s.
+     * <p>
+     * gRPC servers can apply this preset via
+     * {@code GrpcServerBuilder.initializeHttp(HttpServerBuilder::offloadToVirtualThreads)}.
+     *
+     * @return {@code this}.
+     * @throws UnsupportedOperationException if the running JDK does not support virtual threads.
+     * @see Executors#isVirtualThreadExecutorSupported()
+     */
+    default HttpServerBuilder offloadToVirtualThreads() {
+        throw new UnsupportedOperationException("offloadToVirtualThreads() is not supported by " + getClass());
+    }
+
     /**
      * Sets the {@link BufferAllocator} to be used by this server.
      *
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArrayHttpHeadersTest extends AbstractHttpHeadersTest {
+    @Override
+    protected HttpHeaders newHeaders() {
+        return ArrayHttpHeadersFactory.INSTANCE.newHeaders();
+    }
+
+    @Override
+    protected HttpHeaders newHeaders(final int initialSizeHint) {
+        return new ArrayHttpHeaders(initialSizeHint, true, true, true);
+    }
+
+    @Test
+    void growAndCompactKeepInsertionOrder() {
+        final HttpHeaders headers = newHeaders(0);
+        for (int i = 0; i < 64; ++i) {
+            headers.add("name" + (i % 8), "value" + i);
+        }
+        assertEquals(64, headers.size());
+        for (int i = 0; i < 8; i += 2) {
+            headers.remove("NAME" + i);
+        }
+        // The arrays are full and half of the entries are removed, the next addition compacts them.
+        for (int i = 0; i < 10; ++i) {
+            headers.add("other", "value" + i);
+        }
+        assertEquals(42, headers.size());
+        assertFalse(headers.contains("name0"));
+        assertEquals("value1", headers.get("name1"));
+        assertEquals(asList("value3", "value11", "value19", "value27", "value35", "value43", "value51", "value59"),
+                strings(headers.valuesIterator("Name3")));
+        assertEquals(asList("name1", "name3", "name5", "name7", "other"), strings(headers.names().iterator()));
+
+        final Iterator<Entry<CharSequence, CharSequence>> itr = headers.iterator();
+        final Entry<CharSequence, CharSequence> first = itr.next();
+        assertEquals("name1", first.getKey());
+        assertEquals("value1", first.getValue());
+    }
+
+    @Test
+    void removeFirstValueKeepsOtherValues() {
+        final HttpHeaders headers = newHeaders();
+        headers.add("a", "1").add("b", "2").add("a", "3").add("a", "1");
+        assertTrue(headers.remove("A", "1"));
+        assertEquals(singletonList("3"), strings(headers.valuesIterator("a")));
+        headers.add("a", "4");
+        assertEquals(asList("3", "4"), strings(headers.valuesIterator("a")));
+        assertEquals("2", headers.get("b"));
+    }
+
+    private static List<String> strings(final Iterator<? extends CharSequence> itr) {
+        final List<String> strings = new ArrayList<>();
+        itr.forEachRemaining(value -> strings.add(value.toString()));
+        return strings;
+    }
+}
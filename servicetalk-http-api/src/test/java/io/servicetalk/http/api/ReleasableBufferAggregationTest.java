@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.concurrent.api.Publisher;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferUtils.newReleasableBufferFrom;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_2_0;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.http.api.StreamingHttpResponses.newTransportResponse;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class ReleasableBufferAggregationTest {
+
+    @Test
+    void aggregationReleasesPooledChunks() throws Exception {
+        ByteBuf first = pooled("hello ");
+        ByteBuf second = pooled("world");
+        HttpResponse response = newTransportResponse(OK, HTTP_2_0,
+                DefaultHttpHeadersFactory.INSTANCE.newHeaders(), DEFAULT_ALLOCATOR,
+                Publisher.<Object>from(newReleasableBufferFrom(first), newReleasableBufferFrom(second)), false,
+                DefaultHttpHeadersFactory.INSTANCE).toResponse().toFuture().get();
+
+        assertThat(first.refCnt(), is(0));
+        assertThat(second.refCnt(), is(0));
+        assertThat(response.payloadBody().toString(US_ASCII), is("hello world"));
+    }
+
+    @Test
+    void aggregationOfSingleChunkReleasesPooledMemory() throws Exception {
+        ByteBuf only = pooled("hello");
+        HttpResponse response = newTransportResponse(OK, HTTP_2_0,
+                DefaultHttpHeadersFactory.INSTANCE.newHeaders(), DEFAULT_ALLOCATOR,
+                Publisher.<Object>from(newReleasableBufferFrom(only)), false,
+                DefaultHttpHeadersFactory.INSTANCE).toResponse().toFuture().get();
+
+        assertThat(only.refCnt(), is(0));
+        Buffer payload = response.payloadBody();
+        assertThat(payload.toString(US_ASCII), is("hello"));
+    }
+
+    private static ByteBuf pooled(String content) {
+        return PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes(content.getBytes(US_ASCII));
+    }
+}
@@ -39,6 +39,7 @@ import io.netty.util.ReferenceCountUtil;
 
 import javax.annotation.Nullable;
 
+import static io.servicetalk.buffer.netty.BufferUtils.newReleasableBufferFrom;
 import static io.servicetalk.buffer.netty.BufferUtils.toByteBuf;
 import static io.servicetalk.http.api.Http2ErrorCode.PROTOCOL_ERROR;
 import static io.servicetalk.http.netty.H2ToStH1Utils.h1HeadersToH2Headers;
@@ -52,11 +53,13 @@ abstract class AbstractH2DuplexHandler extends ChannelDuplexHandler {
     final HttpHeadersFactory headersFactory;
     final CloseHandler closeHandler;
     final StreamObserver observer;
+    private final boolean pooledInboundBuffers;
 
-    AbstractH2DuplexHandler(BufferAllocator allocator, HttpHeadersFactory headersFactory, CloseHandler closeHandler,
-                            StreamObserver observer) {
+    AbstractH2DuplexHandler(BufferAllocator allocator, HttpHeadersFactory headersFactory,
+                            boolean pooledInboundBuffers, CloseHandler closeHandler, StreamObserver observer) {
         this.allocator = allocator;
         this.headersFactory = headersFactory;
+        this.pooledInboundBuffers = pooledInboundBuffers;
         this.closeHandler = closeHandler;
         this.observer = observer;
     }
@@ -115,7 +118,12 @@ abstract class AbstractH2DuplexHandler extends ChannelDuplexHandler {
         try {
             Http2DataFrame dataFrame = (Http2DataFrame) msg;
             final int readableBytes = dataFrame.content().readableBytes();
-            if (readableBytes > 0) {
+            if (readableBytes > 0 && pooledInboundBuffers) {
+                // Transfer ownership of the pooled memory to the user, it is released via BufferUtils.release(Buffer)
+                final Buffer data = newReleasableBufferFrom(dataFrame.content());
+                toRelease = null;
+                ctx.fireChannelRead(data);
+            } else if (readableBytes > 0) {
                 // Copy to unpooled memory before passing to the user
                 Buffer data = allocator.newBuffer(readableBytes);
                 ByteBuf nettyData = toByteBuf(data);
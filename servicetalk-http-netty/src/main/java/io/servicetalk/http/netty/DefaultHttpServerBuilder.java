@@ -19,6 +19,7 @@ import io.servicetalk.buffer.api.BufferAllocator;
 import io.servicetalk.concurrent.api.Completable;
 import io.servicetalk.concurrent.api.Executor;
 import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.SingleTerminalSignalConsumer;
 import io.servicetalk.http.api.BlockingHttpService;
 import io.servicetalk.http.api.BlockingStreamingHttpService;
 import io.servicetalk.http.api.HttpExceptionMapperServiceFilter;
@@ -67,6 +68,8 @@ import java.util.stream.Stream;
 import javax.annotation.Nullable;
 
 import static io.servicetalk.concurrent.api.Completable.defer;
+import static io.servicetalk.concurrent.api.Executors.isVirtualThreadExecutorSupported;
+import static io.servicetalk.concurrent.api.Executors.newVirtualThreadExecutor;
 import static io.servicetalk.http.api.HttpApiConversions.toStreamingHttpService;
 import static io.servicetalk.http.api.HttpExecutionStrategies.defaultStrategy;
 import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
@@ -89,6 +92,7 @@ final class DefaultHttpServerBuilder implements HttpServerBuilder {
     private final List<LateConnectionAcceptor> lateConnectionAcceptors = new ArrayList<>();
     private HttpExecutionStrategy strategy = defaultStrategy();
     private boolean drainRequestPayloadBody = true;
+    private boolean offloadToVirtualThreads;
     private final HttpServerConfig config = new HttpServerConfig();
     private final HttpExecutionContextBuilder executionContextBuilder = new HttpExecutionContextBuilder();
     private final SocketAddress address;
@@ -261,6 +265,16 @@ final class DefaultHttpServerBuilder implements HttpServerBuilder {
     @Override
     public HttpServerBuilder executor(final Executor executor) {
         executionContextBuilder.executor(executor);
+        offloadToVirtualThreads = false;
+        return this;
+    }
+
+    @Override
+    public HttpServerBuilder offloadToVirtualThreads() {
+        if (!isVirtualThreadExecutorSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by the running JDK");
+        }
+        offloadToVirtualThreads = true;
         return this;
     }
 
@@ -308,9 +322,42 @@ final class DefaultHttpServerBuilder implements HttpServerBuilder {
         return listenForService(streamingService, streamingService.requiredOffloads());
     }
 
-    private HttpExecutionContext buildExecutionContext(final HttpExecutionStrategy strategy) {
-        executionContextBuilder.executionStrategy(strategy);
-        return executionContextBuilder.build();
+    private static HttpExecutionContext buildExecutionContext(final HttpExecutionContextBuilder contextBuilder,
+                                                              final HttpExecutionStrategy strategy) {
+        contextBuilder.executionStrategy(strategy);
+        return contextBuilder.build();
+    }
+
+    private Single<HttpServerContext> listenForService(final StreamingHttpService rawService,
+                                                       final HttpExecutionStrategy computedStrategy) {
+        if (!offloadToVirtualThreads) {
+            return listenForService(rawService, computedStrategy, executionContextBuilder);
+        }
+        return Single.defer(() -> {
+            // The virtual-thread Executor is owned by the server: it is created for each bind and closed together
+            // with the server, or right away if the server fails to start.
+            final Executor executor = newVirtualThreadExecutor();
+            return listenForService(rawService, computedStrategy,
+                    new HttpExecutionContextBuilder(executionContextBuilder).executor(executor))
+                    .whenFinally(new SingleTerminalSignalConsumer<HttpServerContext>() {
+                        @Override
+                        public void onSuccess(@Nullable final HttpServerContext serverContext) {
+                            assert serverContext != null;
+                            serverContext.onClose().afterFinally(() -> executor.closeAsync().subscribe())
+                                    .subscribe();
+                        }
+
+                        @Override
+                        public void onError(final Throwable throwable) {
+                            executor.closeAsync().subscribe();
+                        }
+
+                        @Override
+                        public void cancel() {
+                            executor.closeAsync().subscribe();
+                        }
+                    }).shareContextOnSubscribe();
+        });
     }
 
     /**
@@ -328,11 +375,13 @@ final class DefaultHttpServerBuilder implements HttpServerBuilder {
      *
      * @param rawService {@link StreamingHttpService} to use for the server.
      * @param computedStrategy the computed {@link HttpExecutionStrategy} to use for the service.
+     * @param contextBuilder the {@link HttpExecutionContextBuilder} to build the {@link HttpExecutionContext} from.
      * @return A {@link Single} that completes when the server is successfully started or terminates with an error if
      * the server could not be started.
      */
     private Single<HttpServerContext> listenForService(final StreamingHttpService rawService,
-                                                       final HttpExecutionStrategy computedStrategy) {
+                                                       final HttpExecutionStrategy computedStrategy,
+                                                       final HttpExecutionContextBuilder contextBuilder) {
         InfluencerConnectionAcceptor connectionAcceptor = connectionAcceptorFactory == null ? null :
                 InfluencerConnectionAcceptor.withStrategy(connectionAcceptorFactory.create(ACCEPT_ALL),
                         connectionAcceptorFactory.requiredOffloads());
@@ -345,12 +394,12 @@ final class DefaultHttpServerBuilder implements HttpServerBuilder {
 
         if (noOffloadServiceFilters.isEmpty()) {
             filteredService = serviceFilters.isEmpty() ? rawService : buildService(serviceFilters.stream(), rawService);
-            executionContext = buildExecutionContext(computedStrategy);
+            executionContext = buildExecutionContext(contextBuilder, computedStrategy);
         } else {
             Stream<StreamingHttpServiceFilterFactory> nonOffloadingFilters = noOffloadServiceFilters.stream();
 
             if (computedStrategy.isRequestResponseOffloaded()) {
-                executionContext = buildExecutionContext(REQRESP_OFFLOADS.missing(computedStrategy));
+                executionContext = buildExecutionContext(contextBuilder, REQRESP_OFFLOADS.missing(computedStrategy));
                 BooleanSupplier shouldOffload = executionContext.ioExecutor().shouldOffloadSupplier();
                 // We are going to have to offload, even if just to the raw service
                 OffloadingFilter offloadingFilter =
@@ -359,7 +408,7 @@ final class DefaultHttpServerBuilder implements HttpServerBuilder {
             } else {
                 // All the filters can be appended.
                 nonOffloadingFilters = Stream.concat(nonOffloadingFilters, serviceFilters.stream());
-                executionContext = buildExecutionContext(computedStrategy);
+                executionContext = buildExecutionContext(contextBuilder, computedStrategy);
             }
             filteredService = buildService(nonOffloadingFilters, rawService);
         }
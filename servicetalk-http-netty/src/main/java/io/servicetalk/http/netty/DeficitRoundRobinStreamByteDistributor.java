@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2ConnectionAdapter;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Stream;
+import io.netty.handler.codec.http2.StreamByteDistributor;
+
+import java.util.ArrayDeque;
+import javax.annotation.Nullable;
+
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_PRIORITY_WEIGHT;
+import static io.netty.handler.codec.http2.Http2CodecUtil.streamableBytes;
+import static io.netty.handler.codec.http2.Http2Error.INTERNAL_ERROR;
+import static io.netty.handler.codec.http2.Http2Exception.connectionError;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * A {@link StreamByteDistributor} which runs
+ * <a href="https://en.wikipedia.org/wiki/Deficit_round_robin">deficit round-robin</a> over the streams that have data
+ * to write.
+ * <p>
+ * Streams which have written less than {@code smallStreamThreshold} bytes are "interactive". They are served first
+ * and get up to the remaining part of that threshold in one go. A small response therefore goes out in the next
+ * write instead of waiting behind large responses on the same connection. All other streams are "bulk". In each
+ * round a bulk stream earns a write quota in proportion to its
+ * <a href="https://datatracker.ietf.org/doc/html/rfc7540#section-5.3.2">priority weight</a>, and it can write at
+ * most that quota plus the credit it didn't use in its previous turns before the next stream gets its turn. Unused
+ * credit is kept only up to one quota, so a stream which was blocked by flow control can't burst more than two quotas
+ * once it is unblocked.
+ */
+final class DeficitRoundRobinStreamByteDistributor implements StreamByteDistributor {
+
+    private final Http2Connection connection;
+    private final Http2Connection.PropertyKey stateKey;
+    private final ArrayDeque<State> interactive = new ArrayDeque<>(4);
+    private final ArrayDeque<State> bulk = new ArrayDeque<>(4);
+    private final int writeQuota;
+    private final int smallStreamThreshold;
+    private long totalStreamableBytes;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param connection the {@link Http2Connection} to distribute bytes for.
+     * @param writeQuota the number of bytes a bulk stream with the default priority weight can write per round.
+     * @param smallStreamThreshold the number of bytes a stream can write before it's treated as a bulk stream.
+     */
+    DeficitRoundRobinStreamByteDistributor(final Http2Connection connection, final int writeQuota,
+                                           final int smallStreamThreshold) {
+        if (writeQuota <= 0) {
+            throw new IllegalArgumentException("writeQuota: " + writeQuota + " (expected >0)");
+        }
+        if (smallStreamThreshold < 0) {
+            throw new IllegalArgumentException("smallStreamThreshold: " + smallStreamThreshold + " (expected >=0)");
+        }
+        this.connection = connection;
+        this.writeQuota = writeQuota;
+        this.smallStreamThreshold = smallStreamThreshold;
+        stateKey = connection.newKey();
+        final Http2Stream connectionStream = connection.connectionStream();
+        connectionStream.setProperty(stateKey, new State(connectionStream));
+        connection.addListener(new Http2ConnectionAdapter() {
+            @Override
+            public void onStreamAdded(final Http2Stream stream) {
+                stream.setProperty(stateKey, new State(stream));
+            }
+
+            @Override
+            public void onStreamClosed(final Http2Stream stream) {
+                state(stream).close();
+            }
+        });
+    }
+
+    @Override
+    public void updateStreamableBytes(final StreamState streamState) {
+        state(streamState.stream()).updateStreamableBytes(streamableBytes(streamState), streamState.hasFrame(),
+                streamState.windowSize());
+    }
+
+    @Override
+    public void updateDependencyTree(final int childStreamId, final int parentStreamId, final short weight,
+                                     final boolean exclusive) {
+        // The dependency tree is ignored, only the weight is used to scale the write quota of a stream.
+        final Http2Stream stream = connection.stream(childStreamId);
+        if (stream != null) {
+            final State state = stream.getProperty(stateKey);
+            if (state != null) {
+                state.weight = weight;
+            }
+        }
+    }
+
+    @Override
+    public boolean distribute(int maxBytes, final Writer writer) throws Http2Exception {
+        maxBytes = distributeInteractive(maxBytes, writer);
+        if (maxBytes >= 0) {
+            distributeBulk(maxBytes, writer);
+        }
+        return totalStreamableBytes > 0;
+    }
+
+    /**
+     * Writes interactive streams.
+     *
+     * @return the number of bytes left for bulk streams, or {@code -1} if an interactive stream still waits for bytes.
+     */
+    private int distributeInteractive(int maxBytes, final Writer writer) throws Http2Exception {
+        State state;
+        while ((state = interactive.pollFirst()) != null) {
+            state.queue = null;
+            if (state.windowNegative) {
+                continue;
+            }
+            if (maxBytes == 0 && state.streamableBytes > 0) {
+                // Stop at the first stream that can't write and keep its position for the next call.
+                state.addFirst(interactive);
+                return -1;
+            }
+            final int bytes = min(maxBytes, min(state.streamableBytes, smallStreamThreshold - state.written));
+            maxBytes -= bytes;
+            state.write(bytes, writer);
+        }
+        return maxBytes;
+    }
+
+    private void distributeBulk(int maxBytes, final Writer writer) throws Http2Exception {
+        // Visit every stream at most once, streams that still have data to write are queued for the next round.
+        for (int visits = bulk.size(); visits > 0; --visits) {
+            final State state = bulk.pollFirst();
+            if (state == null) {
+                break;
+            }
+            state.queue = null;
+            if (state.windowNegative) {
+                continue;
+            }
+            if (maxBytes == 0 && state.streamableBytes > 0) {
+                state.addFirst(bulk);
+                break;
+            }
+            final int quota = state.quota();
+            // Carry over at most one quota of unused credit.
+            state.deficit = (int) min((long) min(state.deficit, quota) + quota, Integer.MAX_VALUE);
+            final int bytes = min(maxBytes, min(state.streamableBytes, state.deficit));
+            maxBytes -= bytes;
+            state.deficit -= bytes;
+            state.write(bytes, writer);
+        }
+    }
+
+    private State state(final Http2Stream stream) {
+        return stream.getProperty(stateKey);
+    }
+
+    private final class State {
+        private final Http2Stream stream;
+        @Nullable
+        private ArrayDeque<State> queue;
+        private int streamableBytes;
+        private int deficit;
+        private int written;
+        private short weight = DEFAULT_PRIORITY_WEIGHT;
+        private boolean windowNegative;
+        private boolean writing;
+
+        State(final Http2Stream stream) {
+            this.stream = stream;
+        }
+
+        int quota() {
+            return (int) max(1, min((long) writeQuota * weight / DEFAULT_PRIORITY_WEIGHT, Integer.MAX_VALUE));
+        }
+
+        void updateStreamableBytes(final int newStreamableBytes, final boolean hasFrame, final int windowSize) {
+            assert hasFrame || newStreamableBytes == 0 :
+                    "hasFrame: " + hasFrame + " newStreamableBytes: " + newStreamableBytes;
+
+            final int delta = newStreamableBytes - streamableBytes;
+            if (delta != 0) {
+                streamableBytes = newStreamableBytes;
+                totalStreamableBytes += delta;
+            }
+            windowNegative = windowSize < 0;
+            if (!hasFrame) {
+                // Deficit round-robin doesn't carry credit over for a stream which ran out of data.
+                deficit = 0;
+            } else if (windowSize > 0 || windowSize == 0 && !writing) {
+                addLast();
+            }
+        }
+
+        void write(final int numBytes, final Writer writer) throws Http2Exception {
+            // Account for the bytes before writing, the writer calls back into updateStreamableBytes and the stream
+            // must be queued as interactive or bulk according to what it has written so far.
+            written = (int) min((long) written + numBytes, Integer.MAX_VALUE);
+            writing = true;
+            try {
+                writer.write(stream, numBytes);
+            } catch (Throwable t) {
+                throw connectionError(INTERNAL_ERROR, t, "byte distribution write error");
+            } finally {
+                writing = false;
+            }
+        }
+
+        void addLast() {
+            if (queue == null) {
+                queue = written < smallStreamThreshold ? interactive : bulk;
+                queue.addLast(this);
+            }
+        }
+
+        void addFirst(final ArrayDeque<State> queue) {
+            this.queue = queue;
+            queue.addFirst(this);
+        }
+
+        void close() {
+            if (queue != null) {
+                queue.remove(this);
+                queue = null;
+            }
+            updateStreamableBytes(0, false, 0);
+        }
+    }
+}
@@ -0,0 +1,1269 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.handler.codec.CharSequenceValueConverter;
+import io.netty.handler.codec.Headers;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.util.AsciiString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN;
+import static io.netty.handler.codec.http2.Http2Error.PROTOCOL_ERROR;
+import static io.netty.handler.codec.http2.Http2Exception.connectionError;
+import static io.netty.handler.codec.http2.Http2Headers.PseudoHeaderName.AUTHORITY;
+import static io.netty.handler.codec.http2.Http2Headers.PseudoHeaderName.METHOD;
+import static io.netty.handler.codec.http2.Http2Headers.PseudoHeaderName.PATH;
+import static io.netty.handler.codec.http2.Http2Headers.PseudoHeaderName.SCHEME;
+import static io.netty.handler.codec.http2.Http2Headers.PseudoHeaderName.STATUS;
+import static io.netty.handler.codec.http2.Http2Headers.PseudoHeaderName.hasPseudoHeaderFormat;
+import static io.servicetalk.buffer.api.CharSequences.caseInsensitiveHashCode;
+import static io.servicetalk.buffer.api.CharSequences.contentEquals;
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_CHARSET;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_LANGUAGE;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_RANGES;
+import static io.servicetalk.http.api.HttpHeaderNames.AGE;
+import static io.servicetalk.http.api.HttpHeaderNames.ALLOW;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_DISPOSITION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LANGUAGE;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LOCATION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_RANGE;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.DATE;
+import static io.servicetalk.http.api.HttpHeaderNames.ETAG;
+import static io.servicetalk.http.api.HttpHeaderNames.EXPECT;
+import static io.servicetalk.http.api.HttpHeaderNames.EXPIRES;
+import static io.servicetalk.http.api.HttpHeaderNames.FROM;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_RANGE;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_UNMODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.LAST_MODIFIED;
+import static io.servicetalk.http.api.HttpHeaderNames.LOCATION;
+import static io.servicetalk.http.api.HttpHeaderNames.MAX_FORWARDS;
+import static io.servicetalk.http.api.HttpHeaderNames.PROXY_AUTHENTICATE;
+import static io.servicetalk.http.api.HttpHeaderNames.PROXY_AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.RANGE;
+import static io.servicetalk.http.api.HttpHeaderNames.REFERER;
+import static io.servicetalk.http.api.HttpHeaderNames.RETRY_AFTER;
+import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
+import static io.servicetalk.http.api.HttpHeaderNames.SET_COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.TE;
+import static io.servicetalk.http.api.HttpHeaderNames.TRAILER;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.USER_AGENT;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static io.servicetalk.http.api.HttpHeaderNames.VIA;
+import static io.servicetalk.http.api.HttpHeaderNames.WWW_AUTHENTICATE;
+import static io.servicetalk.utils.internal.ThrowableUtils.throwException;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link Http2Headers} which keep all header fields in a single flat array of alternating names and values.
+ * <p>
+ * Unlike {@link io.netty.handler.codec.http2.DefaultHttp2Headers} there is no hash table and no per-entry object.
+ * HTTP/2 messages usually carry a small number of header fields, and a linear scan over a contiguous array is cheaper
+ * than hashing every name. Pseudo-header fields are always kept in front of the regular fields, as required by
+ * <a href="https://tools.ietf.org/html/rfc7540#section-8.1.2.1">RFC 7540, 8.1.2.1</a>, so they can be searched
+ * separately.
+ * <p>
+ * Names of the pseudo-header fields and the header fields from the HPACK
+ * <a href="https://tools.ietf.org/html/rfc7541#appendix-A">static table</a> are replaced with interned constants when
+ * they are added. This makes subsequent lookups with the same constants an identity comparison and allows converting
+ * HTTP/1.x names to lowercase without allocations.
+ * <p>
+ * Names are case-sensitive and, if validation is enabled, validated with the same rules, consistent with
+ * {@link io.netty.handler.codec.http2.DefaultHttp2Headers}. A pseudo-header field added after regular fields is moved
+ * in front of them, so it is never encoded after a regular field.
+ * <p>
+ * Only outbound header fields are kept in this type: {@link H2HeadersFactory} creates it for the headers of the
+ * messages written by users, wrapped in {@link NettyH2HeadersToHttpHeaders}. Inbound header fields are still decoded by
+ * netty into {@link io.netty.handler.codec.http2.DefaultHttp2Headers}, because its frame codec does not allow
+ * replacing the headers decoder.
+ */
+final class FlatHttp2Headers implements Http2Headers {
+
+    private static final CharSequenceValueConverter CONVERTER = CharSequenceValueConverter.INSTANCE;
+    private static final CharSequence[] EMPTY_ENTRIES = new CharSequence[0];
+    private static final CharSequence[] INTERNED_NAMES;
+    private static final int INTERNED_NAMES_MASK;
+
+    static {
+        final CharSequence[] wellKnownNames = {
+                // Pseudo-header fields:
+                AUTHORITY.value(), METHOD.value(), PATH.value(), SCHEME.value(), STATUS.value(),
+                // Names from the HPACK static table, https://tools.ietf.org/html/rfc7541#appendix-A:
+                ACCEPT_CHARSET, ACCEPT_ENCODING, ACCEPT_LANGUAGE, ACCEPT_RANGES, ACCEPT,
+                ACCESS_CONTROL_ALLOW_ORIGIN, AGE, ALLOW, AUTHORIZATION, CACHE_CONTROL, CONTENT_DISPOSITION,
+                CONTENT_ENCODING, CONTENT_LANGUAGE, CONTENT_LENGTH, CONTENT_LOCATION, CONTENT_RANGE, CONTENT_TYPE,
+                COOKIE, DATE, ETAG, EXPECT, EXPIRES, FROM, HOST, IF_MATCH, IF_MODIFIED_SINCE, IF_NONE_MATCH, IF_RANGE,
+                IF_UNMODIFIED_SINCE, LAST_MODIFIED, newAsciiString("link"), LOCATION, MAX_FORWARDS,
+                PROXY_AUTHENTICATE, PROXY_AUTHORIZATION, RANGE, REFERER, newAsciiString("refresh"), RETRY_AFTER,
+                SERVER, SET_COOKIE, newAsciiString("strict-transport-security"), TRANSFER_ENCODING, USER_AGENT, VARY,
+                VIA, WWW_AUTHENTICATE,
+                // Not in the static table, but frequently used by ServiceTalk (gRPC and TE: trailers):
+                TE, TRAILER, newAsciiString("grpc-encoding"), newAsciiString("grpc-accept-encoding"),
+                newAsciiString("grpc-timeout"), newAsciiString("grpc-status"), newAsciiString("grpc-message")
+        };
+        // Keep the load factor below 0.5 to make probe sequences short.
+        final CharSequence[] table = new CharSequence[Integer.highestOneBit(wellKnownNames.length) << 2];
+        final int mask = table.length - 1;
+        for (CharSequence name : wellKnownNames) {
+            int i = caseInsensitiveHashCode(name) & mask;
+            while (table[i] != null) {
+                i = (i + 1) & mask;
+            }
+            table[i] = name;
+        }
+        INTERNED_NAMES = table;
+        INTERNED_NAMES_MASK = mask;
+    }
+
+    private final boolean validateNames;
+    /**
+     * Names are stored at even and values at odd indexes.
+     */
+    private CharSequence[] entries;
+    private int size;
+    private int pseudoHeaders;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param validateNames {@code true} to validate header names.
+     * @param sizeHint a hint for the number of header fields.
+     */
+    FlatHttp2Headers(final boolean validateNames, final int sizeHint) {
+        this.validateNames = validateNames;
+        entries = sizeHint <= 0 ? EMPTY_ENTRIES : new CharSequence[sizeHint << 1];
+    }
+
+    /**
+     * Returns an interned constant for the passed name, if it is known.
+     *
+     * @param name the name to intern.
+     * @return an interned constant with the same content as {@code name}, or {@code null} if the name is unknown.
+     */
+    @Nullable
+    static CharSequence internedName(final CharSequence name) {
+        int i = caseInsensitiveHashCode(name) & INTERNED_NAMES_MASK;
+        CharSequence interned;
+        while ((interned = INTERNED_NAMES[i]) != null) {
+            if (contentEquals(interned, name)) {
+                return interned;
+            }
+            i = (i + 1) & INTERNED_NAMES_MASK;
+        }
+        return null;
+    }
+
+    /**
+     * Adds a header field with a name of an unknown case, converting the name to lowercase as required by
+     * <a href="https://tools.ietf.org/html/rfc7540#section-8.1.2">RFC 7540, 8.1.2</a>.
+     * <p>
+     * Well-known names are converted by replacing them with interned constants, without allocations.
+     *
+     * @param name the name of the header field.
+     * @param value the value of the header field.
+     */
+    void addLowerCase(final CharSequence name, final CharSequence value) {
+        int i = caseInsensitiveHashCode(name) & INTERNED_NAMES_MASK;
+        CharSequence interned;
+        while ((interned = INTERNED_NAMES[i]) != null) {
+            if (contentEqualsIgnoreCase(interned, name)) {
+                addInterned(interned, value);
+                return;
+            }
+            i = (i + 1) & INTERNED_NAMES_MASK;
+        }
+        addInterned(hasUpperCase(name) ? AsciiString.of(name).toLowerCase() : name, value);
+    }
+
+    @Nullable
+    @Override
+    public CharSequence get(final CharSequence name) {
+        final int i = indexOf(name);
+        return i < 0 ? null : entries[(i << 1) + 1];
+    }
+
+    @Override
+    public CharSequence get(final CharSequence name, final CharSequence defaultValue) {
+        final CharSequence value = get(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public CharSequence getAndRemove(final CharSequence name) {
+        final int i = indexOf(name);
+        if (i < 0) {
+            return null;
+        }
+        final CharSequence value = entries[(i << 1) + 1];
+        removeFrom(name, i);
+        return value;
+    }
+
+    @Override
+    public CharSequence getAndRemove(final CharSequence name, final CharSequence defaultValue) {
+        final CharSequence value = getAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public List<CharSequence> getAll(final CharSequence name) {
+        int i = indexOf(name);
+        if (i < 0) {
+            return Collections.emptyList();
+        }
+        final List<CharSequence> values = new ArrayList<>(4);
+        final int end = end(name);
+        for (; i < end; ++i) {
+            if (contentEquals(entries[i << 1], name)) {
+                values.add(entries[(i << 1) + 1]);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public List<CharSequence> getAllAndRemove(final CharSequence name) {
+        final List<CharSequence> values = getAll(name);
+        remove(name);
+        return values;
+    }
+
+    @Nullable
+    @Override
+    public Boolean getBoolean(final CharSequence name) {
+        final CharSequence value = get(name);
+        try {
+            return value == null ? null : CONVERTER.convertToBoolean(value);
+        } catch (RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean getBoolean(final CharSequence name, final boolean defaultValue) {
+        final Boolean value = getBoolean(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Byte getByte(final CharSequence name) {
+        final CharSequence value = get(name);
+        try {
+            return value == null ? null : CONVERTER.convertToByte(value);
+        } catch (RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    @Override
+    public byte getByte(final CharSequence name, final byte defaultValue) {
+        final Byte value = getByte(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Character getChar(final CharSequence name) {
+        final CharSequence value = get(name);
+        try {
+            return value == null ? null : CONVERTER.convertToChar(value);
+        } catch (RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    @Override
+    public char getChar(final CharSequence name, final char defaultValue) {
+        final Character value = getChar(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Short getShort(final CharSequence name) {
+        final CharSequence value = get(name);
+        try {
+            return value == null ? null : CONVERTER.convertToShort(value);
+        } catch (RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    @Override
+    public short getShort(final CharSequence name, final short defaultValue) {
+        final Short value = getShort(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Integer getInt(final CharSequence name) {
+        final CharSequence value = get(name);
+        try {
+            return value == null ? null : CONVERTER.convertToInt(value);
+        } catch (RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    @Override
+    public int getInt(final CharSequence name, final int defaultValue) {
+        final Integer value = getInt(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Long getLong(final CharSequence name) {
+        final CharSequence value = get(name);
+        try {
+            return value == null ? null : CONVERTER.convertToLong(value);
+        } catch (RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    @Override
+    public long getLong(final CharSequence name, final long defaultValue) {
+        final Long value = getLong(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Float getFloat(final CharSequence name) {
+        final CharSequence value = get(name);
+        try {
+            return value == null ? null : CONVERTER.convertToFloat(value);
+        } catch (RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    @Override
+    public float getFloat(final CharSequence name, final float defaultValue) {
+        final Float value = getFloat(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Double getDouble(final CharSequence name) {
+        final CharSequence value = get(name);
+        try {
+            return value == null ? null : CONVERTER.convertToDouble(value);
+        } catch (RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    @Override
+    public double getDouble(final CharSequence name, final double defaultValue) {
+        final Double value = getDouble(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Long getTimeMillis(final CharSequence name) {
+        final CharSequence value = get(name);
+        try {
+            return value == null ? null : CONVERTER.convertToTimeMillis(value);
+        } catch (RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    @Override
+    public long getTimeMillis(final CharSequence name, final long defaultValue) {
+        final Long value = getTimeMillis(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Boolean getBooleanAndRemove(final CharSequence name) {
+        final Boolean value = getBoolean(name);
+        remove(name);
+        return value;
+    }
+
+    @Override
+    public boolean getBooleanAndRemove(final CharSequence name, final boolean defaultValue) {
+        final Boolean value = getBooleanAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Byte getByteAndRemove(final CharSequence name) {
+        final Byte value = getByte(name);
+        remove(name);
+        return value;
+    }
+
+    @Override
+    public byte getByteAndRemove(final CharSequence name, final byte defaultValue) {
+        final Byte value = getByteAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Character getCharAndRemove(final CharSequence name) {
+        final Character value = getChar(name);
+        remove(name);
+        return value;
+    }
+
+    @Override
+    public char getCharAndRemove(final CharSequence name, final char defaultValue) {
+        final Character value = getCharAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Short getShortAndRemove(final CharSequence name) {
+        final Short value = getShort(name);
+        remove(name);
+        return value;
+    }
+
+    @Override
+    public short getShortAndRemove(final CharSequence name, final short defaultValue) {
+        final Short value = getShortAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Integer getIntAndRemove(final CharSequence name) {
+        final Integer value = getInt(name);
+        remove(name);
+        return value;
+    }
+
+    @Override
+    public int getIntAndRemove(final CharSequence name, final int defaultValue) {
+        final Integer value = getIntAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Long getLongAndRemove(final CharSequence name) {
+        final Long value = getLong(name);
+        remove(name);
+        return value;
+    }
+
+    @Override
+    public long getLongAndRemove(final CharSequence name, final long defaultValue) {
+        final Long value = getLongAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Float getFloatAndRemove(final CharSequence name) {
+        final Float value = getFloat(name);
+        remove(name);
+        return value;
+    }
+
+    @Override
+    public float getFloatAndRemove(final CharSequence name, final float defaultValue) {
+        final Float value = getFloatAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Double getDoubleAndRemove(final CharSequence name) {
+        final Double value = getDouble(name);
+        remove(name);
+        return value;
+    }
+
+    @Override
+    public double getDoubleAndRemove(final CharSequence name, final double defaultValue) {
+        final Double value = getDoubleAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Nullable
+    @Override
+    public Long getTimeMillisAndRemove(final CharSequence name) {
+        final Long value = getTimeMillis(name);
+        remove(name);
+        return value;
+    }
+
+    @Override
+    public long getTimeMillisAndRemove(final CharSequence name, final long defaultValue) {
+        final Long value = getTimeMillisAndRemove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public boolean contains(final CharSequence name) {
+        return indexOf(name) >= 0;
+    }
+
+    @Override
+    public boolean contains(final CharSequence name, final CharSequence value) {
+        return contains(name, value, false);
+    }
+
+    @Override
+    public boolean contains(final CharSequence name, final CharSequence value, final boolean caseInsensitive) {
+        int i = indexOf(name);
+        if (i < 0) {
+            return false;
+        }
+        final int end = end(name);
+        for (; i < end; ++i) {
+            if (contentEquals(entries[i << 1], name)) {
+                final CharSequence v = entries[(i << 1) + 1];
+                if (caseInsensitive ? contentEqualsIgnoreCase(v, value) : contentEquals(v, value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsObject(final CharSequence name, final Object value) {
+        return contains(name, CONVERTER.convertObject(value));
+    }
+
+    @Override
+    public boolean containsBoolean(final CharSequence name, final boolean value) {
+        return contains(name, CONVERTER.convertBoolean(value));
+    }
+
+    @Override
+    public boolean containsByte(final CharSequence name, final byte value) {
+        return contains(name, CONVERTER.convertByte(value));
+    }
+
+    @Override
+    public boolean containsChar(final CharSequence name, final char value) {
+        return contains(name, CONVERTER.convertChar(value));
+    }
+
+    @Override
+    public boolean containsShort(final CharSequence name, final short value) {
+        return contains(name, CONVERTER.convertShort(value));
+    }
+
+    @Override
+    public boolean containsInt(final CharSequence name, final int value) {
+        return contains(name, CONVERTER.convertInt(value));
+    }
+
+    @Override
+    public boolean containsLong(final CharSequence name, final long value) {
+        return contains(name, CONVERTER.convertLong(value));
+    }
+
+    @Override
+    public boolean containsFloat(final CharSequence name, final float value) {
+        return contains(name, CONVERTER.convertFloat(value));
+    }
+
+    @Override
+    public boolean containsDouble(final CharSequence name, final double value) {
+        return contains(name, CONVERTER.convertDouble(value));
+    }
+
+    @Override
+    public boolean containsTimeMillis(final CharSequence name, final long value) {
+        return contains(name, CONVERTER.convertTimeMillis(value));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<CharSequence> names() {
+        if (size == 0) {
+            return Collections.emptySet();
+        }
+        final Set<CharSequence> names = new LinkedHashSet<>(size << 1);
+        for (int i = 0; i < size; ++i) {
+            names.add(entries[i << 1]);
+        }
+        return names;
+    }
+
+    @Override
+    public FlatHttp2Headers add(final CharSequence name, final CharSequence value) {
+        addInterned(intern(name), value);
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers add(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        final CharSequence interned = intern(name);
+        for (CharSequence value : values) {
+            addInterned(interned, value);
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers add(final CharSequence name, final CharSequence... values) {
+        final CharSequence interned = intern(name);
+        for (CharSequence value : values) {
+            addInterned(interned, value);
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers addObject(final CharSequence name, final Object value) {
+        return add(name, CONVERTER.convertObject(requireNonNull(value, "value")));
+    }
+
+    @Override
+    public FlatHttp2Headers addObject(final CharSequence name, final Iterable<?> values) {
+        final CharSequence interned = intern(name);
+        for (Object value : values) {
+            addInterned(interned, CONVERTER.convertObject(requireNonNull(value, "value")));
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers addObject(final CharSequence name, final Object... values) {
+        final CharSequence interned = intern(name);
+        for (Object value : values) {
+            addInterned(interned, CONVERTER.convertObject(requireNonNull(value, "value")));
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers addBoolean(final CharSequence name, final boolean value) {
+        return add(name, CONVERTER.convertBoolean(value));
+    }
+
+    @Override
+    public FlatHttp2Headers addByte(final CharSequence name, final byte value) {
+        return add(name, CONVERTER.convertByte(value));
+    }
+
+    @Override
+    public FlatHttp2Headers addChar(final CharSequence name, final char value) {
+        return add(name, CONVERTER.convertChar(value));
+    }
+
+    @Override
+    public FlatHttp2Headers addShort(final CharSequence name, final short value) {
+        return add(name, CONVERTER.convertShort(value));
+    }
+
+    @Override
+    public FlatHttp2Headers addInt(final CharSequence name, final int value) {
+        return add(name, CONVERTER.convertInt(value));
+    }
+
+    @Override
+    public FlatHttp2Headers addLong(final CharSequence name, final long value) {
+        return add(name, CONVERTER.convertLong(value));
+    }
+
+    @Override
+    public FlatHttp2Headers addFloat(final CharSequence name, final float value) {
+        return add(name, CONVERTER.convertFloat(value));
+    }
+
+    @Override
+    public FlatHttp2Headers addDouble(final CharSequence name, final double value) {
+        return add(name, CONVERTER.convertDouble(value));
+    }
+
+    @Override
+    public FlatHttp2Headers addTimeMillis(final CharSequence name, final long value) {
+        return add(name, CONVERTER.convertTimeMillis(value));
+    }
+
+    @Override
+    public FlatHttp2Headers add(final Headers<? extends CharSequence, ? extends CharSequence, ?> headers) {
+        if (headers == this) {
+            throw new IllegalArgumentException("can't add to itself.");
+        }
+        for (Entry<? extends CharSequence, ? extends CharSequence> entry : headers) {
+            add(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers set(final CharSequence name, final CharSequence value) {
+        final CharSequence interned = intern(name);
+        requireNonNull(value, "value");
+        remove(interned);
+        addInterned(interned, value);
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers set(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        final CharSequence interned = intern(name);
+        remove(interned);
+        for (CharSequence value : values) {
+            addInterned(interned, value);
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers set(final CharSequence name, final CharSequence... values) {
+        final CharSequence interned = intern(name);
+        remove(interned);
+        for (CharSequence value : values) {
+            addInterned(interned, value);
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers setObject(final CharSequence name, final Object value) {
+        return set(name, CONVERTER.convertObject(requireNonNull(value, "value")));
+    }
+
+    @Override
+    public FlatHttp2Headers setObject(final CharSequence name, final Iterable<?> values) {
+        final CharSequence interned = intern(name);
+        remove(interned);
+        for (Object value : values) {
+            addInterned(interned, CONVERTER.convertObject(requireNonNull(value, "value")));
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers setObject(final CharSequence name, final Object... values) {
+        final CharSequence interned = intern(name);
+        remove(interned);
+        for (Object value : values) {
+            addInterned(interned, CONVERTER.convertObject(requireNonNull(value, "value")));
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers setBoolean(final CharSequence name, final boolean value) {
+        return set(name, CONVERTER.convertBoolean(value));
+    }
+
+    @Override
+    public FlatHttp2Headers setByte(final CharSequence name, final byte value) {
+        return set(name, CONVERTER.convertByte(value));
+    }
+
+    @Override
+    public FlatHttp2Headers setChar(final CharSequence name, final char value) {
+        return set(name, CONVERTER.convertChar(value));
+    }
+
+    @Override
+    public FlatHttp2Headers setShort(final CharSequence name, final short value) {
+        return set(name, CONVERTER.convertShort(value));
+    }
+
+    @Override
+    public FlatHttp2Headers setInt(final CharSequence name, final int value) {
+        return set(name, CONVERTER.convertInt(value));
+    }
+
+    @Override
+    public FlatHttp2Headers setLong(final CharSequence name, final long value) {
+        return set(name, CONVERTER.convertLong(value));
+    }
+
+    @Override
+    public FlatHttp2Headers setFloat(final CharSequence name, final float value) {
+        return set(name, CONVERTER.convertFloat(value));
+    }
+
+    @Override
+    public FlatHttp2Headers setDouble(final CharSequence name, final double value) {
+        return set(name, CONVERTER.convertDouble(value));
+    }
+
+    @Override
+    public FlatHttp2Headers setTimeMillis(final CharSequence name, final long value) {
+        return set(name, CONVERTER.convertTimeMillis(value));
+    }
+
+    @Override
+    public FlatHttp2Headers set(final Headers<? extends CharSequence, ? extends CharSequence, ?> headers) {
+        if (headers != this) {
+            clear();
+            add(headers);
+        }
+        return this;
+    }
+
+    @Override
+    public FlatHttp2Headers setAll(final Headers<? extends CharSequence, ? extends CharSequence, ?> headers) {
+        if (headers != this) {
+            for (CharSequence name : headers.names()) {
+                remove(name);
+            }
+            add(headers);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean remove(final CharSequence name) {
+        final int i = indexOf(name);
+        if (i < 0) {
+            return false;
+        }
+        removeFrom(name, i);
+        return true;
+    }
+
+    @Override
+    public FlatHttp2Headers clear() {
+        Arrays.fill(entries, 0, size << 1, null);
+        size = 0;
+        pseudoHeaders = 0;
+        return this;
+    }
+
+    @Override
+    public Iterator<Entry<CharSequence, CharSequence>> iterator() {
+        return new EntryIterator();
+    }
+
+    @Override
+    public Iterator<CharSequence> valueIterator(final CharSequence name) {
+        return new ValueIterator(name);
+    }
+
+    @Override
+    public FlatHttp2Headers method(final CharSequence value) {
+        return set(METHOD.value(), value);
+    }
+
+    @Override
+    public FlatHttp2Headers scheme(final CharSequence value) {
+        return set(SCHEME.value(), value);
+    }
+
+    @Override
+    public FlatHttp2Headers authority(final CharSequence value) {
+        return set(AUTHORITY.value(), value);
+    }
+
+    @Override
+    public FlatHttp2Headers path(final CharSequence value) {
+        return set(PATH.value(), value);
+    }
+
+    @Override
+    public FlatHttp2Headers status(final CharSequence value) {
+        return set(STATUS.value(), value);
+    }
+
+    @Nullable
+    @Override
+    public CharSequence method() {
+        return get(METHOD.value());
+    }
+
+    @Nullable
+    @Override
+    public CharSequence scheme() {
+        return get(SCHEME.value());
+    }
+
+    @Nullable
+    @Override
+    public CharSequence authority() {
+        return get(AUTHORITY.value());
+    }
+
+    @Nullable
+    @Override
+    public CharSequence path() {
+        return get(PATH.value());
+    }
+
+    @Nullable
+    @Override
+    public CharSequence status() {
+        return get(STATUS.value());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Http2Headers)) {
+            return false;
+        }
+        final Http2Headers other = (Http2Headers) o;
+        if (size != other.size()) {
+            return false;
+        }
+        for (int i = 0; i < size; ++i) {
+            final CharSequence name = entries[i << 1];
+            if (!other.contains(name, entries[(i << 1) + 1]) || getAll(name).size() != other.getAll(name).size()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (int i = 0; i < size; ++i) {
+            // Order independent, consistent with equals.
+            result += caseInsensitiveHashCode(entries[i << 1]) * 31 + caseInsensitiveHashCode(entries[(i << 1) + 1]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(getClass().getSimpleName()).append('[');
+        for (int i = 0; i < size; ++i) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(entries[i << 1]).append(": ").append(entries[(i << 1) + 1]);
+        }
+        return sb.append(']').toString();
+    }
+
+    private CharSequence intern(final CharSequence name) {
+        final CharSequence interned = internedName(requireNonNull(name, "name"));
+        if (interned != null) {
+            // Interned names are known to be valid.
+            return interned;
+        }
+        if (validateNames) {
+            validateName(name);
+        }
+        return name;
+    }
+
+    /**
+     * Validates names the same way as {@link io.netty.handler.codec.http2.DefaultHttp2Headers}: names must be
+     * non-empty lowercase <a href="https://tools.ietf.org/html/rfc7230#section-3.2.6">tokens</a>, and only the
+     * pseudo-header fields defined by {@link PseudoHeaderName} are allowed
+     * (<a href="https://tools.ietf.org/html/rfc7540#section-8.1.2">RFC 7540, 8.1.2</a>).
+     */
+    private static void validateName(final CharSequence name) {
+        if (name.length() == 0) {
+            throwException(connectionError(PROTOCOL_ERROR, "empty headers are not allowed [%s]", name));
+        }
+        if (hasPseudoHeaderFormat(name)) {
+            if (!PseudoHeaderName.isPseudoHeader(name)) {
+                throwException(connectionError(PROTOCOL_ERROR, "Invalid HTTP/2 pseudo-header '%s' encountered.",
+                        name));
+            }
+            return;
+        }
+        for (int i = 0; i < name.length(); ++i) {
+            final char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z' || !isTchar(c)) {
+                throwException(connectionError(PROTOCOL_ERROR, "invalid header name [%s]", name));
+            }
+        }
+    }
+
+    /**
+     * Checks if the passed character is a {@code tchar} as defined by
+     * <a href="https://tools.ietf.org/html/rfc7230#section-3.2.6">RFC 7230, 3.2.6</a>.
+     */
+    private static boolean isTchar(final char c) {
+        if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9') {
+            return true;
+        }
+        switch (c) {
+            case '!':
+            case '#':
+            case '$':
+            case '%':
+            case '&':
+            case '\'':
+            case '*':
+            case '+':
+            case '-':
+            case '.':
+            case '^':
+            case '_':
+            case '`':
+            case '|':
+            case '~':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean hasUpperCase(final CharSequence name) {
+        for (int i = 0; i < name.length(); ++i) {
+            final char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPseudoHeader(final CharSequence name) {
+        return name.length() > 0 && name.charAt(0) == ':';
+    }
+
+    private void addInterned(final CharSequence name, final CharSequence value) {
+        requireNonNull(value, "value");
+        final int length = size << 1;
+        if (length == entries.length) {
+            entries = Arrays.copyOf(entries, length == 0 ? 16 : length << 1);
+        }
+        if (isPseudoHeader(name)) {
+            // Pseudo-header fields must precede regular fields.
+            final int pseudoLength = pseudoHeaders << 1;
+            System.arraycopy(entries, pseudoLength, entries, pseudoLength + 2, length - pseudoLength);
+            entries[pseudoLength] = name;
+            entries[pseudoLength + 1] = value;
+            ++pseudoHeaders;
+        } else {
+            entries[length] = name;
+            entries[length + 1] = value;
+        }
+        ++size;
+    }
+
+    /**
+     * Find the index of the first entry with the passed name.
+     *
+     * @param name the name to find.
+     * @return the index of the entry (not the array index), or {@code -1} if not found.
+     */
+    private int indexOf(final CharSequence name) {
+        final int end = end(name);
+        for (int i = start(name); i < end; ++i) {
+            if (contentEquals(entries[i << 1], name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int start(final CharSequence name) {
+        return isPseudoHeader(name) ? 0 : pseudoHeaders;
+    }
+
+    private int end(final CharSequence name) {
+        return isPseudoHeader(name) ? pseudoHeaders : size;
+    }
+
+    /**
+     * Removes all entries with the passed name starting from the passed entry index, compacting the array in place.
+     */
+    private void removeFrom(final CharSequence name, final int from) {
+        final int end = end(name);
+        int write = from;
+        for (int read = from; read < size; ++read) {
+            final CharSequence n = entries[read << 1];
+            if (read < end && contentEquals(n, name)) {
+                if (read < pseudoHeaders) {
+                    --pseudoHeaders;
+                }
+                continue;
+            }
+            entries[write << 1] = n;
+            entries[(write << 1) + 1] = entries[(read << 1) + 1];
+            ++write;
+        }
+        Arrays.fill(entries, write << 1, size << 1, null);
+        size = write;
+    }
+
+    private void removeAt(final int index) {
+        if (index < pseudoHeaders) {
+            --pseudoHeaders;
+        }
+        final int arrayIndex = index << 1;
+        System.arraycopy(entries, arrayIndex + 2, entries, arrayIndex, (size << 1) - arrayIndex - 2);
+        --size;
+        entries[size << 1] = null;
+        entries[(size << 1) + 1] = null;
+    }
+
+    private final class EntryIterator implements Iterator<Entry<CharSequence, CharSequence>> {
+        private int next;
+        private int current = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<CharSequence, CharSequence> next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            current = next++;
+            return new FlatEntry(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException("next() has not yet been called or remove() already called");
+            }
+            removeAt(current);
+            next = current;
+            current = -1;
+        }
+    }
+
+    private final class FlatEntry implements Entry<CharSequence, CharSequence> {
+        private final CharSequence name;
+        private CharSequence value;
+        private final int index;
+
+        FlatEntry(final int index) {
+            this.index = index;
+            name = entries[index << 1];
+            value = entries[(index << 1) + 1];
+        }
+
+        @Override
+        public CharSequence getKey() {
+            return name;
+        }
+
+        @Override
+        public CharSequence getValue() {
+            return value;
+        }
+
+        @Override
+        public CharSequence setValue(final CharSequence value) {
+            requireNonNull(value, "value");
+            final CharSequence old = this.value;
+            this.value = value;
+            if (index < size && entries[index << 1] == name) {
+                entries[(index << 1) + 1] = value;
+            }
+            return old;
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + value;
+        }
+    }
+
+    private final class ValueIterator implements Iterator<CharSequence> {
+        private final CharSequence name;
+        private int next;
+        private int current = -1;
+
+        ValueIterator(final CharSequence name) {
+            this.name = requireNonNull(name, "name");
+            next = findNext(start(name));
+        }
+
+        private int findNext(int i) {
+            final int end = end(name);
+            for (; i < end; ++i) {
+                if (contentEquals(entries[i << 1], name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public CharSequence next() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = findNext(current + 1);
+            return entries[(current << 1) + 1];
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException("next() has not yet been called or remove() already called");
+            }
+            removeAt(current);
+            if (next > 0) {
+                --next;
+            }
+            current = -1;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.netty.H2ProtocolConfig.FlowControlAutoTuning;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http2.DefaultHttp2PingFrame;
+import io.netty.handler.codec.http2.DefaultHttp2SettingsFrame;
+import io.netty.handler.codec.http2.DefaultHttp2WindowUpdateFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2PingFrame;
+import io.netty.handler.codec.http2.Http2Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import static io.servicetalk.http.netty.KeepAliveManager.FLOW_CONTROL_PING_CONTENT;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Grows the local flow control windows of an HTTP/2 connection according to its bandwidth-delay product (BDP).
+ * <p>
+ * Must be placed between {@link io.netty.handler.codec.http2.Http2FrameCodec} and
+ * {@link io.netty.handler.codec.http2.Http2MultiplexHandler} to observe DATA frames of all streams. When DATA is
+ * received and no measurement is in progress, it sends a PING and counts the flow controlled bytes received until the
+ * PING(ACK) arrives. This approximates the BDP. When the BDP comes close to the window size and the bandwidth
+ * has increased since the last change, the peer is limited by the window. The stream windows
+ * (SETTINGS_INITIAL_WINDOW_SIZE) and the connection window (WINDOW_UPDATE) then grow to twice the BDP, up to the
+ * configured maximum. The PING(ACK) frames this handler caused are not propagated further.
+ *
+ * @see FlowControlAutoTuning
+ */
+final class FlowControlWindowTuner extends ChannelInboundHandlerAdapter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowControlWindowTuner.class);
+    private static final long NOT_PINGING = Long.MIN_VALUE;
+
+    private final int maxWindowSize;
+    private final FlowControlAutoTuning.Observer observer;
+    private final LongSupplier nanoTime;
+
+    // below state should only be accessed from eventloop
+    private int windowSize;
+    private long maxBandwidth;
+    private long pingSentNanos = NOT_PINGING;
+    private long bytesSincePing;
+
+    FlowControlWindowTuner(final FlowControlAutoTuning autoTuning, final int initialWindowSize) {
+        this(autoTuning, initialWindowSize, System::nanoTime);
+    }
+
+    FlowControlWindowTuner(final FlowControlAutoTuning autoTuning, final int initialWindowSize,
+                           final LongSupplier nanoTime) {
+        this.maxWindowSize = autoTuning.maxWindowSize();
+        this.observer = autoTuning.observer();
+        this.nanoTime = nanoTime;
+        this.windowSize = initialWindowSize;
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+        if (msg instanceof Http2DataFrame) {
+            dataReceived(ctx, ((Http2DataFrame) msg).initialFlowControlledBytes());
+        } else if (msg instanceof Http2PingFrame) {
+            final Http2PingFrame pingFrame = (Http2PingFrame) msg;
+            if (pingFrame.ack() && pingFrame.content() == FLOW_CONTROL_PING_CONTENT) {
+                pingAckReceived(ctx);
+                return;
+            }
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    private void dataReceived(final ChannelHandlerContext ctx, final int bytes) {
+        if (pingSentNanos == NOT_PINGING) {
+            if (windowSize >= maxWindowSize) {
+                // Windows can't grow anymore, no need to measure.
+                return;
+            }
+            pingSentNanos = nanoTime.getAsLong();
+            bytesSincePing = 0;
+            ctx.writeAndFlush(new DefaultHttp2PingFrame(FLOW_CONTROL_PING_CONTENT, false));
+        }
+        bytesSincePing += bytes;
+    }
+
+    private void pingAckReceived(final ChannelHandlerContext ctx) {
+        if (pingSentNanos == NOT_PINGING) {
+            return;
+        }
+        final long rttNanos = max(1, nanoTime.getAsLong() - pingSentNanos);
+        pingSentNanos = NOT_PINGING;
+        final long bdp = bytesSincePing;
+        final long bandwidth = bdp * SECONDS.toNanos(1) / rttNanos;
+        if (bandwidth <= maxBandwidth) {
+            return;
+        }
+        maxBandwidth = bandwidth;
+        // If less than 2/3 of the window arrived within an RTT, the peer is not limited by the window.
+        if (bdp * 3 < (long) windowSize * 2) {
+            return;
+        }
+        final int newWindowSize = (int) min(bdp * 2, maxWindowSize);
+        if (newWindowSize <= windowSize) {
+            return;
+        }
+        final int oldWindowSize = windowSize;
+        windowSize = newWindowSize;
+        final Duration rtt = Duration.ofNanos(rttNanos);
+        LOGGER.debug("{} Growing flow control windows from {} to {} bytes, bandwidth={} bytes/s, rtt={}",
+                ctx.channel(), oldWindowSize, newWindowSize, bandwidth, rtt);
+        // Stream windows grow when the peer acknowledges the SETTINGS frame, the connection window grows right away.
+        ctx.write(new DefaultHttp2WindowUpdateFrame(newWindowSize - oldWindowSize));
+        ctx.writeAndFlush(new DefaultHttp2SettingsFrame(new Http2Settings().initialWindowSize(newWindowSize)));
+        observer.onWindowSizeChange(oldWindowSize, newWindowSize, bandwidth, rtt);
+    }
+}
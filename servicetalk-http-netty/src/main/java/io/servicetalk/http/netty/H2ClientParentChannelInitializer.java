@@ -21,6 +21,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.http2.DefaultHttp2GoAwayFrame;
 import io.netty.handler.codec.http2.DefaultHttp2WindowUpdateFrame;
 import io.netty.handler.codec.http2.Http2ConnectionPrefaceAndSettingsFrameWrittenEvent;
@@ -29,6 +30,7 @@ import io.netty.handler.codec.http2.Http2MultiplexHandler;
 
 import static io.netty.buffer.ByteBufUtil.writeAscii;
 import static io.netty.handler.codec.http2.Http2Error.PROTOCOL_ERROR;
+import static io.servicetalk.http.netty.H2ServerParentChannelInitializer.initFlowControlWindowTuner;
 import static io.servicetalk.http.netty.H2ServerParentChannelInitializer.initFrameLogger;
 import static io.servicetalk.http.netty.H2ServerParentChannelInitializer.toNettySettings;
 
@@ -44,7 +46,8 @@ final class H2ClientParentChannelInitializer implements ChannelInitializer {
     @Override
     public void init(final Channel channel) {
         final Http2FrameCodecBuilder multiplexCodecBuilder =
-                new OptimizedHttp2FrameCodecBuilder(false, config.flowControlQuantum())
+                new OptimizedHttp2FrameCodecBuilder(false, config.flowControlQuantum(),
+                        config.streamScheduler())
                 // We do not want close to trigger graceful closure (go away), instead when user triggers a graceful
                 // close, we do the appropriate go away handling.
                 .decoupleCloseAndGoAway(true)
@@ -65,12 +68,14 @@ final class H2ClientParentChannelInitializer implements ChannelInitializer {
 
         // TODO(scott): more configuration. header validation, etc...
 
-        channel.pipeline().addLast(multiplexCodecBuilder.build(),
-                new Http2MultiplexHandler(H2PushStreamHandler.INSTANCE));
+        final ChannelPipeline pipeline = channel.pipeline();
+        pipeline.addLast(multiplexCodecBuilder.build());
+        initFlowControlWindowTuner(pipeline, config);
+        pipeline.addLast(new Http2MultiplexHandler(H2PushStreamHandler.INSTANCE));
         if (config.flowControlWindowIncrement() > 0) {
             // Must be after Http2ConnectionHandler does its initialization. The client must wait until after
             // the connection preface and settings are sent.
-            channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+            pipeline.addLast(new ChannelInboundHandlerAdapter() {
                 @Override
                 public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
                     if (evt instanceof Http2ConnectionPrefaceAndSettingsFrameWrittenEvent) {
@@ -143,7 +143,8 @@ final class H2ClientParentConnectionContext extends H2ParentConnectionContext {
                     pipeline = channel.pipeline();
                     parentChannelInitializer = new DefaultH2ClientParentConnection(connection, subscriber,
                             delayedCancellable, NettyPipelineSslUtils.isSslEnabled(pipeline),
-                            allowDropTrailersReadFromTransport, config.headersFactory(), reqRespFactory, observer);
+                            allowDropTrailersReadFromTransport, config.headersFactory(),
+                            config.pooledInboundBuffers(), reqRespFactory, observer);
                 } catch (Throwable cause) {
                     close(channel, cause);
                     deliverErrorFromSource(subscriber, cause);
@@ -164,6 +165,7 @@ final class H2ClientParentConnectionContext extends H2ParentConnectionContext {
 
         private final Http2StreamChannelBootstrap bs;
         private final HttpHeadersFactory headersFactory;
+        private final boolean pooledInboundBuffers;
         private final StreamingHttpRequestResponseFactory reqRespFactory;
         private final Processor<ConsumableEvent<Integer>, ConsumableEvent<Integer>> maxConcurrencyProcessor =
                 newPublisherProcessorDropHeadOnOverflow(16);
@@ -179,11 +181,13 @@ final class H2ClientParentConnectionContext extends H2ParentConnectionContext {
                                         boolean waitForSslHandshake,
                                         boolean allowDropTrailersReadFromTransport,
                                         HttpHeadersFactory headersFactory,
+                                        boolean pooledInboundBuffers,
                                         StreamingHttpRequestResponseFactory reqRespFactory,
                                         ConnectionObserver observer) {
             super(connection, delayedCancellable, waitForSslHandshake, observer);
             this.subscriber = requireNonNull(subscriber);
             this.headersFactory = requireNonNull(headersFactory);
+            this.pooledInboundBuffers = pooledInboundBuffers;
             this.reqRespFactory = requireNonNull(reqRespFactory);
             this.allowDropTrailersReadFromTransport = allowDropTrailersReadFromTransport;
             // Set maxConcurrency to the initial value recommended by the HTTP/2 spec
@@ -363,7 +367,7 @@ final class H2ClientParentConnectionContext extends H2ParentConnectionContext {
                     final CloseHandler closeHandler = forNonPipelined(true, streamChannel.config());
                     streamChannel.pipeline().addLast(new H2ToStH1ClientDuplexHandler(waitForSslHandshake,
                             parentContext.executionContext().bufferAllocator(), headersFactory,
-                            closeHandler, streamObserver));
+                            pooledInboundBuffers, closeHandler, streamObserver));
                     DefaultNettyConnection<Object, Object> nettyConnection =
                             DefaultNettyConnection.initChildChannel(streamChannel,
                                     parentContext,
@@ -18,8 +18,6 @@ package io.servicetalk.http.netty;
 import io.servicetalk.http.api.HttpHeaders;
 import io.servicetalk.http.api.HttpHeadersFactory;
 
-import io.netty.handler.codec.http2.DefaultHttp2Headers;
-
 /**
  * A {@link HttpHeadersFactory} optimized for HTTP/2.
  */
@@ -51,8 +49,8 @@ public final class H2HeadersFactory implements HttpHeadersFactory {
      * @param validateNames {@code true} to validate header/trailer names.
      * @param validateCookies {@code true} to validate cookie contents when parsing.
      * @param validateValues {@code true} to validate header values.
-     * @param headersArraySizeHint A hint as to how large the hash data structure should be for the headers.
-     * @param trailersArraySizeHint A hint as to how large the hash data structure should be for the trailers.
+     * @param headersArraySizeHint A hint as to how many fields the headers will contain.
+     * @param trailersArraySizeHint A hint as to how many fields the trailers will contain.
      */
     public H2HeadersFactory(final boolean validateNames, final boolean validateCookies,
                             final boolean validateValues,
@@ -66,19 +64,19 @@ public final class H2HeadersFactory implements HttpHeadersFactory {
 
     @Override
     public HttpHeaders newHeaders() {
-        return new NettyH2HeadersToHttpHeaders(new DefaultHttp2Headers(validateNames, headersArraySizeHint),
+        return new NettyH2HeadersToHttpHeaders(new FlatHttp2Headers(validateNames, headersArraySizeHint),
                 validateCookies, validateValues);
     }
 
     @Override
     public HttpHeaders newTrailers() {
-        return new NettyH2HeadersToHttpHeaders(new DefaultHttp2Headers(validateNames, trailersArraySizeHint),
+        return new NettyH2HeadersToHttpHeaders(new FlatHttp2Headers(validateNames, trailersArraySizeHint),
                 validateCookies, validateValues);
     }
 
     @Override
     public HttpHeaders newEmptyTrailers() {
-        return new NettyH2HeadersToHttpHeaders(new DefaultHttp2Headers(validateNames, 0),
+        return new NettyH2HeadersToHttpHeaders(new FlatHttp2Headers(validateNames, 0),
                 validateCookies, validateValues);
     }
 
@@ -99,6 +99,49 @@ public interface H2ProtocolConfig extends HttpProtocolConfig {
                 getClass());
     }
 
+    /**
+     * Determines if inbound <a href="https://www.rfc-editor.org/rfc/rfc7540#section-6.1">DATA</a> is passed to the
+     * user as pooled memory without copying it.
+     * <p>
+     * When enabled, every {@link io.servicetalk.buffer.api.Buffer} of the inbound payload body owns a reference to
+     * pooled memory and <b>MUST</b> be released via {@link io.servicetalk.buffer.netty.BufferUtils#release} once it is
+     * consumed. {@link io.servicetalk.buffer.api.Buffer}s which are not delivered to the user (e.g. because the payload
+     * body was cancelled) are released automatically, as are {@link io.servicetalk.buffer.api.Buffer}s consumed by
+     * payload body aggregation or by the built-in deserializers (including gRPC).
+     * <p>
+     * This setting applies only to HTTP/2 connections. HTTP/1.x connections always copy inbound data to unpooled
+     * memory, so their {@link io.servicetalk.buffer.api.Buffer}s never need to be released.
+     * @return {@code true} if inbound data is passed to the user as pooled memory, {@code false} if it is copied to
+     * unpooled memory first.
+     */
+    default boolean pooledInboundBuffers() {
+        return false;
+    }
+
+    /**
+     * The {@link StreamScheduler} which decides how outbound
+     * <a href="https://www.rfc-editor.org/rfc/rfc7540#section-6.1">DATA</a> of concurrent streams shares the
+     * connection.
+     *
+     * @return the {@link StreamScheduler} for outbound data.
+     * @see H2StreamSchedulers
+     */
+    default StreamScheduler streamScheduler() {
+        return H2StreamSchedulers.uniform();
+    }
+
+    /**
+     * Configuration for automatic tuning of the local flow control windows, based on the
+     * <a href="https://en.wikipedia.org/wiki/Bandwidth-delay_product">bandwidth-delay product</a> of the connection.
+     *
+     * @return {@link FlowControlAutoTuning} or {@code null} if flow control windows are not changed after the
+     * connection is established.
+     */
+    @Nullable
+    default FlowControlAutoTuning flowControlAutoTuning() {
+        return null;
+    }
+
     /**
      * A policy for sending <a href="https://tools.ietf.org/html/rfc7540#section-6.7">PING frames</a> to the peer.
      * <p>
@@ -152,4 +195,65 @@ public interface H2ProtocolConfig extends HttpProtocolConfig {
          */
         boolean withoutActiveStreams();
     }
+
+    /**
+     * Schedules outbound <a href="https://www.rfc-editor.org/rfc/rfc7540#section-6.1">DATA</a> across the streams of
+     * a connection.
+     * <p>
+     * The scheduler only matters when more data is pending than the connection can write at once. That happens when
+     * the connection flow control window runs out or the transport is not writable. It then decides which streams
+     * write next and how many bytes each of them may write.
+     * <p>
+     * Use {@link H2StreamSchedulers} to create instances, custom implementations are not supported.
+     */
+    interface StreamScheduler {
+    }
+
+    /**
+     * Automatic tuning of the local flow control windows, based on the
+     * <a href="https://en.wikipedia.org/wiki/Bandwidth-delay_product">bandwidth-delay product</a> (BDP) of the
+     * connection.
+     * <p>
+     * While <a href="https://www.rfc-editor.org/rfc/rfc7540#section-6.1">DATA</a> is received, a
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.7">PING</a> is sent to the peer. The bytes received
+     * before its acknowledgment arrives estimate the BDP. Static windows that are smaller than the BDP cap the
+     * throughput of every stream, which is common on high-latency links. When an estimate gets close to the current
+     * window and the bandwidth has increased, the windows of all streams (via
+     * <a href="https://www.rfc-editor.org/rfc/rfc7540#section-6.5.2">SETTINGS_INITIAL_WINDOW_SIZE</a>) and the
+     * connection window (via <a href="https://www.rfc-editor.org/rfc/rfc7540#section-6.9">WINDOW_UPDATE</a>) grow to
+     * twice the estimate, up to {@link #maxWindowSize()}. Windows never shrink.
+     */
+    interface FlowControlAutoTuning {
+        /**
+         * The maximum size of the stream flow control window, in bytes.
+         *
+         * @return the maximum size of the stream flow control window, in bytes.
+         */
+        int maxWindowSize();
+
+        /**
+         * The {@link Observer} to notify when the flow control windows change.
+         *
+         * @return the {@link Observer} to notify when the flow control windows change.
+         */
+        Observer observer();
+
+        /**
+         * An observer of flow control window changes.
+         */
+        @FunctionalInterface
+        interface Observer {
+            /**
+             * Notifies that the flow control windows of a connection grew.
+             * <p>
+             * Invoked on the event loop of the connection, must not block.
+             *
+             * @param oldWindowSize the previous size of the stream flow control window, in bytes.
+             * @param newWindowSize the new size of the stream flow control window, in bytes.
+             * @param bandwidth the estimated bandwidth which triggered the change, in bytes per second.
+             * @param rtt the measured round-trip time which triggered the change.
+             */
+            void onWindowSizeChange(int oldWindowSize, int newWindowSize, long bandwidth, Duration rtt);
+        }
+    }
 }
@@ -19,7 +19,9 @@ import io.servicetalk.http.api.Http2Settings;
 import io.servicetalk.http.api.Http2SettingsBuilder;
 import io.servicetalk.http.api.HttpHeaders;
 import io.servicetalk.http.api.HttpHeadersFactory;
+import io.servicetalk.http.netty.H2ProtocolConfig.FlowControlAutoTuning;
 import io.servicetalk.http.netty.H2ProtocolConfig.KeepAlivePolicy;
+import io.servicetalk.http.netty.H2ProtocolConfig.StreamScheduler;
 import io.servicetalk.logging.api.LogLevel;
 import io.servicetalk.logging.api.UserDataLoggerConfig;
 import io.servicetalk.logging.slf4j.internal.DefaultUserDataLoggerConfig;
@@ -31,6 +33,8 @@ import javax.annotation.Nullable;
 import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_HEADER_LIST_SIZE;
 import static io.servicetalk.http.netty.H2KeepAlivePolicies.disabled;
 import static io.servicetalk.http.netty.H2KeepAlivePolicies.validateKeepAlivePolicy;
+import static io.servicetalk.http.netty.H2StreamSchedulers.uniform;
+import static io.servicetalk.http.netty.H2StreamSchedulers.validateStreamScheduler;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -40,6 +44,8 @@ import static java.util.Objects.requireNonNull;
  */
 public final class H2ProtocolConfigBuilder {
     private static final BiPredicate<CharSequence, CharSequence> DEFAULT_SENSITIVITY_DETECTOR = (name, value) -> false;
+    private static final FlowControlAutoTuning.Observer NOOP_FLOW_CONTROL_OBSERVER =
+            (oldWindowSize, newWindowSize, bandwidth, rtt) -> { };
     /**
      * 1mb default window size.
      */
@@ -64,6 +70,10 @@ public final class H2ProtocolConfigBuilder {
     private KeepAlivePolicy keepAlivePolicy = disabled();
     private int flowControlQuantum = DEFAULT_FLOW_CONTROL_QUANTUM;
     private int flowControlIncrement = CONNECTION_STREAM_FLOW_CONTROL_INCREMENT;
+    private boolean pooledInboundBuffers;
+    private StreamScheduler streamScheduler = uniform();
+    @Nullable
+    private FlowControlAutoTuning flowControlAutoTuning;
 
     H2ProtocolConfigBuilder() {
     }
@@ -167,6 +177,78 @@ public final class H2ProtocolConfigBuilder {
         return this;
     }
 
+    /**
+     * Sets whether inbound <a href="https://www.rfc-editor.org/rfc/rfc7540#section-6.1">DATA</a> is passed to the
+     * user as pooled memory without copying it.
+     * <p>
+     * This reduces copies and GC pressure, but each inbound {@link io.servicetalk.buffer.api.Buffer} <b>MUST</b> be
+     * released via {@link io.servicetalk.buffer.netty.BufferUtils#release} once it is consumed. Aggregating the
+     * payload body and the built-in deserializers (including gRPC) release pooled memory themselves: aggregation copies
+     * each chunk into unpooled memory, deserializers copy only bytes which belong to a partially received message.
+     * <p>
+     * There is no equivalent for HTTP/1.x: inbound data of HTTP/1.x connections is always copied to unpooled memory.
+     * @param pooledInboundBuffers {@code true} to pass inbound data to the user as pooled memory, {@code false} to
+     * copy it to unpooled memory first (default).
+     * @return {@code this}
+     * @see H2ProtocolConfig#pooledInboundBuffers()
+     */
+    public H2ProtocolConfigBuilder pooledInboundBuffers(boolean pooledInboundBuffers) {
+        this.pooledInboundBuffers = pooledInboundBuffers;
+        return this;
+    }
+
+    /**
+     * Sets the {@link StreamScheduler} which decides how outbound
+     * <a href="https://www.rfc-editor.org/rfc/rfc7540#section-6.1">DATA</a> of concurrent streams shares the
+     * connection.
+     * <p>
+     * The default is {@link H2StreamSchedulers#uniform()}. {@link H2StreamSchedulers#deficitRoundRobin()} keeps small
+     * responses from queueing behind large streaming responses on the same connection.
+     * @param streamScheduler the {@link StreamScheduler} to use.
+     * @return {@code this}
+     * @see H2StreamSchedulers
+     */
+    public H2ProtocolConfigBuilder streamScheduler(final StreamScheduler streamScheduler) {
+        this.streamScheduler = validateStreamScheduler(streamScheduler);
+        return this;
+    }
+
+    /**
+     * Enables automatic tuning of the local flow control windows, based on the bandwidth-delay product of the
+     * connection.
+     * <p>
+     * The windows start from {@link Http2Settings#initialWindowSize()} of {@link #initialSettings(Http2Settings)} and
+     * the connection window increment of {@link #flowControlWindowIncrement(int)}. They grow while the measured
+     * bandwidth-delay product requires larger windows, up to {@code maxWindowSize}.
+     * @param maxWindowSize the maximum size of the stream flow control window, in bytes.
+     * @return {@code this}
+     * @see FlowControlAutoTuning
+     */
+    public H2ProtocolConfigBuilder flowControlAutoTuning(final int maxWindowSize) {
+        return flowControlAutoTuning(maxWindowSize, NOOP_FLOW_CONTROL_OBSERVER);
+    }
+
+    /**
+     * Enables automatic tuning of the local flow control windows, based on the bandwidth-delay product of the
+     * connection.
+     * <p>
+     * The windows start from {@link Http2Settings#initialWindowSize()} of {@link #initialSettings(Http2Settings)} and
+     * the connection window increment of {@link #flowControlWindowIncrement(int)}. They grow while the measured
+     * bandwidth-delay product requires larger windows, up to {@code maxWindowSize}.
+     * @param maxWindowSize the maximum size of the stream flow control window, in bytes.
+     * @param observer the {@link FlowControlAutoTuning.Observer} to notify when the flow control windows change.
+     * @return {@code this}
+     * @see FlowControlAutoTuning
+     */
+    public H2ProtocolConfigBuilder flowControlAutoTuning(final int maxWindowSize,
+                                                         final FlowControlAutoTuning.Observer observer) {
+        if (maxWindowSize <= 0) {
+            throw new IllegalArgumentException("maxWindowSize " + maxWindowSize + " (expected >0)");
+        }
+        this.flowControlAutoTuning = new DefaultFlowControlAutoTuning(maxWindowSize, requireNonNull(observer));
+        return this;
+    }
+
     /**
      * Builds {@link H2ProtocolConfig}.
      *
@@ -174,7 +256,8 @@ public final class H2ProtocolConfigBuilder {
      */
     public H2ProtocolConfig build() {
         return new DefaultH2ProtocolConfig(h2Settings, headersFactory, headersSensitivityDetector, frameLoggerConfig,
-                keepAlivePolicy, flowControlQuantum, flowControlIncrement);
+                keepAlivePolicy, flowControlQuantum, flowControlIncrement, pooledInboundBuffers, streamScheduler,
+                flowControlAutoTuning);
     }
 
     private static final class DefaultH2ProtocolConfig implements H2ProtocolConfig {
@@ -186,6 +269,10 @@ public final class H2ProtocolConfigBuilder {
         private final KeepAlivePolicy keepAlivePolicy;
         private final int flowControlQuantum;
         private final int flowControlIncrement;
+        private final boolean pooledInboundBuffers;
+        private final StreamScheduler streamScheduler;
+        @Nullable
+        private final FlowControlAutoTuning flowControlAutoTuning;
 
         DefaultH2ProtocolConfig(final Http2Settings h2Settings,
                                 final HttpHeadersFactory headersFactory,
@@ -193,7 +280,10 @@ public final class H2ProtocolConfigBuilder {
                                 @Nullable final UserDataLoggerConfig frameLoggerConfig,
                                 final KeepAlivePolicy keepAlivePolicy,
                                 final int flowControlQuantum,
-                                final int flowControlIncrement) {
+                                final int flowControlIncrement,
+                                final boolean pooledInboundBuffers,
+                                final StreamScheduler streamScheduler,
+                                @Nullable final FlowControlAutoTuning flowControlAutoTuning) {
             this.h2Settings = h2Settings;
             this.headersFactory = headersFactory;
             this.headersSensitivityDetector = headersSensitivityDetector;
@@ -201,6 +291,9 @@ public final class H2ProtocolConfigBuilder {
             this.keepAlivePolicy = keepAlivePolicy;
             this.flowControlQuantum = flowControlQuantum;
             this.flowControlIncrement = flowControlIncrement;
+            this.pooledInboundBuffers = pooledInboundBuffers;
+            this.streamScheduler = streamScheduler;
+            this.flowControlAutoTuning = flowControlAutoTuning;
         }
 
         @Override
@@ -239,6 +332,22 @@ public final class H2ProtocolConfigBuilder {
             return flowControlIncrement;
         }
 
+        @Override
+        public boolean pooledInboundBuffers() {
+            return pooledInboundBuffers;
+        }
+
+        @Override
+        public StreamScheduler streamScheduler() {
+            return streamScheduler;
+        }
+
+        @Nullable
+        @Override
+        public FlowControlAutoTuning flowControlAutoTuning() {
+            return flowControlAutoTuning;
+        }
+
         @Override
         public String toString() {
             return getClass().getSimpleName() +
@@ -250,7 +359,38 @@ public final class H2ProtocolConfigBuilder {
                     ", keepAlivePolicy=" + keepAlivePolicy +
                     ", flowControlQuantum=" + flowControlQuantum +
                     ", flowControlIncrement=" + flowControlIncrement +
+                    ", pooledInboundBuffers=" + pooledInboundBuffers +
+                    ", streamScheduler=" + streamScheduler +
+                    ", flowControlAutoTuning=" + flowControlAutoTuning +
                     ", h2Settings=" + h2Settings + '}';
         }
     }
+
+    private static final class DefaultFlowControlAutoTuning implements FlowControlAutoTuning {
+        private final int maxWindowSize;
+        private final Observer observer;
+
+        DefaultFlowControlAutoTuning(final int maxWindowSize, final Observer observer) {
+            this.maxWindowSize = maxWindowSize;
+            this.observer = observer;
+        }
+
+        @Override
+        public int maxWindowSize() {
+            return maxWindowSize;
+        }
+
+        @Override
+        public Observer observer() {
+            return observer;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() +
+                    "{maxWindowSize=" + maxWindowSize +
+                    ", observer=" + (observer == NOOP_FLOW_CONTROL_OBSERVER ? "NOOP" : observer.toString()) +
+                    '}';
+        }
+    }
 }
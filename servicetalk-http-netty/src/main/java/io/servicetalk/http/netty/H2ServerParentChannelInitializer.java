@@ -16,12 +16,14 @@
 package io.servicetalk.http.netty;
 
 import io.servicetalk.http.api.Http2Settings;
+import io.servicetalk.http.netty.H2ProtocolConfig.FlowControlAutoTuning;
 import io.servicetalk.logging.api.UserDataLoggerConfig;
 import io.servicetalk.transport.netty.internal.ChannelInitializer;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.http2.DefaultHttp2WindowUpdateFrame;
 import io.netty.handler.codec.http2.Http2CodecUtil;
 import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
@@ -30,6 +32,7 @@ import io.netty.handler.codec.http2.Http2StreamChannel;
 
 import javax.annotation.Nullable;
 
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_WINDOW_SIZE;
 import static io.servicetalk.logging.slf4j.internal.Slf4jFixedLevelLoggers.newLogger;
 
 final class H2ServerParentChannelInitializer implements ChannelInitializer {
@@ -49,7 +52,8 @@ final class H2ServerParentChannelInitializer implements ChannelInitializer {
     @Override
     public void init(final Channel channel) {
         final Http2FrameCodecBuilder multiplexCodecBuilder =
-                new OptimizedHttp2FrameCodecBuilder(true, config.flowControlQuantum())
+                new OptimizedHttp2FrameCodecBuilder(true, config.flowControlQuantum(),
+                        config.streamScheduler())
                 // We do not want close to trigger graceful closure (go away), instead when user triggers a graceful
                 // close, we do the appropriate go away handling.
                 .decoupleCloseAndGoAway(true)
@@ -70,11 +74,14 @@ final class H2ServerParentChannelInitializer implements ChannelInitializer {
 
         // TODO(scott): more configuration. header validation, etc...
 
-        channel.pipeline().addLast(multiplexCodecBuilder.build(), new Http2MultiplexHandler(streamChannelInitializer));
+        final ChannelPipeline pipeline = channel.pipeline();
+        pipeline.addLast(multiplexCodecBuilder.build());
+        initFlowControlWindowTuner(pipeline, config);
+        pipeline.addLast(new Http2MultiplexHandler(streamChannelInitializer));
         if (config.flowControlWindowIncrement() > 0) {
             // Must be after Http2ConnectionHandler does its initialization in handlerAdded above.
             // The server will not send a connection preface so we are good to send a window update.
-            channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+            pipeline.addLast(new ChannelInboundHandlerAdapter() {
                 @Override
                 public void channelActive(ChannelHandlerContext ctx) {
                     ctx.write(new DefaultHttp2WindowUpdateFrame(config.flowControlWindowIncrement()));
@@ -93,6 +100,23 @@ final class H2ServerParentChannelInitializer implements ChannelInitializer {
         }
     }
 
+    /**
+     * Adds {@link FlowControlWindowTuner} if {@link H2ProtocolConfig#flowControlAutoTuning()} is enabled. Must be
+     * called after {@link io.netty.handler.codec.http2.Http2FrameCodec} and before {@link Http2MultiplexHandler} are
+     * added to the {@link ChannelPipeline}.
+     *
+     * @param pipeline the {@link ChannelPipeline} of the parent channel.
+     * @param config the {@link H2ProtocolConfig} of the parent channel.
+     */
+    static void initFlowControlWindowTuner(final ChannelPipeline pipeline, final H2ProtocolConfig config) {
+        final FlowControlAutoTuning autoTuning = config.flowControlAutoTuning();
+        if (autoTuning != null) {
+            final Integer initialWindowSize = config.initialSettings().initialWindowSize();
+            pipeline.addLast(new FlowControlWindowTuner(autoTuning,
+                    initialWindowSize == null ? DEFAULT_WINDOW_SIZE : initialWindowSize));
+        }
+    }
+
     static io.netty.handler.codec.http2.Http2Settings toNettySettings(Http2Settings h2Settings) {
         io.netty.handler.codec.http2.Http2Settings nettySettings = new io.netty.handler.codec.http2.Http2Settings();
         h2Settings.forEach((identifier, value) -> {
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.netty.H2ProtocolConfig.StreamScheduler;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A factory to create {@link StreamScheduler} instances.
+ */
+public final class H2StreamSchedulers {
+    /**
+     * Default number of bytes a stream can write before it's no longer considered a small response.
+     */
+    static final int DEFAULT_SMALL_STREAM_THRESHOLD = 16 * 1024;
+    /**
+     * Use {@link H2ProtocolConfig#flowControlQuantum()} as the write quota.
+     */
+    static final int USE_FLOW_CONTROL_QUANTUM = -1;
+
+    private static final StreamScheduler UNIFORM =
+            new DefaultStreamScheduler(Algorithm.UNIFORM, USE_FLOW_CONTROL_QUANTUM, 0);
+    private static final StreamScheduler WEIGHTED_FAIR =
+            new DefaultStreamScheduler(Algorithm.WEIGHTED_FAIR, USE_FLOW_CONTROL_QUANTUM, 0);
+
+    private H2StreamSchedulers() {
+        // no instances.
+    }
+
+    /**
+     * Returns a {@link StreamScheduler} that gives every stream with pending data an equal share of the
+     * connection, in chunks of at least {@link H2ProtocolConfig#flowControlQuantum()} bytes. Stream priorities are
+     * ignored.
+     * <p>
+     * This is the default.
+     *
+     * @return a {@link StreamScheduler} that gives every stream with pending data an equal share of the connection.
+     */
+    public static StreamScheduler uniform() {
+        return UNIFORM;
+    }
+
+    /**
+     * Returns a {@link StreamScheduler} that uses weighted fair queuing over the
+     * <a href="https://datatracker.ietf.org/doc/html/rfc7540#section-5.3">stream priorities</a> signaled by the peer.
+     * Streams get {@link H2ProtocolConfig#flowControlQuantum()} bytes at a time.
+     * <p>
+     * This is useful only if the peer sends priority information. Without it, all streams have equal weight.
+     *
+     * @return a {@link StreamScheduler} that uses weighted fair queuing over the stream priorities.
+     */
+    public static StreamScheduler weightedFair() {
+        return WEIGHTED_FAIR;
+    }
+
+    /**
+     * Returns a deficit round-robin {@link StreamScheduler}. It gives small responses priority over bulk transfers
+     * on the same connection. The write quota per round is {@link H2ProtocolConfig#flowControlQuantum()}, and a
+     * stream is a small response until it has written 16 KiB.
+     *
+     * @return a deficit round-robin {@link StreamScheduler} which prioritizes small responses.
+     * @see #deficitRoundRobin(int, int)
+     */
+    public static StreamScheduler deficitRoundRobin() {
+        return new DefaultStreamScheduler(Algorithm.DEFICIT_ROUND_ROBIN, USE_FLOW_CONTROL_QUANTUM,
+                DEFAULT_SMALL_STREAM_THRESHOLD);
+    }
+
+    /**
+     * Returns a deficit round-robin {@link StreamScheduler} which prioritizes small responses over bulk transfers.
+     * <p>
+     * A stream that has written fewer than {@code smallStreamThreshold} bytes is written before all other streams.
+     * This keeps latency low for small responses, like unary gRPC calls, which share the connection with large
+     * streaming responses. The remaining bandwidth is shared round-robin. Each round, a stream can write its write
+     * quota, scaled by its <a href="https://datatracker.ietf.org/doc/html/rfc7540#section-5.3.2">priority
+     * weight</a> relative to the default weight.
+     *
+     * @param writeQuota the number of bytes a stream with the default priority weight can write per round.
+     * @param smallStreamThreshold the number of bytes a stream can write before it stops being a small response.
+     * {@code 0} disables the prioritization of small responses.
+     * @return a deficit round-robin {@link StreamScheduler} which prioritizes small responses.
+     */
+    public static StreamScheduler deficitRoundRobin(final int writeQuota, final int smallStreamThreshold) {
+        if (writeQuota <= 0) {
+            throw new IllegalArgumentException("writeQuota: " + writeQuota + " (expected >0)");
+        }
+        if (smallStreamThreshold < 0) {
+            throw new IllegalArgumentException("smallStreamThreshold: " + smallStreamThreshold + " (expected >=0)");
+        }
+        return new DefaultStreamScheduler(Algorithm.DEFICIT_ROUND_ROBIN, writeQuota, smallStreamThreshold);
+    }
+
+    static DefaultStreamScheduler validateStreamScheduler(final StreamScheduler scheduler) {
+        requireNonNull(scheduler, "scheduler");
+        if (!(scheduler instanceof DefaultStreamScheduler)) {
+            throw new IllegalArgumentException("Unsupported " + StreamScheduler.class.getSimpleName() + ": " +
+                    scheduler + " (expected an instance created by " + H2StreamSchedulers.class.getSimpleName() + ')');
+        }
+        return (DefaultStreamScheduler) scheduler;
+    }
+
+    enum Algorithm {
+        UNIFORM,
+        WEIGHTED_FAIR,
+        DEFICIT_ROUND_ROBIN
+    }
+
+    static final class DefaultStreamScheduler implements StreamScheduler {
+        private final Algorithm algorithm;
+        private final int writeQuota;
+        private final int smallStreamThreshold;
+
+        DefaultStreamScheduler(final Algorithm algorithm, final int writeQuota, final int smallStreamThreshold) {
+            this.algorithm = algorithm;
+            this.writeQuota = writeQuota;
+            this.smallStreamThreshold = smallStreamThreshold;
+        }
+
+        Algorithm algorithm() {
+            return algorithm;
+        }
+
+        int writeQuota(final int flowControlQuantum) {
+            return writeQuota == USE_FLOW_CONTROL_QUANTUM ? flowControlQuantum : writeQuota;
+        }
+
+        int smallStreamThreshold() {
+            return smallStreamThreshold;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() +
+                    "{algorithm=" + algorithm +
+                    ", writeQuota=" + (writeQuota == USE_FLOW_CONTROL_QUANTUM ? "flowControlQuantum" : writeQuota) +
+                    ", smallStreamThreshold=" + smallStreamThreshold +
+                    '}';
+        }
+    }
+}
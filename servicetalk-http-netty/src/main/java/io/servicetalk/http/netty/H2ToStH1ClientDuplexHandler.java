@@ -61,8 +61,8 @@ final class H2ToStH1ClientDuplexHandler extends AbstractH2DuplexHandler {
     private boolean waitForContinuation;
 
     H2ToStH1ClientDuplexHandler(boolean sslEnabled, BufferAllocator allocator, HttpHeadersFactory headersFactory,
-                                CloseHandler closeHandler, StreamObserver observer) {
-        super(allocator, headersFactory, closeHandler, observer);
+                                boolean pooledInboundBuffers, CloseHandler closeHandler, StreamObserver observer) {
+        super(allocator, headersFactory, pooledInboundBuffers, closeHandler, observer);
         this.scheme = sslEnabled ? HttpScheme.HTTPS : HttpScheme.HTTP;
     }
 
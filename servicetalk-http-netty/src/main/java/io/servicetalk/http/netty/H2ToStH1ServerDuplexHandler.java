@@ -53,8 +53,8 @@ final class H2ToStH1ServerDuplexHandler extends AbstractH2DuplexHandler {
     private boolean responseSent;
 
     H2ToStH1ServerDuplexHandler(BufferAllocator allocator, HttpHeadersFactory headersFactory,
-                                CloseHandler closeHandler, StreamObserver observer) {
-        super(allocator, headersFactory, closeHandler, observer);
+                                boolean pooledInboundBuffers, CloseHandler closeHandler, StreamObserver observer) {
+        super(allocator, headersFactory, pooledInboundBuffers, closeHandler, observer);
     }
 
     @Override
@@ -18,7 +18,6 @@ package io.servicetalk.http.netty;
 import io.servicetalk.http.api.HttpHeaders;
 
 import io.netty.handler.codec.http.HttpHeaderNames;
-import io.netty.handler.codec.http2.DefaultHttp2Headers;
 import io.netty.handler.codec.http2.Http2Headers;
 
 import java.util.ArrayList;
@@ -38,6 +37,7 @@ import static io.servicetalk.http.api.HttpHeaderValues.KEEP_ALIVE;
 import static io.servicetalk.http.netty.HeaderUtils.indexOf;
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.System.getProperty;
+import static java.util.Collections.emptyIterator;
 
 final class H2ToStH1Utils {
 
@@ -71,6 +71,9 @@ final class H2ToStH1Utils {
     static void h2HeadersCompressCookieCrumbs(Http2Headers h2Headers) {
         // Netty's value iterator doesn't return elements in insertion order, this is not strictly compliant with the
         // RFC and may result in reversed order cookies.
+        if (!h2Headers.contains(HttpHeaderNames.COOKIE)) {
+            return; // avoid allocation of the value iterator
+        }
         Iterator<? extends CharSequence> cookieItr = h2Headers.valueIterator(HttpHeaderNames.COOKIE);
         if (cookieItr.hasNext()) {
             CharSequence prevCookItr = cookieItr.next();
@@ -95,6 +98,9 @@ final class H2ToStH1Utils {
      * @param h1Headers The headers which may contain cookies.
      */
     static void h1HeadersSplitCookieCrumbs(HttpHeaders h1Headers) {
+        if (!h1Headers.contains(COOKIE)) {
+            return; // avoid allocation of the value iterator
+        }
         Iterator<? extends CharSequence> cookieItr = h1Headers.valuesIterator(COOKIE);
         // We want to avoid "concurrent modifications" of the headers while we are iterating. So we insert crumbs
         // into an intermediate collection and insert them after the split process concludes.
@@ -159,13 +165,15 @@ final class H2ToStH1Utils {
             if (h1Headers instanceof NettyH2HeadersToHttpHeaders) {
                 return ((NettyH2HeadersToHttpHeaders) h1Headers).nettyHeaders();
             }
-            return new DefaultHttp2Headers(false, 0);
+            return new FlatHttp2Headers(false, 0);
         }
 
         // H2 doesn't support connection headers, so remove each one, and the headers corresponding to the
         // connection value.
         // https://tools.ietf.org/html/rfc7540#section-8.1.2.2
-        Iterator<? extends CharSequence> connectionItr = h1Headers.valuesIterator(CONNECTION);
+        // The checks for presence of the header avoid allocation of value iterators in the common case.
+        Iterator<? extends CharSequence> connectionItr = h1Headers.contains(CONNECTION) ?
+                h1Headers.valuesIterator(CONNECTION) : emptyIterator();
         if (connectionItr.hasNext()) {
             do {
                 CharSequence connectionHeader = connectionItr.next();
@@ -196,7 +204,8 @@ final class H2ToStH1Utils {
 
         // TE header is treated specially https://tools.ietf.org/html/rfc7540#section-8.1.2.2
         // (only value of "trailers" is allowed).
-        Iterator<? extends CharSequence> teItr = h1Headers.valuesIterator(TE);
+        Iterator<? extends CharSequence> teItr = h1Headers.contains(TE) ?
+                h1Headers.valuesIterator(TE) : emptyIterator();
         boolean addTrailers = false;
         while (teItr.hasNext()) {
             final CharSequence teSequence = teItr.next();
@@ -242,14 +251,15 @@ final class H2ToStH1Utils {
         }
 
         if (h1Headers.isEmpty()) {
-            return new DefaultHttp2Headers(false, 0);
+            return new FlatHttp2Headers(false, 0);
         }
 
-        DefaultHttp2Headers http2Headers = new DefaultHttp2Headers(false);
+        // Reserve space for pseudo-header fields which are added later.
+        FlatHttp2Headers http2Headers = new FlatHttp2Headers(false, h1Headers.size() + 4);
         for (Map.Entry<CharSequence, CharSequence> h1Entry : h1Headers) {
             // header field names MUST be converted to lowercase prior to their encoding in HTTP/2
             // https://tools.ietf.org/html/rfc7540#section-8.1.2
-            http2Headers.add(h1Entry.getKey().toString().toLowerCase(), h1Entry.getValue());
+            http2Headers.addLowerCase(h1Entry.getKey(), h1Entry.getValue());
         }
         return http2Headers;
     }
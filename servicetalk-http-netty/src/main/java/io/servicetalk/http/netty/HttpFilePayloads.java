@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.netty.FileRegionBuffer;
+import io.servicetalk.concurrent.api.Publisher;
+
+import java.io.File;
+
+import static io.servicetalk.buffer.netty.BufferUtils.newFileRegionBuffer;
+import static io.servicetalk.concurrent.api.Publisher.defer;
+import static io.servicetalk.concurrent.api.Publisher.range;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Factory methods for payload bodies which are backed by files.
+ * <p>
+ * The returned payload bodies consist of {@link FileRegionBuffer}s. A cleartext HTTP/1.x connection writes them to the
+ * socket directly from the file (using {@code sendfile} where the transport supports it) without copying the content
+ * to the user space. With TLS or HTTP/2 the content is read using memory-mapped chunks. Filters which access the
+ * content (for example, compression) also cause the chunks to be memory-mapped.
+ * <p>
+ * The {@code content-length} header is not set automatically, set it to the size of the region to avoid the chunked
+ * transfer encoding.
+ */
+public final class HttpFilePayloads {
+
+    /**
+     * The default size of the chunks a file is split into.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private HttpFilePayloads() {
+        // No instances
+    }
+
+    /**
+     * Creates a payload body with the entire content of the passed {@link File}.
+     * <p>
+     * The length of the file is evaluated on every subscribe.
+     *
+     * @param file the {@link File} to read.
+     * @return a payload body with the entire content of the passed {@link File}.
+     */
+    public static Publisher<Buffer> filePayloadBody(final File file) {
+        requireNonNull(file);
+        return defer(() -> filePayloadBody(file, 0, file.length(), DEFAULT_CHUNK_SIZE).shareContextOnSubscribe());
+    }
+
+    /**
+     * Creates a payload body with the region of the passed {@link File}.
+     *
+     * @param file the {@link File} to read.
+     * @param position the position in the file where the region starts.
+     * @param count the number of bytes in the region.
+     * @return a payload body with the region of the passed {@link File}.
+     */
+    public static Publisher<Buffer> filePayloadBody(final File file, final long position, final long count) {
+        return filePayloadBody(file, position, count, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a payload body with the region of the passed {@link File}.
+     *
+     * @param file the {@link File} to read.
+     * @param position the position in the file where the region starts.
+     * @param count the number of bytes in the region.
+     * @param chunkSize the maximum number of bytes in each {@link Buffer} of the payload body. Larger chunks reduce
+     * the per-chunk overhead, smaller chunks allow finer grained flow control.
+     * @return a payload body with the region of the passed {@link File}.
+     */
+    public static Publisher<Buffer> filePayloadBody(final File file, final long position, final long count,
+                                                    final int chunkSize) {
+        requireNonNull(file);
+        if (position < 0) {
+            throw new IllegalArgumentException("position: " + position + " (expected >=0)");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("count: " + count + " (expected >=0)");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize: " + chunkSize + " (expected >0)");
+        }
+        final long chunks = (count + chunkSize - 1) / chunkSize;
+        if (chunks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("count: " + count + " is too large for chunkSize: " + chunkSize);
+        }
+        return range(0, (int) chunks).map(chunk -> {
+            final long offset = (long) chunk * chunkSize;
+            return newFileRegionBuffer(file, position + offset, (int) min(chunkSize, count - offset));
+        });
+    }
+}
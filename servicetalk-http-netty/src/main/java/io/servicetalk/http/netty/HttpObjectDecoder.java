@@ -61,7 +61,6 @@ import static io.netty.handler.codec.http.HttpConstants.CR;
 import static io.netty.handler.codec.http.HttpConstants.HT;
 import static io.netty.handler.codec.http.HttpConstants.LF;
 import static io.netty.handler.codec.http.HttpConstants.SP;
-import static io.netty.util.ByteProcessor.FIND_LF;
 import static io.servicetalk.buffer.api.CharSequences.emptyAsciiString;
 import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
 import static io.servicetalk.buffer.netty.BufferUtils.newBufferFrom;
@@ -79,6 +78,8 @@ import static io.servicetalk.http.api.HttpRequestMethod.GET;
 import static io.servicetalk.http.api.HttpResponseStatus.SWITCHING_PROTOCOLS;
 import static io.servicetalk.http.netty.HeaderUtils.removeTransferEncodingChunked;
 import static io.servicetalk.http.netty.HttpKeepAlive.shouldClose;
+import static io.servicetalk.http.netty.SwarUtils.findHeaderNameEnd;
+import static io.servicetalk.http.netty.SwarUtils.indexOf;
 import static java.lang.Character.isISOControl;
 import static java.lang.Character.isWhitespace;
 import static java.lang.Long.parseUnsignedLong;
@@ -109,7 +110,6 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         }
         throw new IllegalCharacterException(value, "VCHAR (0x21-0x7e)");
     };
-    private static final ByteProcessor FIND_COLON = value -> value != COLON;
     private static final ByteProcessor FIND_FIELD_VALUE = value -> {
         // Skip preceded and/or followed OWS
         if (isWS(value)) {
@@ -121,6 +121,9 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         throw new IllegalCharacterException(value, "HTAB / SP / VCHAR / obs-text");
     };
 
+    private static final String EXPECTED_TCHAR =
+            "! / # / $ / % / & / ' / * / + / - / . / ^ / _ / ` / | / ~ / DIGIT / ALPHA";
+
     private static final int MAX_HEX_CHARS_FOR_LONG = 16; // 0x7FFFFFFFFFFFFFFF == Long.MAX_INT
     private static final int CHUNK_DELIMETER_SIZE = 2; // CRLF
     private static final int MAX_ALLOWED_CHARS_TO_SKIP = CHUNK_DELIMETER_SIZE * 2; // Max allowed prefacing CRLF to skip
@@ -130,6 +133,7 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
     private final int maxHeaderFieldLength;
 
     private final HttpHeadersFactory headersFactory;
+    private final boolean validateNames;
     private final CloseHandler closeHandler;
     private final boolean allowPrematureClosureBeforePayloadBody;
     /**
@@ -188,6 +192,7 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
             throw new IllegalArgumentException("maxHeaderFieldLength: " + maxHeaderFieldLength + " (expected >0)");
         }
         this.headersFactory = requireNonNull(headersFactory);
+        this.validateNames = headersFactory.validateNames();
         this.maxStartLineLength = maxStartLineLength;
         this.maxHeaderFieldLength = maxHeaderFieldLength;
         this.allowPrematureClosureBeforePayloadBody = allowPrematureClosureBeforePayloadBody;
@@ -664,15 +669,28 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         // Additional checks will be done by header validator
 
         final int nameStart = buffer.readerIndex();
-        final int nameEnd = buffer.forEachByte(nameStart, nonControlIndex - nameStart + 1, FIND_COLON);
+        // Scan 8 bytes at a time for the colon, and for bytes which can not be part of a token at the same time.
+        int nameEnd = findHeaderNameEnd(buffer, nameStart, nonControlIndex + 1);
+        final byte invalidTchar;
+        if (nameEnd >= 0 && (invalidTchar = buffer.getByte(nameEnd)) != COLON) {
+            nameEnd = indexOf(buffer, nameEnd + 1, nonControlIndex + 1, COLON);
+            if (validateNames && nameEnd >= 0) {
+                // Fail before the headers validation does, without retaining a slice of the buffer.
+                throw invalidHeaderName(buffer.toString(nameStart, nameEnd - nameStart, US_ASCII), parsingLine,
+                        new IllegalCharacterException(invalidTchar, EXPECTED_TCHAR));
+            }
+        }
         if (nameEnd < 0) {
             throw newDecoderExceptionAtLine("Unable to find end of a header name in line ", parsingLine);
         }
         if (nameEnd == nameStart) {
             throw newDecoderExceptionAtLine("Empty header name in line ", parsingLine);
         }
-        // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
-        final CharSequence name = newAsciiString(newBufferFrom(buffer.retainedSlice(nameStart, nameEnd - nameStart)));
+        CharSequence name = KnownHeaderNames.find(buffer, nameStart, nameEnd - nameStart);
+        if (name == null) {
+            // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
+            name = newAsciiString(newBufferFrom(buffer.retainedSlice(nameStart, nameEnd - nameStart)));
+        }
         final CharSequence value;
         try {
             final int valueStart;
@@ -913,7 +931,7 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         if (fromIndex >= toIndex) {
             return -1;
         }
-        return buffer.forEachByte(fromIndex, toIndex - fromIndex, FIND_LF);
+        return indexOf(buffer, fromIndex, toIndex, LF);
     }
 
     private DecoderException newStartLineError(final String place) {
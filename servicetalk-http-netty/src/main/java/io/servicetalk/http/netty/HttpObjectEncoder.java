@@ -31,6 +31,7 @@
 package io.servicetalk.http.netty;
 
 import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.netty.FileRegionBuffer;
 import io.servicetalk.http.api.EmptyHttpHeaders;
 import io.servicetalk.http.api.HttpHeaderNames;
 import io.servicetalk.http.api.HttpHeaderValues;
@@ -43,6 +44,8 @@ import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.PromiseCombiner;
 
 import java.io.IOException;
@@ -68,6 +71,7 @@ import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
 import static io.servicetalk.http.api.HttpHeaderValues.CHUNKED;
 import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
 import static io.servicetalk.http.netty.HttpKeepAlive.shouldClose;
+import static io.servicetalk.transport.netty.internal.BuilderUtils.isFileRegionSupported;
 import static java.lang.Long.toHexString;
 import static java.lang.Math.max;
 import static java.nio.charset.StandardCharsets.US_ASCII;
@@ -213,7 +217,7 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelDuplexHa
                 if (state == 0) {
                     contentLenConsumed(ctx, promise);
                 }
-                ctx.write(encodeAndRetain(stBuffer), promise);
+                ctx.write(encodePayload(ctx, stBuffer), promise);
             }
         } else if (msg instanceof HttpHeaders) {
             final boolean isChunked = state == CONTENT_LEN_CHUNKED;
@@ -399,7 +403,7 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelDuplexHa
                 throw e;
             }
             promiseCombiner.add(ctx.write(buf));
-            promiseCombiner.add(ctx.write(encodeAndRetain(msg)));
+            promiseCombiner.add(ctx.write(encodePayload(ctx, msg)));
             promiseCombiner.add(ctx.write(CRLF_BUF.duplicate()));
         } else {
             assert contentLength == 0;
@@ -479,6 +483,17 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelDuplexHa
         }
     }
 
+    private static Object encodePayload(ChannelHandlerContext ctx, Buffer msg) {
+        if (msg instanceof FileRegionBuffer && ctx.pipeline().get(SslHandler.class) == null &&
+                isFileRegionSupported(ctx.channel())) {
+            // Cleartext connection, let the transport copy the file content to the socket in the kernel space
+            // (sendfile) instead of mapping it into the user space.
+            final FileRegionBuffer fileRegion = (FileRegionBuffer) msg;
+            return new DefaultFileRegion(fileRegion.file(), fileRegion.fileOffset(), fileRegion.readableBytes());
+        }
+        return encodeAndRetain(msg);
+    }
+
     static ByteBuf encodeAndRetain(Buffer msg) {
         // We still want to retain the objects we encode because otherwise folks may hold on to references of objects
         // with a 0 reference count and get an IllegalReferenceCountException.
@@ -74,6 +74,8 @@ final class KeepAliveManager {
     // Use the last digit (even or odd) to distinguish PING frames when frame logging is enabled.
     private static final long GRACEFUL_CLOSE_PING_CONTENT = ThreadLocalRandom.current().nextLong() | 0x01L; // odd
     private static final long KEEP_ALIVE_PING_CONTENT = ThreadLocalRandom.current().nextLong() & ~0x01L;    // even
+    // PING frames of FlowControlWindowTuner differ from keep-alive PING frames in the second to last bit.
+    static final long FLOW_CONTROL_PING_CONTENT = KEEP_ALIVE_PING_CONTENT ^ 0x02L;                         // even
 
     // Frame logging dumps data in hex format. An integer helps to understand the cause without decoding the content.
     static final ByteBuf LOCAL_GO_AWAY_CONTENT = staticByteBufFromAscii("0.local");
@@ -208,6 +210,7 @@ final class KeepAliveManager {
                 cancelIfStateIsAFuture(keepAliveState);
                 keepAliveState = null;
             }
+            // PING(ACK) frames with FLOW_CONTROL_PING_CONTENT are consumed by FlowControlWindowTuner.
         } else {
             // Send an ack for the received ping
             channel.writeAndFlush(new DefaultHttp2PingFrame(pingFrame.content(), true));
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_LANGUAGE;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.DATE;
+import static io.servicetalk.http.api.HttpHeaderNames.ETAG;
+import static io.servicetalk.http.api.HttpHeaderNames.EXPECT;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.LAST_MODIFIED;
+import static io.servicetalk.http.api.HttpHeaderNames.LOCATION;
+import static io.servicetalk.http.api.HttpHeaderNames.ORIGIN;
+import static io.servicetalk.http.api.HttpHeaderNames.PRAGMA;
+import static io.servicetalk.http.api.HttpHeaderNames.REFERER;
+import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
+import static io.servicetalk.http.api.HttpHeaderNames.SET_COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.UPGRADE;
+import static io.servicetalk.http.api.HttpHeaderNames.USER_AGENT;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static java.lang.Integer.highestOneBit;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Fast path for decoding well-known HTTP/1.x header field-names.
+ * <p>
+ * A received name which matches one of the known names byte by byte, either in lowercase or in the canonical form
+ * (like {@code Content-Length}), is replaced with a shared constant. This avoids retaining a slice of the inbound
+ * buffer and allocating a wrapper for every such header. Matching is case-sensitive, so the decoded name is always
+ * identical to the received one.
+ */
+final class KnownHeaderNames {
+    private static final CharSequence[] LOWERCASE_NAMES = {
+            ACCEPT, ACCEPT_ENCODING, ACCEPT_LANGUAGE, AUTHORIZATION, CACHE_CONTROL, CONNECTION, CONTENT_ENCODING,
+            CONTENT_LENGTH, CONTENT_TYPE, COOKIE, DATE, ETAG, EXPECT, HOST, IF_MODIFIED_SINCE, IF_NONE_MATCH,
+            LAST_MODIFIED, LOCATION, ORIGIN, PRAGMA, REFERER, SERVER, SET_COOKIE, TRANSFER_ENCODING,
+            UPGRADE, USER_AGENT, VARY
+    };
+    private static final String[] CANONICAL_NAMES = {
+            "Accept", "Accept-Encoding", "Accept-Language", "Authorization", "Cache-Control", "Connection",
+            "Content-Encoding", "Content-Length", "Content-Type", "Cookie", "Date", "ETag", "Expect", "Host",
+            "If-Modified-Since", "If-None-Match", "Last-Modified", "Location", "Origin", "Pragma",
+            "Referer", "Server", "Set-Cookie", "Transfer-Encoding", "Upgrade", "User-Agent", "Vary"
+    };
+
+    /**
+     * Open addressing table with linear probing, {@code null} slots are empty.
+     */
+    private static final byte[][] TABLE_BYTES;
+    /**
+     * The leading bytes of each name as little-endian words, to compare 8 bytes at a time.
+     */
+    private static final long[][] TABLE_WORDS;
+    private static final CharSequence[] TABLE_NAMES;
+    private static final int MASK;
+
+    static {
+        final int size = highestOneBit((LOWERCASE_NAMES.length + CANONICAL_NAMES.length) * 4 - 1) << 1;
+        TABLE_BYTES = new byte[size][];
+        TABLE_WORDS = new long[size][];
+        TABLE_NAMES = new CharSequence[size];
+        MASK = size - 1;
+        for (CharSequence name : LOWERCASE_NAMES) {
+            put(name);
+        }
+        for (String name : CANONICAL_NAMES) {
+            put(newAsciiString(name));
+        }
+    }
+
+    private KnownHeaderNames() {
+    }
+
+    private static void put(final CharSequence name) {
+        final byte[] bytes = name.toString().getBytes(US_ASCII);
+        int slot = hash(bytes[0], bytes[bytes.length - 1], bytes.length) & MASK;
+        while (TABLE_BYTES[slot] != null) {
+            slot = (slot + 1) & MASK;
+        }
+        final long[] words = new long[bytes.length / Long.BYTES];
+        for (int i = 0; i < words.length; ++i) {
+            for (int j = Long.BYTES - 1; j >= 0; --j) {
+                words[i] = (words[i] << 8) | (bytes[i * Long.BYTES + j] & 0xffL);
+            }
+        }
+        TABLE_BYTES[slot] = bytes;
+        TABLE_WORDS[slot] = words;
+        TABLE_NAMES[slot] = name;
+    }
+
+    /**
+     * Returns a shared constant for a well-known header field-name.
+     *
+     * @param buffer the buffer which contains the name.
+     * @param index the index of the first byte of the name.
+     * @param length the length of the name, must be greater than {@code 0}.
+     * @return a shared constant equal to the name, or {@code null} if the name is not well-known.
+     */
+    @Nullable
+    static CharSequence find(final ByteBuf buffer, final int index, final int length) {
+        int slot = hash(buffer.getByte(index), buffer.getByte(index + length - 1), length) & MASK;
+        byte[] bytes;
+        while ((bytes = TABLE_BYTES[slot]) != null) {
+            if (bytes.length == length && matches(buffer, index, bytes, TABLE_WORDS[slot])) {
+                return TABLE_NAMES[slot];
+            }
+            slot = (slot + 1) & MASK;
+        }
+        return null;
+    }
+
+    private static boolean matches(final ByteBuf buffer, int index, final byte[] bytes, final long[] words) {
+        for (long word : words) {
+            if (buffer.getLongLE(index) != word) {
+                return false;
+            }
+            index += Long.BYTES;
+        }
+        for (int i = words.length * Long.BYTES; i < bytes.length; ++i, ++index) {
+            if (buffer.getByte(index) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(final byte first, final byte last, final int length) {
+        final int hash = (length * 31 + first) * 31 + last;
+        return hash ^ (hash >>> 7);
+    }
+}
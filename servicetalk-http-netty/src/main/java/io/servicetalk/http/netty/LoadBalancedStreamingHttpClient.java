@@ -16,6 +16,7 @@
 package io.servicetalk.http.netty;
 
 import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.RequestTracker;
 import io.servicetalk.concurrent.api.Completable;
 import io.servicetalk.concurrent.api.Single;
 import io.servicetalk.concurrent.api.TerminalSignalConsumer;
@@ -46,6 +47,7 @@ import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import static io.servicetalk.client.api.RequestConcurrencyController.Result.Accepted;
+import static io.servicetalk.client.api.RequestTracker.REQUEST_TRACKER_KEY;
 import static io.servicetalk.context.api.ContextMap.Key.newKey;
 import static io.servicetalk.http.netty.AbstractLifecycleObserverHttpFilter.ON_CONNECTION_SELECTED_CONSUMER;
 import static io.servicetalk.http.netty.AbstractStreamingHttpConnection.requestExecutionStrategy;
@@ -91,6 +93,9 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
                 if (onStreamClosed != null) {
                     request.context().put(OnStreamClosedRunnable.KEY, onStreamClosed);
                 }
+                // Remove the tracker to make sure it does not leak to the next selection (retries, redirects).
+                final RequestTracker tracker = request.context().remove(REQUEST_TRACKER_KEY);
+                final long startTimeNs = tracker == null ? 0 : tracker.beforeStart();
                 return c.request(request)
                         .liftSync(new BeforeFinallyHttpOperator(new TerminalSignalConsumer() {
                             // Still check ownership of the `onStreamClosed` inside all terminal events to mitigate
@@ -101,6 +106,9 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
                                 if (onStreamClosed == null || onStreamClosed.own()) {
                                     c.requestFinished();
                                 }
+                                if (tracker != null) {
+                                    tracker.onSuccess(startTimeNs);
+                                }
                             }
 
                             @Override
@@ -108,11 +116,17 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
                                 if (onStreamClosed == null || onStreamClosed.own()) {
                                     c.requestFinished();
                                 }
+                                if (tracker != null) {
+                                    tracker.onError(startTimeNs, throwable);
+                                }
                             }
 
                             @Override
                             @SuppressWarnings("AssignmentToStaticFieldFromInstanceMethod")
                             public void cancel() {
+                                if (tracker != null) {
+                                    tracker.onCancel(startTimeNs);
+                                }
                                 // For HTTP/1.x cancellation is handled in AbstractStreamingHttpConnection.
                                 // For HTTP/2 cancellation is handled by OnStreamClosedRunnable owned by the actual
                                 // Stream. To avoid leaking the resource in case users wiped/modified the
@@ -157,9 +171,11 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
             final ContextMap context = metaData.context();
             final boolean forceNew = Boolean.TRUE.equals(context.get(HttpContextKeys.HTTP_FORCE_NEW_CONNECTION));
 
+            // Requests on reserved connections are not tracked, discard RequestTracker shared by the LoadBalancer.
             Single<FilterableStreamingHttpLoadBalancedConnection> connection = forceNew ?
                     loadBalancer.newConnection(context) :
-                    loadBalancer.selectConnection(SELECTOR_FOR_RESERVE, context);
+                    loadBalancer.selectConnection(SELECTOR_FOR_RESERVE, context)
+                            .beforeOnSuccess(__ -> context.remove(REQUEST_TRACKER_KEY));
 
             final HttpExecutionStrategy strategy = requestExecutionStrategy(metaData,
                     executionContext().executionStrategy());
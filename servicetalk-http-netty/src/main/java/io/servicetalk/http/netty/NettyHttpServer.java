@@ -15,6 +15,7 @@
  */
 package io.servicetalk.http.netty;
 
+import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.concurrent.Cancellable;
 import io.servicetalk.concurrent.CompletableSource;
 import io.servicetalk.concurrent.CompletableSource.Processor;
@@ -84,6 +85,7 @@ import javax.annotation.Nullable;
 import javax.net.ssl.SSLSession;
 
 import static io.servicetalk.buffer.netty.BufferUtils.getByteBufAllocator;
+import static io.servicetalk.buffer.netty.BufferUtils.release;
 import static io.servicetalk.concurrent.api.AsyncCloseables.newCompositeCloseable;
 import static io.servicetalk.concurrent.api.AsyncCloseables.toListenableAsyncCloseable;
 import static io.servicetalk.concurrent.api.Completable.defer;
@@ -198,6 +200,13 @@ final class NettyHttpServer {
         });
     }
 
+    private static void releaseIfBuffer(final Object item) {
+        // Discarded pooled memory (see H2ProtocolConfig#pooledInboundBuffers()) has to be given back to the pool.
+        if (item instanceof Buffer) {
+            release((Buffer) item);
+        }
+    }
+
     static final class NettyHttpServerContext implements HttpServerContext {
         private final ServerContext delegate;
         private final ListenableAsyncCloseable asyncCloseable;
@@ -401,7 +410,8 @@ final class NettyHttpServer {
                             // Discarding the request payload body is an operation which should not impact the state of
                             // request/response processing. It's appropriate to recover from any error here.
                             // ST may introduce RejectedSubscribeError if user already consumed the request payload body
-                            requestCompletion : request.messageBody().ignoreElements().onErrorComplete())
+                            requestCompletion : request.messageBody().beforeOnNext(NettyHttpServer::releaseIfBuffer)
+                                    .ignoreElements().onErrorComplete())
                             // No need to make a copy of the context in both cases.
                             .shareContextOnSubscribe()));
                 } else {
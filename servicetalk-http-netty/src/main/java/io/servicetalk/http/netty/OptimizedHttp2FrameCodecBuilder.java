@@ -15,12 +15,17 @@
  */
 package io.servicetalk.http.netty;
 
+import io.servicetalk.http.netty.H2ProtocolConfig.StreamScheduler;
+import io.servicetalk.http.netty.H2StreamSchedulers.DefaultStreamScheduler;
+
 import io.netty.handler.codec.http2.DefaultHttp2Connection;
 import io.netty.handler.codec.http2.DefaultHttp2RemoteFlowController;
 import io.netty.handler.codec.http2.Http2FrameCodec;
 import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
 import io.netty.handler.codec.http2.Http2RemoteFlowController;
+import io.netty.handler.codec.http2.StreamByteDistributor;
 import io.netty.handler.codec.http2.UniformStreamByteDistributor;
+import io.netty.handler.codec.http2.WeightedFairQueueByteDistributor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,12 +33,13 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.http.netty.H2StreamSchedulers.validateStreamScheduler;
 import static io.servicetalk.utils.internal.ThrowableUtils.throwException;
 import static java.lang.invoke.MethodType.methodType;
 
 /**
- * Optimized variant of {@link Http2FrameCodecBuilder} that allows us to use {@link UniformStreamByteDistributor}
- * for {@link Http2RemoteFlowController}.
+ * Optimized variant of {@link Http2FrameCodecBuilder} that allows us to choose the {@link StreamByteDistributor}
+ * for {@link Http2RemoteFlowController}, {@link UniformStreamByteDistributor} by default.
  */
 final class OptimizedHttp2FrameCodecBuilder extends Http2FrameCodecBuilder {
 
@@ -62,6 +68,7 @@ final class OptimizedHttp2FrameCodecBuilder extends Http2FrameCodecBuilder {
 
     private final boolean server;
     private final int flowControlQuantum;
+    private final DefaultStreamScheduler streamScheduler;
 
     /**
      * Creates a new instance.
@@ -69,10 +76,14 @@ final class OptimizedHttp2FrameCodecBuilder extends Http2FrameCodecBuilder {
      * @param server {@code true} if for server, {@code false} otherwise
      * @param flowControlQuantum a hint on the number of bytes that the flow controller will attempt to give to a
      * stream for each allocation.
+     * @param streamScheduler the {@link StreamScheduler} which selects the
+     * {@link StreamByteDistributor}.
      */
-    OptimizedHttp2FrameCodecBuilder(final boolean server, final int flowControlQuantum) {
+    OptimizedHttp2FrameCodecBuilder(final boolean server, final int flowControlQuantum,
+                                    final StreamScheduler streamScheduler) {
         this.server = server;
         this.flowControlQuantum = flowControlQuantum;
+        this.streamScheduler = validateStreamScheduler(streamScheduler);
         disableFlushPreface(FLUSH_PREFACE, this);
     }
 
@@ -84,13 +95,30 @@ final class OptimizedHttp2FrameCodecBuilder extends Http2FrameCodecBuilder {
     @Override
     public Http2FrameCodec build() {
         final DefaultHttp2Connection connection = new DefaultHttp2Connection(isServer(), maxReservedStreams());
-        UniformStreamByteDistributor distributor = new UniformStreamByteDistributor(connection);
-        distributor.minAllocationChunk(flowControlQuantum);
-        connection.remote().flowController(new DefaultHttp2RemoteFlowController(connection, distributor));
+        connection.remote().flowController(new DefaultHttp2RemoteFlowController(connection,
+                newDistributor(connection)));
         connection(connection);
         return super.build();
     }
 
+    private StreamByteDistributor newDistributor(final DefaultHttp2Connection connection) {
+        switch (streamScheduler.algorithm()) {
+            case UNIFORM:
+                final UniformStreamByteDistributor uniform = new UniformStreamByteDistributor(connection);
+                uniform.minAllocationChunk(flowControlQuantum);
+                return uniform;
+            case WEIGHTED_FAIR:
+                final WeightedFairQueueByteDistributor weightedFair = new WeightedFairQueueByteDistributor(connection);
+                weightedFair.allocationQuantum(flowControlQuantum);
+                return weightedFair;
+            case DEFICIT_ROUND_ROBIN:
+                return new DeficitRoundRobinStreamByteDistributor(connection,
+                        streamScheduler.writeQuota(flowControlQuantum), streamScheduler.smallStreamThreshold());
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + streamScheduler.algorithm());
+        }
+    }
+
     /**
      * We manage flushes at ST level and don't want netty to flush the preface & settings only. Instead, we write
      * headers or entire message and flush them all together. Netty changed the default flush behavior starting from
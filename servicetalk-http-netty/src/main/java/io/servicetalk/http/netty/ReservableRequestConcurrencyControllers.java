@@ -255,6 +255,18 @@ final class ReservableRequestConcurrencyControllers {
             };
         }
 
+        @Override
+        public final int activeRequests() {
+            final int pendingRequests = this.pendingRequests;
+            // A reserved or closing connection can't take more requests, report it as fully occupied.
+            return pendingRequests < 0 ? lastMaxConcurrency : pendingRequests;
+        }
+
+        @Override
+        public final int maxConcurrentRequests() {
+            return lastMaxConcurrency;
+        }
+
         final int lastMaxConcurrency() {
             return lastMaxConcurrency;
         }
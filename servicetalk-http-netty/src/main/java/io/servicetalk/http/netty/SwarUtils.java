@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+
+import static io.netty.handler.codec.http.HttpConstants.COLON;
+import static io.netty.handler.codec.http.HttpConstants.SP;
+import static java.lang.Long.numberOfTrailingZeros;
+
+/**
+ * SIMD within a register (SWAR) utilities to scan HTTP/1.x messages 8 bytes at a time.
+ * <p>
+ * Words are read in little-endian order, so the lowest set bit of a result mask corresponds to the first matching byte
+ * in the buffer. All masks are exact: they never flag a byte that doesn't match, even next to a matching one.
+ */
+final class SwarUtils {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_7_BITS = 0x7f7f7f7f7f7f7f7fL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long COLONS = ONES * COLON;
+    // Adding 0x5f to the low 7 bits of a byte sets its high bit if the byte is >= 0x21 ('!').
+    private static final long VISIBLE_OFFSET = ONES * (0x80 - 0x21);
+
+    private SwarUtils() {
+    }
+
+    /**
+     * Finds the first occurrence of {@code value} in the buffer.
+     *
+     * @param buffer the buffer to scan.
+     * @param fromIndex the first index to scan (inclusive).
+     * @param toIndex the last index to scan (exclusive).
+     * @param value the byte to find.
+     * @return the index of the first occurrence of {@code value}, or {@code -1} if not found.
+     */
+    static int indexOf(final ByteBuf buffer, int fromIndex, final int toIndex, final byte value) {
+        final long pattern = ONES * (value & 0xff);
+        for (final int wordsEnd = toIndex - Long.BYTES; fromIndex <= wordsEnd; fromIndex += Long.BYTES) {
+            final long mask = zeroBytes(buffer.getLongLE(fromIndex) ^ pattern);
+            if (mask != 0) {
+                return fromIndex + firstByte(mask);
+            }
+        }
+        for (; fromIndex < toIndex; ++fromIndex) {
+            if (buffer.getByte(fromIndex) == value) {
+                return fromIndex;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the end of a header field-name: the first colon, or the first byte which can not be part of a token
+     * because it is SP, HTAB, a control character, DEL or obs-text.
+     * <p>
+     * The remaining token delimiters (like {@code "} or {@code /}) are visible characters and are left to the
+     * {@link io.servicetalk.http.api.HttpHeaders} validation.
+     *
+     * @param buffer the buffer to scan.
+     * @param fromIndex the first index to scan (inclusive).
+     * @param toIndex the last index to scan (exclusive).
+     * @return the index of the first colon or invalid token character, or {@code -1} if not found.
+     */
+    static int findHeaderNameEnd(final ByteBuf buffer, int fromIndex, final int toIndex) {
+        for (final int wordsEnd = toIndex - Long.BYTES; fromIndex <= wordsEnd; fromIndex += Long.BYTES) {
+            final long word = buffer.getLongLE(fromIndex);
+            final long mask = zeroBytes(word ^ COLONS) | nonVisibleBytes(word);
+            if (mask != 0) {
+                return fromIndex + firstByte(mask);
+            }
+        }
+        for (; fromIndex < toIndex; ++fromIndex) {
+            final byte value = buffer.getByte(fromIndex);
+            // obs-text bytes are negative and therefore also less than or equal to SP.
+            if (value == COLON || value <= SP || value >= 0x7f) {
+                return fromIndex;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a mask with the high bit set for every zero byte of the word.
+     */
+    private static long zeroBytes(final long word) {
+        // Adding 0x7f to the low 7 bits sets the high bit of every byte which is not zero, without a carry into the
+        // next byte. Bytes with their own high bit set are excluded by or-ing the original word.
+        return ~(((word & LOW_7_BITS) + LOW_7_BITS) | word | LOW_7_BITS);
+    }
+
+    /**
+     * Returns a mask with the high bit set for every byte which is not a visible US-ASCII character (0x21-0x7e).
+     */
+    private static long nonVisibleBytes(final long word) {
+        final long low7Bits = word & LOW_7_BITS;
+        // High bit set if the byte is < 0x21 and is not obs-text:
+        final long control = ~((low7Bits + VISIBLE_OFFSET) | word) & HIGH_BITS;
+        // High bit set if the byte is DEL (0x7f) or obs-text:
+        final long delOrObsText = ((low7Bits + ONES) | word) & HIGH_BITS;
+        return control | delOrObsText;
+    }
+
+    private static int firstByte(final long mask) {
+        return numberOfTrailingZeros(mask) >>> 3;
+    }
+}
@@ -27,6 +27,8 @@ import io.servicetalk.http.api.StreamingHttpResponse;
 import io.servicetalk.transport.netty.internal.CloseHandler;
 import io.servicetalk.transport.netty.internal.NoopTransportObserver.NoopStreamObserver;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.embedded.EmbeddedChannel;
@@ -52,6 +54,9 @@ import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static io.servicetalk.buffer.api.EmptyBuffer.EMPTY_BUFFER;
 import static io.servicetalk.buffer.api.Matchers.contentEqualTo;
 import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferUtils.isReleasable;
+import static io.servicetalk.buffer.netty.BufferUtils.release;
+import static io.servicetalk.buffer.netty.BufferUtils.toByteBuf;
 import static io.servicetalk.concurrent.api.Publisher.from;
 import static io.servicetalk.http.api.HeaderUtils.isTransferEncodingChunked;
 import static io.servicetalk.http.api.HttpHeaderValues.ZERO;
@@ -67,6 +72,7 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -83,8 +89,8 @@ class AbstractH2DuplexHandlerTest {
 
         CLIENT_HANDLER {
             @Override
-            ChannelDuplexHandler handler(CloseHandler closeHandler) {
-                return new H2ToStH1ClientDuplexHandler(false, DEFAULT_ALLOCATOR, HEADERS_FACTORY,
+            ChannelDuplexHandler handler(CloseHandler closeHandler, boolean pooledInboundBuffers) {
+                return new H2ToStH1ClientDuplexHandler(false, DEFAULT_ALLOCATOR, HEADERS_FACTORY, pooledInboundBuffers,
                         closeHandler, NoopStreamObserver.INSTANCE);
             }
 
@@ -101,9 +107,9 @@ class AbstractH2DuplexHandlerTest {
         },
         SERVER_HANDLER {
             @Override
-            ChannelDuplexHandler handler(CloseHandler closeHandler) {
-                return new H2ToStH1ServerDuplexHandler(DEFAULT_ALLOCATOR, HEADERS_FACTORY, closeHandler,
-                        NoopStreamObserver.INSTANCE);
+            ChannelDuplexHandler handler(CloseHandler closeHandler, boolean pooledInboundBuffers) {
+                return new H2ToStH1ServerDuplexHandler(DEFAULT_ALLOCATOR, HEADERS_FACTORY, pooledInboundBuffers,
+                        closeHandler, NoopStreamObserver.INSTANCE);
             }
 
             @Override
@@ -117,7 +123,7 @@ class AbstractH2DuplexHandlerTest {
             }
         };
 
-        abstract ChannelDuplexHandler handler(CloseHandler closeHandler);
+        abstract ChannelDuplexHandler handler(CloseHandler closeHandler, boolean pooledInboundBuffers);
 
         abstract void writeOutbound(EmbeddedChannel channel);
 
@@ -128,7 +134,11 @@ class AbstractH2DuplexHandlerTest {
     private final CloseHandler closeHandler = mock(CloseHandler.class);
 
     void setUp(Variant variant) {
-        channel.pipeline().addLast(variant.handler(closeHandler));
+        setUp(variant, false);
+    }
+
+    void setUp(Variant variant, boolean pooledInboundBuffers) {
+        channel.pipeline().addLast(variant.handler(closeHandler, pooledInboundBuffers));
     }
 
     @AfterEach
@@ -323,6 +333,26 @@ class AbstractH2DuplexHandlerTest {
         assertThat(channel.inboundMessages(), is(empty()));
     }
 
+    @ParameterizedTest(name = "{displayName} [{index}] variant={0}")
+    @EnumSource(Variant.class)
+    void pooledInboundBuffers(Variant variant) {
+        setUp(variant, true);
+        variant.writeOutbound(channel);
+        String content = "hello";
+
+        channel.writeInbound(headersFrame(variant.setHeaders(new DefaultHttp2Headers()), false));
+        assertThat(channel.readInbound(), instanceOf(HttpMetaData.class));
+
+        ByteBuf pooled = writeAscii(PooledByteBufAllocator.DEFAULT, content);
+        channel.writeInbound(new DefaultHttp2DataFrame(pooled, true));
+        Buffer buffer = channel.readInbound();
+        assertThat(isReleasable(buffer), is(true));
+        assertThat(toByteBuf(buffer), is(sameInstance(pooled)));
+        assertThat(buffer, is(equalTo(DEFAULT_ALLOCATOR.fromAscii(content))));
+        assertThat(pooled.refCnt(), is(1));
+        assertThat(release(buffer), is(true));
+    }
+
     @ParameterizedTest(name = "{displayName} [{index}] variant={0}")
     @EnumSource(Variant.class)
     void singleHeadersFrameWithZeroContentLength(Variant variant) {
@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Stream;
+import io.netty.handler.codec.http2.StreamByteDistributor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+class DeficitRoundRobinStreamByteDistributorTest {
+    private static final int STREAM_A = 1;
+    private static final int STREAM_B = 3;
+    private static final int STREAM_C = 5;
+    private static final int QUOTA = 1000;
+    private static final int SMALL_STREAM_THRESHOLD = 100;
+
+    private final Http2Connection connection = new DefaultHttp2Connection(true);
+    private final DeficitRoundRobinStreamByteDistributor distributor =
+            new DeficitRoundRobinStreamByteDistributor(connection, QUOTA, SMALL_STREAM_THRESHOLD);
+    private final Map<Integer, Long> pendingBytes = new HashMap<>();
+    private final List<String> writes = new ArrayList<>();
+    private final StreamByteDistributor.Writer writer = (stream, numBytes) -> {
+        writes.add(stream.id() + ":" + numBytes);
+        final long pending = pendingBytes.get(stream.id()) - numBytes;
+        // Like DefaultHttp2RemoteFlowController, report the remaining bytes back to the distributor.
+        updateStream(stream, pending, pending > 0);
+    };
+
+    @Test
+    void smallStreamIsWrittenBeforeBulkStreams() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        addPendingBytes(a, 10_000);
+        assertThat(distributor.distribute(QUOTA, writer), is(true));
+        assertThat(writes, contains("1:100", "1:900"));
+        writes.clear();
+
+        final Http2Stream b = createStream(STREAM_B);
+        addPendingBytes(b, 50);
+        assertThat(distributor.distribute(QUOTA, writer), is(true));
+        assertThat(writes, contains("3:50", "1:950"));
+    }
+
+    @Test
+    void smallStreamIsCappedAtThreshold() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        final Http2Stream b = createStream(STREAM_B);
+        addPendingBytes(a, 10_000);
+        addPendingBytes(b, 10_000);
+        assertThat(distributor.distribute(2 * (SMALL_STREAM_THRESHOLD + QUOTA), writer), is(true));
+        assertThat(writes, contains("1:100", "3:100", "1:1000", "3:1000"));
+    }
+
+    @Test
+    void bulkStreamsShareBandwidthRoundRobin() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        final Http2Stream b = createStream(STREAM_B);
+        final Http2Stream c = createStream(STREAM_C);
+        addPendingBytes(a, 10_000);
+        addPendingBytes(b, 10_000);
+        addPendingBytes(c, 10_000);
+        distributor.distribute(3 * SMALL_STREAM_THRESHOLD, writer);
+        writes.clear();
+
+        assertThat(distributor.distribute(3 * QUOTA, writer), is(true));
+        assertThat(writes, contains("1:1000", "3:1000", "5:1000"));
+    }
+
+    @Test
+    void weightScalesWriteQuota() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        final Http2Stream b = createStream(STREAM_B);
+        distributor.updateDependencyTree(STREAM_A, 0, (short) 32, false);
+        addPendingBytes(a, 10_000);
+        addPendingBytes(b, 10_000);
+        distributor.distribute(2 * SMALL_STREAM_THRESHOLD, writer);
+        writes.clear();
+
+        assertThat(distributor.distribute(3 * QUOTA, writer), is(true));
+        assertThat(writes, contains("1:2000", "3:1000"));
+    }
+
+    @Test
+    void resumesWithNextStreamWhenBytesAreExhausted() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        final Http2Stream b = createStream(STREAM_B);
+        addPendingBytes(a, 10_000);
+        addPendingBytes(b, 10_000);
+        distributor.distribute(2 * SMALL_STREAM_THRESHOLD, writer);
+        writes.clear();
+
+        assertThat(distributor.distribute(QUOTA / 2, writer), is(true));
+        assertThat(distributor.distribute(QUOTA, writer), is(true));
+        assertThat(writes, contains("1:500", "3:1000"));
+    }
+
+    @Test
+    void unusedCreditIsCarriedOver() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        final Http2Stream b = createStream(STREAM_B);
+        addPendingBytes(a, 10_000);
+        addPendingBytes(b, 10_000);
+        distributor.distribute(2 * SMALL_STREAM_THRESHOLD, writer);
+        // Stream A writes only a part of its quota.
+        distributor.distribute(QUOTA / 2, writer);
+        writes.clear();
+
+        assertThat(distributor.distribute(4 * QUOTA, writer), is(true));
+        assertThat(writes, contains("3:1000", "1:1500"));
+    }
+
+    @Test
+    void unusedCreditIsCappedAtOneQuota() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        final Http2Stream b = createStream(STREAM_B);
+        addPendingBytes(a, 100_000);
+        addPendingBytes(b, 100_000);
+        distributor.distribute(2 * SMALL_STREAM_THRESHOLD, writer);
+        // The bytes available in each call are not a multiple of the quota, stream B gets only half of its quota.
+        for (int i = 0; i < 4; ++i) {
+            distributor.distribute(3 * QUOTA / 2, writer);
+        }
+        assertThat(writes.subList(writes.size() - 2, writes.size()), contains("1:1000", "3:500"));
+        writes.clear();
+
+        assertThat(distributor.distribute(4 * QUOTA, writer), is(true));
+        assertThat(writes, contains("1:1000", "3:2000"));
+    }
+
+    @Test
+    void drainedStreamsAreNotScheduled() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        final Http2Stream b = createStream(STREAM_B);
+        addPendingBytes(a, 50);
+        addPendingBytes(b, 150);
+        assertThat(distributor.distribute(QUOTA, writer), is(false));
+        assertThat(writes, contains("1:50", "3:100", "3:50"));
+        writes.clear();
+
+        assertThat(distributor.distribute(QUOTA, writer), is(false));
+        assertThat(writes.isEmpty(), is(true));
+    }
+
+    @Test
+    void frameWithoutBytesIsWrittenWhenNoBytesAreAvailable() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        pendingBytes.put(a.id(), 0L);
+        updateStream(a, 0, true);
+        assertThat(distributor.distribute(0, writer), is(false));
+        assertThat(writes, contains("1:0"));
+    }
+
+    @Test
+    void closedStreamIsRemoved() throws Exception {
+        final Http2Stream a = createStream(STREAM_A);
+        final Http2Stream b = createStream(STREAM_B);
+        addPendingBytes(a, 10_000);
+        addPendingBytes(b, 10_000);
+        a.close();
+        assertThat(distributor.distribute(QUOTA, writer), is(true));
+        assertThat(writes, contains("3:100", "3:900"));
+    }
+
+    private Http2Stream createStream(final int streamId) throws Http2Exception {
+        return connection.remote().createStream(streamId, false);
+    }
+
+    private void addPendingBytes(final Http2Stream stream, final long bytes) {
+        final long pending = pendingBytes.getOrDefault(stream.id(), 0L) + bytes;
+        updateStream(stream, pending, true);
+    }
+
+    private void updateStream(final Http2Stream stream, final long pending, final boolean hasFrame) {
+        pendingBytes.put(stream.id(), pending);
+        distributor.updateStreamableBytes(new StreamByteDistributor.StreamState() {
+            @Override
+            public Http2Stream stream() {
+                return stream;
+            }
+
+            @Override
+            public long pendingBytes() {
+                return pending;
+            }
+
+            @Override
+            public boolean hasFrame() {
+                return hasFrame;
+            }
+
+            @Override
+            public int windowSize() {
+                return Integer.MAX_VALUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.HttpHeaders;
+
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Headers;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map.Entry;
+
+import static io.netty.handler.codec.http2.Http2Headers.PseudoHeaderName.METHOD;
+import static io.netty.handler.codec.http2.Http2Headers.PseudoHeaderName.PATH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.netty.H2ToStH1Utils.h1HeadersToH2Headers;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FlatHttp2HeadersTest {
+
+    @Test
+    void pseudoHeadersPrecedeRegularHeaders() {
+        FlatHttp2Headers headers = new FlatHttp2Headers(true, 0);
+        headers.add("foo", "1");
+        headers.path("/");
+        headers.add("bar", "2");
+        headers.method("GET");
+        assertThat(names(headers), contains(":path", ":method", "foo", "bar"));
+
+        headers.path("/other");
+        assertThat(names(headers), contains(":method", ":path", "foo", "bar"));
+        assertThat(headers.path().toString(), is("/other"));
+        assertThat(headers.size(), is(4));
+    }
+
+    @Test
+    void wellKnownNamesAreInterned() {
+        FlatHttp2Headers headers = new FlatHttp2Headers(true, 4);
+        headers.add("content-type", "text/plain");
+        headers.add(new StringBuilder(":path"), "/");
+        assertThat(headers.iterator().next().getKey(), is(sameInstance(PATH.value())));
+        assertThat(headers.names(), contains(PATH.value(), CONTENT_TYPE));
+        assertThat(FlatHttp2Headers.internedName("x-custom"), is(nullValue()));
+    }
+
+    @Test
+    void lowerCaseNamesDoNotDependOnDefaultLocale() {
+        final Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr"));
+        try {
+            FlatHttp2Headers headers = new FlatHttp2Headers(true, 0);
+            headers.addLowerCase("X-ID", "1");
+            headers.addLowerCase("Content-Type", "text/plain");
+            assertThat(headers.get("x-id").toString(), is("1"));
+            assertThat(names(headers), contains("x-id", "content-type"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void multipleValuesKeepInsertionOrder() {
+        FlatHttp2Headers headers = new FlatHttp2Headers(true, 2);
+        headers.add("foo", "1");
+        headers.add("bar", "x");
+        headers.add("foo", "2");
+        headers.add("foo", "3");
+        assertThat(headers.get("foo").toString(), is("1"));
+        assertThat(strings(headers.getAll("foo")), contains("1", "2", "3"));
+        assertThat(headers.contains("foo", "2"), is(true));
+        assertThat(headers.contains("FOO", "2"), is(false));
+
+        assertThat(headers.getAndRemove("foo").toString(), is("1"));
+        assertThat(headers.size(), is(1));
+        assertThat(headers.get("bar").toString(), is("x"));
+        assertThat(headers.getAndRemove("foo"), is(nullValue()));
+    }
+
+    @Test
+    void valueIteratorRemove() {
+        FlatHttp2Headers headers = new FlatHttp2Headers(true, 0);
+        headers.add("foo", "1");
+        headers.add("bar", "x");
+        headers.add("foo", "2");
+        headers.add("foo", "3");
+        Iterator<CharSequence> itr = headers.valueIterator("foo");
+        List<String> values = new ArrayList<>();
+        while (itr.hasNext()) {
+            CharSequence value = itr.next();
+            values.add(value.toString());
+            if (!"3".contentEquals(value)) {
+                itr.remove();
+            }
+        }
+        assertThat(values, contains("1", "2", "3"));
+        assertThat(names(headers), contains("bar", "foo"));
+    }
+
+    @Test
+    void entryIteratorRemove() {
+        FlatHttp2Headers headers = new FlatHttp2Headers(true, 0);
+        headers.method("GET");
+        headers.add("foo", "1");
+        headers.add("bar", "2");
+        Iterator<Entry<CharSequence, CharSequence>> itr = headers.iterator();
+        while (itr.hasNext()) {
+            if (itr.next().getKey().length() == 3) {
+                itr.remove();
+            }
+        }
+        assertThat(names(headers), contains(":method"));
+        assertThat(headers.method().toString(), is("GET"));
+    }
+
+    @Test
+    void invalidNames() {
+        FlatHttp2Headers headers = new FlatHttp2Headers(true, 0);
+        assertThrows(Http2Exception.class, () -> headers.add("Foo", "1"));
+        assertThrows(Http2Exception.class, () -> headers.add("", "1"));
+        assertThrows(Http2Exception.class, () -> headers.add("foo bar", "1"));
+        assertThrows(Http2Exception.class, () -> headers.add("foo:bar", "1"));
+        assertThrows(Http2Exception.class, () -> headers.add("foo\r\n", "1"));
+        assertThrows(Http2Exception.class, () -> headers.add("f\u00f6o", "1"));
+        assertThrows(Http2Exception.class, () -> headers.add(":foo", "1"));
+        assertThrows(Http2Exception.class, () -> headers.set(":foo", "1"));
+        assertThat(headers.isEmpty(), is(true));
+        headers.add("x-foo_bar.1~", "1");
+        headers.add(":path", "/");
+        assertThat(names(headers), contains(":path", "x-foo_bar.1~"));
+
+        FlatHttp2Headers nonValidating = new FlatHttp2Headers(false, 0);
+        nonValidating.add("Foo", "1");
+        assertThat(nonValidating.get("Foo").toString(), is("1"));
+    }
+
+    @Test
+    void h1HeadersAreConvertedToLowerCase() {
+        HttpHeaders h1Headers = DefaultHttpHeadersFactory.INSTANCE.newHeaders();
+        h1Headers.add("Content-Type", "text/plain");
+        h1Headers.add("X-Custom", "value");
+        h1Headers.add("Connection", "X-Remove");
+        h1Headers.add("X-Remove", "value");
+        h1Headers.add(COOKIE, "a=b; c=d");
+        Http2Headers h2Headers = h1HeadersToH2Headers(h1Headers);
+        assertThat(h2Headers, is(instanceOf(FlatHttp2Headers.class)));
+        h2Headers.method("GET");
+        assertThat(names(h2Headers), containsInAnyOrder(":method", "content-type", "x-custom", "cookie", "cookie"));
+        assertThat(h2Headers.iterator().next().getKey(), is(sameInstance(METHOD.value())));
+        assertThat(h2Headers.contains(CONTENT_TYPE, "text/plain"), is(true));
+        assertThat(strings(h2Headers.getAll(COOKIE)), contains("a=b", "c=d"));
+    }
+
+    @Test
+    void h2HeadersFactoryUsesFlatHeaders() {
+        HttpHeaders headers = H2HeadersFactory.INSTANCE.newHeaders();
+        headers.add(CONTENT_TYPE, "text/plain");
+        assertThat(((NettyH2HeadersToHttpHeaders) headers).nettyHeaders(), is(instanceOf(FlatHttp2Headers.class)));
+        assertThat(h1HeadersToH2Headers(headers).get(CONTENT_TYPE).toString(), is("text/plain"));
+    }
+
+    private static List<String> names(Http2Headers headers) {
+        List<String> names = new ArrayList<>(headers.size());
+        for (Entry<CharSequence, CharSequence> entry : headers) {
+            names.add(entry.getKey().toString());
+        }
+        return names;
+    }
+
+    private static List<String> strings(List<CharSequence> values) {
+        List<String> strings = new ArrayList<>(values.size());
+        for (CharSequence value : values) {
+            strings.add(value.toString());
+        }
+        return strings;
+    }
+}
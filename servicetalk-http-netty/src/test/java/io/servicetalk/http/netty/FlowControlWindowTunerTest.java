@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.netty.H2ProtocolConfig.FlowControlAutoTuning;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import io.netty.handler.codec.http2.DefaultHttp2PingFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2PingFrame;
+import io.netty.handler.codec.http2.Http2SettingsFrame;
+import io.netty.handler.codec.http2.Http2WindowUpdateFrame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h2;
+import static io.servicetalk.http.netty.KeepAliveManager.FLOW_CONTROL_PING_CONTENT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class FlowControlWindowTunerTest {
+    private static final int INITIAL_WINDOW_SIZE = 1000;
+
+    private final List<String> windowChanges = new ArrayList<>();
+    private long nanoTime;
+    private EmbeddedChannel channel = newChannel(10_000);
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void growsWindowsWhenLimitedByWindow() {
+        receiveData(800);
+        assertPingSent();
+
+        nanoTime += MILLISECONDS.toNanos(10);
+        receivePingAck(FLOW_CONTROL_PING_CONTENT);
+        assertThat("PING(ACK) must not be propagated", channel.readInbound(), is(nullValue()));
+        assertWindowsGrownBy(600, 1600);
+        assertThat(windowChanges, contains("1000->1600 bandwidth=80000 rtt=PT0.01S"));
+    }
+
+    @Test
+    void doesNotGrowWindowsWhenNotLimitedByWindow() {
+        receiveData(600);
+        assertPingSent();
+        nanoTime += MILLISECONDS.toNanos(10);
+        receivePingAck(FLOW_CONTROL_PING_CONTENT);
+        assertThat(channel.readOutbound(), is(nullValue()));
+        assertThat(windowChanges.isEmpty(), is(true));
+    }
+
+    @Test
+    void countsDataUntilPingAck() {
+        receiveData(400);
+        assertPingSent();
+        receiveData(400);
+        assertThat("Only one PING at a time", channel.readOutbound(), is(nullValue()));
+        nanoTime += MILLISECONDS.toNanos(10);
+        receivePingAck(FLOW_CONTROL_PING_CONTENT);
+        assertWindowsGrownBy(600, 1600);
+    }
+
+    @Test
+    void growsOnlyWhenBandwidthIncreases() {
+        receiveData(800);
+        assertPingSent();
+        nanoTime += MILLISECONDS.toNanos(10);
+        receivePingAck(FLOW_CONTROL_PING_CONTENT);
+        assertWindowsGrownBy(600, 1600);
+
+        // The same amount of data within a longer RTT doesn't indicate a window limit.
+        receiveData(1500);
+        assertPingSent();
+        nanoTime += MILLISECONDS.toNanos(20);
+        receivePingAck(FLOW_CONTROL_PING_CONTENT);
+        assertThat(channel.readOutbound(), is(nullValue()));
+
+        receiveData(1500);
+        assertPingSent();
+        nanoTime += MILLISECONDS.toNanos(10);
+        receivePingAck(FLOW_CONTROL_PING_CONTENT);
+        assertWindowsGrownBy(1400, 3000);
+        assertThat(windowChanges.size(), is(2));
+    }
+
+    @Test
+    void windowsDoNotExceedMaxWindowSize() {
+        channel.finishAndReleaseAll();
+        channel = newChannel(1200);
+        receiveData(1000);
+        assertPingSent();
+        nanoTime += MILLISECONDS.toNanos(10);
+        receivePingAck(FLOW_CONTROL_PING_CONTENT);
+        assertWindowsGrownBy(200, 1200);
+
+        // No more measurements once the maximum is reached.
+        receiveData(1000);
+        assertThat(channel.readOutbound(), is(nullValue()));
+    }
+
+    @Test
+    void otherPingAcksArePropagated() {
+        receivePingAck(FLOW_CONTROL_PING_CONTENT + 1);
+        final Object ack = channel.readInbound();
+        assertThat(ack, is(instanceOf(Http2PingFrame.class)));
+        assertThat(((Http2PingFrame) ack).content(), is(FLOW_CONTROL_PING_CONTENT + 1));
+    }
+
+    private EmbeddedChannel newChannel(final int maxWindowSize) {
+        final FlowControlAutoTuning autoTuning = h2()
+                .flowControlAutoTuning(maxWindowSize, (oldWindowSize, newWindowSize, bandwidth, rtt) ->
+                        windowChanges.add(oldWindowSize + "->" + newWindowSize + " bandwidth=" + bandwidth +
+                                " rtt=" + rtt))
+                .build().flowControlAutoTuning();
+        assert autoTuning != null;
+        return new EmbeddedChannel(new FlowControlWindowTuner(autoTuning, INITIAL_WINDOW_SIZE, () -> nanoTime));
+    }
+
+    private void receiveData(final int bytes) {
+        channel.writeInbound(new DefaultHttp2DataFrame(wrappedBuffer(new byte[bytes])));
+        final Http2DataFrame data = channel.readInbound();
+        assertThat("DATA must be propagated", data.content().readableBytes(), is(bytes));
+        data.release();
+    }
+
+    private void receivePingAck(final long content) {
+        channel.writeInbound(new DefaultHttp2PingFrame(content, true));
+    }
+
+    private void assertPingSent() {
+        final Object ping = channel.readOutbound();
+        assertThat(ping, is(instanceOf(Http2PingFrame.class)));
+        assertThat(((Http2PingFrame) ping).ack(), is(false));
+        assertThat(((Http2PingFrame) ping).content(), is(FLOW_CONTROL_PING_CONTENT));
+    }
+
+    private void assertWindowsGrownBy(final int increment, final int windowSize) {
+        final Object windowUpdate = channel.readOutbound();
+        assertThat(windowUpdate, is(instanceOf(Http2WindowUpdateFrame.class)));
+        assertThat(((Http2WindowUpdateFrame) windowUpdate).windowSizeIncrement(), is(increment));
+        final Object settings = channel.readOutbound();
+        assertThat(settings, is(instanceOf(Http2SettingsFrame.class)));
+        assertThat(((Http2SettingsFrame) settings).settings().initialWindowSize(), is(windowSize));
+        assertThat(channel.readOutbound(), is(nullValue()));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.http.api.HttpServerBuilder;
+import io.servicetalk.http.api.SingleAddressHttpClientBuilder;
+import io.servicetalk.test.resources.DefaultTestCerts;
+import io.servicetalk.transport.api.ClientSslConfigBuilder;
+import io.servicetalk.transport.api.ServerContext;
+import io.servicetalk.transport.api.ServerSslConfigBuilder;
+
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.http.netty.HttpFilePayloads.filePayloadBody;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h1Default;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h2Default;
+import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
+import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class HttpFilePayloadsTest {
+
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest(name = "{displayName} [{index}] h2={0} ssl={1} chunked={2}")
+    @CsvSource(value = {
+            "false, false, false", "false, false, true",
+            "false, true, false", "false, true, true",
+            "true, false, false", "true, true, false"
+    })
+    void fileRegionIsWritten(boolean h2, boolean ssl, boolean chunked) throws Exception {
+        final File file = Files.write(tempDir.resolve("content.txt"), CONTENT.getBytes(US_ASCII)).toFile();
+        final long position = 3;
+        final long count = CONTENT.length() - 5;
+        final HttpServerBuilder serverBuilder = HttpServers.forAddress(localAddress(0))
+                .protocols(h2 ? h2Default() : h1Default());
+        if (ssl) {
+            serverBuilder.sslConfig(new ServerSslConfigBuilder(DefaultTestCerts::loadServerPem,
+                    DefaultTestCerts::loadServerKey).build());
+        }
+        try (ServerContext serverContext = serverBuilder.listenStreamingAndAwait((ctx, request, responseFactory) -> {
+                    if (chunked) {
+                        return succeeded(responseFactory.ok()
+                                .payloadBody(filePayloadBody(file, position, count, 4)));
+                    }
+                    return succeeded(responseFactory.ok()
+                            .setHeader(CONTENT_LENGTH, Long.toString(count))
+                            .payloadBody(filePayloadBody(file, position, count, 4)));
+                })) {
+            final SingleAddressHttpClientBuilder<?, ?> clientBuilder =
+                    HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                            .protocols(h2 ? h2Default() : h1Default());
+            if (ssl) {
+                clientBuilder.sslConfig(new ClientSslConfigBuilder(InsecureTrustManagerFactory.INSTANCE).build());
+            }
+            try (BlockingHttpClient client = clientBuilder.buildBlocking()) {
+                HttpResponse response = client.request(client.get("/"));
+                assertThat(response.status(), is(OK));
+                if (!h2) {
+                    assertThat(response.headers().contains(TRANSFER_ENCODING), is(chunked));
+                }
+                assertThat(response.payloadBody().toString(US_ASCII),
+                        is(CONTENT.substring((int) position, (int) (position + count))));
+            }
+        }
+    }
+}
@@ -27,20 +27,30 @@ import io.netty.incubator.channel.uring.IOUring;
 import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.servicetalk.concurrent.api.Single.succeeded;
 import static io.servicetalk.http.api.HttpExecutionStrategies.defaultStrategy;
 import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
 import static io.servicetalk.http.api.HttpResponseStatus.OK;
 import static io.servicetalk.http.api.HttpSerializers.textSerializerUtf8;
+import static io.servicetalk.http.netty.HttpFilePayloads.filePayloadBody;
 import static io.servicetalk.http.netty.TestServiceStreaming.SVC_ECHO;
 import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
 import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.junit.jupiter.api.condition.OS.LINUX;
@@ -97,4 +107,39 @@ class IoUringTest {
             }
         }
     }
+
+    @Test
+    @EnabledOnOs(MAC)
+    void explicitIoUringIoExecutorFailsOnMacOs() {
+        assertThrows(IllegalStateException.class, () -> NettyIoExecutors.createIoUringIoExecutor(1, "io-uring"));
+    }
+
+    @Test
+    @EnabledOnOs(LINUX)
+    void explicitIoUringIoExecutor(@TempDir Path tempDir) throws Exception {
+        assumeTrue(IOUring.isAvailable(), "io_uring is unavailable on " +
+                System.getProperty("os.name") + ' ' + System.getProperty("os.version"));
+        final File file = Files.write(tempDir.resolve("content.txt"), "bonjour!".getBytes(UTF_8)).toFile();
+        // Does not require IoUringUtils.tryIoUring(true)
+        EventLoopAwareNettyIoExecutor ioUringExecutor = NettyIoExecutors.createIoUringIoExecutor(2, "io-uring");
+        try {
+            assertThat(ioUringExecutor.eventLoopGroup(), is(instanceOf(IOUringEventLoopGroup.class)));
+            assertFalse(ioUringExecutor.isUnixDomainSocketSupported());
+
+            try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                    .ioExecutor(ioUringExecutor)
+                    .listenStreamingAndAwait((ctx, request, responseFactory) -> succeeded(responseFactory.ok()
+                            .setHeader(CONTENT_LENGTH, Long.toString(file.length()))
+                            .payloadBody(filePayloadBody(file))));
+                 BlockingHttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                         .ioExecutor(ioUringExecutor)
+                         .buildBlocking()) {
+                HttpResponse response = client.request(client.get("/"));
+                assertThat(response.status(), is(OK));
+                assertThat(response.payloadBody(textSerializerUtf8()), is("bonjour!"));
+            }
+        } finally {
+            ioUringExecutor.closeAsync().toFuture().get();
+        }
+    }
 }
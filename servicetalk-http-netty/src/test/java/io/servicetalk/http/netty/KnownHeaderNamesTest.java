@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.annotation.Nullable;
+
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+class KnownHeaderNamesTest {
+
+    @ParameterizedTest(name = "{displayName} [{index}] name={0}")
+    @ValueSource(strings = {"host", "Host", "content-length", "Content-Length", "If-Modified-Since", "ETag", "vary"})
+    void knownNames(String name) {
+        CharSequence found = find("xx" + name + ": value", 2, name.length());
+        assertThat(found, is(notNullValue()));
+        assertThat(found.toString(), is(name));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] name={0}")
+    @ValueSource(strings = {"HOST", "content-Length", "x-custom", "Content-Lengt", "Content-Lengthy", "a"})
+    void unknownNames(String name) {
+        assertThat(find(name + ": value", 0, name.length()), is(nullValue()));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] name={0}")
+    @ValueSource(strings = {"content-length", "transfer-encoding"})
+    void lowercaseNamesAreSharedConstants(String name) {
+        CharSequence expected = name.equals("content-length") ? CONTENT_LENGTH : TRANSFER_ENCODING;
+        assertThat(find(name, 0, name.length()), is(sameInstance(expected)));
+    }
+
+    @Nullable
+    private static CharSequence find(String content, int index, int length) {
+        ByteBuf buffer = wrappedBuffer(content.getBytes(US_ASCII));
+        return KnownHeaderNames.find(buffer, index, length);
+    }
+}
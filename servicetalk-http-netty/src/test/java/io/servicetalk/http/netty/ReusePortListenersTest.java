@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.transport.api.ServerContext;
+import io.servicetalk.transport.netty.internal.EventLoopAwareNettyIoExecutor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.transport.api.ServiceTalkSocketOptions.REUSEPORT_LISTENERS;
+import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
+import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static io.servicetalk.transport.netty.internal.BuilderUtils.reusePortOption;
+import static io.servicetalk.transport.netty.internal.NettyIoExecutors.createIoExecutor;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ReusePortListenersTest {
+
+    private static final int IO_THREADS = 4;
+    private static final int CONNECTIONS = 32;
+
+    private final EventLoopAwareNettyIoExecutor ioExecutor = createIoExecutor(IO_THREADS, "reuse-port-io");
+    private final Set<String> ioThreads = ConcurrentHashMap.newKeySet();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ioExecutor.closeAsync().toFuture().get();
+    }
+
+    @Test
+    void connectionsAreDistributedBetweenListeners() throws Exception {
+        assumeTrue(reusePortOption(ioExecutor.eventLoopGroup()) != null,
+                "SO_REUSEPORT is not supported by " + ioExecutor.eventLoopGroup());
+        ServerContext serverContext = startServer(0);
+        try {
+            for (int i = 0; i < CONNECTIONS; ++i) {
+                sendRequest(serverContext);
+            }
+            // The kernel hashes connections between listeners, it is highly unlikely all of them land on one listener.
+            assertThat(ioThreads.size(), is(greaterThan(1)));
+        } finally {
+            serverContext.closeGracefully();
+        }
+        // All listeners are closed, new connections must be refused.
+        for (int i = 0; i < CONNECTIONS; ++i) {
+            assertThrows(Exception.class, () -> sendRequest(serverContext));
+        }
+    }
+
+    @Test
+    void singleListenerDistributesConnectionsBetweenIoThreads() throws Exception {
+        try (ServerContext serverContext = startServer(1)) {
+            for (int i = 0; i < CONNECTIONS; ++i) {
+                sendRequest(serverContext);
+            }
+            assertThat(ioThreads, hasSize(IO_THREADS));
+        }
+    }
+
+    @Test
+    void invalidListeners() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServers.forAddress(localAddress(0))
+                .listenSocketOption(REUSEPORT_LISTENERS, -1));
+    }
+
+    private ServerContext startServer(final int listeners) throws Exception {
+        return HttpServers.forAddress(localAddress(0))
+                .ioExecutor(ioExecutor)
+                .executionStrategy(offloadNone())
+                .listenSocketOption(REUSEPORT_LISTENERS, listeners)
+                .listenAndAwait((ctx, request, responseFactory) -> {
+                    ioThreads.add(Thread.currentThread().getName());
+                    return succeeded(responseFactory.ok());
+                });
+    }
+
+    private void sendRequest(final ServerContext serverContext) throws Exception {
+        // A new client for every request opens a new connection.
+        try (BlockingHttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                .buildBlocking()) {
+            HttpResponse response = client.request(client.get("/"));
+            assertThat(response.status(), is(OK));
+        }
+    }
+}
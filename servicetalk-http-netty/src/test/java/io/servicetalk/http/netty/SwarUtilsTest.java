@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static io.netty.handler.codec.http.HttpConstants.COLON;
+import static io.netty.handler.codec.http.HttpConstants.LF;
+import static io.servicetalk.http.netty.SwarUtils.findHeaderNameEnd;
+import static io.servicetalk.http.netty.SwarUtils.indexOf;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class SwarUtilsTest {
+
+    @Test
+    void indexOfWithinWordsAndTail() {
+        ByteBuf buffer = buffer("0123456789abcdef\nxyz\n");
+        assertThat(indexOf(buffer, 0, buffer.writerIndex(), LF), is(16));
+        assertThat(indexOf(buffer, 17, buffer.writerIndex(), LF), is(20));
+        assertThat(indexOf(buffer, 17, 20, LF), is(-1));
+        assertThat(indexOf(buffer, 3, 3, LF), is(-1));
+        assertThat(indexOf(buffer, 0, buffer.writerIndex(), (byte) '0'), is(0));
+    }
+
+    @Test
+    void indexOfMatchesByteByByteScan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 1000; ++i) {
+            byte[] bytes = new byte[random.nextInt(1, 40)];
+            random.nextBytes(bytes);
+            ByteBuf buffer = wrappedBuffer(bytes);
+            int from = random.nextInt(bytes.length);
+            byte value = bytes[random.nextInt(bytes.length)];
+            assertThat(indexOf(buffer, from, bytes.length, value),
+                    is(buffer.indexOf(from, bytes.length, value)));
+        }
+    }
+
+    @Test
+    void headerNameEnd() {
+        assertHeaderNameEnd("content-length: 0", 14);
+        assertHeaderNameEnd("Host: servicetalk.io", 4);
+        assertHeaderNameEnd("x-a-very-long-header-name-that-spans-words: 1", 42);
+        assertHeaderNameEnd("Host : servicetalk.io", 4);
+        assertHeaderNameEnd(" Host: servicetalk.io", 0);
+        assertHeaderNameEnd("content\tlength: 3", 7);
+        assertHeaderNameEnd("content-length\u007f: 3", 14);
+        assertHeaderNameEnd("Hóst-and-some-more: servicetalk.io", 1);
+        assertHeaderNameEnd("H\0st: servicetalk.io", 1);
+        assertHeaderNameEnd("no-colon", -1);
+    }
+
+    @Test
+    void headerNameEndMatchesByteByByteScan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 1000; ++i) {
+            byte[] bytes = new byte[random.nextInt(1, 40)];
+            for (int j = 0; j < bytes.length; ++j) {
+                bytes[j] = random.nextInt(8) == 0 ? COLON : (byte) random.nextInt(0x20, 0x100);
+            }
+            int expected = -1;
+            for (int j = 0; j < bytes.length; ++j) {
+                if (bytes[j] == COLON || bytes[j] <= ' ' || bytes[j] >= 0x7f) {
+                    expected = j;
+                    break;
+                }
+            }
+            assertThat(findHeaderNameEnd(wrappedBuffer(bytes), 0, bytes.length), is(expected));
+        }
+    }
+
+    private static void assertHeaderNameEnd(String line, int expected) {
+        ByteBuf buffer = buffer(line);
+        assertThat(findHeaderNameEnd(buffer, 0, buffer.writerIndex()), is(expected));
+    }
+
+    private static ByteBuf buffer(String content) {
+        return wrappedBuffer(content.getBytes(ISO_8859_1));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.client.api.RequestRejectedException;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.http.api.FilterableStreamingHttpClient;
+import io.servicetalk.http.api.FilterableStreamingHttpConnection;
+import io.servicetalk.http.api.HttpExecutionStrategy;
+import io.servicetalk.http.api.HttpResponseStatus;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpClientFilterFactory;
+import io.servicetalk.http.api.StreamingHttpConnectionFilter;
+import io.servicetalk.http.api.StreamingHttpConnectionFilterFactory;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
+
+import java.util.concurrent.TimeoutException;
+
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.http.api.HttpResponseStatus.SERVICE_UNAVAILABLE;
+import static io.servicetalk.http.api.HttpResponseStatus.TOO_MANY_REQUESTS;
+import static io.servicetalk.http.utils.AdaptiveConcurrencyLimiter.isRejectedByLimit;
+import static io.servicetalk.http.utils.AdaptiveConcurrencyLimiter.validateLimits;
+
+/**
+ * Limits the number of concurrent requests and adapts the limit to the observed round-trip time (RTT).
+ * <p>
+ * The limit grows while the RTT of the recent requests stays close to the long-term RTT and shrinks once the RTT goes
+ * up, which indicates that requests started queueing on the way to or at the remote peer. Explicit overload signals
+ * ({@link HttpResponseStatus#SERVICE_UNAVAILABLE 503}, {@link HttpResponseStatus#TOO_MANY_REQUESTS 429},
+ * a rejection by another adaptive concurrency limit further down the filter chain or a {@link TimeoutException})
+ * reduce the limit multiplicatively. Other {@link RequestRejectedException}s, e.g. from the load balancer, don't affect
+ * the limit. The RTT is measured until the response meta-data is received, but a request is accounted until its
+ * response payload body is fully consumed.
+ * <p>
+ * Requests above the limit are failed with a {@link RequestRejectedException}, which is a
+ * {@link io.servicetalk.transport.api.RetryableException}.
+ * <p>
+ * When applied as a client filter the limit is shared by all requests of the client, when applied as a connection
+ * filter each connection gets its own limit.
+ */
+public final class AdaptiveConcurrencyLimitHttpRequesterFilter implements
+                        StreamingHttpClientFilterFactory, StreamingHttpConnectionFilterFactory {
+
+    static final int DEFAULT_INITIAL_LIMIT = 20;
+    static final int DEFAULT_MIN_LIMIT = 1;
+    static final int DEFAULT_MAX_LIMIT = 1000;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    /**
+     * Create a new instance with default limits.
+     */
+    public AdaptiveConcurrencyLimitHttpRequesterFilter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param initialLimit the limit to start with before any RTT is observed.
+     * @param minLimit the minimum value of the limit, must be positive.
+     * @param maxLimit the maximum value of the limit.
+     */
+    public AdaptiveConcurrencyLimitHttpRequesterFilter(final int initialLimit, final int minLimit,
+                                                       final int maxLimit) {
+        validateLimits(initialLimit, minLimit, maxLimit);
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public StreamingHttpClientFilter create(final FilterableStreamingHttpClient client) {
+        final AdaptiveConcurrencyLimiter limiter = newLimiter();
+        return new StreamingHttpClientFilter(client) {
+            @Override
+            protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
+                                                            final StreamingHttpRequest request) {
+                return applyLimit(limiter, delegate.request(request));
+            }
+        };
+    }
+
+    @Override
+    public StreamingHttpConnectionFilter create(final FilterableStreamingHttpConnection connection) {
+        final AdaptiveConcurrencyLimiter limiter = newLimiter();
+        return new StreamingHttpConnectionFilter(connection) {
+            @Override
+            public Single<StreamingHttpResponse> request(final StreamingHttpRequest request) {
+                return applyLimit(limiter, delegate().request(request));
+            }
+        };
+    }
+
+    @Override
+    public HttpExecutionStrategy requiredOffloads() {
+        return offloadNone();
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter() {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+    }
+
+    private static Single<StreamingHttpResponse> applyLimit(final AdaptiveConcurrencyLimiter limiter,
+                                                            final Single<StreamingHttpResponse> responseSingle) {
+        return limiter.applyLimit(responseSingle,
+                response -> isOverloaded(response.status()),
+                cause -> isRejectedByLimit(cause) || cause instanceof TimeoutException,
+                limiter::rejected);
+    }
+
+    private static boolean isOverloaded(final HttpResponseStatus status) {
+        return status.code() == SERVICE_UNAVAILABLE.code() || status.code() == TOO_MANY_REQUESTS.code();
+    }
+}
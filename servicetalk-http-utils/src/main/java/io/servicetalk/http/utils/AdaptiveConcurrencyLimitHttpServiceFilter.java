@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.http.api.HttpExecutionStrategy;
+import io.servicetalk.http.api.HttpServiceContext;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.api.StreamingHttpResponseFactory;
+import io.servicetalk.http.api.StreamingHttpService;
+import io.servicetalk.http.api.StreamingHttpServiceFilter;
+import io.servicetalk.http.api.StreamingHttpServiceFilterFactory;
+
+import java.util.concurrent.TimeoutException;
+
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderValues.ZERO;
+import static io.servicetalk.http.utils.AdaptiveConcurrencyLimitHttpRequesterFilter.DEFAULT_INITIAL_LIMIT;
+import static io.servicetalk.http.utils.AdaptiveConcurrencyLimitHttpRequesterFilter.DEFAULT_MAX_LIMIT;
+import static io.servicetalk.http.utils.AdaptiveConcurrencyLimitHttpRequesterFilter.DEFAULT_MIN_LIMIT;
+import static io.servicetalk.http.utils.AdaptiveConcurrencyLimiter.validateLimits;
+
+/**
+ * Limits the number of concurrently processed requests and adapts the limit to the observed processing time.
+ * <p>
+ * The limit grows while the latency of the recent requests stays close to the long-term latency and shrinks once it
+ * goes up, which indicates that requests started queueing for some resource. {@link TimeoutException}s reduce the
+ * limit multiplicatively. A request is accounted until its response payload body is fully written.
+ * <p>
+ * Requests above the limit are not passed to the service and are responded with an empty
+ * {@link io.servicetalk.http.api.HttpResponseStatus#SERVICE_UNAVAILABLE 503} response. This filter is recommended to
+ * be placed as early as possible to shed the load before any processing is done for rejected requests.
+ */
+public final class AdaptiveConcurrencyLimitHttpServiceFilter implements StreamingHttpServiceFilterFactory {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    /**
+     * Create a new instance with default limits.
+     */
+    public AdaptiveConcurrencyLimitHttpServiceFilter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param initialLimit the limit to start with before any latency is observed.
+     * @param minLimit the minimum value of the limit, must be positive.
+     * @param maxLimit the maximum value of the limit.
+     */
+    public AdaptiveConcurrencyLimitHttpServiceFilter(final int initialLimit, final int minLimit, final int maxLimit) {
+        validateLimits(initialLimit, minLimit, maxLimit);
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public StreamingHttpServiceFilter create(final StreamingHttpService service) {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        return new StreamingHttpServiceFilter(service) {
+            @Override
+            public Single<StreamingHttpResponse> handle(final HttpServiceContext ctx,
+                                                        final StreamingHttpRequest request,
+                                                        final StreamingHttpResponseFactory responseFactory) {
+                return limiter.applyLimit(Single.defer(() -> delegate().handle(ctx, request, responseFactory)
+                                .shareContextOnSubscribe()),
+                        __ -> false,
+                        cause -> cause instanceof TimeoutException,
+                        () -> succeeded(responseFactory.serviceUnavailable().setHeader(CONTENT_LENGTH, ZERO)));
+            }
+        };
+    }
+
+    @Override
+    public HttpExecutionStrategy requiredOffloads() {
+        return offloadNone();
+    }
+}
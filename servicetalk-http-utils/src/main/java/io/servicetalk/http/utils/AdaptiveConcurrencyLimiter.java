@@ -0,0 +1,289 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.client.api.RequestRejectedException;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.TerminalSignalConsumer;
+import io.servicetalk.http.api.StreamingHttpResponse;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static io.servicetalk.concurrent.api.Single.defer;
+import static io.servicetalk.concurrent.api.Single.failed;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+
+/**
+ * A concurrency limit which adapts to the observed round-trip time (RTT) using a gradient between a long-term and the
+ * most recent RTT samples.
+ * <p>
+ * While the most recent RTT stays within the tolerance of the long-term average, the limit grows by a queue allowance
+ * of {@code sqrt(limit)}. Once the RTT grows above it (requests start queueing somewhere), the limit is reduced
+ * proportionally, also while the limit is not fully used. Explicit overload signals ({@link #onDropped()}) back off
+ * the limit multiplicatively.
+ * <p>
+ * The RTT is measured until the response meta-data is received, the time the application takes to consume the payload
+ * body is not part of it. The permit is held until the response payload body is consumed though.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private static final AtomicIntegerFieldUpdater<AdaptiveConcurrencyLimiter> inFlightUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(AdaptiveConcurrencyLimiter.class, "inFlight");
+
+    /**
+     * Ratio of the current RTT to the long-term RTT which is not considered as queueing.
+     */
+    private static final double RTT_TOLERANCE = 1.5;
+    /**
+     * Weight of the new limit estimate, smooths out the limit changes.
+     */
+    private static final double SMOOTHING = 0.2;
+    /**
+     * Multiplier applied to the limit when an overload is signaled explicitly.
+     */
+    private static final double BACKOFF_RATIO = 0.9;
+    /**
+     * Weight of a new sample in the long-term RTT average, roughly corresponds to a window of 600 samples.
+     */
+    private static final double LONG_RTT_ALPHA = 2.0 / 601;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private volatile int limit;
+    private volatile int inFlight;
+    // guarded by "this"
+    private double estimatedLimit;
+    private double longRttNs;
+
+    AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit) {
+        validateLimits(initialLimit, minLimit, maxLimit);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    static void validateLimits(final int initialLimit, final int minLimit, final int maxLimit) {
+        if (minLimit <= 0) {
+            throw new IllegalArgumentException("minLimit: " + minLimit + " (expected >0)");
+        }
+        if (maxLimit < minLimit) {
+            throw new IllegalArgumentException("maxLimit: " + maxLimit + " (expected >=minLimit(" + minLimit + "))");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit: " + initialLimit + " (expected [" + minLimit + ", " +
+                    maxLimit + "])");
+        }
+    }
+
+    /**
+     * Applies this limit to a request.
+     *
+     * @param responseSingle the response of the request, subscribed only if a permit is acquired.
+     * @param isDropped {@link Predicate} which checks if the response signals an overload.
+     * @param isDroppedError {@link Predicate} which checks if the error signals an overload.
+     * @param rejectionResponse provides the response to return when no permit is available.
+     * @return the response of the request which releases the permit after the response payload is consumed.
+     * @see #isRejectedByLimit(Throwable)
+     */
+    Single<StreamingHttpResponse> applyLimit(final Single<StreamingHttpResponse> responseSingle,
+                                             final Predicate<StreamingHttpResponse> isDropped,
+                                             final Predicate<Throwable> isDroppedError,
+                                             final Supplier<Single<StreamingHttpResponse>> rejectionResponse) {
+        return defer(() -> {
+            if (!tryAcquire()) {
+                return rejectionResponse.get().shareContextOnSubscribe();
+            }
+            final RequestSignalConsumer signalConsumer = new RequestSignalConsumer(isDroppedError);
+            return responseSingle
+                    .whenOnSuccess(response -> signalConsumer.onResponse(isDropped.test(response)))
+                    .liftSync(new BeforeFinallyHttpOperator(signalConsumer))
+                    .shareContextOnSubscribe();
+        });
+    }
+
+    /**
+     * Returns a failed {@link Single} with a {@link RequestRejectedException} for a request rejected by this limit.
+     *
+     * @return a failed {@link Single} with a {@link RequestRejectedException}.
+     */
+    Single<StreamingHttpResponse> rejected() {
+        return failed(new ConcurrencyLimitRejectedException("Concurrency limit reached: " + this));
+    }
+
+    /**
+     * Determines if a request was rejected by an {@link AdaptiveConcurrencyLimiter}, for example by a limit applied
+     * closer to the transport. Other {@link RequestRejectedException}s (e.g. from the load balancer or a closing
+     * connection) don't indicate an overload.
+     *
+     * @param cause the cause of the failed request.
+     * @return {@code true} if the request was rejected by an {@link AdaptiveConcurrencyLimiter}.
+     */
+    static boolean isRejectedByLimit(final Throwable cause) {
+        return cause instanceof ConcurrencyLimitRejectedException;
+    }
+
+    /**
+     * Attempts to acquire a permit for a new request.
+     *
+     * @return {@code true} if the request is allowed and one of the terminal methods must be invoked later,
+     * {@code false} if the request must be rejected.
+     */
+    boolean tryAcquire() {
+        for (;;) {
+            final int currentInFlight = inFlight;
+            if (currentInFlight >= limit) {
+                return false;
+            }
+            if (inFlightUpdater.compareAndSet(this, currentInFlight, currentInFlight + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit of a request that completed successfully and updates the limit using its RTT.
+     *
+     * @param rttNs the round-trip time of the request in nanoseconds.
+     */
+    void onSuccess(final long rttNs) {
+        final int currentInFlight = inFlightUpdater.getAndDecrement(this);
+        if (rttNs <= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (longRttNs == 0) {
+                longRttNs = rttNs;
+            } else {
+                longRttNs = longRttNs * (1 - LONG_RTT_ALPHA) + rttNs * LONG_RTT_ALPHA;
+                // When the long-term RTT is way above the current one (e.g. after a recovery) decay it faster,
+                // otherwise the limit would be allowed to grow without regard to queueing for a long time.
+                if (longRttNs / rttNs > 2) {
+                    longRttNs *= 0.95;
+                }
+            }
+            final double gradient = max(0.5, min(1.0, RTT_TOLERANCE * longRttNs / rttNs));
+            // Don't grow the limit if it is not the bottleneck (the application does not use it), but still shrink it
+            // if the RTT grows.
+            final boolean applicationLimited = currentInFlight < estimatedLimit / 2;
+            if (applicationLimited && gradient >= 1.0) {
+                return;
+            }
+            final double newLimit = estimatedLimit * gradient + (applicationLimited ? 0 : sqrt(estimatedLimit));
+            updateLimit(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+        }
+    }
+
+    /**
+     * Releases a permit of a request that failed due to an overload and reduces the limit.
+     */
+    void onDropped() {
+        inFlightUpdater.decrementAndGet(this);
+        synchronized (this) {
+            updateLimit(estimatedLimit * BACKOFF_RATIO);
+        }
+    }
+
+    /**
+     * Releases a permit of a request which outcome should not affect the limit (cancellation, unrelated failures).
+     */
+    void onIgnore() {
+        inFlightUpdater.decrementAndGet(this);
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the current limit.
+     */
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return the number of requests in flight.
+     */
+    int inFlight() {
+        return inFlight;
+    }
+
+    private final class RequestSignalConsumer implements TerminalSignalConsumer {
+        private final long startTimeNs = System.nanoTime();
+        private final Predicate<Throwable> isDroppedError;
+        private boolean dropped;
+        private long rttNs;
+
+        RequestSignalConsumer(final Predicate<Throwable> isDroppedError) {
+            this.isDroppedError = isDroppedError;
+        }
+
+        void onResponse(final boolean dropped) {
+            this.dropped = dropped;
+            rttNs = System.nanoTime() - startTimeNs;
+        }
+
+        @Override
+        public void onComplete() {
+            if (dropped) {
+                onDropped();
+            } else {
+                onSuccess(rttNs);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            if (dropped || isDroppedError.test(throwable)) {
+                onDropped();
+            } else {
+                onIgnore();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            onIgnore();
+        }
+    }
+
+    private void updateLimit(final double newLimit) {
+        assert Thread.holdsLock(this);
+        estimatedLimit = max(minLimit, min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    private static final class ConcurrencyLimitRejectedException extends RequestRejectedException {
+        private static final long serialVersionUID = -4265011209454390487L;
+
+        ConcurrencyLimitRejectedException(final String message) {
+            super(message);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() +
+                "{limit=" + limit +
+                ", inFlight=" + inFlight +
+                '}';
+    }
+}
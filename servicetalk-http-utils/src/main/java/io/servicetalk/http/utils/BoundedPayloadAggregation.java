@@ -0,0 +1,241 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.concurrent.PublisherSource.Subscriber;
+import io.servicetalk.concurrent.PublisherSource.Subscription;
+import io.servicetalk.concurrent.SingleSource;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.concurrent.api.internal.SubscribablePublisher;
+import io.servicetalk.concurrent.api.internal.SubscribableSingle;
+import io.servicetalk.concurrent.internal.DuplicateSubscribeException;
+import io.servicetalk.concurrent.internal.TerminalNotification;
+
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static io.servicetalk.concurrent.internal.SubscriberUtils.deliverErrorFromSource;
+import static io.servicetalk.utils.internal.ReleasableBufferUtils.release;
+
+/**
+ * Aggregates the payload body of a message body up to a maximum number of bytes.
+ * <p>
+ * If the payload body is larger, the aggregation stops without consuming the rest of the message body, and the result
+ * provides the message body to pass it through instead: the bytes received so far, followed by the remaining items.
+ * Trailers are only passed through, they are not part of an aggregated result.
+ */
+final class BoundedPayloadAggregation extends SubscribableSingle<BoundedPayloadAggregation.Result> {
+
+    private final Publisher<?> messageBody;
+    private final long maxPayloadSize;
+    private final BufferAllocator allocator;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param messageBody the message body to aggregate, subscribed at most once.
+     * @param maxPayloadSize the maximum number of payload bytes to aggregate.
+     * @param allocator used to allocate the aggregated {@link Buffer}.
+     */
+    BoundedPayloadAggregation(final Publisher<?> messageBody, final long maxPayloadSize,
+                              final BufferAllocator allocator) {
+        this.messageBody = messageBody;
+        this.maxPayloadSize = maxPayloadSize;
+        this.allocator = allocator;
+    }
+
+    @Override
+    protected void handleSubscribe(final SingleSource.Subscriber<? super Result> subscriber) {
+        toSource(messageBody).subscribe(new AggregatingSubscriber(subscriber, maxPayloadSize, allocator));
+    }
+
+    /**
+     * The result of {@link BoundedPayloadAggregation}, either an aggregated payload body or the message body to pass
+     * through.
+     */
+    static final class Result {
+        @Nullable
+        private final Buffer payload;
+        @Nullable
+        private final Publisher<Object> messageBody;
+
+        private Result(@Nullable final Buffer payload, @Nullable final Publisher<Object> messageBody) {
+            this.payload = payload;
+            this.messageBody = messageBody;
+        }
+
+        /**
+         * Returns the aggregated payload body.
+         *
+         * @return the aggregated payload body, or {@code null} if it was larger than the maximum size.
+         */
+        @Nullable
+        Buffer payload() {
+            return payload;
+        }
+
+        /**
+         * Returns the message body to pass through, which can only be subscribed once.
+         *
+         * @return the message body to pass through, or {@code null} if the payload body was aggregated.
+         */
+        @Nullable
+        Publisher<Object> messageBody() {
+            return messageBody;
+        }
+    }
+
+    private static final class AggregatingSubscriber implements Subscriber<Object> {
+        private final SingleSource.Subscriber<? super Result> target;
+        private final long maxPayloadSize;
+        private final BufferAllocator allocator;
+        @Nullable
+        private Subscription subscription;
+        @Nullable
+        private Buffer aggregated;
+        /**
+         * Set once the aggregation stopped and the remaining items are passed through.
+         */
+        private volatile boolean passThrough;
+        @Nullable
+        private volatile Subscriber<Object> downstream;
+        /**
+         * A terminal signal received after the aggregation stopped, but before the pass-through message body was
+         * subscribed. Guarded by {@code this}.
+         */
+        @Nullable
+        private TerminalNotification pendingTerminal;
+
+        AggregatingSubscriber(final SingleSource.Subscriber<? super Result> target, final long maxPayloadSize,
+                              final BufferAllocator allocator) {
+            this.target = target;
+            this.maxPayloadSize = maxPayloadSize;
+            this.allocator = allocator;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            subscription = s;
+            // Once the result is delivered the subscription belongs to the pass-through message body.
+            target.onSubscribe(() -> {
+                if (!passThrough) {
+                    s.cancel();
+                }
+            });
+            s.request(1);
+        }
+
+        @Override
+        public void onNext(@Nullable final Object item) {
+            final Subscriber<Object> downstream = this.downstream;
+            if (downstream != null) {
+                downstream.onNext(item);
+                return;
+            }
+            assert subscription != null;
+            if (item instanceof Buffer) {
+                final Buffer buffer = (Buffer) item;
+                final int aggregatedSize = aggregated == null ? 0 : aggregated.readableBytes();
+                if (aggregatedSize + (long) buffer.readableBytes() > maxPayloadSize) {
+                    passThrough = true;
+                    target.onSuccess(new Result(null, (aggregated == null ? from(item) : from(aggregated, item))
+                            .concat(new RemainingMessageBody(this))));
+                    return;
+                }
+                try {
+                    if (aggregated == null) {
+                        aggregated = allocator.newBuffer(buffer.readableBytes());
+                    }
+                    aggregated.writeBytes(buffer);
+                } finally {
+                    release(buffer);
+                }
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            if (!passThrough) {
+                target.onError(t);
+            } else {
+                terminatePassThrough(TerminalNotification.error(t));
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!passThrough) {
+                target.onSuccess(new Result(aggregated == null ? allocator.newBuffer(0) : aggregated, null));
+            } else {
+                terminatePassThrough(TerminalNotification.complete());
+            }
+        }
+
+        private void terminatePassThrough(final TerminalNotification terminal) {
+            Subscriber<Object> downstream = this.downstream;
+            if (downstream == null) {
+                synchronized (this) {
+                    downstream = this.downstream;
+                    if (downstream == null) {
+                        // The upstream may terminate without demand, e.g. if the connection is closed.
+                        pendingTerminal = terminal;
+                        return;
+                    }
+                }
+            }
+            terminal.terminate(downstream);
+        }
+    }
+
+    /**
+     * The items of the message body which were not requested by the aggregation.
+     * <p>
+     * The upstream {@link Subscription} is handed over to the subscriber, the aggregation requests no further items
+     * after it stopped, so items are only delivered after the subscriber requested them.
+     */
+    private static final class RemainingMessageBody extends SubscribablePublisher<Object> {
+        private final AggregatingSubscriber aggregatingSubscriber;
+
+        RemainingMessageBody(final AggregatingSubscriber aggregatingSubscriber) {
+            this.aggregatingSubscriber = aggregatingSubscriber;
+        }
+
+        @Override
+        protected void handleSubscribe(final Subscriber<? super Object> subscriber) {
+            @SuppressWarnings("unchecked")
+            final Subscriber<Object> downstream = (Subscriber<Object>) subscriber;
+            final TerminalNotification pendingTerminal;
+            synchronized (aggregatingSubscriber) {
+                final Subscriber<Object> existing = aggregatingSubscriber.downstream;
+                if (existing != null) {
+                    deliverErrorFromSource(subscriber, new DuplicateSubscribeException(existing, subscriber));
+                    return;
+                }
+                aggregatingSubscriber.downstream = downstream;
+                pendingTerminal = aggregatingSubscriber.pendingTerminal;
+            }
+            assert aggregatingSubscriber.subscription != null;
+            downstream.onSubscribe(aggregatingSubscriber.subscription);
+            if (pendingTerminal != null) {
+                pendingTerminal.terminate(downstream);
+            }
+        }
+    }
+}
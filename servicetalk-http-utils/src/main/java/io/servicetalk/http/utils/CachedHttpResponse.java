@@ -0,0 +1,404 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpProtocolVersion;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.HttpResponseMetaData;
+import io.servicetalk.http.api.HttpResponseStatus;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.api.StreamingHttpResponseFactory;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.buffer.api.CharSequences.indexOf;
+import static io.servicetalk.buffer.api.CharSequences.parseLong;
+import static io.servicetalk.buffer.api.CharSequences.split;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.http.api.HttpHeaderNames.AGE;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.DATE;
+import static io.servicetalk.http.api.HttpHeaderNames.ETAG;
+import static io.servicetalk.http.api.HttpHeaderNames.EXPIRES;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.LAST_MODIFIED;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static java.lang.Math.max;
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * An aggregated response stored by {@link CachingHttpRequesterFilter}, with the caching related metadata derived from
+ * its headers.
+ * <p>
+ * Freshness follows <a href="https://www.rfc-editor.org/rfc/rfc9111">RFC 9111</a> for a shared cache: {@code s-maxage}
+ * takes precedence over {@code max-age}, which takes precedence over {@code Expires}. Heuristic freshness is not
+ * supported, responses without an explicit freshness lifetime are only stored if they have a validator and are then
+ * revalidated on every use. Ages are measured with the time source of the filter, only the {@code Age} header is taken
+ * into account, so clock skew between the hosts does not affect the freshness.
+ */
+final class CachedHttpResponse {
+    /**
+     * Fixed weight for the objects that hold a response, in addition to its payload and headers.
+     */
+    private static final int BASE_WEIGHT = 256;
+    private static final int UNSET = -1;
+
+    private final HttpResponseStatus status;
+    private final HttpProtocolVersion version;
+    private final HttpHeaders headers;
+    private final Buffer payload;
+    private final CharSequence[] varyNames;
+    private final String[] varyValues;
+    private final long storedAtMs;
+    private final long initialAgeMs;
+    private final long freshnessMs;
+    private final long staleWhileRevalidateMs;
+    private final long weight;
+
+    private CachedHttpResponse(final HttpResponseStatus status, final HttpProtocolVersion version,
+                               final HttpHeaders headers, final Buffer payload, final CharSequence[] varyNames,
+                               final String[] varyValues, final CacheControl cacheControl, final long nowMs) {
+        this.status = status;
+        this.version = version;
+        this.headers = headers;
+        this.payload = payload;
+        this.varyNames = varyNames;
+        this.varyValues = varyValues;
+        this.storedAtMs = nowMs;
+        this.initialAgeMs = SECONDS.toMillis(max(0, parseNumber(headers.get(AGE))));
+        this.freshnessMs = freshnessMs(headers, cacheControl);
+        this.staleWhileRevalidateMs = cacheControl.noCache || cacheControl.mustRevalidate ||
+                cacheControl.staleWhileRevalidate < 0 ? 0 : SECONDS.toMillis(cacheControl.staleWhileRevalidate);
+        long weight = BASE_WEIGHT + payload.readableBytes();
+        for (Entry<CharSequence, CharSequence> header : headers) {
+            weight += header.getKey().length() + header.getValue().length();
+        }
+        this.weight = weight;
+    }
+
+    /**
+     * Checks the metadata of a response, before its payload body is aggregated.
+     *
+     * @param response the response metadata.
+     * @param maxContentLength the maximum payload size which can be stored.
+     * @return {@code true} if the response may be stored.
+     */
+    static boolean isCacheable(final HttpResponseMetaData response, final long maxContentLength) {
+        if (!isCacheableStatus(response.status().code())) {
+            return false;
+        }
+        final HttpHeaders headers = response.headers();
+        final CacheControl cacheControl = CacheControl.parse(headers);
+        if (cacheControl.noStore || cacheControl.isPrivate || headers.containsIgnoreCase(VARY, "*")) {
+            return false;
+        }
+        final CharSequence contentLength = headers.get(CONTENT_LENGTH);
+        if (contentLength != null && parseNumber(contentLength) > maxContentLength) {
+            return false;
+        }
+        return cacheControl.sMaxAge >= 0 || cacheControl.maxAge >= 0 || headers.contains(EXPIRES) ||
+                headers.contains(ETAG) || headers.contains(LAST_MODIFIED);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param request the request which produced the response, its values of the headers listed in {@code Vary} are
+     * recorded.
+     * @param response the metadata of a response for which {@link #isCacheable(HttpResponseMetaData, long)} returned
+     * {@code true}.
+     * @param payload the aggregated payload body.
+     * @param factory used to create a private copy of the headers.
+     * @param nowMs the current time, in milliseconds.
+     * @return a new instance.
+     */
+    static CachedHttpResponse newInstance(final HttpRequestMetaData request, final HttpResponseMetaData response,
+                                          final Buffer payload, final StreamingHttpResponseFactory factory,
+                                          final long nowMs) {
+        final HttpHeaders headers = factory.newResponse(response.status()).headers().set(response.headers());
+        final CharSequence[] varyNames = varyNames(headers);
+        final String[] varyValues = new String[varyNames.length];
+        for (int i = 0; i < varyNames.length; ++i) {
+            varyValues[i] = joinValues(request.headers(), varyNames[i]);
+        }
+        return new CachedHttpResponse(response.status(), response.version(), headers, payload, varyNames, varyValues,
+                CacheControl.parse(headers), nowMs);
+    }
+
+    /**
+     * Returns a new instance updated with the headers of a {@code 304 Not Modified} response.
+     *
+     * @param notModified the {@code 304 Not Modified} response.
+     * @param factory used to create a private copy of the headers.
+     * @param nowMs the current time, in milliseconds.
+     * @return a new instance which is fresh according to {@code notModified}.
+     */
+    CachedHttpResponse revalidated(final HttpResponseMetaData notModified, final StreamingHttpResponseFactory factory,
+                                   final long nowMs) {
+        final HttpHeaders notModifiedHeaders = notModified.headers();
+        // A 304 response describes the stored payload, its framing headers must not replace the stored ones.
+        notModifiedHeaders.remove(CONTENT_LENGTH);
+        notModifiedHeaders.remove(TRANSFER_ENCODING);
+        final HttpHeaders headers = factory.newResponse(status).headers().set(this.headers).replace(notModifiedHeaders);
+        if (!notModifiedHeaders.contains(AGE)) {
+            headers.remove(AGE);
+        }
+        return new CachedHttpResponse(status, version, headers, payload, varyNames, varyValues,
+                CacheControl.parse(headers), nowMs);
+    }
+
+    /**
+     * Returns {@code true} if this response was produced for a request equivalent to {@code request}, considering the
+     * headers listed in {@code Vary}.
+     *
+     * @param request the request to match.
+     * @return {@code true} if this response can be used for {@code request}.
+     */
+    boolean matches(final HttpRequestMetaData request) {
+        for (int i = 0; i < varyNames.length; ++i) {
+            final String value = joinValues(request.headers(), varyNames[i]);
+            if (value == null ? varyValues[i] != null : !value.equals(varyValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long ageMs(final long nowMs) {
+        return initialAgeMs + max(0, nowMs - storedAtMs);
+    }
+
+    boolean isFresh(final long nowMs) {
+        return ageMs(nowMs) < freshnessMs;
+    }
+
+    /**
+     * Returns {@code true} if the response is stale, but can be used while it is revalidated in the background.
+     *
+     * @param nowMs the current time, in milliseconds.
+     * @return {@code true} if the response can be used while it is revalidated in the background.
+     */
+    boolean isStaleWhileRevalidate(final long nowMs) {
+        return staleWhileRevalidateMs > 0 && ageMs(nowMs) < freshnessMs + staleWhileRevalidateMs;
+    }
+
+    /**
+     * Returns {@code true} if this response can be revalidated with a conditional request.
+     *
+     * @return {@code true} if this response has an {@code ETag} or a {@code Last-Modified} header.
+     */
+    boolean hasValidators() {
+        return headers.contains(ETAG) || headers.contains(LAST_MODIFIED);
+    }
+
+    /**
+     * Adds the conditional headers to revalidate this response.
+     *
+     * @param request the request to modify, must not be the request of the caller.
+     */
+    void addValidators(final HttpRequestMetaData request) {
+        final CharSequence etag = headers.get(ETAG);
+        final CharSequence lastModified = headers.get(LAST_MODIFIED);
+        if (etag != null) {
+            request.headers().set(IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null) {
+            request.headers().set(IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    long weight() {
+        return weight;
+    }
+
+    /**
+     * Creates a new response from the stored one.
+     *
+     * @param factory the factory for the new response.
+     * @param nowMs the current time, in milliseconds.
+     * @return a new response, with the {@code Age} header set.
+     */
+    StreamingHttpResponse toResponse(final StreamingHttpResponseFactory factory, final long nowMs) {
+        final StreamingHttpResponse response = factory.newResponse(status).version(version);
+        response.headers().set(headers).set(AGE, Long.toString(MILLISECONDS.toSeconds(ageMs(nowMs))));
+        return response.payloadBody(from(payload.duplicate()));
+    }
+
+    private static long freshnessMs(final HttpHeaders headers, final CacheControl cacheControl) {
+        if (cacheControl.noCache) {
+            return 0;
+        }
+        if (cacheControl.sMaxAge >= 0) {
+            return SECONDS.toMillis(cacheControl.sMaxAge);
+        }
+        if (cacheControl.maxAge >= 0) {
+            return SECONDS.toMillis(cacheControl.maxAge);
+        }
+        final CharSequence expires = headers.get(EXPIRES);
+        if (expires == null) {
+            return 0;
+        }
+        final long expiresMs = parseDateMs(expires);
+        final CharSequence date = headers.get(DATE);
+        final long dateMs = date == null ? System.currentTimeMillis() : parseDateMs(date);
+        // Invalid dates, in particular "0", represent a time in the past.
+        return expiresMs < 0 || dateMs < 0 ? 0 : max(0, expiresMs - dateMs);
+    }
+
+    private static boolean isCacheableStatus(final int code) {
+        // Status codes which are defined as heuristically cacheable, RFC 9110, section 15.1.
+        switch (code) {
+            case 200:
+            case 203:
+            case 204:
+            case 300:
+            case 301:
+            case 308:
+            case 404:
+            case 405:
+            case 410:
+            case 414:
+            case 501:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static CharSequence[] varyNames(final HttpHeaders headers) {
+        final Iterator<? extends CharSequence> values = headers.valuesIterator(VARY);
+        if (!values.hasNext()) {
+            return new CharSequence[0];
+        }
+        final List<CharSequence> names = split(values.next(), ',', true);
+        while (values.hasNext()) {
+            names.addAll(split(values.next(), ',', true));
+        }
+        return names.toArray(new CharSequence[0]);
+    }
+
+    @Nullable
+    private static String joinValues(final HttpHeaders headers, final CharSequence name) {
+        final Iterator<? extends CharSequence> values = headers.valuesIterator(name);
+        if (!values.hasNext()) {
+            return null;
+        }
+        final CharSequence first = values.next();
+        if (!values.hasNext()) {
+            return first.toString();
+        }
+        final StringBuilder sb = new StringBuilder().append(first);
+        do {
+            sb.append(',').append(values.next());
+        } while (values.hasNext());
+        return sb.toString();
+    }
+
+    private static long parseDateMs(final CharSequence date) {
+        try {
+            return ZonedDateTime.parse(date, RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return UNSET;
+        }
+    }
+
+    private static long parseNumber(@Nullable final CharSequence value) {
+        if (value == null) {
+            return UNSET;
+        }
+        try {
+            return parseLong(value);
+        } catch (NumberFormatException e) {
+            return UNSET;
+        }
+    }
+
+    /**
+     * The {@code Cache-Control} directives which are relevant for the cache.
+     */
+    static final class CacheControl {
+        private static final CacheControl EMPTY = new CacheControl();
+
+        boolean noStore;
+        boolean noCache;
+        boolean isPrivate;
+        boolean mustRevalidate;
+        long maxAge = UNSET;
+        long sMaxAge = UNSET;
+        long staleWhileRevalidate = UNSET;
+
+        static CacheControl parse(final HttpHeaders headers) {
+            final Iterator<? extends CharSequence> values = headers.valuesIterator(CACHE_CONTROL);
+            if (!values.hasNext()) {
+                return EMPTY;
+            }
+            final CacheControl cacheControl = new CacheControl();
+            do {
+                for (CharSequence directive : split(values.next(), ',', true)) {
+                    cacheControl.parseDirective(directive);
+                }
+            } while (values.hasNext());
+            return cacheControl;
+        }
+
+        private void parseDirective(final CharSequence directive) {
+            final int equals = indexOf(directive, '=', 0);
+            final CharSequence name = equals < 0 ? directive : directive.subSequence(0, equals);
+            if (contentEqualsIgnoreCase(name, "no-store")) {
+                noStore = true;
+            } else if (contentEqualsIgnoreCase(name, "no-cache")) {
+                // Field names of a qualified no-cache are not supported, it is treated like an unqualified no-cache.
+                noCache = true;
+            } else if (contentEqualsIgnoreCase(name, "private")) {
+                isPrivate = true;
+            } else if (contentEqualsIgnoreCase(name, "must-revalidate") ||
+                    contentEqualsIgnoreCase(name, "proxy-revalidate")) {
+                mustRevalidate = true;
+            } else if (equals > 0) {
+                final long seconds = parseDeltaSeconds(directive.subSequence(equals + 1, directive.length()));
+                if (contentEqualsIgnoreCase(name, "max-age")) {
+                    maxAge = seconds;
+                } else if (contentEqualsIgnoreCase(name, "s-maxage")) {
+                    sMaxAge = seconds;
+                } else if (contentEqualsIgnoreCase(name, "stale-while-revalidate")) {
+                    staleWhileRevalidate = seconds;
+                }
+            }
+        }
+
+        private static long parseDeltaSeconds(CharSequence value) {
+            if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+                value = value.subSequence(1, value.length() - 1);
+            }
+            final long seconds = parseNumber(value);
+            // An invalid value is treated as zero, which makes the response stale.
+            return seconds < 0 ? 0 : seconds;
+        }
+    }
+}
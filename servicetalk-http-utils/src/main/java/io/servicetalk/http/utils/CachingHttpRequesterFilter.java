@@ -0,0 +1,457 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.concurrent.SingleSource.Processor;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.http.api.FilterableStreamingHttpClient;
+import io.servicetalk.http.api.HttpExecutionStrategy;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.HttpResponseStatus.StatusClass;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpClientFilterFactory;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.utils.CachedHttpResponse.CacheControl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.Processors.newSingleProcessor;
+import static io.servicetalk.concurrent.api.Single.defer;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.concurrent.api.SourceAdapters.fromSource;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_RANGE;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_UNMODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.RANGE;
+import static io.servicetalk.http.api.HttpRequestMethod.GET;
+import static io.servicetalk.http.api.HttpResponseStatus.NOT_MODIFIED;
+import static io.servicetalk.http.api.HttpResponseStatus.StatusClass.REDIRECTION_3XX;
+import static io.servicetalk.http.api.HttpResponseStatus.StatusClass.SUCCESSFUL_2XX;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A client filter that caches responses in memory, following the {@code Cache-Control}, {@code Expires},
+ * {@code ETag}, {@code Last-Modified} and {@code Vary} response headers.
+ * <p>
+ * Responses to {@code GET} requests are aggregated and stored in a bounded cache, weighted by the size of their
+ * payload body and headers. Aggregation stops once a payload body exceeds the
+ * {@link Builder#maxEntrySize(long) maximum entry size}, such a response is passed through without being stored.
+ * When the cache is full, a new response is only admitted if its key was requested more frequently than the keys of
+ * the least recently used responses it would evict (TinyLFU), so that a burst of requests which are never repeated
+ * does not flush the cache.
+ * <p>
+ * The filter follows the rules of a shared cache: responses marked as {@code private} or {@code no-store} are not
+ * stored, and requests with an {@code Authorization} header bypass the cache. Requests which are conditional, ask for a
+ * range, or carry {@code Cache-Control: no-store} are also passed through. Stale responses with a validator are
+ * revalidated with a conditional request, and a {@code 304 Not Modified} response refreshes the stored one. Within the
+ * {@code stale-while-revalidate} period a stale response is used right away while it is revalidated in the background.
+ * <p>
+ * Concurrent requests which miss the cache for the same key are coalesced: only one of them is sent, and the others
+ * use its response if it is cacheable. A response which is not cacheable is passed through without aggregation, and the
+ * coalesced requests are then sent on their own.
+ * <p>
+ * The cache is shared by all clients created with the same instance of this factory, responses of different clients
+ * are stored with different keys. Only one variant of a response is stored for each request target, a request with
+ * different values of the headers listed in {@code Vary} replaces it.
+ */
+public final class CachingHttpRequesterFilter implements StreamingHttpClientFilterFactory {
+
+    static final long DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+    static final long DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    private static final AtomicLongFieldUpdater<CachingHttpRequesterFilter> hitsUpdater =
+            AtomicLongFieldUpdater.newUpdater(CachingHttpRequesterFilter.class, "hits");
+    private static final AtomicLongFieldUpdater<CachingHttpRequesterFilter> missesUpdater =
+            AtomicLongFieldUpdater.newUpdater(CachingHttpRequesterFilter.class, "misses");
+
+    private final TinyLfuCache<String, CachedHttpResponse> cache;
+    private final long maxEntrySize;
+    @Nullable
+    private final Executor timeSource;
+    private final Map<String, Flight> flights = new HashMap<>();
+    private final AtomicInteger nextClientId = new AtomicInteger();
+    private volatile long hits;
+    private volatile long misses;
+
+    private CachingHttpRequesterFilter(final long maxSize, final long maxEntrySize,
+                                       @Nullable final Executor timeSource) {
+        // The sketch is sized for the number of entries of a typical size that fit in the cache.
+        this.cache = new TinyLfuCache<>(maxSize, (int) min(Integer.MAX_VALUE, max(maxSize / 4096, 64)));
+        this.maxEntrySize = maxEntrySize;
+        this.timeSource = timeSource;
+    }
+
+    @Override
+    public StreamingHttpClientFilter create(final FilterableStreamingHttpClient client) {
+        return new CachingFilter(client, nextClientId.getAndIncrement() + " ");
+    }
+
+    @Override
+    public HttpExecutionStrategy requiredOffloads() {
+        return offloadNone();
+    }
+
+    /**
+     * Returns the number of requests which were answered from the cache, including stale responses used while they are
+     * revalidated.
+     *
+     * @return the number of requests which were answered from the cache.
+     */
+    public long hitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of cacheable requests which were not answered from the cache, including the ones for which a
+     * stored response was revalidated.
+     *
+     * @return the number of cacheable requests which were not answered from the cache.
+     */
+    public long missCount() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of responses which were evicted to make room for other responses.
+     *
+     * @return the number of responses which were evicted to make room for other responses.
+     */
+    public long evictionCount() {
+        return cache.evictions();
+    }
+
+    /**
+     * Returns the weighted size of all stored responses, in bytes.
+     *
+     * @return the weighted size of all stored responses, in bytes.
+     */
+    public long size() {
+        return cache.weight();
+    }
+
+    private final class CachingFilter extends StreamingHttpClientFilter {
+        private final String keyPrefix;
+
+        CachingFilter(final FilterableStreamingHttpClient client, final String keyPrefix) {
+            super(client);
+            this.keyPrefix = keyPrefix;
+        }
+
+        @Override
+        protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
+                                                        final StreamingHttpRequest request) {
+            return defer(() -> {
+                final String key = cacheKey(request);
+                if (!GET.equals(request.method())) {
+                    return request.method().properties().isSafe() ? delegate.request(request) :
+                            invalidateOnSuccess(delegate.request(request), key).shareContextOnSubscribe();
+                }
+                final CacheControl cacheControl = CacheControl.parse(request.headers());
+                if (cacheControl.noStore || !isCacheable(request.headers())) {
+                    return delegate.request(request).shareContextOnSubscribe();
+                }
+                final long nowMs = currentTimeMs();
+                CachedHttpResponse cached = cache.get(key);
+                if (cached != null && !cached.matches(request)) {
+                    cached = null;
+                }
+                if (cached != null && !cacheControl.noCache &&
+                        (cacheControl.maxAge < 0 || cached.ageMs(nowMs) <= SECONDS.toMillis(cacheControl.maxAge))) {
+                    if (cached.isFresh(nowMs)) {
+                        hitsUpdater.incrementAndGet(CachingHttpRequesterFilter.this);
+                        return succeeded(cached.toResponse(httpResponseFactory(), nowMs));
+                    }
+                    if (cached.isStaleWhileRevalidate(nowMs)) {
+                        hitsUpdater.incrementAndGet(CachingHttpRequesterFilter.this);
+                        revalidateInBackground(delegate, request, key, cached);
+                        return succeeded(cached.toResponse(httpResponseFactory(), nowMs));
+                    }
+                }
+                missesUpdater.incrementAndGet(CachingHttpRequesterFilter.this);
+                return fetch(delegate, request, key, cached).shareContextOnSubscribe();
+            });
+        }
+
+        private Single<StreamingHttpResponse> fetch(final StreamingHttpRequester delegate,
+                                                    final StreamingHttpRequest request, final String key,
+                                                    @Nullable final CachedHttpResponse stale) {
+            final Flight flight;
+            synchronized (flights) {
+                final Flight inFlight = flights.get(key);
+                if (inFlight != null) {
+                    return fromSource(inFlight.processor).flatMap(response -> response != null &&
+                            response.matches(request) ? succeeded(response.toResponse(httpResponseFactory(),
+                            currentTimeMs())) : delegate.request(request));
+                }
+                flight = new Flight(flights, key);
+                flights.put(key, flight);
+            }
+            return sendAndStore(delegate, request, key, stale, flight);
+        }
+
+        private void revalidateInBackground(final StreamingHttpRequester delegate, final StreamingHttpRequest request,
+                                            final String key, final CachedHttpResponse stale) {
+            final Flight flight;
+            synchronized (flights) {
+                if (flights.containsKey(key)) {
+                    return;
+                }
+                flight = new Flight(flights, key);
+                flights.put(key, flight);
+            }
+            // The caller is answered with the stale response, the revalidation uses its own request.
+            sendAndStore(delegate, request, key, stale, flight)
+                    .flatMapCompletable(response -> response.messageBody().ignoreElements())
+                    .subscribe();
+        }
+
+        /**
+         * Sends the request, stores the response if it is cacheable, and completes the {@link Flight} for the
+         * coalesced requests.
+         */
+        private Single<StreamingHttpResponse> sendAndStore(final StreamingHttpRequester delegate,
+                                                           final StreamingHttpRequest request, final String key,
+                                                           @Nullable final CachedHttpResponse stale,
+                                                           final Flight flight) {
+            final boolean conditional = stale != null && stale.hasValidators();
+            final StreamingHttpRequest sent = conditional ? newConditionalRequest(delegate, request, stale) : request;
+            return delegate.request(sent).flatMap(response -> {
+                if (conditional && response.status().code() == NOT_MODIFIED.code()) {
+                    assert stale != null;
+                    return response.messageBody().ignoreElements().concat(defer(() -> {
+                        final long nowMs = currentTimeMs();
+                        final CachedHttpResponse revalidated = stale.revalidated(response, httpResponseFactory(),
+                                nowMs);
+                        store(key, revalidated);
+                        flight.complete(revalidated);
+                        return succeeded(revalidated.toResponse(httpResponseFactory(), nowMs));
+                    }));
+                }
+                if (!CachedHttpResponse.isCacheable(response, maxEntrySize)) {
+                    if (stale != null) {
+                        cache.remove(key);
+                    }
+                    flight.complete(null);
+                    return succeeded(response);
+                }
+                // Content-Length is optional, the aggregation stops and passes the response through if the payload
+                // body turns out to be too large.
+                return new BoundedPayloadAggregation(response.messageBody(), maxEntrySize,
+                        executionContext().bufferAllocator()).map(aggregation -> {
+                    final Buffer payload = aggregation.payload();
+                    if (payload == null) {
+                        if (stale != null) {
+                            cache.remove(key);
+                        }
+                        flight.complete(null);
+                        final Publisher<Object> messageBody = aggregation.messageBody();
+                        assert messageBody != null;
+                        return response.transformMessageBody(original -> messageBody);
+                    }
+                    final long nowMs = currentTimeMs();
+                    final CachedHttpResponse cached = CachedHttpResponse.newInstance(request, response, payload,
+                            httpResponseFactory(), nowMs);
+                    store(key, cached);
+                    flight.complete(cached);
+                    return cached.toResponse(httpResponseFactory(), nowMs);
+                });
+            }).whenOnError(flight::fail).whenCancel(() -> flight.complete(null));
+        }
+
+        private void store(final String key, final CachedHttpResponse response) {
+            if (response.weight() <= maxEntrySize) {
+                cache.put(key, response, response.weight());
+            } else {
+                cache.remove(key);
+            }
+        }
+
+        private Single<StreamingHttpResponse> invalidateOnSuccess(final Single<StreamingHttpResponse> response,
+                                                                  final String key) {
+            return response.whenOnSuccess(r -> {
+                final StatusClass statusClass = r.status().statusClass();
+                if (statusClass == SUCCESSFUL_2XX || statusClass == REDIRECTION_3XX) {
+                    cache.remove(key);
+                }
+            });
+        }
+
+        private String cacheKey(final HttpRequestMetaData request) {
+            final CharSequence host = request.headers().get(HOST);
+            return host == null ? keyPrefix + request.requestTarget() : keyPrefix + host + request.requestTarget();
+        }
+
+        private long currentTimeMs() {
+            return (timeSource != null ? timeSource : executionContext().executor()).currentTime(MILLISECONDS);
+        }
+    }
+
+    /**
+     * Creates a request to revalidate a stale response. The request of the caller is never modified, it may be sent
+     * again by other filters (e.g. retries) and must remain cacheable.
+     */
+    private static StreamingHttpRequest newConditionalRequest(final StreamingHttpRequester delegate,
+                                                              final StreamingHttpRequest request,
+                                                              final CachedHttpResponse stale) {
+        final Publisher<Object> messageBody = request.messageBody();
+        final StreamingHttpRequest conditional = delegate.newRequest(request.method(), request.requestTarget())
+                .version(request.version())
+                .transformMessageBody(__ -> messageBody);
+        conditional.headers().add(request.headers());
+        conditional.context(request.context().copy());
+        stale.addValidators(conditional);
+        return conditional;
+    }
+
+    private static boolean isCacheable(final HttpHeaders headers) {
+        return !headers.contains(AUTHORIZATION) && !headers.contains(RANGE) && !headers.contains(IF_NONE_MATCH) &&
+                !headers.contains(IF_MODIFIED_SINCE) && !headers.contains(IF_MATCH) &&
+                !headers.contains(IF_UNMODIFIED_SINCE) && !headers.contains(IF_RANGE);
+    }
+
+    /**
+     * A request which is in flight for a key, other requests for the same key wait for its response.
+     */
+    private static final class Flight {
+        private static final AtomicIntegerFieldUpdater<Flight> doneUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Flight.class, "done");
+
+        private final Map<String, Flight> flights;
+        private final String key;
+        /**
+         * Completes with the stored response, or {@code null} if the response is not cacheable and each waiting
+         * request has to be sent on its own.
+         */
+        final Processor<CachedHttpResponse, CachedHttpResponse> processor = newSingleProcessor();
+        private volatile int done;
+
+        Flight(final Map<String, Flight> flights, final String key) {
+            this.flights = flights;
+            this.key = key;
+        }
+
+        void complete(@Nullable final CachedHttpResponse response) {
+            if (markDone()) {
+                processor.onSuccess(response);
+            }
+        }
+
+        void fail(final Throwable cause) {
+            if (markDone()) {
+                processor.onError(cause);
+            }
+        }
+
+        private boolean markDone() {
+            if (!doneUpdater.compareAndSet(this, 0, 1)) {
+                return false;
+            }
+            // Remove the flight before the waiting requests continue, later requests have to use the cache.
+            synchronized (flights) {
+                flights.remove(key, this);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A builder for {@link CachingHttpRequesterFilter}.
+     */
+    public static final class Builder {
+        private long maxSize = DEFAULT_MAX_SIZE;
+        private long maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+        @Nullable
+        private Executor timeSource;
+
+        /**
+         * Sets the maximum weighted size of all stored responses.
+         * <p>
+         * The weight of a response is the size of its payload body and headers, plus a fixed overhead. The default is
+         * 32MiB.
+         *
+         * @param maxSize the maximum weighted size of all stored responses, in bytes.
+         * @return {@code this}.
+         */
+        public Builder maxSize(final long maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize: " + maxSize + " (expected >0)");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum weighted size of a single response.
+         * <p>
+         * Responses with a larger {@code Content-Length} are passed through without aggregation. Responses without a
+         * {@code Content-Length} are aggregated up to this size, and passed through if their payload body is larger.
+         * The default is 1MiB.
+         *
+         * @param maxEntrySize the maximum weighted size of a single response, in bytes.
+         * @return {@code this}.
+         */
+        public Builder maxEntrySize(final long maxEntrySize) {
+            if (maxEntrySize <= 0) {
+                throw new IllegalArgumentException("maxEntrySize: " + maxEntrySize + " (expected >0)");
+            }
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Executor} used as the time source to compute the age of the stored responses.
+         * <p>
+         * By default, the {@link Executor} of the client's {@link io.servicetalk.http.api.HttpExecutionContext} is
+         * used.
+         *
+         * @param timeSource the {@link Executor} used as the time source.
+         * @return {@code this}.
+         */
+        public Builder timeSource(final Executor timeSource) {
+            this.timeSource = requireNonNull(timeSource);
+            return this;
+        }
+
+        /**
+         * Builds a new {@link CachingHttpRequesterFilter}.
+         *
+         * @return a new {@link CachingHttpRequesterFilter}.
+         */
+        public CachingHttpRequesterFilter build() {
+            return new CachingHttpRequesterFilter(maxSize, min(maxEntrySize, maxSize), timeSource);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.client.api.ExcludedHosts;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.internal.CancelImmediatelySubscriber;
+import io.servicetalk.http.api.FilterableStreamingHttpClient;
+import io.servicetalk.http.api.HttpExecutionContext;
+import io.servicetalk.http.api.HttpExecutionStrategy;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpClientFilterFactory;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.client.api.ExcludedHosts.EXCLUDED_HOSTS_KEY;
+import static io.servicetalk.concurrent.api.Single.defer;
+import static io.servicetalk.concurrent.api.Single.failed;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static io.servicetalk.http.api.HttpApiConversions.isPayloadEmpty;
+import static io.servicetalk.http.api.HttpApiConversions.isSafeToAggregate;
+import static io.servicetalk.http.api.HttpContextKeys.HTTP_EXECUTION_STRATEGY_KEY;
+import static io.servicetalk.http.api.HttpContextKeys.HTTP_IDEMPOTENT_REQUEST;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.utils.internal.DurationUtils.ensurePositive;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A client filter that hedges idempotent requests to reduce the tail latency.
+ * <p>
+ * If the response metadata for a request does not arrive within the hedging delay, a duplicate request is sent
+ * through the client's {@link LoadBalancer}. Both requests share {@link ExcludedHosts}, so a load balancer which
+ * supports this hint sends the hedged request to a different host than the original request, if one is available.
+ * The first response wins and the other request is cancelled. A failure of one of the requests is propagated only if
+ * the other one also fails.
+ * <p>
+ * The delay is either fixed or follows a percentile of the recently observed response latency, see
+ * {@link Builder#hedgeDelay(Duration)} and {@link Builder#hedgeDelayPercentile(double, Duration)}. A token bucket
+ * budget limits the number of hedged requests to a fraction of all requests to avoid amplifying the load on an
+ * overloaded backend.
+ * <p>
+ * Only requests with an {@link io.servicetalk.http.api.HttpRequestMethod.Properties#isIdempotent() idempotent} method
+ * or with {@link io.servicetalk.http.api.HttpContextKeys#HTTP_IDEMPOTENT_REQUEST} set (gRPC clients set it for
+ * methods marked as idempotent) are hedged. The request payload body is subscribed once per sent request, so only
+ * requests with an empty payload body or with a payload body which is held in memory (for example, aggregated requests
+ * and gRPC unary requests) are hedged, other requests are passed through.
+ * <p>
+ * This filter is a client filter only because it relies on the {@link LoadBalancer} to select a host for the hedged
+ * request. It is recommended to be appended after the retrying and before the timeout filters.
+ */
+public final class HedgingHttpRequesterFilter implements StreamingHttpClientFilterFactory {
+
+    static final double DEFAULT_PERCENTILE = 95;
+    static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(1);
+    static final double DEFAULT_BUDGET_RATIO = 0.1;
+    static final int DEFAULT_MAX_BUDGET_TOKENS = 10;
+
+    private final long hedgeDelayNs;
+    private final double percentile;
+    private final double budgetRatio;
+    private final int maxBudgetTokens;
+    @Nullable
+    private final Executor timerExecutor;
+
+    private HedgingHttpRequesterFilter(final long hedgeDelayNs, final double percentile, final double budgetRatio,
+                                       final int maxBudgetTokens, @Nullable final Executor timerExecutor) {
+        this.hedgeDelayNs = hedgeDelayNs;
+        this.percentile = percentile;
+        this.budgetRatio = budgetRatio;
+        this.maxBudgetTokens = maxBudgetTokens;
+        this.timerExecutor = timerExecutor;
+    }
+
+    @Override
+    public StreamingHttpClientFilter create(final FilterableStreamingHttpClient client) {
+        return new HedgingFilter(client, new HedgingBudget(budgetRatio, maxBudgetTokens),
+                percentile > 0 ? new LatencyPercentileTracker(percentile) : null);
+    }
+
+    @Override
+    public HttpExecutionStrategy requiredOffloads() {
+        return offloadNone();
+    }
+
+    private final class HedgingFilter extends StreamingHttpClientFilter {
+        private final HedgingBudget budget;
+        @Nullable
+        private final LatencyPercentileTracker latencyTracker;
+
+        HedgingFilter(final FilterableStreamingHttpClient client, final HedgingBudget budget,
+                      @Nullable final LatencyPercentileTracker latencyTracker) {
+            super(client);
+            this.budget = budget;
+            this.latencyTracker = latencyTracker;
+        }
+
+        @Override
+        protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
+                                                        final StreamingHttpRequest request) {
+            if (!isIdempotent(request) || !isReplayable(request)) {
+                return delegate.request(request);
+            }
+            return defer(() -> {
+                budget.deposit();
+                final Executor executor = timerExecutor(request, executionContext());
+                final HedgeState state = new HedgeState();
+                request.context().put(EXCLUDED_HOSTS_KEY, new ExcludedHosts());
+                // The meta-data of the original request is not thread-safe, it has to be copied before it is sent.
+                final StreamingHttpRequest hedgedRequest = newHedgedRequest(delegate, request);
+                if (!isPayloadEmpty(request)) {
+                    // Both requests write the same buffers, each write has to consume its own view of them.
+                    request.transformMessageBody(p -> p.map(HedgingHttpRequesterFilter::duplicate));
+                }
+                final Single<StreamingHttpResponse> hedge = executor.timer(hedgeDelayNanos(), NANOSECONDS)
+                        .concat(defer(() -> budget.tryWithdraw() ?
+                                attempt(delegate, hedgedRequest, state, executor) :
+                                Single.<StreamingHttpResponse>never()));
+                return attempt(delegate, request, state, executor).ambWith(hedge).shareContextOnSubscribe();
+            });
+        }
+
+        private Single<StreamingHttpResponse> attempt(final StreamingHttpRequester delegate,
+                                                      final StreamingHttpRequest request, final HedgeState state,
+                                                      final Executor executor) {
+            return defer(() -> {
+                state.onStart();
+                final long startTimeNs = executor.currentTime(NANOSECONDS);
+                return delegate.request(request).flatMap(response -> {
+                    if (latencyTracker != null) {
+                        latencyTracker.record(executor.currentTime(NANOSECONDS) - startTimeNs);
+                    }
+                    if (state.tryWin()) {
+                        return succeeded(response);
+                    }
+                    // Lost the race, release the resources associated with the response and let the winner through.
+                    toSource(response.messageBody()).subscribe(CancelImmediatelySubscriber.INSTANCE);
+                    return Single.<StreamingHttpResponse>never();
+                }).onErrorResume(cause -> state.onError() ? failed(cause) : Single.<StreamingHttpResponse>never())
+                        .shareContextOnSubscribe();
+            });
+        }
+
+        private long hedgeDelayNanos() {
+            if (latencyTracker == null) {
+                return hedgeDelayNs;
+            }
+            final long percentileNs = latencyTracker.percentileNanos();
+            return percentileNs < 0 ? hedgeDelayNs : min(percentileNs, hedgeDelayNs);
+        }
+
+        private Executor timerExecutor(final HttpRequestMetaData metaData, final HttpExecutionContext context) {
+            if (timerExecutor != null) {
+                return timerExecutor;
+            }
+            final HttpExecutionStrategy strategy = metaData.context()
+                    .getOrDefault(HTTP_EXECUTION_STRATEGY_KEY, context.executionStrategy());
+            assert strategy != null;
+            return strategy.isRequestResponseOffloaded() ? context.executor() : context.ioExecutor();
+        }
+    }
+
+    private static boolean isIdempotent(final StreamingHttpRequest request) {
+        return request.method().properties().isIdempotent() ||
+                Boolean.TRUE.equals(request.context().get(HTTP_IDEMPOTENT_REQUEST));
+    }
+
+    private static boolean isReplayable(final StreamingHttpRequest request) {
+        // Aggregated requests (and streaming requests converted from them) keep their payload body in memory.
+        return isPayloadEmpty(request) || isSafeToAggregate(request);
+    }
+
+    private static StreamingHttpRequest newHedgedRequest(final StreamingHttpRequester delegate,
+                                                         final StreamingHttpRequest request) {
+        // The payload body is subscribed only if the hedge is sent. The context copy shares ExcludedHosts with the
+        // original request.
+        final Publisher<Object> messageBody = request.messageBody();
+        final StreamingHttpRequest hedgedRequest = delegate.newRequest(request.method(), request.requestTarget())
+                .version(request.version())
+                .transformMessageBody(__ -> messageBody.map(HedgingHttpRequesterFilter::duplicate));
+        hedgedRequest.headers().add(request.headers());
+        hedgedRequest.context(request.context().copy());
+        return hedgedRequest;
+    }
+
+    private static Object duplicate(final Object item) {
+        return item instanceof Buffer ? ((Buffer) item).duplicate() : item;
+    }
+
+    /**
+     * Tracks the requests sent for a single logical request.
+     */
+    private static final class HedgeState {
+        private static final AtomicIntegerFieldUpdater<HedgeState> pendingUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(HedgeState.class, "pending");
+        private static final AtomicIntegerFieldUpdater<HedgeState> wonUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(HedgeState.class, "won");
+
+        private volatile int pending;
+        private volatile int won;
+
+        void onStart() {
+            pendingUpdater.incrementAndGet(this);
+        }
+
+        boolean tryWin() {
+            return wonUpdater.compareAndSet(this, 0, 1);
+        }
+
+        /**
+         * Accounts a failed request.
+         *
+         * @return {@code true} if the failure has to be propagated because no other request is pending.
+         */
+        boolean onError() {
+            return pendingUpdater.decrementAndGet(this) == 0;
+        }
+    }
+
+    /**
+     * A token bucket which gets {@code ratio} tokens for every request and spends a token for every hedged request.
+     */
+    private static final class HedgingBudget {
+        private static final AtomicIntegerFieldUpdater<HedgingBudget> tokensUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(HedgingBudget.class, "tokens");
+        private static final int SCALE = 1000;
+
+        private final int deposit;
+        private final int maxTokens;
+        private volatile int tokens;
+
+        HedgingBudget(final double ratio, final int maxTokens) {
+            this.deposit = (int) (ratio * SCALE);
+            this.maxTokens = maxTokens * SCALE;
+            this.tokens = this.maxTokens;
+        }
+
+        void deposit() {
+            for (;;) {
+                final int current = tokens;
+                if (current >= maxTokens || tokensUpdater.compareAndSet(this, current, min(maxTokens,
+                        current + deposit))) {
+                    return;
+                }
+            }
+        }
+
+        boolean tryWithdraw() {
+            for (;;) {
+                final int current = tokens;
+                if (current < SCALE) {
+                    return false;
+                }
+                if (tokensUpdater.compareAndSet(this, current, current - SCALE)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * A builder for {@link HedgingHttpRequesterFilter}.
+     */
+    public static final class Builder {
+        private long hedgeDelayNs = DEFAULT_MAX_DELAY.toNanos();
+        private double percentile = DEFAULT_PERCENTILE;
+        private double budgetRatio = DEFAULT_BUDGET_RATIO;
+        private int maxBudgetTokens = DEFAULT_MAX_BUDGET_TOKENS;
+        @Nullable
+        private Executor timerExecutor;
+
+        /**
+         * Sends a hedged request after a fixed delay.
+         *
+         * @param delay the delay after which a hedged request is sent if no response has arrived yet.
+         * @return {@code this}.
+         */
+        public Builder hedgeDelay(final Duration delay) {
+            this.hedgeDelayNs = ensurePositive(delay, "delay").toNanos();
+            this.percentile = 0;
+            return this;
+        }
+
+        /**
+         * Sends a hedged request after the {@code percentile} of the recently observed response latency elapses.
+         * <p>
+         * This is the default behavior with the 95th percentile and a {@code maxDelay} of 1 second.
+         *
+         * @param percentile the percentile of the response latency, must be in the {@code (0, 100)} range.
+         * @param maxDelay the upper bound of the delay, also used until enough latency samples are collected.
+         * @return {@code this}.
+         */
+        public Builder hedgeDelayPercentile(final double percentile, final Duration maxDelay) {
+            if (percentile <= 0 || percentile >= 100) {
+                throw new IllegalArgumentException("percentile: " + percentile + " (expected (0, 100))");
+            }
+            this.hedgeDelayNs = ensurePositive(maxDelay, "maxDelay").toNanos();
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Configures the budget which caps the additional load generated by the hedged requests.
+         * <p>
+         * Every request adds {@code ratio} tokens to the budget and every hedged request takes one token from it. No
+         * requests are hedged while there are no tokens left. The default is {@code 0.1} (at most 10% of
+         * additional requests) with {@code 10} tokens.
+         *
+         * @param ratio the ratio of hedged requests to all requests, must be in the {@code (0, 1]} range.
+         * @param maxTokens the maximum number of tokens, which allows hedging bursts of requests.
+         * @return {@code this}.
+         */
+        public Builder budget(final double ratio, final int maxTokens) {
+            if (ratio <= 0 || ratio > 1) {
+                throw new IllegalArgumentException("ratio: " + ratio + " (expected (0, 1])");
+            }
+            if (maxTokens <= 0) {
+                throw new IllegalArgumentException("maxTokens: " + maxTokens + " (expected >0)");
+            }
+            this.budgetRatio = ratio;
+            this.maxBudgetTokens = maxTokens;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Executor} to use for scheduling the hedged requests.
+         * <p>
+         * By default, an executor from the {@link HttpExecutionContext} of the client is used, depending on whether
+         * the {@link HttpExecutionStrategy} of the request requires offloading.
+         *
+         * @param timerExecutor the {@link Executor} to use for scheduling the hedged requests.
+         * @return {@code this}.
+         */
+        public Builder timerExecutor(final Executor timerExecutor) {
+            this.timerExecutor = requireNonNull(timerExecutor);
+            return this;
+        }
+
+        /**
+         * Builds a new {@link HedgingHttpRequesterFilter}.
+         *
+         * @return a new {@link HedgingHttpRequesterFilter}.
+         */
+        public HedgingHttpRequesterFilter build() {
+            return new HedgingHttpRequesterFilter(hedgeDelayNs, percentile, budgetRatio, maxBudgetTokens,
+                    timerExecutor);
+        }
+    }
+}
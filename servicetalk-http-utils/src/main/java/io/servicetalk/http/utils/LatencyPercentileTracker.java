@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+
+/**
+ * Estimates a percentile of the most recent latency samples.
+ * <p>
+ * Samples are stored in a fixed size ring without locking. The percentile is recomputed from a snapshot of the ring
+ * every {@link #RECOMPUTE_INTERVAL} samples, so reading it is cheap and does not depend on the window size.
+ */
+final class LatencyPercentileTracker {
+
+    private static final AtomicIntegerFieldUpdater<LatencyPercentileTracker> recordedUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(LatencyPercentileTracker.class, "recorded");
+
+    /**
+     * Number of the most recent samples used to estimate the percentile, must be a power of 2.
+     */
+    static final int WINDOW_SIZE = 1024;
+    /**
+     * Number of samples after which the percentile is recomputed, must be a power of 2.
+     */
+    static final int RECOMPUTE_INTERVAL = 128;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+    private volatile int recorded;
+    private volatile long percentileNs = -1;
+
+    LatencyPercentileTracker(final double percentile) {
+        if (percentile <= 0 || percentile >= 100) {
+            throw new IllegalArgumentException("percentile: " + percentile + " (expected (0, 100))");
+        }
+        this.percentile = percentile;
+    }
+
+    /**
+     * Records a new latency sample.
+     *
+     * @param latencyNs the latency in nanoseconds.
+     */
+    void record(final long latencyNs) {
+        final int index = recordedUpdater.getAndIncrement(this);
+        samples.lazySet(index & (WINDOW_SIZE - 1), max(0, latencyNs));
+        final int count = index + 1;
+        if ((count & (RECOMPUTE_INTERVAL - 1)) == 0) {
+            // After the overflow of the counter the window is always full.
+            recompute(count > 0 && count < WINDOW_SIZE ? count : WINDOW_SIZE);
+        }
+    }
+
+    /**
+     * Returns the percentile of the recent samples.
+     *
+     * @return the percentile of the recent samples in nanoseconds or {@code -1} if not enough samples were recorded
+     * yet.
+     */
+    long percentileNanos() {
+        return percentileNs;
+    }
+
+    private void recompute(final int count) {
+        final long[] snapshot = new long[count];
+        for (int i = 0; i < count; ++i) {
+            snapshot[i] = samples.get(i);
+        }
+        Arrays.sort(snapshot);
+        percentileNs = snapshot[max(0, (int) ceil(percentile / 100 * count) - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() +
+                "{percentile=" + percentile +
+                ", percentileNs=" + percentileNs +
+                '}';
+    }
+}
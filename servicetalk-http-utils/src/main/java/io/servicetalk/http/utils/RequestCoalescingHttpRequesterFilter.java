@@ -0,0 +1,464 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.concurrent.Cancellable;
+import io.servicetalk.concurrent.CompletableSource;
+import io.servicetalk.concurrent.SingleSource;
+import io.servicetalk.concurrent.SingleSource.Processor;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.internal.CancelImmediatelySubscriber;
+import io.servicetalk.http.api.FilterableStreamingHttpClient;
+import io.servicetalk.http.api.HttpExecutionStrategy;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.HttpRequestMethod;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpClientFilterFactory;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.api.StreamingHttpResponseFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.concurrent.api.Processors.newCompletableProcessor;
+import static io.servicetalk.concurrent.api.Processors.newSingleProcessor;
+import static io.servicetalk.concurrent.api.Single.defer;
+import static io.servicetalk.concurrent.api.SourceAdapters.fromSource;
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.PROXY_AUTHORIZATION;
+import static io.servicetalk.http.api.HttpRequestMethod.GET;
+import static io.servicetalk.http.api.HttpRequestMethod.HEAD;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A filter that coalesces identical in-flight requests into a single request (also known as "single-flight").
+ * <p>
+ * Requests are identified by a key, see {@link Builder#keyFunction(Function)}. While a request is waiting for its
+ * response metadata, later requests with the same key are not sent but wait for the same response. When the response
+ * metadata arrives, every waiting request gets its own copy of it and the payload body is
+ * {@link Publisher#multicast(int, int) multicast} to all of them. A request with the same key which arrives after the
+ * response metadata starts a new request. This protects a backend from a burst of identical requests, for example,
+ * when many clients miss a cache at the same time.
+ * <p>
+ * Cancelling a waiting request does not affect the others, the shared request is cancelled only after all requests
+ * waiting for it are cancelled. Likewise, the shared payload body is cancelled only after all payload bodies are
+ * cancelled. Waiting requests consume the payload body at a different pace, which is bounded by
+ * {@link Builder#queueLimit(int)}: the slowest payload body subscriber holds back the others once that many items
+ * are queued for it. The shared payload body is requested only after all coalesced responses subscribed to their
+ * payload bodies, so each of them must be consumed or cancelled.
+ * <p>
+ * By default, only {@link HttpRequestMethod#GET GET} and {@link HttpRequestMethod#HEAD HEAD} requests with the same
+ * request-target are coalesced. Requests with credentials, i.e. {@code Authorization}, {@code Proxy-Authorization} or
+ * {@code Cookie} headers, are not coalesced unless these headers are {@link Builder#keyHeaders(CharSequence...) part
+ * of the key}, so that a response for one user is never delivered to another. The request payload body of coalesced
+ * requests which are not sent is never subscribed, so requests which have a payload body must not be coalesced.
+ */
+public final class RequestCoalescingHttpRequesterFilter implements StreamingHttpClientFilterFactory {
+
+    static final int DEFAULT_QUEUE_LIMIT = 64;
+
+    private final Function<? super HttpRequestMetaData, ?> keyFunction;
+    private final int queueLimit;
+
+    private RequestCoalescingHttpRequesterFilter(final Function<? super HttpRequestMetaData, ?> keyFunction,
+                                                 final int queueLimit) {
+        this.keyFunction = keyFunction;
+        this.queueLimit = queueLimit;
+    }
+
+    @Override
+    public StreamingHttpClientFilter create(final FilterableStreamingHttpClient client) {
+        return new CoalescingFilter(client);
+    }
+
+    @Override
+    public HttpExecutionStrategy requiredOffloads() {
+        return offloadNone();
+    }
+
+    private final class CoalescingFilter extends StreamingHttpClientFilter {
+        private final Map<Object, Flight> flights = new HashMap<>();
+
+        CoalescingFilter(final FilterableStreamingHttpClient client) {
+            super(client);
+        }
+
+        @Override
+        protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
+                                                        final StreamingHttpRequest request) {
+            final Object key = keyFunction.apply(request);
+            if (key == null) {
+                return delegate.request(request);
+            }
+            return defer(() -> {
+                final Participant participant = new Participant();
+                final Flight flight;
+                final boolean owner;
+                synchronized (flights) {
+                    final Flight existing = flights.get(key);
+                    if (existing == null) {
+                        flight = new Flight(flights, key, queueLimit);
+                        flights.put(key, flight);
+                        owner = true;
+                    } else {
+                        flight = existing;
+                        owner = false;
+                    }
+                    ++flight.participants;
+                }
+                final Single<StreamingHttpResponse> response = flight.join(participant,
+                        delegate.httpResponseFactory());
+                if (owner) {
+                    flight.start(delegate.request(request));
+                }
+                return response.shareContextOnSubscribe();
+            });
+        }
+    }
+
+    @Nullable
+    private static Object defaultKey(final HttpRequestMetaData request, final CharSequence[] keyHeaders,
+                                     final CharSequence[] bypassHeaders) {
+        final HttpRequestMethod method = request.method();
+        if (!GET.equals(method) && !HEAD.equals(method)) {
+            return null;
+        }
+        for (CharSequence name : bypassHeaders) {
+            if (request.headers().contains(name)) {
+                return null;
+            }
+        }
+        if (keyHeaders.length == 0) {
+            return method.name() + ' ' + request.requestTarget();
+        }
+        final StringBuilder key = new StringBuilder(64).append(method.name()).append(' ')
+                .append(request.requestTarget());
+        for (CharSequence name : keyHeaders) {
+            key.append('\n').append(name).append(':');
+            final Iterator<? extends CharSequence> values = request.headers().valuesIterator(name);
+            while (values.hasNext()) {
+                key.append(values.next()).append(',');
+            }
+        }
+        return key.toString();
+    }
+
+    private static Object duplicate(final Object item) {
+        return item instanceof Buffer ? ((Buffer) item).duplicate() : item;
+    }
+
+    /**
+     * The state of a single request which coalesced into a {@link Flight}.
+     */
+    private static final class Participant {
+        private static final AtomicIntegerFieldUpdater<Participant> stateUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Participant.class, "state");
+        private static final int WAITING = 0;
+        private static final int DELIVERED = 1;
+        private static final int CANCELLED = 2;
+
+        private volatile int state;
+
+        boolean tryDeliver() {
+            return stateUpdater.compareAndSet(this, WAITING, DELIVERED);
+        }
+
+        boolean tryCancel() {
+            return stateUpdater.compareAndSet(this, WAITING, CANCELLED);
+        }
+    }
+
+    /**
+     * A request sent on behalf of all requests with the same key. All mutable state is guarded by {@code flights}.
+     */
+    private static final class Flight implements SingleSource.Subscriber<StreamingHttpResponse> {
+        private final Map<Object, Flight> flights;
+        private final Object key;
+        private final int queueLimit;
+        private final Processor<SharedResponse, SharedResponse> processor = newSingleProcessor();
+        int participants;
+        private boolean closed;
+        @Nullable
+        private Cancellable cancellable;
+        @Nullable
+        private SharedResponse shared;
+
+        Flight(final Map<Object, Flight> flights, final Object key, final int queueLimit) {
+            this.flights = flights;
+            this.key = key;
+            this.queueLimit = queueLimit;
+        }
+
+        void start(final Single<StreamingHttpResponse> response) {
+            toSource(response).subscribe(this);
+        }
+
+        Single<StreamingHttpResponse> join(final Participant participant,
+                                           final StreamingHttpResponseFactory responseFactory) {
+            return fromSource(processor)
+                    .map(shared -> participant.tryDeliver() ? shared.newResponse(responseFactory) : null)
+                    .whenCancel(() -> {
+                        if (participant.tryCancel()) {
+                            leave();
+                        }
+                    });
+        }
+
+        @Override
+        public void onSubscribe(final Cancellable cancellable) {
+            final boolean cancel;
+            synchronized (flights) {
+                // All participants may have left before the request was subscribed.
+                cancel = closed;
+                if (!cancel) {
+                    this.cancellable = cancellable;
+                }
+            }
+            if (cancel) {
+                cancellable.cancel();
+            }
+        }
+
+        @Override
+        public void onSuccess(@Nullable final StreamingHttpResponse response) {
+            assert response != null;
+            final SharedResponse shared;
+            synchronized (flights) {
+                final int participants = this.participants;
+                if (closed || participants == 0) {
+                    shared = null;
+                } else {
+                    // Later requests can't join anymore, they would miss the beginning of the payload body.
+                    closed = true;
+                    flights.remove(key, this);
+                    shared = this.shared = new SharedResponse(response, participants, queueLimit);
+                }
+            }
+            if (shared == null) {
+                // All participants left, release the resources associated with the response.
+                toSource(response.messageBody()).subscribe(CancelImmediatelySubscriber.INSTANCE);
+            } else {
+                processor.onSuccess(shared);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            synchronized (flights) {
+                closed = true;
+                flights.remove(key, this);
+            }
+            processor.onError(t);
+        }
+
+        private void leave() {
+            final Cancellable toCancel;
+            final SharedResponse shared;
+            synchronized (flights) {
+                if (closed) {
+                    toCancel = null;
+                    shared = this.shared;
+                } else {
+                    shared = null;
+                    if (--participants != 0) {
+                        return;
+                    }
+                    closed = true;
+                    flights.remove(key, this);
+                    toCancel = cancellable;
+                }
+            }
+            if (toCancel != null) {
+                toCancel.cancel();
+            } else if (shared != null) {
+                // The participant was already accounted for the payload body, which waits for all subscribers.
+                shared.abandon();
+            }
+        }
+    }
+
+    /**
+     * A response metadata and a payload body shared by all participants of a {@link Flight}.
+     */
+    private static final class SharedResponse {
+        private static final AtomicIntegerFieldUpdater<SharedResponse> activeUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(SharedResponse.class, "active");
+
+        private final StreamingHttpResponse response;
+        private final Publisher<Object> messageBody;
+        private final boolean multicast;
+        private final CompletableSource.Processor cancelled = newCompletableProcessor();
+        private volatile int active;
+
+        SharedResponse(final StreamingHttpResponse response, final int participants, final int queueLimit) {
+            this.response = response;
+            this.active = participants;
+            this.multicast = participants > 1;
+            // The multicast operator can't cancel the upstream because a participant may cancel before others
+            // subscribe, so the payload body is cancelled after all participants cancelled.
+            this.messageBody = !multicast ? response.messageBody() : response.messageBody()
+                    .takeUntil(fromSource(cancelled))
+                    .multicast(participants, queueLimit, false);
+        }
+
+        StreamingHttpResponse newResponse(final StreamingHttpResponseFactory responseFactory) {
+            if (!multicast) {
+                return response;
+            }
+            final Publisher<Object> messageBody = messageBody();
+            final StreamingHttpResponse copy = responseFactory.newResponse(response.status())
+                    .version(response.version())
+                    .transformMessageBody(__ -> messageBody);
+            copy.headers().add(response.headers());
+            copy.context(response.context().copy());
+            return copy;
+        }
+
+        void abandon() {
+            toSource(messageBody()).subscribe(CancelImmediatelySubscriber.INSTANCE);
+        }
+
+        private Publisher<Object> messageBody() {
+            // Each participant gets its own view of the payload buffers, otherwise the first reader would consume them.
+            return messageBody.map(RequestCoalescingHttpRequesterFilter::duplicate).whenCancel(() -> {
+                if (activeUpdater.decrementAndGet(this) == 0) {
+                    cancelled.onComplete();
+                }
+            });
+        }
+    }
+
+    /**
+     * A builder for {@link RequestCoalescingHttpRequesterFilter}.
+     */
+    public static final class Builder {
+        private static final CharSequence[] NO_HEADERS = new CharSequence[0];
+        /**
+         * Headers which carry credentials, requests with these headers are not coalesced by default.
+         */
+        private static final CharSequence[] CREDENTIAL_HEADERS = {AUTHORIZATION, PROXY_AUTHORIZATION, COOKIE};
+
+        @Nullable
+        private Function<? super HttpRequestMetaData, ?> keyFunction;
+        private CharSequence[] keyHeaders = NO_HEADERS;
+        private int queueLimit = DEFAULT_QUEUE_LIMIT;
+
+        /**
+         * Sets a function which computes the key of a request, requests with equal keys are coalesced.
+         * <p>
+         * The function returns {@code null} for requests which must not be coalesced. The returned keys must
+         * implement {@link Object#equals(Object)} and {@link Object#hashCode()}. By default, {@code GET} and
+         * {@code HEAD} requests with the same method, request-target and values of the
+         * {@link #keyHeaders(CharSequence...) key headers} are coalesced, except requests with credential headers
+         * which are not key headers.
+         *
+         * @param keyFunction the function which computes the key of a request.
+         * @return {@code this}.
+         */
+        public Builder keyFunction(final Function<? super HttpRequestMetaData, ?> keyFunction) {
+            this.keyFunction = requireNonNull(keyFunction);
+            return this;
+        }
+
+        /**
+         * Sets the header names which are included in the default key of a request, for example,
+         * {@code accept-encoding} if responses depend on them.
+         * <p>
+         * Requests with {@code authorization}, {@code proxy-authorization} or {@code cookie} headers are only coalesced
+         * if these headers are included in the key, then only requests with the same credentials are coalesced.
+         * <p>
+         * Ignored if a {@link #keyFunction(Function)} is set.
+         *
+         * @param names the header names which are included in the default key of a request.
+         * @return {@code this}.
+         */
+        public Builder keyHeaders(final CharSequence... names) {
+            for (CharSequence name : names) {
+                requireNonNull(name);
+            }
+            this.keyHeaders = names.clone();
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of payload body items queued for a coalesced response which is consumed slower
+         * than the others.
+         * <p>
+         * Once the limit is reached, the shared payload body is not requested further until the slowest subscriber
+         * catches up. The default is {@code 64}.
+         *
+         * @param queueLimit the maximum number of queued payload body items per coalesced response.
+         * @return {@code this}.
+         */
+        public Builder queueLimit(final int queueLimit) {
+            if (queueLimit <= 0) {
+                throw new IllegalArgumentException("queueLimit: " + queueLimit + " (expected >0)");
+            }
+            this.queueLimit = queueLimit;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link RequestCoalescingHttpRequesterFilter}.
+         *
+         * @return a new {@link RequestCoalescingHttpRequesterFilter}.
+         */
+        public RequestCoalescingHttpRequesterFilter build() {
+            final Function<? super HttpRequestMetaData, ?> keyFunction;
+            if (this.keyFunction != null) {
+                keyFunction = this.keyFunction;
+            } else {
+                final CharSequence[] keyHeaders = this.keyHeaders;
+                final CharSequence[] bypassHeaders = bypassHeaders(keyHeaders);
+                keyFunction = request -> defaultKey(request, keyHeaders, bypassHeaders);
+            }
+            return new RequestCoalescingHttpRequesterFilter(keyFunction, queueLimit);
+        }
+
+        private static CharSequence[] bypassHeaders(final CharSequence[] keyHeaders) {
+            final List<CharSequence> bypassHeaders = new ArrayList<>(CREDENTIAL_HEADERS.length);
+            for (CharSequence credentialHeader : CREDENTIAL_HEADERS) {
+                if (!containsIgnoreCase(keyHeaders, credentialHeader)) {
+                    bypassHeaders.add(credentialHeader);
+                }
+            }
+            return bypassHeaders.toArray(NO_HEADERS);
+        }
+
+        private static boolean containsIgnoreCase(final CharSequence[] names, final CharSequence name) {
+            for (CharSequence candidate : names) {
+                if (contentEqualsIgnoreCase(candidate, name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
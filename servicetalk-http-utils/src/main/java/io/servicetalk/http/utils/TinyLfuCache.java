@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import javax.annotation.Nullable;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * A bounded, size-weighted LRU cache with TinyLFU admission.
+ * <p>
+ * Every access records the key in a {@link FrequencySketch}. When a new entry does not fit, it is only admitted if it
+ * was accessed more frequently than each of the least recently used entries it would evict. This keeps the cache from
+ * being flushed by a scan of keys which are accessed once, which a plain LRU policy is prone to.
+ * <p>
+ * All operations are guarded by a single lock, the cache is intended for values which are expensive to obtain compared
+ * to the cost of the lock.
+ *
+ * @param <K> the type of keys.
+ * @param <V> the type of values.
+ */
+final class TinyLfuCache<K, V> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<TinyLfuCache> evictionsUpdater =
+            AtomicLongFieldUpdater.newUpdater(TinyLfuCache.class, "evictions");
+
+    private final long maxWeight;
+    private final Map<K, Weighted<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long weight;
+    private volatile long evictions;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxWeight the maximum total weight of all values.
+     * @param expectedEntries the expected number of entries, used to size the frequency sketch.
+     */
+    TinyLfuCache(final long maxWeight, final int expectedEntries) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight: " + maxWeight + " (expected >0)");
+        }
+        this.maxWeight = maxWeight;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    /**
+     * Returns the value for {@code key} and records the access.
+     *
+     * @param key the key to look up.
+     * @return the value for {@code key}, or {@code null} if it is not cached.
+     */
+    @Nullable
+    synchronized V get(final K key) {
+        sketch.increment(key.hashCode());
+        final Weighted<V> weighted = map.get(key);
+        return weighted == null ? null : weighted.value;
+    }
+
+    /**
+     * Puts a value, if it is admitted.
+     * <p>
+     * Replacing the value of a cached key is always admitted. Other values are only admitted if they fit, or if their
+     * key was accessed more frequently than the keys of the entries that have to be evicted to make room.
+     *
+     * @param key the key of the value.
+     * @param value the value to put.
+     * @param valueWeight the weight of the value.
+     * @return {@code true} if the value was admitted.
+     */
+    synchronized boolean put(final K key, final V value, final long valueWeight) {
+        if (valueWeight > maxWeight) {
+            remove(key);
+            return false;
+        }
+        final Weighted<V> previous = map.get(key);
+        long required = weight + valueWeight - (previous == null ? 0 : previous.weight) - maxWeight;
+        if (required > 0 && previous == null) {
+            final int frequency = sketch.frequency(key.hashCode());
+            long freed = 0;
+            for (Entry<K, Weighted<V>> victim : map.entrySet()) {
+                if (sketch.frequency(victim.getKey().hashCode()) >= frequency) {
+                    return false;
+                }
+                freed += victim.getValue().weight;
+                if (freed >= required) {
+                    break;
+                }
+            }
+        }
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        map.put(key, new Weighted<>(value, valueWeight));
+        weight += valueWeight;
+        final Iterator<Entry<K, Weighted<V>>> itr = map.entrySet().iterator();
+        while (weight > maxWeight && itr.hasNext()) {
+            final Entry<K, Weighted<V>> victim = itr.next();
+            if (victim.getKey().equals(key)) {
+                continue;
+            }
+            weight -= victim.getValue().weight;
+            itr.remove();
+            evictionsUpdater.incrementAndGet(this);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the value for {@code key}.
+     *
+     * @param key the key to remove.
+     */
+    synchronized void remove(final K key) {
+        final Weighted<V> removed = map.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    /**
+     * Returns the total weight of all cached values.
+     *
+     * @return the total weight of all cached values.
+     */
+    synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Returns the number of entries which were evicted to make room for other entries.
+     *
+     * @return the number of entries which were evicted to make room for other entries.
+     */
+    long evictions() {
+        return evictions;
+    }
+
+    private static final class Weighted<V> {
+        final V value;
+        final long weight;
+
+        Weighted(final V value, final long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A count-min sketch with 4-bit counters, which are halved periodically so that the frequencies follow the recent
+     * access pattern.
+     */
+    static final class FrequencySketch {
+        private static final int[] SEEDS = {0x97cb3127, 0xb1a2c9e5, 0x8ebc6af1, 0xc2b2ae35};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(final int expectedEntries) {
+            // Each long holds 16 counters, 4 counters per entry keeps the error rate low.
+            final int length = highestOneBit(max(8, min(expectedEntries, 1 << 24) / 4) - 1) << 1;
+            table = new long[length];
+            sampleSize = length * 16 * 10 / 4;
+        }
+
+        /**
+         * Returns the estimated number of recent accesses of a key, up to 15.
+         *
+         * @param hashCode the hash code of the key.
+         * @return the estimated number of recent accesses of a key.
+         */
+        int frequency(final int hashCode) {
+            int frequency = Integer.MAX_VALUE;
+            for (int seed : SEEDS) {
+                final int hash = hash(hashCode, seed);
+                frequency = min(frequency, (int) (table[index(hash)] >>> offset(hash)) & 0xf);
+            }
+            return frequency;
+        }
+
+        /**
+         * Records an access of a key.
+         *
+         * @param hashCode the hash code of the key.
+         */
+        void increment(final int hashCode) {
+            boolean added = false;
+            for (int seed : SEEDS) {
+                final int hash = hash(hashCode, seed);
+                final int index = index(hash);
+                final int offset = offset(hash);
+                if (((table[index] >>> offset) & 0xf) != 0xf) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; ++i) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+
+        private int index(final int hash) {
+            return hash & (table.length - 1);
+        }
+
+        private static int offset(final int hash) {
+            // The 4 highest bits select one of the 16 counters within a long.
+            return (hash >>> 28) << 2;
+        }
+
+        private static int hash(final int hashCode, final int seed) {
+            int hash = (hashCode ^ (hashCode >>> 16)) * seed;
+            hash ^= hash >>> 15;
+            return hash * 0x2c1b3c6d;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.client.api.RequestRejectedException;
+import io.servicetalk.concurrent.api.TestPublisher;
+import io.servicetalk.http.api.FilterableStreamingHttpConnection;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.transport.api.RetryableException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.concurrent.ExecutionException;
+
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.utils.PayloadSizeLimitingHttpRequesterFilterTest.REQ_RESP_FACTORY;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdaptiveConcurrencyLimitHttpRequesterFilterTest {
+
+    private final TestPublisher<Buffer> payload = new TestPublisher<>();
+
+    @Test
+    void invalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimitHttpRequesterFilter(0, 1, 1));
+    }
+
+    @Test
+    void rejectsUntilResponsePayloadIsConsumed() throws Exception {
+        FilterableStreamingHttpConnection connection = mock(FilterableStreamingHttpConnection.class);
+        when(connection.request(any())).thenAnswer(__ -> succeeded(REQ_RESP_FACTORY.ok().payloadBody(payload)));
+        StreamingHttpRequester requester = new AdaptiveConcurrencyLimitHttpRequesterFilter(1, 1, 1)
+                .create(connection);
+
+        StreamingHttpResponse response = requester.request(REQ_RESP_FACTORY.get("/")).toFuture().get();
+        assertRejected(() -> requester.request(REQ_RESP_FACTORY.get("/")).toFuture().get());
+
+        response.payloadBody().ignoreElements().subscribe();
+        payload.onComplete();
+        requester.request(REQ_RESP_FACTORY.get("/")).toFuture().get();
+    }
+
+    private static void assertRejected(final Executable executable) {
+        ExecutionException e = assertThrows(ExecutionException.class, executable);
+        assertThat(e.getCause(), instanceOf(RequestRejectedException.class));
+        assertThat(e.getCause(), instanceOf(RetryableException.class));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.concurrent.api.TestPublisher;
+import io.servicetalk.http.api.HttpServiceContext;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.api.StreamingHttpService;
+
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.http.api.HttpResponseStatus.SERVICE_UNAVAILABLE;
+import static io.servicetalk.http.utils.PayloadSizeLimitingHttpRequesterFilterTest.REQ_RESP_FACTORY;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class AdaptiveConcurrencyLimitHttpServiceFilterTest {
+
+    private final TestPublisher<Buffer> payload = new TestPublisher<>();
+
+    @Test
+    void invalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimitHttpServiceFilter(1, 1, 0));
+    }
+
+    @Test
+    void rejectsUntilResponsePayloadIsConsumed() throws Exception {
+        StreamingHttpService service = new AdaptiveConcurrencyLimitHttpServiceFilter(1, 1, 1)
+                .create((ctx, request, responseFactory) -> succeeded(responseFactory.ok().payloadBody(payload)));
+        HttpServiceContext ctx = mock(HttpServiceContext.class);
+
+        StreamingHttpResponse response = service.handle(ctx, REQ_RESP_FACTORY.get("/"), REQ_RESP_FACTORY)
+                .toFuture().get();
+        assertThat(service.handle(ctx, REQ_RESP_FACTORY.get("/"), REQ_RESP_FACTORY).toFuture().get().status(),
+                is(SERVICE_UNAVAILABLE));
+
+        response.payloadBody().ignoreElements().subscribe();
+        payload.onComplete();
+        assertThat(service.handle(ctx, REQ_RESP_FACTORY.get("/"), REQ_RESP_FACTORY).toFuture().get().status(),
+                is(OK));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.client.api.RequestRejectedException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static io.servicetalk.http.utils.AdaptiveConcurrencyLimiter.isRejectedByLimit;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void invalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(2, 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(11, 1, 10));
+    }
+
+    @Test
+    void rejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.tryAcquire(), is(false));
+        assertThat(limiter.inFlight(), is(2));
+        limiter.onIgnore();
+        assertThat(limiter.tryAcquire(), is(true));
+    }
+
+    @Test
+    void growsWhileRttIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+        for (int i = 0; i < 10; ++i) {
+            runRound(limiter, MILLISECONDS.toNanos(1));
+        }
+        assertThat(limiter.limit(), is(greaterThan(10)));
+        assertThat(limiter.inFlight(), is(0));
+    }
+
+    @Test
+    void shrinksWhenRttGrows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100);
+        for (int i = 0; i < 10; ++i) {
+            runRound(limiter, MILLISECONDS.toNanos(1));
+        }
+        final int stableLimit = limiter.limit();
+        for (int i = 0; i < 10; ++i) {
+            runRound(limiter, MILLISECONDS.toNanos(10));
+        }
+        assertThat(limiter.limit(), is(lessThan(stableLimit)));
+    }
+
+    @Test
+    void shrinksWhenRttGrowsWhileLimitIsNotUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100);
+        for (int i = 0; i < 10; ++i) {
+            assertThat(limiter.tryAcquire(), is(true));
+            limiter.onSuccess(MILLISECONDS.toNanos(1));
+        }
+        assertThat(limiter.limit(), is(50));
+        assertThat(limiter.tryAcquire(), is(true));
+        limiter.onSuccess(MILLISECONDS.toNanos(10));
+        assertThat(limiter.limit(), is(lessThan(50)));
+    }
+
+    @Test
+    void onlyRejectionsByLimitAreOverloads() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> limiter.rejected().toFuture().get());
+        assertThat(isRejectedByLimit(e.getCause()), is(true));
+        assertThat(isRejectedByLimit(new RequestRejectedException("no host")), is(false));
+    }
+
+    @Test
+    void backsOffOnDrop() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 1, 1000);
+        assertThat(limiter.tryAcquire(), is(true));
+        limiter.onDropped();
+        assertThat(limiter.limit(), is(90));
+        assertThat(limiter.inFlight(), is(0));
+    }
+
+    @Test
+    void limitDoesNotGoBelowMin() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 5, 10);
+        for (int i = 0; i < 100; ++i) {
+            assertThat(limiter.tryAcquire(), is(true));
+            limiter.onDropped();
+        }
+        assertThat(limiter.limit(), is(5));
+    }
+
+    private static void runRound(final AdaptiveConcurrencyLimiter limiter, final long rttNs) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            ++acquired;
+        }
+        for (int i = 0; i < acquired; ++i) {
+            limiter.onSuccess(rttNs);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.concurrent.api.TestExecutor;
+import io.servicetalk.concurrent.api.TestSingle;
+import io.servicetalk.http.api.FilterableStreamingHttpClient;
+import io.servicetalk.http.api.HttpExecutionContext;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.AGE;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.ETAG;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static io.servicetalk.http.api.HttpResponseStatus.NOT_MODIFIED;
+import static io.servicetalk.http.utils.PayloadSizeLimitingHttpRequesterFilterTest.REQ_RESP_FACTORY;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CachingHttpRequesterFilterTest {
+
+    private final TestExecutor executor = new TestExecutor();
+    private final List<Attempt> attempts = new ArrayList<>();
+    private final FilterableStreamingHttpClient client = mock(FilterableStreamingHttpClient.class);
+    private final CachingHttpRequesterFilter filterFactory = new CachingHttpRequesterFilter.Builder()
+            .timeSource(executor).build();
+    private StreamingHttpClientFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(client.request(any())).thenAnswer(invocation -> {
+            final Attempt attempt = new Attempt(invocation.getArgument(0));
+            attempts.add(attempt);
+            return attempt.response;
+        });
+        when(client.httpResponseFactory()).thenReturn(REQ_RESP_FACTORY);
+        when(client.newRequest(any(), any())).thenAnswer(invocation ->
+                REQ_RESP_FACTORY.newRequest(invocation.getArgument(0), invocation.getArgument(1)));
+        final HttpExecutionContext executionContext = mock(HttpExecutionContext.class);
+        when(executionContext.bufferAllocator()).thenReturn(DEFAULT_ALLOCATOR);
+        when(client.executionContext()).thenReturn(executionContext);
+        filter = filterFactory.create(client);
+    }
+
+    @Test
+    void freshResponseIsServedFromCache() throws Exception {
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        attempts.get(0).response.onSuccess(ok("a", "max-age=60"));
+        assertThat(payload(first.get()), is("a"));
+
+        executor.advanceTimeBy(10, SECONDS);
+        StreamingHttpResponse cached = filter.request(REQ_RESP_FACTORY.get("/")).toFuture().get();
+        assertThat(attempts, hasSize(1));
+        assertThat(cached.headers().get(AGE), is("10"));
+        assertThat(payload(cached), is("a"));
+        assertThat(filterFactory.hitCount(), is(1L));
+        assertThat(filterFactory.missCount(), is(1L));
+    }
+
+    @Test
+    void noStoreResponseIsNotCached() throws Exception {
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        attempts.get(0).response.onSuccess(ok("a", "no-store"));
+        assertThat(payload(first.get()), is("a"));
+
+        filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        assertThat(attempts, hasSize(2));
+    }
+
+    @Test
+    void staleResponseIsRevalidated() throws Exception {
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        StreamingHttpResponse response = ok("a", "max-age=1");
+        response.headers().set(ETAG, "\"v1\"");
+        attempts.get(0).response.onSuccess(response);
+        assertThat(payload(first.get()), is("a"));
+
+        executor.advanceTimeBy(2, SECONDS);
+        StreamingHttpRequest request = REQ_RESP_FACTORY.get("/");
+        Future<StreamingHttpResponse> second = filter.request(request).toFuture();
+        assertThat(attempts, hasSize(2));
+        assertThat(attempts.get(1).request.headers().get(IF_NONE_MATCH), is("\"v1\""));
+        // The request of the caller stays unconditional, it may be sent again by other filters.
+        assertThat(attempts.get(1).request, is(not(sameInstance(request))));
+        assertThat(request.headers().get(IF_NONE_MATCH), is(nullValue()));
+        attempts.get(1).response.onSuccess(REQ_RESP_FACTORY.newResponse(NOT_MODIFIED)
+                .setHeader(CACHE_CONTROL, "max-age=60"));
+        assertThat(payload(second.get()), is("a"));
+
+        assertThat(payload(filter.request(REQ_RESP_FACTORY.get("/")).toFuture().get()), is("a"));
+        assertThat(attempts, hasSize(2));
+    }
+
+    @Test
+    void staleWhileRevalidateServesStaleResponse() throws Exception {
+        filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        attempts.get(0).response.onSuccess(ok("a", "max-age=1, stale-while-revalidate=60"));
+
+        executor.advanceTimeBy(2, SECONDS);
+        assertThat(payload(filter.request(REQ_RESP_FACTORY.get("/")).toFuture().get()), is("a"));
+        assertThat("Background revalidation is not started", attempts, hasSize(2));
+        attempts.get(1).response.onSuccess(ok("b", "max-age=60"));
+
+        assertThat(payload(filter.request(REQ_RESP_FACTORY.get("/")).toFuture().get()), is("b"));
+        assertThat(attempts, hasSize(2));
+        assertThat(filterFactory.hitCount(), is(2L));
+    }
+
+    @Test
+    void varyMismatchIsAMiss() throws Exception {
+        filter.request(REQ_RESP_FACTORY.get("/").setHeader(ACCEPT, "text/plain")).toFuture();
+        attempts.get(0).response.onSuccess(ok("a", "max-age=60").setHeader(VARY, "accept"));
+
+        filter.request(REQ_RESP_FACTORY.get("/").setHeader(ACCEPT, "text/plain")).toFuture().get();
+        assertThat(attempts, hasSize(1));
+        filter.request(REQ_RESP_FACTORY.get("/").setHeader(ACCEPT, "application/json")).toFuture();
+        assertThat(attempts, hasSize(2));
+    }
+
+    @Test
+    void concurrentMissesAreCoalesced() throws Exception {
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        Future<StreamingHttpResponse> second = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        assertThat(attempts, hasSize(1));
+
+        attempts.get(0).response.onSuccess(ok("a", "max-age=60"));
+        assertThat(payload(first.get()), is("a"));
+        assertThat(payload(second.get()), is("a"));
+        assertThat(filterFactory.missCount(), is(2L));
+    }
+
+    @Test
+    void coalescedRequestIsSentIfResponseIsNotCacheable() throws Exception {
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        Future<StreamingHttpResponse> second = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        attempts.get(0).response.onSuccess(ok("a", "no-store"));
+        assertThat(payload(first.get()), is("a"));
+
+        assertThat(attempts, hasSize(2));
+        attempts.get(1).response.onSuccess(ok("b", "no-store"));
+        assertThat(payload(second.get()), is("b"));
+    }
+
+    @Test
+    void unsafeRequestInvalidatesResponse() throws Exception {
+        filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        attempts.get(0).response.onSuccess(ok("a", "max-age=60"));
+
+        Future<StreamingHttpResponse> post = filter.request(REQ_RESP_FACTORY.post("/")).toFuture();
+        attempts.get(1).response.onSuccess(REQ_RESP_FACTORY.ok());
+        post.get();
+
+        filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        assertThat(attempts, hasSize(3));
+    }
+
+    @Test
+    void requestWithAuthorizationBypassesCache() throws Exception {
+        filter.request(REQ_RESP_FACTORY.get("/").setHeader(AUTHORIZATION, "secret")).toFuture();
+        attempts.get(0).response.onSuccess(ok("a", "max-age=60"));
+
+        filter.request(REQ_RESP_FACTORY.get("/").setHeader(AUTHORIZATION, "secret")).toFuture();
+        assertThat(attempts, hasSize(2));
+        assertThat(attempts.get(1).request.headers().get(IF_NONE_MATCH), is(nullValue()));
+        assertThat(filterFactory.size(), is(0L));
+    }
+
+    @Test
+    void responseLargerThanMaxEntrySizeIsPassedThrough() throws Exception {
+        StreamingHttpClientFilter limited = new CachingHttpRequesterFilter.Builder().timeSource(executor)
+                .maxEntrySize(4).build().create(client);
+        Future<StreamingHttpResponse> first = limited.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        Future<StreamingHttpResponse> second = limited.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        // No Content-Length, the size is only known while the payload body is aggregated.
+        attempts.get(0).response.onSuccess(REQ_RESP_FACTORY.ok().setHeader(CACHE_CONTROL, "max-age=60")
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("abc"), DEFAULT_ALLOCATOR.fromAscii("def"),
+                        DEFAULT_ALLOCATOR.fromAscii("ghi"))));
+        assertThat(payload(first.get()), is("abcdefghi"));
+
+        assertThat("Coalesced request is not sent", attempts, hasSize(2));
+        attempts.get(1).response.onSuccess(ok("b", "max-age=60"));
+        assertThat(payload(second.get()), is("b"));
+    }
+
+    @Test
+    void responseWithinMaxEntrySizeIsAggregatedWithoutContentLength() throws Exception {
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        attempts.get(0).response.onSuccess(REQ_RESP_FACTORY.ok().setHeader(CACHE_CONTROL, "max-age=60")
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("abc"), DEFAULT_ALLOCATOR.fromAscii("def"))));
+        assertThat(payload(first.get()), is("abcdef"));
+
+        assertThat(payload(filter.request(REQ_RESP_FACTORY.get("/")).toFuture().get()), is("abcdef"));
+        assertThat(attempts, hasSize(1));
+    }
+
+    private static StreamingHttpResponse ok(final String payload, final String cacheControl) {
+        return REQ_RESP_FACTORY.ok().setHeader(CACHE_CONTROL, cacheControl)
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii(payload)));
+    }
+
+    private static String payload(final StreamingHttpResponse response) throws Exception {
+        return response.toResponse().toFuture().get().payloadBody().toString(US_ASCII);
+    }
+
+    private static final class Attempt {
+        final StreamingHttpRequest request;
+        final TestSingle<StreamingHttpResponse> response = new TestSingle<>();
+
+        Attempt(final StreamingHttpRequest request) {
+            this.request = request;
+        }
+    }
+}
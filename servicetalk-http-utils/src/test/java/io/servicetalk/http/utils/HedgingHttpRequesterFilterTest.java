@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.concurrent.api.TestExecutor;
+import io.servicetalk.concurrent.api.TestSingle;
+import io.servicetalk.context.api.ContextMap;
+import io.servicetalk.http.api.FilterableStreamingHttpClient;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.client.api.ExcludedHosts.EXCLUDED_HOSTS_KEY;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.context.api.ContextMap.Key.newKey;
+import static io.servicetalk.http.api.HttpContextKeys.HTTP_IDEMPOTENT_REQUEST;
+import static io.servicetalk.http.api.HttpRequestMethod.GET;
+import static io.servicetalk.http.utils.PayloadSizeLimitingHttpRequesterFilterTest.REQ_RESP_FACTORY;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HedgingHttpRequesterFilterTest {
+
+    private static final Duration DELAY = Duration.ofMillis(100);
+    private static final ContextMap.Key<String> TEST_KEY = newKey("TEST_KEY", String.class);
+
+    private final TestExecutor executor = new TestExecutor();
+    private final List<Attempt> attempts = new ArrayList<>();
+    private final FilterableStreamingHttpClient client = mock(FilterableStreamingHttpClient.class);
+
+    @BeforeEach
+    void setUp() {
+        when(client.request(any())).thenAnswer(invocation -> {
+            final Attempt attempt = new Attempt(invocation.getArgument(0));
+            attempts.add(attempt);
+            return attempt.response.whenCancel(() -> attempt.cancelled.set(true));
+        });
+        when(client.newRequest(any(), any())).thenAnswer(invocation ->
+                REQ_RESP_FACTORY.newRequest(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @Test
+    void nonIdempotentRequestIsNotHedged() {
+        StreamingHttpClientFilter filter = newFilter(new HedgingHttpRequesterFilter.Builder());
+        filter.request(REQ_RESP_FACTORY.post("/")).toFuture();
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(1));
+    }
+
+    @Test
+    void responseBeforeDelayIsNotHedged() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new HedgingHttpRequesterFilter.Builder());
+        Future<StreamingHttpResponse> future = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        StreamingHttpResponse response = REQ_RESP_FACTORY.ok();
+        attempts.get(0).response.onSuccess(response);
+        assertThat(future.get(), is(sameInstance(response)));
+
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(1));
+    }
+
+    @Test
+    void hedgedResponseWins() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new HedgingHttpRequesterFilter.Builder());
+        StreamingHttpRequest request = REQ_RESP_FACTORY.get("/path");
+        request.headers().set("foo", "bar");
+        Future<StreamingHttpResponse> future = filter.request(request).toFuture();
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(2));
+        StreamingHttpRequest hedgedRequest = attempts.get(1).request;
+        assertThat(hedgedRequest, is(not(sameInstance(request))));
+        assertThat(hedgedRequest.method(), is(GET));
+        assertThat(hedgedRequest.requestTarget(), is("/path"));
+        assertThat(hedgedRequest.headers().get("foo"), is("bar"));
+
+        StreamingHttpResponse response = REQ_RESP_FACTORY.ok();
+        attempts.get(1).response.onSuccess(response);
+        assertThat(future.get(), is(sameInstance(response)));
+        assertThat(attempts.get(0).cancelled.get(), is(true));
+        assertThat(attempts.get(1).cancelled.get(), is(false));
+    }
+
+    @Test
+    void hedgeIsBuiltFromMetaDataBeforeTheRequestIsSent() {
+        StreamingHttpClientFilter filter = newFilter(new HedgingHttpRequesterFilter.Builder());
+        StreamingHttpRequest request = REQ_RESP_FACTORY.get("/");
+        request.headers().set("foo", "bar");
+        filter.request(request).toFuture();
+        // The transport modifies the original request while it is in flight.
+        request.headers().remove("foo");
+        request.context().put(TEST_KEY, "in-flight");
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(2));
+        StreamingHttpRequest hedgedRequest = attempts.get(1).request;
+        assertThat(hedgedRequest.headers().get("foo"), is("bar"));
+        assertThat(hedgedRequest.context().containsKey(TEST_KEY), is(false));
+        // Both requests share the hint for the load balancer to select different hosts.
+        assertThat(hedgedRequest.context().get(EXCLUDED_HOSTS_KEY),
+                is(sameInstance(request.context().get(EXCLUDED_HOSTS_KEY))));
+    }
+
+    @Test
+    void idempotentContextKeyIsHedged() {
+        StreamingHttpClientFilter filter = newFilter(new HedgingHttpRequesterFilter.Builder());
+        StreamingHttpRequest request = REQ_RESP_FACTORY.post("/");
+        request.context().put(HTTP_IDEMPOTENT_REQUEST, true);
+        filter.request(request).toFuture();
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(2));
+        assertThat(attempts.get(1).request.context().get(HTTP_IDEMPOTENT_REQUEST), is(true));
+    }
+
+    @Test
+    void streamingPayloadBodyIsNotHedged() {
+        StreamingHttpClientFilter filter = newFilter(new HedgingHttpRequesterFilter.Builder());
+        StreamingHttpRequest request = REQ_RESP_FACTORY.get("/")
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("hello")));
+        filter.request(request).toFuture();
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(1));
+    }
+
+    @Test
+    void aggregatedPayloadBodyIsSentByBothRequests() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new HedgingHttpRequesterFilter.Builder());
+        StreamingHttpRequest request = REQ_RESP_FACTORY.get("/").toRequest().toFuture().get()
+                .payloadBody(DEFAULT_ALLOCATOR.fromAscii("hello")).toStreamingRequest();
+        filter.request(request).toFuture();
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(2));
+        assertThat(readPayload(attempts.get(0).request), is("hello"));
+        assertThat(readPayload(attempts.get(1).request), is("hello"));
+    }
+
+    @Test
+    void errorIsPropagatedOnlyWhenAllRequestsFail() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new HedgingHttpRequesterFilter.Builder());
+        Future<StreamingHttpResponse> future = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(2));
+
+        attempts.get(0).response.onError(new IOException("first"));
+        assertThat(future.isDone(), is(false));
+        attempts.get(1).response.onError(new IOException("second"));
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertThat(e.getCause(), instanceOf(IOException.class));
+    }
+
+    @Test
+    void budgetLimitsHedgedRequests() {
+        StreamingHttpClientFilter filter = newFilter(new HedgingHttpRequesterFilter.Builder().budget(0.1, 1));
+        filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(2));
+
+        filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        executor.advanceTimeBy(DELAY.toMillis(), MILLISECONDS);
+        assertThat(attempts, hasSize(3));
+    }
+
+    private static String readPayload(StreamingHttpRequest request) throws Exception {
+        // Consume the buffers like the transport does when writing them.
+        return request.payloadBody().collect(StringBuilder::new, (sb, buffer) -> {
+            sb.append(buffer.toString(US_ASCII));
+            buffer.skipBytes(buffer.readableBytes());
+            return sb;
+        }).toFuture().get().toString();
+    }
+
+    @Test
+    void invalidConfiguration() {
+        HedgingHttpRequesterFilter.Builder builder = new HedgingHttpRequesterFilter.Builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.hedgeDelay(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.hedgeDelayPercentile(100, DELAY));
+        assertThrows(IllegalArgumentException.class, () -> builder.budget(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> builder.budget(0.1, 0));
+    }
+
+    private StreamingHttpClientFilter newFilter(final HedgingHttpRequesterFilter.Builder builder) {
+        return builder.hedgeDelay(DELAY).timerExecutor(executor).build().create(client);
+    }
+
+    private static final class Attempt {
+        final StreamingHttpRequest request;
+        final TestSingle<StreamingHttpResponse> response = new TestSingle<>();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        Attempt(final StreamingHttpRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.http.utils.LatencyPercentileTracker.RECOMPUTE_INTERVAL;
+import static io.servicetalk.http.utils.LatencyPercentileTracker.WINDOW_SIZE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LatencyPercentileTrackerTest {
+
+    @Test
+    void invalidPercentile() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyPercentileTracker(0));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyPercentileTracker(100));
+    }
+
+    @Test
+    void unknownUntilEnoughSamples() {
+        LatencyPercentileTracker tracker = new LatencyPercentileTracker(50);
+        for (int i = 1; i < RECOMPUTE_INTERVAL; ++i) {
+            tracker.record(i);
+        }
+        assertThat(tracker.percentileNanos(), is(-1L));
+        tracker.record(RECOMPUTE_INTERVAL);
+        assertThat(tracker.percentileNanos(), is((long) RECOMPUTE_INTERVAL / 2));
+    }
+
+    @Test
+    void usesOnlyRecentSamples() {
+        LatencyPercentileTracker tracker = new LatencyPercentileTracker(90);
+        for (int i = 0; i < WINDOW_SIZE; ++i) {
+            tracker.record(1000);
+        }
+        assertThat(tracker.percentileNanos(), is(1000L));
+        for (int i = 0; i < WINDOW_SIZE; ++i) {
+            tracker.record(10);
+        }
+        assertThat(tracker.percentileNanos(), is(10L));
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.concurrent.api.TestPublisher;
+import io.servicetalk.concurrent.api.TestSingle;
+import io.servicetalk.concurrent.api.TestSubscription;
+import io.servicetalk.http.api.FilterableStreamingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.utils.PayloadSizeLimitingHttpRequesterFilterTest.REQ_RESP_FACTORY;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestCoalescingHttpRequesterFilterTest {
+
+    private final List<Attempt> attempts = new ArrayList<>();
+    private final FilterableStreamingHttpClient client = mock(FilterableStreamingHttpClient.class);
+
+    @BeforeEach
+    void setUp() {
+        when(client.request(any())).thenAnswer(invocation -> {
+            final Attempt attempt = new Attempt(invocation.getArgument(0));
+            attempts.add(attempt);
+            return attempt.response.whenCancel(() -> attempt.cancelled.set(true));
+        });
+        when(client.httpResponseFactory()).thenReturn(REQ_RESP_FACTORY);
+    }
+
+    @Test
+    void identicalRequestsAreCoalesced() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder());
+        List<Future<StreamingHttpResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            futures.add(filter.request(REQ_RESP_FACTORY.get("/path")).toFuture());
+        }
+        assertThat(attempts, hasSize(1));
+
+        attempts.get(0).response.onSuccess(ok("abc").setHeader("foo", "bar"));
+        // The shared payload body is requested after all coalesced responses subscribed to their payload bodies.
+        List<Future<HttpResponse>> aggregated = new ArrayList<>();
+        for (Future<StreamingHttpResponse> future : futures) {
+            StreamingHttpResponse response = future.get();
+            assertThat(response.headers().get("foo"), is("bar"));
+            aggregated.add(response.toResponse().toFuture());
+        }
+        for (Future<HttpResponse> response : aggregated) {
+            assertThat(response.get().payloadBody().toString(US_ASCII), is("abc"));
+        }
+    }
+
+    @Test
+    void singleRequestGetsOriginalResponse() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder());
+        Future<StreamingHttpResponse> future = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        StreamingHttpResponse response = ok("abc");
+        attempts.get(0).response.onSuccess(response);
+        assertThat(future.get(), is(sameInstance(response)));
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder()
+                .keyHeaders(ACCEPT));
+        filter.request(REQ_RESP_FACTORY.get("/a")).toFuture();
+        filter.request(REQ_RESP_FACTORY.get("/b")).toFuture();
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(ACCEPT, "text/plain")).toFuture();
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(ACCEPT, "text/plain")).toFuture();
+        filter.request(REQ_RESP_FACTORY.post("/a")).toFuture();
+        filter.request(REQ_RESP_FACTORY.post("/a")).toFuture();
+        assertThat(attempts, hasSize(5));
+    }
+
+    @Test
+    void requestsWithCredentialsAreNotCoalescedByDefault() {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder());
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(AUTHORIZATION, "alice")).toFuture();
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(AUTHORIZATION, "bob")).toFuture();
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(COOKIE, "session=1")).toFuture();
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(COOKIE, "session=1")).toFuture();
+        assertThat(attempts, hasSize(4));
+    }
+
+    @Test
+    void requestsWithCredentialsInKeyAreCoalescedPerCredentials() {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder()
+                .keyHeaders("Authorization"));
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(AUTHORIZATION, "alice")).toFuture();
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(AUTHORIZATION, "alice")).toFuture();
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(AUTHORIZATION, "bob")).toFuture();
+        assertThat(attempts, hasSize(2));
+        // Cookie is not part of the key, such requests are still sent on their own.
+        filter.request(REQ_RESP_FACTORY.get("/a").setHeader(AUTHORIZATION, "bob").setHeader(COOKIE, "a=1"))
+                .toFuture();
+        assertThat(attempts, hasSize(3));
+    }
+
+    @Test
+    void customKeyFunction() {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder()
+                .keyFunction(request -> request.path()));
+        filter.request(REQ_RESP_FACTORY.post("/a?x=1")).toFuture();
+        filter.request(REQ_RESP_FACTORY.put("/a?x=2")).toFuture();
+        assertThat(attempts, hasSize(1));
+    }
+
+    @Test
+    void requestAfterResponseMetaDataIsNotCoalesced() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder());
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        attempts.get(0).response.onSuccess(ok("a"));
+        filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        assertThat(attempts, hasSize(2));
+        assertThat(payload(first.get()), is("a"));
+    }
+
+    @Test
+    void cancelledRequestDoesNotCancelOthers() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder());
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        Future<StreamingHttpResponse> second = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        Future<StreamingHttpResponse> third = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        first.cancel(true);
+        third.cancel(true);
+        assertThat(attempts.get(0).cancelled.get(), is(false));
+
+        attempts.get(0).response.onSuccess(ok("abc"));
+        assertThat(payload(second.get()), is("abc"));
+    }
+
+    @Test
+    void allRequestsCancelledCancelsSharedRequest() {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder());
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        Future<StreamingHttpResponse> second = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        first.cancel(true);
+        second.cancel(true);
+        assertThat(attempts.get(0).cancelled.get(), is(true));
+
+        filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        assertThat(attempts, hasSize(2));
+    }
+
+    @Test
+    void errorIsPropagatedToAllRequests() {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder());
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        Future<StreamingHttpResponse> second = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        attempts.get(0).response.onError(new IOException("expected"));
+        assertThat(assertThrows(ExecutionException.class, first::get).getCause(), instanceOf(IOException.class));
+        assertThat(assertThrows(ExecutionException.class, second::get).getCause(), instanceOf(IOException.class));
+    }
+
+    @Test
+    void payloadBodyIsCancelledAfterAllPayloadBodiesAreCancelled() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder());
+        Future<StreamingHttpResponse> first = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        Future<StreamingHttpResponse> second = filter.request(REQ_RESP_FACTORY.get("/")).toFuture();
+        TestPublisher<Object> payload = new TestPublisher<>();
+        TestSubscription subscription = new TestSubscription();
+        attempts.get(0).response.onSuccess(REQ_RESP_FACTORY.ok().transformMessageBody(__ -> payload));
+
+        Future<?> firstPayload = first.get().messageBody().toFuture();
+        Future<?> secondPayload = second.get().messageBody().toFuture();
+        payload.onSubscribe(subscription);
+        firstPayload.cancel(true);
+        assertThat(subscription.isCancelled(), is(false));
+        secondPayload.cancel(true);
+        assertThat(subscription.isCancelled(), is(true));
+    }
+
+    @Test
+    void requestCancelledAfterResponseMetaDataDoesNotHoldBackPayloadBody() throws Exception {
+        StreamingHttpClientFilter filter = newFilter(new RequestCoalescingHttpRequesterFilter.Builder());
+        List<Future<StreamingHttpResponse>> futures = new ArrayList<>();
+        // Whichever request gets the response first cancels the other one before it gets the response.
+        for (int i = 0; i < 2; ++i) {
+            final int other = 1 - i;
+            futures.add(filter.request(REQ_RESP_FACTORY.get("/"))
+                    .whenOnSuccess(__ -> futures.get(other).cancel(true)).toFuture());
+        }
+        StreamingHttpResponse response = ok("abc");
+        AtomicBoolean payloadCancelled = new AtomicBoolean();
+        response.transformMessageBody(p -> p.whenCancel(() -> payloadCancelled.set(true)));
+        attempts.get(0).response.onSuccess(response);
+
+        Future<StreamingHttpResponse> delivered = futures.get(0).isCancelled() ? futures.get(1) : futures.get(0);
+        assertThat(payload(delivered.get()), is("abc"));
+        assertThat(payloadCancelled.get(), is(false));
+    }
+
+    private StreamingHttpClientFilter newFilter(final RequestCoalescingHttpRequesterFilter.Builder builder) {
+        return builder.build().create(client);
+    }
+
+    private static StreamingHttpResponse ok(final String payload) {
+        return REQ_RESP_FACTORY.ok().payloadBody(from(DEFAULT_ALLOCATOR.fromAscii(payload)));
+    }
+
+    private static String payload(final StreamingHttpResponse response) throws Exception {
+        return response.toResponse().toFuture().get().payloadBody().toString(US_ASCII);
+    }
+
+    private static final class Attempt {
+        final StreamingHttpRequest request;
+        final TestSingle<StreamingHttpResponse> response = new TestSingle<>();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        Attempt(final StreamingHttpRequest request) {
+            this.request = request;
+        }
+    }
+}
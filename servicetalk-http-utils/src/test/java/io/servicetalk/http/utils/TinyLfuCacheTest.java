@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.http.utils.TinyLfuCache.FrequencySketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class TinyLfuCacheTest {
+
+    private final TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, 64);
+
+    @Test
+    void valuesWhichFitAreAdmitted() {
+        assertThat(cache.put("a", "a", 5), is(true));
+        assertThat(cache.put("b", "b", 5), is(true));
+        assertThat(cache.get("a"), is("a"));
+        assertThat(cache.get("b"), is("b"));
+        assertThat(cache.weight(), is(10L));
+        assertThat(cache.evictions(), is(0L));
+    }
+
+    @Test
+    void infrequentValueIsRejected() {
+        cache.put("a", "a", 5);
+        cache.put("b", "b", 5);
+        cache.get("a");
+        cache.get("b");
+
+        cache.get("c");
+        assertThat(cache.put("c", "c", 5), is(false));
+        assertThat(cache.get("a"), is("a"));
+        assertThat(cache.get("b"), is("b"));
+        assertThat(cache.evictions(), is(0L));
+    }
+
+    @Test
+    void frequentValueEvictsLeastRecentlyUsed() {
+        cache.put("a", "a", 5);
+        cache.put("b", "b", 5);
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+
+        for (int i = 0; i < 3; ++i) {
+            cache.get("c");
+        }
+        assertThat(cache.put("c", "c", 5), is(true));
+        assertThat(cache.get("b"), is(nullValue()));
+        assertThat(cache.get("a"), is("a"));
+        assertThat(cache.get("c"), is("c"));
+        assertThat(cache.weight(), is(10L));
+        assertThat(cache.evictions(), is(1L));
+    }
+
+    @Test
+    void replacedValueIsAlwaysAdmitted() {
+        cache.put("a", "a", 5);
+        cache.put("b", "b", 5);
+        assertThat(cache.put("b", "b2", 8), is(true));
+        assertThat(cache.get("b"), is("b2"));
+        assertThat(cache.get("a"), is(nullValue()));
+        assertThat(cache.weight(), is(8L));
+    }
+
+    @Test
+    void valueLargerThanCacheIsRejected() {
+        cache.put("a", "a", 5);
+        assertThat(cache.put("a", "a2", 11), is(false));
+        assertThat(cache.get("a"), is(nullValue()));
+        assertThat(cache.weight(), is(0L));
+    }
+
+    @Test
+    void sketchCountersAreHalvedPeriodically() {
+        final FrequencySketch sketch = new FrequencySketch(32);
+        for (int i = 0; i < 20; ++i) {
+            sketch.increment(42);
+        }
+        assertThat(sketch.frequency(42), is(15));
+        // Record enough distinct keys to trigger the reset.
+        for (int i = 0; i < 1000; ++i) {
+            sketch.increment(i * 31 + 1000);
+        }
+        assertThat(sketch.frequency(42) < 15, is(true));
+    }
+}
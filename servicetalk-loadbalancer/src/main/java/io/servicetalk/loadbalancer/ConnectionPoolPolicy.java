@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.LoadBalancedConnection;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.RequestConcurrencyController;
+
+import java.time.Duration;
+
+import static io.servicetalk.utils.internal.DurationUtils.ensurePositive;
+import static java.time.Duration.ofSeconds;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A policy for the pool of connections to each host which takes the occupancy of the connections into account, like
+ * the number of active streams of HTTP/2 connections relative to their {@code SETTINGS_MAX_CONCURRENT_STREAMS}.
+ * <p>
+ * With this policy, the {@link LoadBalancer} keeps just enough connections to each host for the utilization (active
+ * requests relative to the maximum concurrent requests) of the connections to stay under
+ * {@link Builder#scaleUpThreshold(double) a threshold}:
+ * <ul>
+ *     <li>New requests go to the connection with the least active requests among the connections which are needed
+ *     to stay under the threshold. The other, surplus connections only take requests when all needed connections are
+ *     at their limit.</li>
+ *     <li>Once the utilization crosses the threshold, an additional connection is opened in the background, while
+ *     requests continue to use the existing connections, up to {@link Builder#maxConnectionsPerHost(int)}
+ *     connections per host.</li>
+ *     <li>A surplus connection which stays without active requests for {@link Builder#idleTimeout(Duration)} is
+ *     closed. Idle connections are checked periodically, also when the host is not selected for new requests.</li>
+ * </ul>
+ * If all connections to a host are at their limit, a new connection is opened for the request, the same as without
+ * this policy.
+ * The occupancy is learned from {@link RequestConcurrencyController#activeRequests()} and
+ * {@link RequestConcurrencyController#maxConcurrentRequests()}. Hosts with connections which don't provide it, or
+ * which process only one request at a time like HTTP/1.1 connections, fall back to the default connection selection.
+ * Use an {@link Observer} to collect metrics about the occupancy of the connections.
+ *
+ * @param <ResolvedAddress> The resolved address type.
+ */
+public final class ConnectionPoolPolicy<ResolvedAddress> {
+
+    static final double DEFAULT_SCALE_UP_THRESHOLD = 0.75;
+    static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+    static final Duration DEFAULT_IDLE_TIMEOUT = ofSeconds(30);
+
+    private static final Observer<Object> NOOP_OBSERVER = new Observer<Object>() { };
+
+    private final double scaleUpThreshold;
+    private final int maxConnectionsPerHost;
+    private final long idleTimeoutNanos;
+    private final Observer<? super ResolvedAddress> observer;
+
+    private ConnectionPoolPolicy(final double scaleUpThreshold, final int maxConnectionsPerHost,
+                                 final long idleTimeoutNanos, final Observer<? super ResolvedAddress> observer) {
+        this.scaleUpThreshold = scaleUpThreshold;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.observer = observer;
+    }
+
+    /**
+     * Returns the number of connections which keep the utilization of a host under the threshold after another request
+     * is added.
+     *
+     * @param connections the connections to a host, in the order they were added.
+     * @return the number of leading {@code connections} which are needed, or {@code connections.length + 1} if all
+     * of them are not enough, or {@code -1} if the occupancy of a connection is not known or a connection processes
+     * only one request at a time.
+     */
+    int connectionsNeeded(final Object[] connections) {
+        long active = 1;
+        for (Object connection : connections) {
+            final LoadBalancedConnection lbConnection = (LoadBalancedConnection) connection;
+            final int connectionActive = lbConnection.activeRequests();
+            // A threshold below 100% of a single request would always require one more connection.
+            if (connectionActive < 0 || lbConnection.maxConcurrentRequests() <= 1) {
+                return -1;
+            }
+            active += connectionActive;
+        }
+        double capacity = 0;
+        for (int i = 0; i < connections.length; ++i) {
+            capacity += ((LoadBalancedConnection) connections[i]).maxConcurrentRequests() * scaleUpThreshold;
+            if (capacity >= active) {
+                return i + 1;
+            }
+        }
+        return connections.length + 1;
+    }
+
+    int maxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    long idleTimeoutNanos() {
+        return idleTimeoutNanos;
+    }
+
+    Observer<? super ResolvedAddress> observer() {
+        return observer;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolPolicy{" +
+                "scaleUpThreshold=" + scaleUpThreshold +
+                ", maxConnectionsPerHost=" + maxConnectionsPerHost +
+                ", idleTimeoutNanos=" + idleTimeoutNanos +
+                '}';
+    }
+
+    /**
+     * An observer of the connection pools managed by a {@link ConnectionPoolPolicy}. The callbacks are invoked on
+     * the selection path and must not block.
+     *
+     * @param <ResolvedAddress> The resolved address type.
+     */
+    public interface Observer<ResolvedAddress> {
+
+        /**
+         * Invoked when a connection was selected for a request.
+         *
+         * @param address the address of the host.
+         * @param connection the selected connection.
+         * @param activeRequests the number of active requests of the connection, including the new request.
+         * @param maxConcurrentRequests the maximum number of concurrent requests of the connection.
+         */
+        default void onConnectionSelected(ResolvedAddress address, LoadBalancedConnection connection,
+                                          int activeRequests, int maxConcurrentRequests) {
+        }
+
+        /**
+         * Invoked when an additional connection was opened because the utilization crossed the threshold.
+         *
+         * @param address the address of the host.
+         * @param connections the number of connections to the host, including the new connection.
+         */
+        default void onScaleUp(ResolvedAddress address, int connections) {
+        }
+
+        /**
+         * Invoked when an idle surplus connection is closed.
+         *
+         * @param address the address of the host.
+         * @param connections the number of connections to the host, excluding the closed connection.
+         */
+        default void onScaleDown(ResolvedAddress address, int connections) {
+        }
+    }
+
+    /**
+     * A builder for {@link ConnectionPoolPolicy}.
+     *
+     * @param <ResolvedAddress> The resolved address type.
+     */
+    public static final class Builder<ResolvedAddress> {
+        private double scaleUpThreshold = DEFAULT_SCALE_UP_THRESHOLD;
+        private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+        private Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+        private Observer<? super ResolvedAddress> observer = NOOP_OBSERVER;
+
+        /**
+         * Sets the utilization of the connections to a host above which an additional connection is opened.
+         * <p>
+         * The default is {@code 0.75}, which opens a new connection once 75% of the maximum concurrent requests (for
+         * example, streams) of all connections are in use.
+         *
+         * @param scaleUpThreshold the utilization threshold, must be in the {@code (0, 1]} range.
+         * @return {@code this}.
+         */
+        public Builder<ResolvedAddress> scaleUpThreshold(final double scaleUpThreshold) {
+            if (scaleUpThreshold <= 0 || scaleUpThreshold > 1) {
+                throw new IllegalArgumentException("scaleUpThreshold: " + scaleUpThreshold + " (expected (0, 1])");
+            }
+            this.scaleUpThreshold = scaleUpThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections to a single host which are opened in the background when the
+         * utilization crosses the threshold.
+         * <p>
+         * This does not limit connections which are opened because all existing connections are at their limit, for
+         * example for protocols without multiplexing like HTTP/1.1. The default is {@code 8}.
+         *
+         * @param maxConnectionsPerHost the maximum number of connections to a single host opened in the background.
+         * @return {@code this}.
+         */
+        public Builder<ResolvedAddress> maxConnectionsPerHost(final int maxConnectionsPerHost) {
+            if (maxConnectionsPerHost <= 0) {
+                throw new IllegalArgumentException("maxConnectionsPerHost: " + maxConnectionsPerHost +
+                        " (expected >0)");
+            }
+            this.maxConnectionsPerHost = maxConnectionsPerHost;
+            return this;
+        }
+
+        /**
+         * Sets the duration after which a surplus connection without active requests is closed.
+         * <p>
+         * The default is 30 seconds.
+         *
+         * @param idleTimeout the duration after which an idle surplus connection is closed.
+         * @return {@code this}.
+         */
+        public Builder<ResolvedAddress> idleTimeout(final Duration idleTimeout) {
+            this.idleTimeout = ensurePositive(idleTimeout, "idleTimeout");
+            return this;
+        }
+
+        /**
+         * Sets an {@link Observer} for the connection pools.
+         *
+         * @param observer an {@link Observer} for the connection pools.
+         * @return {@code this}.
+         */
+        public Builder<ResolvedAddress> observer(final Observer<? super ResolvedAddress> observer) {
+            this.observer = requireNonNull(observer);
+            return this;
+        }
+
+        /**
+         * Builds a new {@link ConnectionPoolPolicy}.
+         *
+         * @return a new {@link ConnectionPoolPolicy}.
+         */
+        public ConnectionPoolPolicy<ResolvedAddress> build() {
+            return new ConnectionPoolPolicy<>(scaleUpThreshold, maxConnectionsPerHost, idleTimeout.toNanos(),
+                    observer);
+        }
+    }
+}
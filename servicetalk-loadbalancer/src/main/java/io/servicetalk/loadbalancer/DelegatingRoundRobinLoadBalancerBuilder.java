@@ -85,6 +85,13 @@ public class DelegatingRoundRobinLoadBalancerBuilder<ResolvedAddress, C extends
         return this;
     }
 
+    @Override
+    public RoundRobinLoadBalancerBuilder<ResolvedAddress, C> connectionPoolPolicy(
+            final ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy) {
+        delegate = delegate.connectionPoolPolicy(connectionPoolPolicy);
+        return this;
+    }
+
     @Override
     public LoadBalancerFactory<ResolvedAddress, C> build() {
         return delegate.build();
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.RequestTracker;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static java.lang.Math.exp;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A {@link RequestTracker} which maintains an exponentially weighted moving average (EWMA) of request latencies and the
+ * number of outstanding requests for a single host.
+ * <p>
+ * The EWMA is "peak-sensitive": a latency sample higher than the current average replaces it immediately, while lower
+ * samples decay it based on the time elapsed since the previous sample. The average also decays towards zero while no
+ * samples arrive. This makes a host that starts to slow down lose traffic quickly, and regain it gradually after it
+ * recovers.
+ * <p>
+ * A host without latency samples is sent a single request at a time until the first response arrives, and failed
+ * requests add a fixed penalty to their latency, so that neither new hosts nor hosts which fail fast attract all the
+ * traffic.
+ */
+class EwmaRequestTracker implements RequestTracker {
+
+    private static final AtomicIntegerFieldUpdater<EwmaRequestTracker> pendingUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(EwmaRequestTracker.class, "pending");
+
+    /**
+     * Added to the latency of a failed request. The peak-sensitive EWMA takes it immediately and it decays with the
+     * half-life afterwards.
+     */
+    static final long ERROR_PENALTY_NS = SECONDS.toNanos(1);
+
+    /**
+     * Cost of a host which has outstanding requests but no latency samples yet.
+     */
+    static final long UNSAMPLED_PENALTY_NS = Long.MAX_VALUE >> 16;
+
+    private final double invTau;
+    private volatile int pending;
+    // written while holding "this"
+    private volatile long lastTimeNs;
+    private volatile long ewmaNs;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param halfLifeNanos the time after which the weight of a latency sample is reduced by half.
+     */
+    EwmaRequestTracker(final long halfLifeNanos) {
+        if (halfLifeNanos <= 0) {
+            throw new IllegalArgumentException("halfLifeNanos: " + halfLifeNanos + " (expected >0)");
+        }
+        // exp(-t / tau) == 0.5 when t == halfLife
+        this.invTau = log(2) / halfLifeNanos;
+        this.lastTimeNs = currentTimeNanos();
+    }
+
+    /**
+     * Returns the current time in nanoseconds.
+     *
+     * @return the current time in nanoseconds.
+     */
+    long currentTimeNanos() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public final long beforeStart() {
+        pendingUpdater.incrementAndGet(this);
+        return currentTimeNanos();
+    }
+
+    @Override
+    public final void onSuccess(final long beforeStartTimeNs) {
+        onRequestTerminated(beforeStartTimeNs, 0);
+    }
+
+    @Override
+    public final void onError(final long beforeStartTimeNs, final Throwable cause) {
+        onRequestTerminated(beforeStartTimeNs, ERROR_PENALTY_NS);
+    }
+
+    @Override
+    public final void onCancel(final long beforeStartTimeNs) {
+        // Latency of a cancelled request is defined by the caller, not by the host. Only release the pending slot.
+        pendingUpdater.decrementAndGet(this);
+    }
+
+    /**
+     * Returns the cost of sending a new request to the host. Lower is better.
+     *
+     * @return the cost of sending a new request to the host.
+     */
+    final long cost() {
+        final int pending = this.pending;
+        final long ewma = ewmaNs;
+        if (ewma == 0) {
+            // Latency is unknown: allow a single probing request and wait for its result before sending more.
+            return pending == 0 ? 0 : UNSAMPLED_PENALTY_NS + pending;
+        }
+        final long elapsedNs = max(0, currentTimeNanos() - lastTimeNs);
+        return max(1, (long) (ewma * exp(-elapsedNs * invTau))) * (pending + 1);
+    }
+
+    /**
+     * Returns the number of outstanding requests.
+     *
+     * @return the number of outstanding requests.
+     */
+    final int pending() {
+        return pending;
+    }
+
+    private void onRequestTerminated(final long beforeStartTimeNs, final long penaltyNs) {
+        pendingUpdater.decrementAndGet(this);
+        final long nowNs = currentTimeNanos();
+        final long latencyNs = max(0, nowNs - beforeStartTimeNs) + penaltyNs;
+        synchronized (this) {
+            final long currentEwma = ewmaNs;
+            if (latencyNs > currentEwma) {
+                ewmaNs = latencyNs;
+            } else {
+                final long elapsedNs = max(0, nowNs - lastTimeNs);
+                final double weight = exp(-elapsedNs * invTau);
+                ewmaNs = (long) (currentEwma * weight + latencyNs * (1 - weight));
+            }
+            lastTimeNs = max(lastTimeNs, nowNs);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EwmaRequestTracker{" +
+                "pending=" + pending +
+                ", ewmaNs=" + ewmaNs +
+                '}';
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.ConnectionFactory;
+import io.servicetalk.client.api.LoadBalancedConnection;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.LoadBalancerFactory;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancer.HealthCheckConfig;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.SharedExecutor;
+import io.servicetalk.transport.api.ExecutionStrategy;
+
+import java.time.Duration;
+import java.util.Collection;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.Builder.validate;
+import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.DEFAULT_HEALTH_CHECK_FAILED_CONNECTIONS_THRESHOLD;
+import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.DEFAULT_HEALTH_CHECK_INTERVAL;
+import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.DEFAULT_HEALTH_CHECK_JITTER;
+import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.DEFAULT_HEALTH_CHECK_RESUBSCRIBE_INTERVAL;
+import static io.servicetalk.utils.internal.DurationUtils.ensurePositive;
+import static java.time.Duration.ofSeconds;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link LoadBalancerFactory} that creates {@link LoadBalancer} instances which use power-of-two-choices (P2C) with a
+ * per-host latency estimate for selecting connections from a pool of addresses.
+ * <p>
+ * For every selection two distinct hosts are picked at random and the one with the lower cost is tried first. The cost
+ * of a host is a peak-sensitive exponentially weighted moving average (EWMA) of its request latencies multiplied by
+ * the number of its outstanding requests (plus one). The EWMA decays while a host receives no traffic, failed requests
+ * add a fixed penalty to the observed latency, and a host without latency samples gets a single request at a time until
+ * its first response arrives. Latencies and outstanding requests are learned from the
+ * {@link RequestTracker} that the created {@link LoadBalancer} shares with the client via the request context, see
+ * {@link RequestTracker#REQUEST_TRACKER_KEY}. Clients that do not notify the {@link RequestTracker} degrade to a
+ * random selection among the hosts.
+ * <p>
+ * Service discovery events, connection reuse and health checking behave the same way as described in
+ * {@link RoundRobinLoadBalancerBuilder}. If the preferred host can not be used, the remaining hosts are tried in order.
+ *
+ * @param <ResolvedAddress> The resolved address type.
+ * @param <C> The type of connection.
+ */
+public final class P2CLoadBalancerFactory<ResolvedAddress, C extends LoadBalancedConnection>
+        implements LoadBalancerFactory<ResolvedAddress, C> {
+
+    static final Duration DEFAULT_EWMA_HALF_LIFE = ofSeconds(10);
+
+    private final String id;
+    private final int linearSearchSpace;
+    @Nullable
+    private final HealthCheckConfig healthCheckConfig;
+    private final long ewmaHalfLifeNanos;
+    @Nullable
+    private final ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy;
+    private final Executor backgroundExecutor;
+
+    private P2CLoadBalancerFactory(final String id,
+                                   final int linearSearchSpace,
+                                   @Nullable final HealthCheckConfig healthCheckConfig,
+                                   final long ewmaHalfLifeNanos,
+                                   @Nullable final ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy,
+                                   final Executor backgroundExecutor) {
+        this.id = id;
+        this.linearSearchSpace = linearSearchSpace;
+        this.healthCheckConfig = healthCheckConfig;
+        this.ewmaHalfLifeNanos = ewmaHalfLifeNanos;
+        this.connectionPoolPolicy = connectionPoolPolicy;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * A new {@link Builder} instance.
+     *
+     * @param id a (unique) ID to identify the created {@link LoadBalancer}.
+     * @param <ResolvedAddress> The resolved address type.
+     * @param <C> The type of connection.
+     * @return a new {@link Builder}.
+     */
+    public static <ResolvedAddress, C extends LoadBalancedConnection> Builder<ResolvedAddress, C> builder(
+            final String id) {
+        return new Builder<>(id);
+    }
+
+    @Deprecated
+    @Override
+    public <T extends C> LoadBalancer<T> newLoadBalancer(
+            final String targetResource,
+            final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
+            final ConnectionFactory<ResolvedAddress, T> connectionFactory) {
+        return new RoundRobinLoadBalancer<>(id, targetResource, eventPublisher, connectionFactory,
+                linearSearchSpace, healthCheckConfig, ewmaHalfLifeNanos, connectionPoolPolicy, backgroundExecutor);
+    }
+
+    @Override
+    public LoadBalancer<C> newLoadBalancer(
+            final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
+            final ConnectionFactory<ResolvedAddress, C> connectionFactory,
+            final String targetResource) {
+        return new RoundRobinLoadBalancer<>(id, targetResource, eventPublisher, connectionFactory,
+                linearSearchSpace, healthCheckConfig, ewmaHalfLifeNanos, connectionPoolPolicy, backgroundExecutor);
+    }
+
+    @Override
+    public ExecutionStrategy requiredOffloads() {
+        // We do not block
+        return ExecutionStrategy.offloadNone();
+    }
+
+    /**
+     * Builder for {@link P2CLoadBalancerFactory}.
+     *
+     * @param <ResolvedAddress> The resolved address type.
+     * @param <C> The type of connection.
+     */
+    public static final class Builder<ResolvedAddress, C extends LoadBalancedConnection> {
+        private final String id;
+        private int linearSearchSpace = 16;
+        private Duration ewmaHalfLife = DEFAULT_EWMA_HALF_LIFE;
+        @Nullable
+        private Executor backgroundExecutor;
+        private Duration healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
+        private Duration healthCheckJitter = DEFAULT_HEALTH_CHECK_JITTER;
+        private int healthCheckFailedConnectionsThreshold = DEFAULT_HEALTH_CHECK_FAILED_CONNECTIONS_THRESHOLD;
+        private long healthCheckResubscribeLowerBound =
+                DEFAULT_HEALTH_CHECK_RESUBSCRIBE_INTERVAL.minus(DEFAULT_HEALTH_CHECK_JITTER).toNanos();
+        private long healthCheckResubscribeUpperBound =
+                DEFAULT_HEALTH_CHECK_RESUBSCRIBE_INTERVAL.plus(DEFAULT_HEALTH_CHECK_JITTER).toNanos();
+        @Nullable
+        private ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy;
+
+        Builder(final String id) {
+            if (id.isEmpty()) {
+                throw new IllegalArgumentException("ID can not be empty");
+            }
+            this.id = id;
+        }
+
+        /**
+         * Sets the linear search space to find an available connection for the selected host.
+         *
+         * @param linearSearchSpace the number of attempts for a linear search space, {@code 0} enforces random
+         * selection all the time.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerBuilder#linearSearchSpace(int)
+         */
+        public Builder<ResolvedAddress, C> linearSearchSpace(final int linearSearchSpace) {
+            if (linearSearchSpace < 0) {
+                throw new IllegalArgumentException("linearSearchSpace: " + linearSearchSpace + " (expected >=0)");
+            }
+            this.linearSearchSpace = linearSearchSpace;
+            return this;
+        }
+
+        /**
+         * Sets the half-life of the per-host latency EWMA: the time after which the weight of a latency sample is
+         * reduced by half. Shorter values react faster to latency changes, longer values smooth out the noise.
+         *
+         * @param ewmaHalfLife the half-life of the per-host latency EWMA.
+         * @return {@code this}.
+         */
+        public Builder<ResolvedAddress, C> ewmaHalfLife(final Duration ewmaHalfLife) {
+            this.ewmaHalfLife = ensurePositive(ewmaHalfLife, "ewmaHalfLife");
+            return this;
+        }
+
+        /**
+         * Sets the {@link Executor} on which to schedule health checking.
+         *
+         * @param backgroundExecutor {@link Executor} on which to schedule health checking.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerBuilder#backgroundExecutor(Executor)
+         */
+        public Builder<ResolvedAddress, C> backgroundExecutor(final Executor backgroundExecutor) {
+            this.backgroundExecutor = new NormalizedTimeSourceExecutor(backgroundExecutor);
+            return this;
+        }
+
+        /**
+         * Configure an interval for health checking a host that failed to open connections.
+         *
+         * @param interval interval at which a background health check will be scheduled.
+         * @param jitter the amount of jitter to apply to each retry {@code interval}.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerBuilder#healthCheckInterval(Duration, Duration)
+         */
+        public Builder<ResolvedAddress, C> healthCheckInterval(final Duration interval, final Duration jitter) {
+            validate(interval, jitter);
+            this.healthCheckInterval = interval;
+            this.healthCheckJitter = jitter;
+            return this;
+        }
+
+        /**
+         * Configure an interval for re-subscribing to the original events stream in case all existing hosts become
+         * unhealthy.
+         *
+         * @param interval interval at which re-subscribes will be scheduled.
+         * @param jitter the amount of jitter to apply to each re-subscribe {@code interval}.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerBuilder#healthCheckResubscribeInterval(Duration, Duration)
+         */
+        public Builder<ResolvedAddress, C> healthCheckResubscribeInterval(final Duration interval,
+                                                                          final Duration jitter) {
+            validate(interval, jitter);
+            this.healthCheckResubscribeLowerBound = interval.minus(jitter).toNanos();
+            this.healthCheckResubscribeUpperBound = interval.plus(jitter).toNanos();
+            return this;
+        }
+
+        /**
+         * Configure a threshold for consecutive connection failures to a host.
+         *
+         * @param threshold number of consecutive connection failures to consider a host unhealthy and eligible for
+         * background health checking. Use negative value to disable the health checking mechanism.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerBuilder#healthCheckFailedConnectionsThreshold(int)
+         */
+        public Builder<ResolvedAddress, C> healthCheckFailedConnectionsThreshold(final int threshold) {
+            if (threshold == 0) {
+                throw new IllegalArgumentException("Health check failed connections threshold should not be 0");
+            }
+            this.healthCheckFailedConnectionsThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets a {@link ConnectionPoolPolicy} which selects connections of the selected host by their occupancy.
+         *
+         * @param connectionPoolPolicy the {@link ConnectionPoolPolicy} to use.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerBuilder#connectionPoolPolicy(ConnectionPoolPolicy)
+         */
+        public Builder<ResolvedAddress, C> connectionPoolPolicy(
+                final ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy) {
+            this.connectionPoolPolicy = requireNonNull(connectionPoolPolicy);
+            return this;
+        }
+
+        /**
+         * Builds the {@link P2CLoadBalancerFactory} configured by this builder.
+         *
+         * @return a new instance of {@link P2CLoadBalancerFactory} with settings from this builder.
+         */
+        public P2CLoadBalancerFactory<ResolvedAddress, C> build() {
+            final long ewmaHalfLifeNanos = ewmaHalfLife.toNanos();
+            final Executor backgroundExecutor =
+                    this.backgroundExecutor == null ? SharedExecutor.getInstance() : this.backgroundExecutor;
+            if (this.healthCheckFailedConnectionsThreshold < 0) {
+                return new P2CLoadBalancerFactory<>(id, linearSearchSpace, null, ewmaHalfLifeNanos,
+                        connectionPoolPolicy, backgroundExecutor);
+            }
+
+            HealthCheckConfig healthCheckConfig = new HealthCheckConfig(backgroundExecutor,
+                    healthCheckInterval, healthCheckJitter, healthCheckFailedConnectionsThreshold,
+                    healthCheckResubscribeLowerBound, healthCheckResubscribeUpperBound);
+
+            return new P2CLoadBalancerFactory<>(id, linearSearchSpace, healthCheckConfig, ewmaHalfLifeNanos,
+                    connectionPoolPolicy, backgroundExecutor);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package io.servicetalk.loadbalancer;
 import io.servicetalk.client.api.ConnectionFactory;
 import io.servicetalk.client.api.ConnectionLimitReachedException;
 import io.servicetalk.client.api.ConnectionRejectedException;
+import io.servicetalk.client.api.ExcludedHosts;
 import io.servicetalk.client.api.LoadBalancedConnection;
 import io.servicetalk.client.api.LoadBalancer;
 import io.servicetalk.client.api.NoActiveHostException;
@@ -64,8 +65,10 @@ import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.client.api.ExcludedHosts.EXCLUDED_HOSTS_KEY;
 import static io.servicetalk.client.api.LoadBalancerReadyEvent.LOAD_BALANCER_NOT_READY_EVENT;
 import static io.servicetalk.client.api.LoadBalancerReadyEvent.LOAD_BALANCER_READY_EVENT;
+import static io.servicetalk.client.api.RequestTracker.REQUEST_TRACKER_KEY;
 import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
 import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.EXPIRED;
 import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.UNAVAILABLE;
@@ -82,6 +85,7 @@ import static io.servicetalk.concurrent.api.SourceAdapters.fromSource;
 import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
 import static io.servicetalk.concurrent.internal.FlowControlUtils.addWithOverflowProtection;
 import static java.lang.Integer.toHexString;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.System.identityHashCode;
 import static java.util.Collections.emptyList;
@@ -93,6 +97,9 @@ import static java.util.stream.Collectors.toList;
 
 /**
  * Consult {@link RoundRobinLoadBalancerFactory} for a description of this {@link LoadBalancer} type.
+ * <p>
+ * When latency tracking is enabled (see {@link P2CLoadBalancerFactory}), the host selection starts from the better of
+ * two randomly picked hosts instead of the next host in round-robin order.
  *
  * @param <ResolvedAddress> The resolved address type.
  * @param <C> The type of connection.
@@ -143,10 +150,16 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
     private final Processor<Object, Object> eventStreamProcessor = newPublisherProcessorDropHeadOnOverflow(32);
     private final Publisher<Object> eventStream;
     private final SequentialCancellable discoveryCancellable = new SequentialCancellable();
+    private final SequentialCancellable idleCheckCancellable = new SequentialCancellable();
     private final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory;
     private final int linearSearchSpace;
     @Nullable
     private final HealthCheckConfig healthCheckConfig;
+    private final long ewmaHalfLifeNanos;
+    @Nullable
+    private final ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy;
+    @Nullable
+    private final Executor connectionPoolExecutor;
     private final ListenableAsyncCloseable asyncCloseable;
 
     /**
@@ -169,6 +182,72 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
             final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory,
             final int linearSearchSpace,
             @Nullable final HealthCheckConfig healthCheckConfig) {
+        this(id, targetResourceName, eventPublisher, connectionFactory, linearSearchSpace, healthCheckConfig, 0);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param id a (unique) ID to identify the created {@link RoundRobinLoadBalancer}.
+     * @param targetResourceName {@link String} representation of the target resource for which this instance
+     * is performing load balancing.
+     * @param eventPublisher provides a stream of addresses to connect to.
+     * @param connectionFactory a function which creates new connections.
+     * @param healthCheckConfig configuration for the health checking mechanism, which monitors hosts that
+     * are unable to have a connection established. Providing {@code null} disables this mechanism (meaning the host
+     * continues being eligible for connecting on the request path).
+     * @param ewmaHalfLifeNanos half-life of the per-host request latency EWMA in nanoseconds. Providing {@code 0}
+     * disables latency tracking and hosts are selected in round-robin order, otherwise hosts are selected using
+     * power-of-two-choices based on their latency and number of outstanding requests.
+     * @see RoundRobinLoadBalancerFactory
+     * @see P2CLoadBalancerFactory
+     */
+    RoundRobinLoadBalancer(
+            final String id,
+            final String targetResourceName,
+            final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
+            final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory,
+            final int linearSearchSpace,
+            @Nullable final HealthCheckConfig healthCheckConfig,
+            final long ewmaHalfLifeNanos) {
+        this(id, targetResourceName, eventPublisher, connectionFactory, linearSearchSpace, healthCheckConfig,
+                ewmaHalfLifeNanos, null, null);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param id a (unique) ID to identify the created {@link RoundRobinLoadBalancer}.
+     * @param targetResourceName {@link String} representation of the target resource for which this instance
+     * is performing load balancing.
+     * @param eventPublisher provides a stream of addresses to connect to.
+     * @param connectionFactory a function which creates new connections.
+     * @param healthCheckConfig configuration for the health checking mechanism, which monitors hosts that
+     * are unable to have a connection established. Providing {@code null} disables this mechanism (meaning the host
+     * continues being eligible for connecting on the request path).
+     * @param ewmaHalfLifeNanos half-life of the per-host request latency EWMA in nanoseconds. Providing {@code 0}
+     * disables latency tracking and hosts are selected in round-robin order, otherwise hosts are selected using
+     * power-of-two-choices based on their latency and number of outstanding requests.
+     * @param connectionPoolPolicy the policy for the connections to each host, which selects connections by their
+     * occupancy. Providing {@code null} selects the first available connection.
+     * @param connectionPoolExecutor the time source for the {@code connectionPoolPolicy}.
+     * @see RoundRobinLoadBalancerFactory
+     * @see P2CLoadBalancerFactory
+     * @see ConnectionPoolPolicy
+     */
+    RoundRobinLoadBalancer(
+            final String id,
+            final String targetResourceName,
+            final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
+            final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory,
+            final int linearSearchSpace,
+            @Nullable final HealthCheckConfig healthCheckConfig,
+            final long ewmaHalfLifeNanos,
+            @Nullable final ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy,
+            @Nullable final Executor connectionPoolExecutor) {
+        if (ewmaHalfLifeNanos < 0) {
+            throw new IllegalArgumentException("ewmaHalfLifeNanos: " + ewmaHalfLifeNanos + " (expected >=0)");
+        }
         this.id = id + '@' + toHexString(identityHashCode(this));
         this.targetResource = requireNonNull(targetResourceName);
         this.eventPublisher = requireNonNull(eventPublisher);
@@ -176,8 +255,12 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
         this.connectionFactory = requireNonNull(connectionFactory);
         this.linearSearchSpace = linearSearchSpace;
         this.healthCheckConfig = healthCheckConfig;
+        this.ewmaHalfLifeNanos = ewmaHalfLifeNanos;
+        this.connectionPoolPolicy = connectionPoolPolicy;
+        this.connectionPoolExecutor = connectionPoolPolicy == null ? null : requireNonNull(connectionPoolExecutor);
         this.asyncCloseable = toAsyncCloseable(graceful -> {
             discoveryCancellable.cancel();
+            idleCheckCancellable.cancel();
             eventStreamProcessor.onComplete();
             final CompositeCloseable compositeCloseable;
             for (;;) {
@@ -199,6 +282,47 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                     .beforeOnComplete(() -> usedHosts = new ClosedList<>(emptyList()));
         });
         subscribeToEvents(false);
+        if (connectionPoolPolicy != null) {
+            scheduleIdleCheck(connectionPoolPolicy);
+        }
+    }
+
+    private void scheduleIdleCheck(final ConnectionPoolPolicy<ResolvedAddress> policy) {
+        assert connectionPoolExecutor != null;
+        // Check twice per idle timeout, idle connections are closed at most 1.5 idle timeouts after they became idle.
+        idleCheckCancellable.nextCancellable(connectionPoolExecutor.schedule(() -> checkIdleConnections(policy),
+                max(1, policy.idleTimeoutNanos() / 2), NANOSECONDS));
+    }
+
+    /**
+     * Closes idle surplus connections of hosts which are not selected anymore, the selection path only shrinks the pool
+     * of the hosts it visits.
+     */
+    private void checkIdleConnections(final ConnectionPoolPolicy<ResolvedAddress> policy) {
+        final List<Host<ResolvedAddress, C>> hosts = usedHosts;
+        if (isClosedList(hosts)) {
+            return;
+        }
+        try {
+            assert connectionPoolExecutor != null;
+            final long currentTimeNanos = connectionPoolExecutor.currentTime(NANOSECONDS);
+            for (Host<ResolvedAddress, C> host : hosts) {
+                final Object[] connections = host.connState.connections;
+                if (connections.length == 0) {
+                    continue;
+                }
+                final int needed = policy.connectionsNeeded(connections);
+                if (needed >= 0 && needed < connections.length) {
+                    host.closeIdleSurplus(connections, currentTimeNanos, policy);
+                } else {
+                    host.resetSurplus();
+                }
+            }
+        } catch (Throwable t) {
+            LOGGER.warn("{}: unexpected error while checking for idle connections.", this, t);
+        } finally {
+            scheduleIdleCheck(policy);
+        }
     }
 
     private void subscribeToEvents(boolean resubscribe) {
@@ -379,7 +503,8 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
         }
 
         private Host<ResolvedAddress, C> createHost(ResolvedAddress addr) {
-            Host<ResolvedAddress, C> host = new Host<>(RoundRobinLoadBalancer.this.toString(), addr, healthCheckConfig);
+            Host<ResolvedAddress, C> host = new Host<>(RoundRobinLoadBalancer.this.toString(), addr, healthCheckConfig,
+                    ewmaHalfLifeNanos);
             host.onClose().afterFinally(() ->
                     usedHostsUpdater.updateAndGet(RoundRobinLoadBalancer.this, previousHosts -> {
                                 @SuppressWarnings("unchecked")
@@ -468,12 +593,14 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
 
     @Override
     public Single<C> selectConnection(final Predicate<C> selector, @Nullable final ContextMap context) {
-        return defer(() -> selectConnection0(selector, context, false).shareContextOnSubscribe());
+        return defer(() -> selectConnection0(selector, context, false, excludedHosts(context))
+                .shareContextOnSubscribe());
     }
 
     @Override
     public Single<C> newConnection(@Nullable final ContextMap context) {
-        return defer(() -> selectConnection0(c -> true, context, true).shareContextOnSubscribe());
+        return defer(() -> selectConnection0(c -> true, context, true, excludedHosts(context))
+                .shareContextOnSubscribe());
     }
 
     @Override
@@ -489,8 +616,14 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                 '}';
     }
 
+    @Nullable
+    private static ExcludedHosts excludedHosts(@Nullable final ContextMap context) {
+        return context == null ? null : context.get(EXCLUDED_HOSTS_KEY);
+    }
+
     private Single<C> selectConnection0(final Predicate<C> selector, @Nullable final ContextMap context,
-                                        final boolean forceNewConnectionAndReserve) {
+                                        final boolean forceNewConnectionAndReserve,
+                                        @Nullable final ExcludedHosts excludedHosts) {
         final List<Host<ResolvedAddress, C>> usedHosts = this.usedHosts;
         if (usedHosts.isEmpty()) {
             return isClosedList(usedHosts) ? failedLBClosed(targetResource) :
@@ -501,25 +634,35 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
         }
 
         // try one loop over hosts and if all are expired, give up
-        final int cursor = (indexUpdater.getAndIncrement(this) & Integer.MAX_VALUE) % usedHosts.size();
         final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        final int cursor = ewmaHalfLifeNanos > 0 && usedHosts.size() > 1 ? p2cCursor(usedHosts, rnd) :
+                (indexUpdater.getAndIncrement(this) & Integer.MAX_VALUE) % usedHosts.size();
         Host<ResolvedAddress, C> pickedHost = null;
         for (int i = 0; i < usedHosts.size(); ++i) {
             // for a particular iteration we maintain a local cursor without contention with other requests
             final int localCursor = (cursor + i) % usedHosts.size();
             final Host<ResolvedAddress, C> host = usedHosts.get(localCursor);
             assert host != null : "Host can't be null.";
+            if (excludedHosts != null && excludedHosts.contains(host.address)) {
+                continue;
+            }
 
             if (!forceNewConnectionAndReserve) {
                 // Try first to see if an existing connection can be used
                 final Object[] connections = host.connState.connections;
+                if (connectionPoolPolicy != null && connections.length > 0) {
+                    final C connection = selectLeastActive(host, connections, selector, connectionPoolPolicy);
+                    if (connection != null) {
+                        return succeeded(host.trackRequest(connection, context));
+                    }
+                }
                 // Exhaust the linear search space first:
                 final int linearAttempts = min(connections.length, linearSearchSpace);
                 for (int j = 0; j < linearAttempts; ++j) {
                     @SuppressWarnings("unchecked")
                     final C connection = (C) connections[j];
                     if (selector.test(connection)) {
-                        return succeeded(connection);
+                        return succeeded(host.trackRequest(connection, context));
                     }
                 }
                 // Try other connections randomly:
@@ -533,7 +676,7 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                         @SuppressWarnings("unchecked")
                         final C connection = (C) connections[rnd.nextInt(linearAttempts, connections.length)];
                         if (selector.test(connection)) {
-                            return succeeded(connection);
+                            return succeeded(host.trackRequest(connection, context));
                         }
                     }
                 }
@@ -547,6 +690,10 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
             }
         }
         if (pickedHost == null) {
+            if (excludedHosts != null) {
+                // The hint is best effort, fall back to the hosts selected for the related requests.
+                return selectConnection0(selector, context, forceNewConnectionAndReserve, null);
+            }
             if (healthCheckConfig != null && allUnhealthy(usedHosts)) {
                 final long currNextResubscribeTime = nextResubscribeTime;
                 if (currNextResubscribeTime >= 0 &&
@@ -597,7 +744,7 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                                 failedSingle : newCnx.closeAsync().concat(failedSingle);
                     }
                     if (host.addConnection(newCnx, null)) {
-                        return succeeded(newCnx);
+                        return succeeded(forceNewConnectionAndReserve ? newCnx : host.trackRequest(newCnx, context));
                     }
                     return newCnx.closeAsync().concat(isClosedList(this.usedHosts) ? failedLBClosed(targetResource) :
                             failed(StacklessConnectionRejectedException.newInstance(
@@ -606,6 +753,94 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                 });
     }
 
+    /**
+     * Selects the connection with the least active requests among the connections which are needed to keep the
+     * utilization under the threshold, and grows or shrinks the pool of the host.
+     *
+     * @return the selected connection, or {@code null} if the default connection selection has to continue.
+     */
+    @Nullable
+    private C selectLeastActive(final Host<ResolvedAddress, C> host, final Object[] connections,
+                                final Predicate<C> selector, final ConnectionPoolPolicy<ResolvedAddress> policy) {
+        final int needed = policy.connectionsNeeded(connections);
+        if (needed < 0) {
+            return null;
+        }
+        C selected = null;
+        int selectedActive = Integer.MAX_VALUE;
+        for (int i = 0; i < min(needed, connections.length); ++i) {
+            @SuppressWarnings("unchecked")
+            final C connection = (C) connections[i];
+            final int active = connection.activeRequests();
+            if (active < selectedActive && active < connection.maxConcurrentRequests()) {
+                selected = connection;
+                selectedActive = active;
+            }
+        }
+        if (selected != null && !selector.test(selected)) {
+            selected = null;
+        }
+
+        if (needed > connections.length) {
+            host.resetSurplus();
+            if (connections.length < policy.maxConnectionsPerHost() && host.isActiveAndHealthy()) {
+                scaleUp(host, policy);
+            }
+        } else if (needed < connections.length) {
+            assert connectionPoolExecutor != null;
+            host.closeIdleSurplus(connections, connectionPoolExecutor.currentTime(NANOSECONDS), policy);
+        } else {
+            host.resetSurplus();
+        }
+
+        if (selected != null) {
+            policy.observer().onConnectionSelected(host.address, selected, selected.activeRequests(),
+                    selected.maxConcurrentRequests());
+        }
+        return selected;
+    }
+
+    private void scaleUp(final Host<ResolvedAddress, C> host, final ConnectionPoolPolicy<ResolvedAddress> policy) {
+        if (!host.tryStartScaleUp()) {
+            return;
+        }
+        Single<? extends C> establishConnection = connectionFactory.newConnection(host.address, null, null);
+        if (host.healthCheckConfig != null) {
+            establishConnection = establishConnection.beforeOnError(t -> host.markUnhealthy(t, connectionFactory));
+        }
+        // Requests continue to use the existing connections while the new one is established in the background.
+        establishConnection.afterFinally(host::scaleUpFinished).subscribe(newCnx -> {
+            if (host.addConnection(newCnx, null)) {
+                LOGGER.debug("{}: opened an additional connection {} to {}.", this, newCnx, host);
+                policy.observer().onScaleUp(host.address, host.connState.connections.length);
+            } else {
+                newCnx.closeAsync().subscribe();
+            }
+        });
+    }
+
+    /**
+     * Power-of-two-choices: picks two distinct hosts at random and returns the index of the one with the lower cost.
+     * Hosts which are not eligible for new connections lose to the eligible ones regardless of the cost, the rest of
+     * the hosts are still visited by the selection loop if the picked host can not be used.
+     */
+    private static <ResolvedAddress, C extends LoadBalancedConnection> int p2cCursor(
+            final List<Host<ResolvedAddress, C>> usedHosts, final ThreadLocalRandom rnd) {
+        final int size = usedHosts.size();
+        final int i = rnd.nextInt(size);
+        int j = rnd.nextInt(size - 1);
+        if (j >= i) {
+            ++j;
+        }
+        final Host<ResolvedAddress, C> first = usedHosts.get(i);
+        final Host<ResolvedAddress, C> second = usedHosts.get(j);
+        final boolean firstActive = first.isActiveAndHealthy();
+        if (firstActive != second.isActiveAndHealthy()) {
+            return firstActive ? i : j;
+        }
+        return first.cost() <= second.cost() ? i : j;
+    }
+
     @Override
     public Completable onClose() {
         return asyncCloseable.onClose();
@@ -669,18 +904,31 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
         @SuppressWarnings("rawtypes")
         private static final AtomicReferenceFieldUpdater<Host, ConnState> connStateUpdater =
                 newUpdater(Host.class, ConnState.class, "connState");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Host> scalingUpUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Host.class, "scalingUp");
+        private static final long NO_SURPLUS = Long.MIN_VALUE;
 
         private final String lbDescription;
         final Addr address;
         @Nullable
         private final HealthCheckConfig healthCheckConfig;
         private final ListenableAsyncCloseable closeable;
+        @Nullable
+        private final EwmaRequestTracker requestTracker;
         private volatile ConnState connState = ACTIVE_EMPTY_CONN_STATE;
-
-        Host(String lbDescription, Addr address, @Nullable HealthCheckConfig healthCheckConfig) {
+        private volatile int scalingUp;
+        /**
+         * The time since which the last connection is not needed, or {@link #NO_SURPLUS}.
+         */
+        private volatile long surplusSinceNanos = NO_SURPLUS;
+
+        Host(String lbDescription, Addr address, @Nullable HealthCheckConfig healthCheckConfig,
+             long ewmaHalfLifeNanos) {
             this.lbDescription = lbDescription;
             this.address = address;
             this.healthCheckConfig = healthCheckConfig;
+            this.requestTracker = ewmaHalfLifeNanos > 0 ? new EwmaRequestTracker(ewmaHalfLifeNanos) : null;
             this.closeable = toAsyncCloseable(graceful ->
                     graceful ? doClose(AsyncCloseable::closeAsyncGracefully) : doClose(AsyncCloseable::closeAsync));
         }
@@ -807,6 +1055,59 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
             return isActive(connState);
         }
 
+        long cost() {
+            assert requestTracker != null;
+            return requestTracker.cost();
+        }
+
+        boolean tryStartScaleUp() {
+            return scalingUpUpdater.compareAndSet(this, 0, 1);
+        }
+
+        void scaleUpFinished() {
+            scalingUp = 0;
+        }
+
+        void resetSurplus() {
+            if (surplusSinceNanos != NO_SURPLUS) {
+                surplusSinceNanos = NO_SURPLUS;
+            }
+        }
+
+        /**
+         * Closes the last connection if it wasn't needed and had no active requests for the idle timeout. Connections
+         * are closed one at a time, the idle timeout starts again for the next one.
+         */
+        void closeIdleSurplus(final Object[] connections, final long currentTimeNanos,
+                              final ConnectionPoolPolicy<Addr> policy) {
+            @SuppressWarnings("unchecked")
+            final C last = (C) connections[connections.length - 1];
+            final long surplusSinceNanos = this.surplusSinceNanos;
+            if (surplusSinceNanos == NO_SURPLUS || last.activeRequests() != 0) {
+                this.surplusSinceNanos = currentTimeNanos;
+            } else if (currentTimeNanos - surplusSinceNanos >= policy.idleTimeoutNanos() &&
+                    // Reserve the connection to stop concurrent selections from using it while it's closing.
+                    last.tryReserve()) {
+                this.surplusSinceNanos = NO_SURPLUS;
+                LOGGER.debug("{}: closing an idle surplus connection {} to {}.", lbDescription, last, this);
+                last.closeAsyncGracefully().subscribe();
+                policy.observer().onScaleDown(address, connections.length - 1);
+            }
+        }
+
+        C trackRequest(final C connection, @Nullable final ContextMap context) {
+            if (context != null) {
+                if (requestTracker != null) {
+                    context.put(REQUEST_TRACKER_KEY, requestTracker);
+                }
+                final ExcludedHosts excludedHosts = context.get(EXCLUDED_HOSTS_KEY);
+                if (excludedHosts != null) {
+                    excludedHosts.add(address);
+                }
+            }
+            return connection;
+        }
+
         static boolean isActive(final ConnState connState) {
             return ActiveState.class.equals(connState.state.getClass());
         }
@@ -974,6 +1275,7 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                     ", address=" + address +
                     ", state=" + connState.state +
                     ", #connections=" + connState.connections.length +
+                    (requestTracker == null ? "" : ", requestTracker=" + requestTracker) +
                     '}';
         }
 
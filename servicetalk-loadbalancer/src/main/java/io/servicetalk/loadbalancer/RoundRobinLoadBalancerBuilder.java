@@ -148,6 +148,22 @@ public interface RoundRobinLoadBalancerBuilder<ResolvedAddress, C extends LoadBa
      */
     RoundRobinLoadBalancerBuilder<ResolvedAddress, C> healthCheckFailedConnectionsThreshold(int threshold);
 
+    /**
+     * Sets a {@link ConnectionPoolPolicy} which selects connections by their occupancy and manages the number of
+     * connections to each host, instead of selecting the first available connection and opening a new connection
+     * only when none is available.
+     * <p>
+     * This is useful for protocols which multiplex many concurrent requests over a single connection, like HTTP/2.
+     *
+     * @param connectionPoolPolicy the {@link ConnectionPoolPolicy} to use.
+     * @return {@code this}.
+     */
+    default RoundRobinLoadBalancerBuilder<ResolvedAddress, C> connectionPoolPolicy(
+            ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy) {
+        throw new UnsupportedOperationException("RoundRobinLoadBalancerBuilder#connectionPoolPolicy(" +
+                "ConnectionPoolPolicy) is not supported by " + getClass());
+    }
+
     /**
      * Builds the {@link LoadBalancerFactory} configured by this builder.
      *
@@ -37,6 +37,7 @@ import static io.servicetalk.utils.internal.DurationUtils.ensureNonNegative;
 import static io.servicetalk.utils.internal.DurationUtils.ensurePositive;
 import static io.servicetalk.utils.internal.DurationUtils.isPositive;
 import static java.time.Duration.ofSeconds;
+import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -54,8 +55,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends LoadBalancedConnection>
         implements LoadBalancerFactory<ResolvedAddress, C> {
 
-    private static final Duration DEFAULT_HEALTH_CHECK_INTERVAL = ofSeconds(5);
-    private static final Duration DEFAULT_HEALTH_CHECK_JITTER = ofSeconds(3);
+    static final Duration DEFAULT_HEALTH_CHECK_INTERVAL = ofSeconds(5);
+    static final Duration DEFAULT_HEALTH_CHECK_JITTER = ofSeconds(3);
     static final Duration DEFAULT_HEALTH_CHECK_RESUBSCRIBE_INTERVAL = ofSeconds(10);
     static final int DEFAULT_HEALTH_CHECK_FAILED_CONNECTIONS_THRESHOLD = 5; // higher than default for AutoRetryStrategy
 
@@ -63,13 +64,20 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
     private final int linearSearchSpace;
     @Nullable
     private final HealthCheckConfig healthCheckConfig;
+    @Nullable
+    private final ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy;
+    private final Executor backgroundExecutor;
 
     private RoundRobinLoadBalancerFactory(final String id,
                                           final int linearSearchSpace,
-                                          @Nullable final HealthCheckConfig healthCheckConfig) {
+                                          @Nullable final HealthCheckConfig healthCheckConfig,
+                                          @Nullable final ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy,
+                                          final Executor backgroundExecutor) {
         this.id = id;
         this.linearSearchSpace = linearSearchSpace;
         this.healthCheckConfig = healthCheckConfig;
+        this.connectionPoolPolicy = connectionPoolPolicy;
+        this.backgroundExecutor = backgroundExecutor;
     }
 
     @Deprecated
@@ -79,7 +87,7 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
             final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
             final ConnectionFactory<ResolvedAddress, T> connectionFactory) {
         return new RoundRobinLoadBalancer<>(id, targetResource, eventPublisher, connectionFactory,
-                linearSearchSpace, healthCheckConfig);
+                linearSearchSpace, healthCheckConfig, 0, connectionPoolPolicy, backgroundExecutor);
     }
 
     @Override
@@ -88,7 +96,7 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
             final ConnectionFactory<ResolvedAddress, C> connectionFactory,
             final String targetResource) {
         return new RoundRobinLoadBalancer<>(id, targetResource, eventPublisher, connectionFactory,
-                linearSearchSpace, healthCheckConfig);
+                linearSearchSpace, healthCheckConfig, 0, connectionPoolPolicy, backgroundExecutor);
     }
 
     @Override
@@ -119,6 +127,8 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
                 DEFAULT_HEALTH_CHECK_RESUBSCRIBE_INTERVAL.minus(DEFAULT_HEALTH_CHECK_JITTER).toNanos();
         private long healthCheckResubscribeUpperBound =
                 DEFAULT_HEALTH_CHECK_RESUBSCRIBE_INTERVAL.plus(DEFAULT_HEALTH_CHECK_JITTER).toNanos();;
+        @Nullable
+        private ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy;
 
         /**
          * Creates a new instance with default settings.
@@ -190,7 +200,7 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
             return this;
         }
 
-        private static void validate(Duration interval, Duration jitter) {
+        static void validate(Duration interval, Duration jitter) {
             ensurePositive(interval, "interval");
             ensureNonNegative(jitter, "jitter");
             final Duration lowerBound = interval.minus(jitter);
@@ -215,18 +225,28 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
             return this;
         }
 
+        @Override
+        public RoundRobinLoadBalancerFactory.Builder<ResolvedAddress, C> connectionPoolPolicy(
+                final ConnectionPoolPolicy<ResolvedAddress> connectionPoolPolicy) {
+            this.connectionPoolPolicy = requireNonNull(connectionPoolPolicy);
+            return this;
+        }
+
         @Override
         public RoundRobinLoadBalancerFactory<ResolvedAddress, C> build() {
+            final Executor backgroundExecutor =
+                    this.backgroundExecutor == null ? SharedExecutor.getInstance() : this.backgroundExecutor;
             if (this.healthCheckFailedConnectionsThreshold < 0) {
-                return new RoundRobinLoadBalancerFactory<>(id, linearSearchSpace, null);
+                return new RoundRobinLoadBalancerFactory<>(id, linearSearchSpace, null, connectionPoolPolicy,
+                        backgroundExecutor);
             }
 
-            HealthCheckConfig healthCheckConfig = new HealthCheckConfig(
-                            this.backgroundExecutor == null ? SharedExecutor.getInstance() : this.backgroundExecutor,
+            HealthCheckConfig healthCheckConfig = new HealthCheckConfig(backgroundExecutor,
                     healthCheckInterval, healthCheckJitter, healthCheckFailedConnectionsThreshold,
                     healthCheckResubscribeLowerBound, healthCheckResubscribeUpperBound);
 
-            return new RoundRobinLoadBalancerFactory<>(id, linearSearchSpace, healthCheckConfig);
+            return new RoundRobinLoadBalancerFactory<>(id, linearSearchSpace, healthCheckConfig, connectionPoolPolicy,
+                    backgroundExecutor);
         }
     }
 
@@ -0,0 +1,326 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.DefaultServiceDiscovererEvent;
+import io.servicetalk.client.api.LoadBalancedConnection;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.api.Completable;
+import io.servicetalk.concurrent.api.ListenableAsyncCloseable;
+import io.servicetalk.concurrent.api.TestExecutor;
+import io.servicetalk.concurrent.api.TestPublisher;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancerTest.DelegatingConnectionFactory;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancerTest.TestLoadBalancedConnection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.servicetalk.client.api.RequestConcurrencyController.Result.Accepted;
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
+import static io.servicetalk.concurrent.api.AsyncCloseables.emptyAsyncCloseable;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+class ConnectionPoolPolicyTest {
+
+    private static final int MAX_CONCURRENCY = 10;
+    private static final Duration IDLE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final TestExecutor executor = new TestExecutor();
+    private final TestPublisher<Collection<ServiceDiscovererEvent<String>>> serviceDiscoveryPublisher =
+            new TestPublisher<>();
+    private final List<StreamsConnection> connections = new ArrayList<>();
+    private final List<String> scaleEvents = new ArrayList<>();
+    private final AtomicInteger maxOccupancy = new AtomicInteger();
+    private int maxConcurrency = MAX_CONCURRENCY;
+    private final DelegatingConnectionFactory connectionFactory = new DelegatingConnectionFactory(address -> {
+        final StreamsConnection connection = new StreamsConnection(address, maxConcurrency);
+        connections.add(connection);
+        return succeeded(connection);
+    });
+    private final ConnectionPoolPolicy.Observer<String> observer = new ConnectionPoolPolicy.Observer<String>() {
+        @Override
+        public void onConnectionSelected(final String address, final LoadBalancedConnection connection,
+                                         final int activeRequests, final int maxConcurrentRequests) {
+            maxOccupancy.accumulateAndGet(activeRequests, Math::max);
+        }
+
+        @Override
+        public void onScaleUp(final String address, final int connections) {
+            scaleEvents.add("up:" + connections);
+        }
+
+        @Override
+        public void onScaleDown(final String address, final int connections) {
+            scaleEvents.add("down:" + connections);
+        }
+    };
+    private LoadBalancer<TestLoadBalancedConnection> lb = newLoadBalancer(new ConnectionPoolPolicy.Builder<>());
+
+    @AfterEach
+    void tearDown() throws Exception {
+        lb.closeAsync().toFuture().get();
+    }
+
+    @Test
+    void opensConnectionWhenUtilizationCrossesThreshold() throws Exception {
+        sendServiceDiscoveryEvents("address-1");
+        // 75% of 10 streams fit into the first connection.
+        for (int i = 0; i < 7; ++i) {
+            select();
+        }
+        assertThat(connections.size(), is(1));
+        assertThat(scaleEvents.isEmpty(), is(true));
+
+        // The 8th request crosses the threshold: a new connection is opened, but the request uses the existing one.
+        assertThat(select(), is(sameInstance(connections.get(0))));
+        assertThat(connections.size(), is(2));
+        assertThat(scaleEvents, contains("up:2"));
+        assertThat(maxOccupancy.get(), is(8));
+
+        // The next requests go to the connection with the least active streams.
+        assertThat(select(), is(sameInstance(connections.get(1))));
+        assertThat(select(), is(sameInstance(connections.get(1))));
+        assertThat(connections.get(0).active, is(8));
+        assertThat(connections.get(1).active, is(2));
+    }
+
+    @Test
+    void scaleUpIsLimitedButConnectionsOnDemandAreNot() throws Exception {
+        lb.closeAsync().toFuture().get();
+        maxConcurrency = 2;
+        lb = newLoadBalancer(new ConnectionPoolPolicy.Builder<>().maxConnectionsPerHost(2));
+        sendServiceDiscoveryEvents("address-1");
+        for (int i = 0; i < 4; ++i) {
+            select();
+        }
+        assertThat(connections.size(), is(2));
+        // All connections are at their limit: a new connection is opened like without the policy.
+        assertThat(select(), is(sameInstance(connections.get(2))));
+        assertThat(connections.size(), is(3));
+
+        connections.get(1).requestFinished();
+        assertThat(select(), is(sameInstance(connections.get(1))));
+        assertThat(connections.size(), is(3));
+    }
+
+    @Test
+    void closesIdleSurplusConnection() throws Exception {
+        sendServiceDiscoveryEvents("address-1");
+        for (int i = 0; i < 9; ++i) {
+            select();
+        }
+        assertThat(connections.size(), is(2));
+        for (StreamsConnection connection : connections) {
+            while (connection.active > 0) {
+                connection.requestFinished();
+            }
+        }
+
+        // The second connection is not needed anymore and doesn't get new requests.
+        assertThat(select(), is(sameInstance(connections.get(0))));
+        executor.advanceTimeBy(IDLE_TIMEOUT.getSeconds() - 1, SECONDS);
+        assertThat(select(), is(sameInstance(connections.get(0))));
+        assertThat(connections.get(1).closed, is(false));
+
+        executor.advanceTimeBy(1, SECONDS);
+        assertThat(select(), is(sameInstance(connections.get(0))));
+        assertThat(connections.get(1).closed, is(true));
+        assertThat(scaleEvents, contains("up:2", "down:1"));
+        assertThat(connections.get(0).closed, is(false));
+    }
+
+    @Test
+    void closesIdleSurplusConnectionWithoutSelection() throws Exception {
+        sendServiceDiscoveryEvents("address-1");
+        for (int i = 0; i < 9; ++i) {
+            select();
+        }
+        assertThat(connections.size(), is(2));
+        for (StreamsConnection connection : connections) {
+            while (connection.active > 0) {
+                connection.requestFinished();
+            }
+        }
+
+        // Idle connections are checked twice per idle timeout, the first check finds the surplus.
+        executor.advanceTimeBy(IDLE_TIMEOUT.getSeconds(), SECONDS);
+        assertThat(connections.get(1).closed, is(false));
+        executor.advanceTimeBy(IDLE_TIMEOUT.getSeconds() / 2, SECONDS);
+        assertThat(connections.get(1).closed, is(true));
+        assertThat(scaleEvents, contains("up:2", "down:1"));
+        assertThat(connections.get(0).closed, is(false));
+    }
+
+    @Test
+    void busySurplusConnectionIsNotClosed() throws Exception {
+        sendServiceDiscoveryEvents("address-1");
+        for (int i = 0; i < 9; ++i) {
+            select();
+        }
+        while (connections.get(0).active > 0) {
+            connections.get(0).requestFinished();
+        }
+        select();
+        executor.advanceTimeBy(IDLE_TIMEOUT.getSeconds(), SECONDS);
+        select();
+        assertThat(connections.get(1).closed, is(false));
+    }
+
+    @Test
+    void connectionsWithoutOccupancyUseDefaultSelection() throws Exception {
+        lb.closeAsync().toFuture().get();
+        maxConcurrency = -1;
+        lb = newLoadBalancer(new ConnectionPoolPolicy.Builder<>());
+        sendServiceDiscoveryEvents("address-1");
+        for (int i = 0; i < 20; ++i) {
+            select();
+        }
+        assertThat(connections.size(), is(1));
+        assertThat(scaleEvents.isEmpty(), is(true));
+    }
+
+    @Test
+    void singleConcurrencyConnectionsUseDefaultSelection() throws Exception {
+        lb.closeAsync().toFuture().get();
+        maxConcurrency = 1;
+        lb = newLoadBalancer(new ConnectionPoolPolicy.Builder<>());
+        sendServiceDiscoveryEvents("address-1");
+        assertThat(select(), is(sameInstance(connections.get(0))));
+        connections.get(0).requestFinished();
+        assertThat(select(), is(sameInstance(connections.get(0))));
+        assertThat(connections.size(), is(1));
+
+        // The busy connection is not able to take another request: a new connection is opened on demand.
+        assertThat(select(), is(sameInstance(connections.get(1))));
+        assertThat(connections.size(), is(2));
+        assertThat(scaleEvents.isEmpty(), is(true));
+    }
+
+    private LoadBalancer<TestLoadBalancedConnection> newLoadBalancer(
+            final ConnectionPoolPolicy.Builder<String> policy) {
+        return RoundRobinLoadBalancers.<String, TestLoadBalancedConnection>builder(getClass().getSimpleName())
+                .healthCheckFailedConnectionsThreshold(-1)
+                .backgroundExecutor(executor)
+                .connectionPoolPolicy(policy.idleTimeout(IDLE_TIMEOUT).observer(observer).build())
+                .build()
+                .newLoadBalancer(serviceDiscoveryPublisher, connectionFactory, "test-service");
+    }
+
+    private TestLoadBalancedConnection select() throws Exception {
+        return lb.selectConnection(c -> c.tryRequest() == Accepted, null).toFuture().get();
+    }
+
+    private void sendServiceDiscoveryEvents(final String address) {
+        serviceDiscoveryPublisher.onNext(singletonList(new DefaultServiceDiscovererEvent<>(address, AVAILABLE)));
+    }
+
+    /**
+     * A connection which limits the number of concurrent requests like the streams of an HTTP/2 connection. A
+     * negative {@code maxConcurrency} means the occupancy is not known and requests are not limited.
+     */
+    private static final class StreamsConnection implements TestLoadBalancedConnection {
+        private final ListenableAsyncCloseable closeable = emptyAsyncCloseable();
+        private final String address;
+        private final int maxConcurrency;
+        int active;
+        boolean reserved;
+        boolean closed;
+
+        StreamsConnection(final String address, final int maxConcurrency) {
+            this.address = address;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        @Override
+        public String address() {
+            return address;
+        }
+
+        @Override
+        public int score() {
+            return 1;
+        }
+
+        @Override
+        public Result tryRequest() {
+            if (reserved || closed) {
+                return Result.RejectedPermanently;
+            }
+            if (maxConcurrency >= 0 && active >= maxConcurrency) {
+                return Result.RejectedTemporary;
+            }
+            ++active;
+            return Accepted;
+        }
+
+        @Override
+        public void requestFinished() {
+            --active;
+        }
+
+        @Override
+        public int activeRequests() {
+            return maxConcurrency < 0 ? -1 : active;
+        }
+
+        @Override
+        public int maxConcurrentRequests() {
+            return maxConcurrency;
+        }
+
+        @Override
+        public boolean tryReserve() {
+            if (reserved || active != 0) {
+                return false;
+            }
+            reserved = true;
+            return true;
+        }
+
+        @Override
+        public Completable onClose() {
+            return closeable.onClose();
+        }
+
+        @Override
+        public Completable onClosing() {
+            return closeable.onClosing();
+        }
+
+        @Override
+        public Completable closeAsync() {
+            return closeable.closeAsync().beforeOnSubscribe(__ -> closed = true);
+        }
+
+        @Override
+        public Completable closeAsyncGracefully() {
+            return closeable.closeAsyncGracefully().beforeOnSubscribe(__ -> closed = true);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
+import static io.servicetalk.loadbalancer.EwmaRequestTracker.ERROR_PENALTY_NS;
+import static io.servicetalk.loadbalancer.EwmaRequestTracker.UNSAMPLED_PENALTY_NS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EwmaRequestTrackerTest {
+
+    private static final long HALF_LIFE_NS = 1000;
+
+    private final TestEwmaRequestTracker tracker = new TestEwmaRequestTracker();
+
+    @Test
+    void invalidHalfLife() {
+        assertThrows(IllegalArgumentException.class, () -> new EwmaRequestTracker(0));
+    }
+
+    @Test
+    void unsampledHostGetsSingleProbe() {
+        assertThat(tracker.cost(), is(0L));
+        final long start = tracker.beforeStart();
+        assertThat(tracker.cost(), is(UNSAMPLED_PENALTY_NS + 1));
+        tracker.timeNs += 100;
+        tracker.onSuccess(start);
+        assertThat(tracker.cost(), is(100L));
+    }
+
+    @Test
+    void outstandingRequestsIncreaseCost() {
+        recordSuccess(100);
+        final long start = tracker.beforeStart();
+        tracker.beforeStart();
+        assertThat(tracker.pending(), is(2));
+        assertThat(tracker.cost(), is(300L));
+        tracker.onCancel(start);
+        assertThat(tracker.pending(), is(1));
+        assertThat(tracker.cost(), is(200L));
+    }
+
+    @Test
+    void higherLatencyIsTakenImmediately() {
+        recordSuccess(100);
+        assertThat(tracker.cost(), is(100L));
+        recordSuccess(400);
+        assertThat(tracker.cost(), is(400L));
+    }
+
+    @Test
+    void lowerLatencyDecaysWithHalfLife() {
+        recordSuccess(1000);
+        tracker.timeNs += HALF_LIFE_NS - 100;
+        recordSuccess(100);
+        // After one half-life the old value and the new sample have equal weights: (1000 + 100) / 2
+        assertThat(tracker.cost(), is(both(greaterThanOrEqualTo(549L)).and(lessThanOrEqualTo(550L))));
+    }
+
+    @Test
+    void errorsArePenalized() {
+        final long start = tracker.beforeStart();
+        tracker.timeNs += 100;
+        tracker.onError(start, DELIBERATE_EXCEPTION);
+        assertThat(tracker.pending(), is(0));
+        assertThat(tracker.cost(), is(ERROR_PENALTY_NS + 100));
+    }
+
+    @Test
+    void fastErrorsCostMoreThanSlowSuccesses() {
+        final TestEwmaRequestTracker slow = new TestEwmaRequestTracker();
+        final long slowStart = slow.beforeStart();
+        slow.timeNs += 100_000;
+        slow.onSuccess(slowStart);
+
+        final long start = tracker.beforeStart();
+        tracker.timeNs += 1;
+        tracker.onError(start, DELIBERATE_EXCEPTION);
+        assertThat(tracker.cost(), is(greaterThan(slow.cost())));
+    }
+
+    @Test
+    void costDecaysWithoutSamples() {
+        recordSuccess(1000);
+        tracker.timeNs += HALF_LIFE_NS;
+        assertThat(tracker.cost(), is(both(greaterThanOrEqualTo(499L)).and(lessThanOrEqualTo(500L))));
+    }
+
+    @Test
+    void cancellationDoesNotAffectLatency() {
+        recordSuccess(100);
+        final long start = tracker.beforeStart();
+        tracker.timeNs += HALF_LIFE_NS;
+        tracker.onCancel(start);
+        assertThat(tracker.pending(), is(0));
+        assertThat(tracker.cost(), is(both(greaterThanOrEqualTo(49L)).and(lessThanOrEqualTo(50L))));
+    }
+
+    private void recordSuccess(final long latencyNs) {
+        final long start = tracker.beforeStart();
+        tracker.timeNs += latencyNs;
+        tracker.onSuccess(start);
+    }
+
+    private static final class TestEwmaRequestTracker extends EwmaRequestTracker {
+        long timeNs;
+
+        TestEwmaRequestTracker() {
+            super(HALF_LIFE_NS);
+        }
+
+        @Override
+        long currentTimeNanos() {
+            return timeNs;
+        }
+    }
+}
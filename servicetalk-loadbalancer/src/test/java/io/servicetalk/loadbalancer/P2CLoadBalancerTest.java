@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.DefaultServiceDiscovererEvent;
+import io.servicetalk.client.api.ExcludedHosts;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.api.TestPublisher;
+import io.servicetalk.concurrent.internal.DefaultContextMap;
+import io.servicetalk.context.api.ContextMap;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancerTest.DelegatingConnectionFactory;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancerTest.TestLoadBalancedConnection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.servicetalk.client.api.ExcludedHosts.EXCLUDED_HOSTS_KEY;
+import static io.servicetalk.client.api.RequestTracker.REQUEST_TRACKER_KEY;
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
+import static io.servicetalk.concurrent.api.AsyncCloseables.emptyAsyncCloseable;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class P2CLoadBalancerTest {
+
+    private final TestPublisher<Collection<ServiceDiscovererEvent<String>>> serviceDiscoveryPublisher =
+            new TestPublisher<>();
+    private final DelegatingConnectionFactory connectionFactory =
+            new DelegatingConnectionFactory(address -> succeeded(newConnection(address)));
+    private final LoadBalancer<TestLoadBalancedConnection> lb =
+            P2CLoadBalancerFactory.<String, TestLoadBalancedConnection>builder(getClass().getSimpleName())
+                    .healthCheckFailedConnectionsThreshold(-1)
+                    .build()
+                    .newLoadBalancer(serviceDiscoveryPublisher, connectionFactory, "test-service");
+
+    @AfterEach
+    void tearDown() throws Exception {
+        lb.closeAsync().toFuture().get();
+    }
+
+    @Test
+    void requestTrackerIsSharedViaContext() throws Exception {
+        sendServiceDiscoveryEvents("address-1");
+        final ContextMap context = new DefaultContextMap();
+        final TestLoadBalancedConnection connection = lb.selectConnection(__ -> true, context).toFuture().get();
+        assertThat(connection.address(), is("address-1"));
+        final RequestTracker tracker = context.get(REQUEST_TRACKER_KEY);
+        assertThat(tracker, is(notNullValue()));
+
+        // The same host shares the same tracker
+        final ContextMap nextContext = new DefaultContextMap();
+        assertThat(lb.selectConnection(__ -> true, nextContext).toFuture().get(), is(sameInstance(connection)));
+        assertThat(nextContext.get(REQUEST_TRACKER_KEY), is(sameInstance(tracker)));
+
+        // Selection without a context is supported
+        assertThat(lb.selectConnection(__ -> true, null).toFuture().get(), is(sameInstance(connection)));
+    }
+
+    @Test
+    void newConnectionDoesNotShareRequestTracker() throws Exception {
+        sendServiceDiscoveryEvents("address-1");
+        final ContextMap context = new DefaultContextMap();
+        lb.newConnection(context).toFuture().get();
+        assertThat(context.get(REQUEST_TRACKER_KEY), is(nullValue()));
+    }
+
+    @Test
+    void prefersHostWithFewerOutstandingRequests() throws Exception {
+        sendServiceDiscoveryEvents("address-1", "address-2");
+        // Tie-breaks are random, select until both hosts have a connection and learn their trackers.
+        final Map<String, RequestTracker> trackers = new HashMap<>();
+        for (int i = 0; i < 1000 && trackers.size() < 2; ++i) {
+            final ContextMap context = new DefaultContextMap();
+            final TestLoadBalancedConnection connection = lb.selectConnection(__ -> true, context).toFuture().get();
+            trackers.put(connection.address(), context.get(REQUEST_TRACKER_KEY));
+        }
+        assertThat(trackers.size(), is(2));
+
+        final RequestTracker busy = trackers.get("address-1");
+        for (int i = 0; i < 10; ++i) {
+            busy.beforeStart();
+        }
+        // With two hosts, both are always compared and the less loaded one wins
+        for (int i = 0; i < 100; ++i) {
+            assertThat(lb.selectConnection(__ -> true, null).toFuture().get().address(), is("address-2"));
+        }
+    }
+
+    @Test
+    void excludedHostsAreAvoided() throws Exception {
+        sendServiceDiscoveryEvents("address-1", "address-2");
+        for (int i = 0; i < 100; ++i) {
+            final ExcludedHosts excludedHosts = new ExcludedHosts();
+            final String first = selectAddress(excludedHosts);
+            assertThat(excludedHosts.contains(first), is(true));
+            assertThat(selectAddress(excludedHosts), is(not(first)));
+            // All hosts are excluded: the hint is ignored.
+            assertThat(selectAddress(excludedHosts), is(notNullValue()));
+        }
+    }
+
+    private String selectAddress(final ExcludedHosts excludedHosts) throws Exception {
+        final ContextMap context = new DefaultContextMap();
+        context.put(EXCLUDED_HOSTS_KEY, excludedHosts);
+        return lb.selectConnection(__ -> true, context).toFuture().get().address();
+    }
+
+    @Test
+    void roundRobinDoesNotShareRequestTracker() throws Exception {
+        final TestPublisher<Collection<ServiceDiscovererEvent<String>>> roundRobinPublisher = new TestPublisher<>();
+        final LoadBalancer<TestLoadBalancedConnection> roundRobin =
+                RoundRobinLoadBalancers.<String, TestLoadBalancedConnection>builder(getClass().getSimpleName())
+                        .healthCheckFailedConnectionsThreshold(-1)
+                        .build()
+                        .newLoadBalancer(roundRobinPublisher, connectionFactory, "test-service");
+        try {
+            sendServiceDiscoveryEvents(roundRobinPublisher, "address-1");
+            final ContextMap context = new DefaultContextMap();
+            roundRobin.selectConnection(__ -> true, context).toFuture().get();
+            assertThat(context.get(REQUEST_TRACKER_KEY), is(nullValue()));
+        } finally {
+            roundRobin.closeAsync().toFuture().get();
+        }
+    }
+
+    private void sendServiceDiscoveryEvents(final String... addresses) {
+        sendServiceDiscoveryEvents(serviceDiscoveryPublisher, addresses);
+    }
+
+    private static void sendServiceDiscoveryEvents(
+            final TestPublisher<Collection<ServiceDiscovererEvent<String>>> publisher, final String... addresses) {
+        publisher.onNext(Arrays.stream(addresses)
+                .map(address -> (ServiceDiscovererEvent<String>) new DefaultServiceDiscovererEvent<>(address,
+                        AVAILABLE))
+                .collect(toList()));
+    }
+
+    private static TestLoadBalancedConnection newConnection(final String address) {
+        final TestLoadBalancedConnection cnx = mock(TestLoadBalancedConnection.class);
+        when(cnx.closeAsync()).thenReturn(emptyAsyncCloseable().closeAsync());
+        when(cnx.closeAsyncGracefully()).thenReturn(emptyAsyncCloseable().closeAsyncGracefully());
+        when(cnx.onClose()).thenReturn(emptyAsyncCloseable().onClose());
+        when(cnx.onClosing()).thenReturn(emptyAsyncCloseable().onClosing());
+        when(cnx.address()).thenReturn(address);
+        when(cnx.tryReserve()).thenReturn(true);
+        return cnx;
+    }
+}
@@ -34,7 +34,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 
-import static io.servicetalk.context.api.ContextMap.Key.newKey;
+import static io.servicetalk.context.api.ContextMap.Key.newIndexedKey;
 import static java.util.Collections.unmodifiableMap;
 
 /**
@@ -42,7 +42,7 @@ import static java.util.Collections.unmodifiableMap;
  */
 public class ServiceTalkThreadContextMap implements ReadOnlyThreadContextMap, CleanableThreadContextMap {
     @SuppressWarnings("unchecked")
-    private static final ContextMap.Key<Map<String, String>> key = newKey("log4j2Mdc",
+    private static final ContextMap.Key<Map<String, String>> key = newIndexedKey("log4j2Mdc",
             (Class<Map<String, String>>) (Class<?>) Map.class);
     private static final String NULL_STRING = "";
     private static final String[] KNOWN_CONFLICTS = {
@@ -29,7 +29,7 @@ import org.slf4j.LoggerFactory;
 import java.lang.invoke.MethodHandles;
 import javax.annotation.Nullable;
 
-import static io.servicetalk.context.api.ContextMap.Key.newKey;
+import static io.servicetalk.context.api.ContextMap.Key.newIndexedKey;
 
 /**
  * Implementation of {@link ContextStorageProvider} that stores the Tracing Context
@@ -39,7 +39,7 @@ public final class ServiceTalkContextStoreProvider implements ContextStorageProv
 
     private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-    private static final ContextMap.Key<Context> SCOPE_KEY = newKey("opentelemetry", Context.class);
+    private static final ContextMap.Key<Context> SCOPE_KEY = newIndexedKey("opentelemetry", Context.class);
 
     @Override
     public ContextStorage get() {
@@ -18,11 +18,11 @@ package io.servicetalk.opentracing.zipkin.publisher.reporter;
 import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.buffer.api.BufferAllocator;
 import io.servicetalk.concurrent.CompletableSource;
-import io.servicetalk.concurrent.PublisherSource;
 import io.servicetalk.concurrent.api.AsyncCloseable;
 import io.servicetalk.concurrent.api.BufferStrategy.Accumulator;
 import io.servicetalk.concurrent.api.Completable;
 import io.servicetalk.concurrent.api.CompositeCloseable;
+import io.servicetalk.concurrent.api.DroppingPublisherProcessor;
 import io.servicetalk.concurrent.api.Publisher;
 import io.servicetalk.http.api.HttpClient;
 import io.servicetalk.http.api.HttpResponseStatus;
@@ -49,7 +49,7 @@ import static io.servicetalk.concurrent.api.AsyncCloseables.toAsyncCloseable;
 import static io.servicetalk.concurrent.api.BufferStrategies.forCountOrTime;
 import static io.servicetalk.concurrent.api.Completable.completed;
 import static io.servicetalk.concurrent.api.Processors.newCompletableProcessor;
-import static io.servicetalk.concurrent.api.Processors.newPublisherProcessorDropHeadOnOverflow;
+import static io.servicetalk.concurrent.api.Processors.newMpscPublisherProcessorDropHeadOnOverflow;
 import static io.servicetalk.concurrent.api.SourceAdapters.fromSource;
 import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
 import static io.servicetalk.concurrent.internal.FutureUtils.awaitTermination;
@@ -71,7 +71,7 @@ public final class HttpReporter extends Component implements Reporter<Span>, Asy
     static final CharSequence THRIFT_CONTENT_TYPE = newAsciiString("application/x-thrift");
     static final CharSequence PROTO_CONTENT_TYPE = newAsciiString("application/x-protobuf");
 
-    private final PublisherSource.Processor<Span, Span> buffer;
+    private final DroppingPublisherProcessor<Span> buffer;
     private final CompositeCloseable closeable;
 
     private volatile boolean closeInitiated;
@@ -104,6 +104,16 @@ public final class HttpReporter extends Component implements Reporter<Span>, Asy
         buffer.onNext(span);
     }
 
+    /**
+     * Returns the number of {@link Span}s dropped so far because they were reported faster than they could be sent
+     * to the collector.
+     *
+     * @return the number of {@link Span}s dropped so far.
+     */
+    public long droppedSpans() {
+        return buffer.droppedItems();
+    }
+
     @Override
     public void close() {
         awaitTermination(closeable.closeAsync().toFuture());
@@ -119,19 +129,19 @@ public final class HttpReporter extends Component implements Reporter<Span>, Asy
         return closeable.closeAsyncGracefully();
     }
 
-    private PublisherSource.Processor<Span, Span> initReporter(final Builder builder, final HttpClient client) {
-        final PublisherSource.Processor<Span, Span> buffer;
+    private DroppingPublisherProcessor<Span> initReporter(final Builder builder, final HttpClient client) {
+        final DroppingPublisherProcessor<Span> buffer;
         SpanBytesEncoder spanEncoder = builder.codec.spanBytesEncoder();
         final BufferAllocator allocator = client.executionContext().bufferAllocator();
         final Publisher<Buffer> spans;
         if (!builder.batchingEnabled) {
-            buffer = newPublisherProcessorDropHeadOnOverflow(builder.maxConcurrentReports);
+            buffer = newMpscPublisherProcessorDropHeadOnOverflow(builder.maxConcurrentReports);
             spans = fromSource(buffer)
                     .map(span -> allocator.wrap(spanEncoder.encodeList(Collections.singletonList(span))));
         } else {
             // As we send maxConcurrentReports number of parallel requests, each with roughly batchSizeHint number of
             // spans, we hold a maximum of that many Spans in-memory that we can send in parallel to the collector.
-            buffer = newPublisherProcessorDropHeadOnOverflow(builder.batchSizeHint * builder.maxConcurrentReports);
+            buffer = newMpscPublisherProcessorDropHeadOnOverflow(builder.batchSizeHint * builder.maxConcurrentReports);
             spans = fromSource(buffer)
                     .buffer(forCountOrTime(builder.batchSizeHint, builder.maxBatchDuration,
                             () -> new ListAccumulator(builder.batchSizeHint), client.executionContext().executor()))
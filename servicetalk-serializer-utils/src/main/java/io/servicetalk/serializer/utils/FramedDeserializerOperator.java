@@ -34,6 +34,8 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.utils.internal.ReleasableBufferUtils.isReleasable;
+import static io.servicetalk.utils.internal.ReleasableBufferUtils.release;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 
@@ -94,8 +96,21 @@ public final class FramedDeserializerOperator<T> implements PublisherOperator<Bu
             assert subscription != null;
             if (buffer == null) {
                 subscription.request(1);
-            } else if (compositeBuffer != null && compositeBuffer.readableBytes() != 0) {
-                compositeBuffer.addBuffer(buffer);
+            } else if (isReleasable(buffer)) {
+                // Pooled memory is deserialized in place and released, only the remaining bytes are copied.
+                try {
+                    onNextInternal(buffer);
+                } finally {
+                    release(buffer);
+                }
+            } else {
+                onNextInternal(buffer);
+            }
+        }
+
+        private void onNextInternal(final Buffer buffer) {
+            if (compositeBuffer != null && compositeBuffer.readableBytes() != 0) {
+                compositeBuffer.addBuffer(isReleasable(buffer) ? copy(buffer) : buffer);
                 doDeserialize(compositeBuffer);
             } else {
                 doDeserialize(buffer);
@@ -150,7 +165,11 @@ public final class FramedDeserializerOperator<T> implements PublisherOperator<Bu
             if (compositeBuffer == null) {
                 compositeBuffer = allocator.newCompositeBuffer(Integer.MAX_VALUE);
             }
-            compositeBuffer.addBuffer(buffer, true);
+            compositeBuffer.addBuffer(isReleasable(buffer) ? copy(buffer) : buffer, true);
+        }
+
+        private Buffer copy(Buffer buffer) {
+            return allocator.newBuffer(buffer.readableBytes(), buffer.isDirect()).writeBytes(buffer);
         }
     }
 }
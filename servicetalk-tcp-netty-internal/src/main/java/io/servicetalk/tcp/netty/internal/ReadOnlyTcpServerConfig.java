@@ -16,6 +16,7 @@
 package io.servicetalk.tcp.netty.internal;
 
 import io.servicetalk.transport.api.ServerSslConfig;
+import io.servicetalk.transport.api.ServiceTalkSocketOptions;
 import io.servicetalk.transport.api.TransportObserver;
 import io.servicetalk.transport.netty.internal.NoopTransportObserver;
 
@@ -39,6 +40,7 @@ import static io.servicetalk.transport.netty.internal.SslContextFactory.forServe
 public final class ReadOnlyTcpServerConfig extends AbstractReadOnlyTcpConfig<ServerSslConfig> {
     @SuppressWarnings("rawtypes")
     private final Map<ChannelOption, Object> listenOptions;
+    private final int reusePortListeners;
     private final TransportObserver transportObserver;
     @Nullable
     private final ServerSslConfig sslConfig;
@@ -53,6 +55,7 @@ public final class ReadOnlyTcpServerConfig extends AbstractReadOnlyTcpConfig<Ser
     ReadOnlyTcpServerConfig(final TcpServerConfig from) {
         super(from);
         listenOptions = nonNullOptions(from.listenOptions());
+        reusePortListeners = from.reusePortListeners();
         final TransportObserver transportObserver = from.transportObserver();
         this.transportObserver = transportObserver == NoopTransportObserver.INSTANCE ? transportObserver :
                 asSafeObserver(transportObserver);
@@ -155,4 +158,15 @@ public final class ReadOnlyTcpServerConfig extends AbstractReadOnlyTcpConfig<Ser
     public Map<ChannelOption, Object> listenOptions() {
         return listenOptions;
     }
+
+    /**
+     * Returns the number of server sockets to bind to the same address using {@code SO_REUSEPORT}.
+     *
+     * @return the number of server sockets to bind to the same address using {@code SO_REUSEPORT}, {@code 0} (zero)
+     * for one server socket per IO thread
+     * @see ServiceTalkSocketOptions#REUSEPORT_LISTENERS
+     */
+    public int reusePortListeners() {
+        return reusePortListeners;
+    }
 }
@@ -15,6 +15,8 @@
  */
 package io.servicetalk.tcp.netty.internal;
 
+import io.servicetalk.concurrent.Cancellable;
+import io.servicetalk.concurrent.SingleSource.Subscriber;
 import io.servicetalk.concurrent.api.Completable;
 import io.servicetalk.concurrent.api.Executor;
 import io.servicetalk.concurrent.api.Single;
@@ -28,6 +30,7 @@ import io.servicetalk.transport.api.ExecutionContext;
 import io.servicetalk.transport.api.IoThreadFactory;
 import io.servicetalk.transport.api.LateConnectionAcceptor;
 import io.servicetalk.transport.api.ServerContext;
+import io.servicetalk.transport.api.ServiceTalkSocketOptions;
 import io.servicetalk.transport.api.SslConfig;
 import io.servicetalk.transport.netty.internal.BuilderUtils;
 import io.servicetalk.transport.netty.internal.ChannelSet;
@@ -40,25 +43,34 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.ReferenceCounted;
+import io.netty.util.concurrent.EventExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.SocketOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 import javax.net.ssl.SSLSession;
 
 import static io.servicetalk.concurrent.api.Executors.immediate;
 import static io.servicetalk.concurrent.api.Single.defer;
 import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.transport.netty.internal.BuilderUtils.reusePortOption;
 import static io.servicetalk.transport.netty.internal.BuilderUtils.toNettyAddress;
 import static io.servicetalk.transport.netty.internal.ChannelCloseUtils.close;
 import static io.servicetalk.transport.netty.internal.CopyByteBufHandlerChannelInitializer.POOLED_ALLOCATOR;
@@ -133,37 +145,13 @@ public final class TcpServerBinder {
         requireNonNull(connectionConsumer);
         listenAddress = toNettyAddress(listenAddress);
         EventLoopAwareNettyIoExecutor nettyIoExecutor = toEventLoopAwareNettyIoExecutor(executionContext.ioExecutor());
+        final EventLoopGroup eventLoopGroup = nettyIoExecutor.eventLoopGroup();
         ServerBootstrap bs = new ServerBootstrap();
-        configure(config, bs, nettyIoExecutor.eventLoopGroup(), listenAddress.getClass());
+        configure(config, bs, eventLoopGroup, listenAddress.getClass());
 
         ChannelSet channelSet = new ChannelSet(
                 executionContext.executionStrategy().isCloseOffloaded() ? executionContext.executor() : immediate());
-        bs.handler(new ChannelInboundHandlerAdapter() {
-            @Override
-            public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
-                // Verify that we do not leak pooled memory in the "accept" pipeline
-                if (msg instanceof ReferenceCounted) {
-                    try {
-                        throw new IllegalArgumentException("Unexpected ReferenceCounted msg in 'accept' pipeline: " +
-                                msg);
-                    } finally {
-                        ((ReferenceCounted) msg).release();
-                    }
-                }
-                if (msg instanceof Channel) {
-                    final Channel channel = (Channel) msg;
-                    if (!channel.isActive()) {
-                        channel.close();
-                        LOGGER.debug("Channel ({}) is accepted, but was already inactive", msg);
-                        return;
-                    } else if (!channelSet.addIfAbsent(channel)) {
-                        LOGGER.warn("Channel ({}) not added to ChannelSet", msg);
-                        return;
-                    }
-                }
-                ctx.fireChannelRead(msg);
-            }
-        });
+        bs.handler(new AcceptHandler(channelSet));
         bs.childHandler(new io.netty.channel.ChannelInitializer<Channel>() {
             @Override
             protected void initChannel(final Channel channel) {
@@ -184,6 +172,18 @@ public final class TcpServerBinder {
             }
         });
 
+        final ChannelOption<Boolean> reusePortOption = config.reusePortListeners() != 1 &&
+                listenAddress instanceof InetSocketAddress ? reusePortOption(eventLoopGroup) : null;
+        if (reusePortOption != null) {
+            bs.option(reusePortOption, true);
+            return bindReusePort(bs, acceptEventLoops(config.reusePortListeners(), eventLoopGroup), listenAddress,
+                    channelSet, connectionAcceptor, executionContext);
+        } else if (config.reusePortListeners() != 1) {
+            LOGGER.warn("{} is not supported for {} and {}, binding a single server socket.",
+                    ServiceTalkSocketOptions.REUSEPORT_LISTENERS, listenAddress, eventLoopGroup);
+        }
+
+        bs.group(eventLoopGroup);
         ChannelFuture future = bs.bind(listenAddress);
         return new SubscribableSingle<ServerContext>() {
             @Override
@@ -204,6 +204,41 @@ public final class TcpServerBinder {
         };
     }
 
+    private static List<EventLoop> acceptEventLoops(final int listeners, final EventLoopGroup eventLoopGroup) {
+        final List<EventLoop> eventLoops = new ArrayList<>();
+        for (EventExecutor executor : eventLoopGroup) {
+            eventLoops.add((EventLoop) executor);
+        }
+        if (listeners == 0 || listeners == eventLoops.size()) {
+            return eventLoops;
+        }
+        final List<EventLoop> acceptEventLoops = new ArrayList<>(listeners);
+        for (int i = 0; i < listeners; ++i) {
+            acceptEventLoops.add(eventLoops.get(i % eventLoops.size()));
+        }
+        return acceptEventLoops;
+    }
+
+    /**
+     * Binds a server socket per each of the passed {@link EventLoop}s to the same address. The first server socket is
+     * bound to {@code listenAddress}, the rest of them are bound to the resolved address of the first one (the port may
+     * be {@code 0}). Connections accepted by each server socket are served by the same {@link EventLoop}.
+     */
+    private static Single<ServerContext> bindReusePort(final ServerBootstrap bs, final List<EventLoop> eventLoops,
+                                                       final SocketAddress listenAddress, final ChannelSet channelSet,
+                                                       @Nullable final InfluencerConnectionAcceptor connectionAcceptor,
+                                                       final ExecutionContext<?> executionContext) {
+        return new SubscribableSingle<ServerContext>() {
+            @Override
+            protected void handleSubscribe(final Subscriber<? super ServerContext> subscriber) {
+                final ReusePortBinder binder = new ReusePortBinder(bs, eventLoops, subscriber, listenChannels ->
+                        NettyServerContext.wrap(listenChannels, channelSet, connectionAcceptor, executionContext));
+                subscriber.onSubscribe(binder);
+                binder.bind(listenAddress);
+            }
+        };
+    }
+
     /**
      * Wraps the connection function with early and late acceptors.
      *
@@ -320,7 +355,6 @@ public final class TcpServerBinder {
         if (eventLoopGroup == null) {
             throw new IllegalStateException("IoExecutor must be specified before building");
         }
-        bs.group(eventLoopGroup);
         bs.channel(BuilderUtils.serverChannel(eventLoopGroup, bindAddressClass));
 
         for (@SuppressWarnings("rawtypes") Map.Entry<ChannelOption, Object> opt : config.options().entrySet()) {
@@ -344,4 +378,97 @@ public final class TcpServerBinder {
         bs.option(ChannelOption.ALLOCATOR, byteBufAllocator);
         bs.childOption(ChannelOption.ALLOCATOR, byteBufAllocator);
     }
+
+    @Sharable
+    private static final class AcceptHandler extends ChannelInboundHandlerAdapter {
+        private final ChannelSet channelSet;
+
+        AcceptHandler(final ChannelSet channelSet) {
+            this.channelSet = channelSet;
+        }
+
+        @Override
+        public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+            // Verify that we do not leak pooled memory in the "accept" pipeline
+            if (msg instanceof ReferenceCounted) {
+                try {
+                    throw new IllegalArgumentException("Unexpected ReferenceCounted msg in 'accept' pipeline: " +
+                            msg);
+                } finally {
+                    ((ReferenceCounted) msg).release();
+                }
+            }
+            if (msg instanceof Channel) {
+                final Channel channel = (Channel) msg;
+                if (!channel.isActive()) {
+                    channel.close();
+                    LOGGER.debug("Channel ({}) is accepted, but was already inactive", msg);
+                    return;
+                } else if (!channelSet.addIfAbsent(channel)) {
+                    LOGGER.warn("Channel ({}) not added to ChannelSet", msg);
+                    return;
+                }
+            }
+            ctx.fireChannelRead(msg);
+        }
+    }
+
+    private static final class ReusePortBinder implements ChannelFutureListener, Cancellable {
+        private final ServerBootstrap bs;
+        private final List<EventLoop> eventLoops;
+        private final Subscriber<? super ServerContext> subscriber;
+        private final Function<List<Channel>, ServerContext> serverContextFactory;
+        private final List<Channel> listenChannels;
+        private volatile boolean cancelled;
+
+        ReusePortBinder(final ServerBootstrap bs, final List<EventLoop> eventLoops,
+                        final Subscriber<? super ServerContext> subscriber,
+                        final Function<List<Channel>, ServerContext> serverContextFactory) {
+            this.bs = bs;
+            this.eventLoops = eventLoops;
+            this.subscriber = subscriber;
+            this.serverContextFactory = serverContextFactory;
+            listenChannels = new ArrayList<>(eventLoops.size());
+        }
+
+        void bind(final SocketAddress address) {
+            // Binds are sequential, listenChannels is only accessed by the listener of the previous bind.
+            final EventLoop eventLoop = eventLoops.get(listenChannels.size());
+            bs.clone().group(eventLoop, eventLoop).bind(address).addListener(this);
+        }
+
+        @Override
+        public void operationComplete(final ChannelFuture future) {
+            final Throwable cause = future.cause();
+            if (cause != null) {
+                close(future.channel(), cause);
+                closeAll(cause);
+                subscriber.onError(cause);
+                return;
+            }
+            listenChannels.add(future.channel());
+            if (cancelled) {
+                closeAll(null);
+            } else if (listenChannels.size() == eventLoops.size()) {
+                subscriber.onSuccess(serverContextFactory.apply(listenChannels));
+            } else {
+                bind(listenChannels.get(0).localAddress());
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void closeAll(@Nullable final Throwable cause) {
+            for (Channel channel : listenChannels) {
+                if (cause == null) {
+                    channel.close();
+                } else {
+                    close(channel, cause);
+                }
+            }
+        }
+    }
 }
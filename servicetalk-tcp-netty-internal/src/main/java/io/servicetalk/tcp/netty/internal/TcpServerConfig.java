@@ -49,6 +49,7 @@ public final class TcpServerConfig extends AbstractTcpConfig<ServerSslConfig> {
     @Nullable
     @SuppressWarnings("rawtypes")
     private Map<ChannelOption, Object> listenOptions;
+    private int reusePortListeners = 1;
     private TransportObserver transportObserver = NoopTransportObserver.INSTANCE;
     @Nullable
     private Map<String, ServerSslConfig> sniConfig;
@@ -61,6 +62,10 @@ public final class TcpServerConfig extends AbstractTcpConfig<ServerSslConfig> {
         return listenOptions;
     }
 
+    int reusePortListeners() {
+        return reusePortListeners;
+    }
+
     TransportObserver transportObserver() {
         return transportObserver;
     }
@@ -139,6 +144,14 @@ public final class TcpServerConfig extends AbstractTcpConfig<ServerSslConfig> {
      * @see ServiceTalkSocketOptions
      */
     public <T> void listenSocketOption(final SocketOption<T> option, T value) {
+        if (option == ServiceTalkSocketOptions.REUSEPORT_LISTENERS) {
+            final int listeners = (Integer) requireNonNull(value);
+            if (listeners < 0) {
+                throw new IllegalArgumentException("REUSEPORT_LISTENERS: " + listeners + " (expected >=0)");
+            }
+            reusePortListeners = listeners;
+            return;
+        }
         if (listenOptions == null) {
             listenOptions = new HashMap<>();
         }
@@ -83,6 +83,23 @@ public final class ServiceTalkSocketOptions {
     public static final SocketOption<Integer> TCP_FASTOPEN_BACKLOG =
             new ServiceTalkSocketOption<>("TCP_FASTOPEN_BACKLOG", Integer.class);
 
+    /**
+     * The number of server sockets which are bound to the same address using
+     * <a href="https://man7.org/linux/man-pages/man7/socket.7.html">SO_REUSEPORT</a>, each of them accepting
+     * connections on a different IO thread. The kernel distributes incoming connections between the server sockets,
+     * which removes a single accepting thread as a bottleneck when many connections are established at the same time.
+     * <p>
+     * {@code 1} (default) binds a single server socket, {@code 0} (zero) binds one server socket per IO thread.
+     * Connections accepted by a server socket are served by the same IO thread. All server sockets are represented by a
+     * single {@link ServerContext}.
+     * <p>
+     * Note this option may not be supported by the underlying transport (e.g. supported by Netty's
+     * <a href="https://netty.io/wiki/native-transports.html#using-the-linux-native-transport">linux EPOLL
+     * transport</a> and io_uring transport). Unsupported transports bind a single server socket.
+     */
+    public static final SocketOption<Integer> REUSEPORT_LISTENERS =
+            new ServiceTalkSocketOption<>("REUSEPORT_LISTENERS", Integer.class);
+
     private ServiceTalkSocketOptions() {
     }
 
@@ -19,7 +19,9 @@ import io.servicetalk.transport.api.FileDescriptorSocketAddress;
 import io.servicetalk.transport.api.HostAndPort;
 
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.FileRegion;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.epoll.EpollDatagramChannel;
 import io.netty.channel.epoll.EpollDomainSocketChannel;
@@ -74,6 +76,9 @@ public final class BuilderUtils {
     public static Class<? extends ServerChannel> serverChannel(EventLoopGroup group,
                                                                Class<? extends SocketAddress> addressClass) {
         if (useIoUring(group)) {
+            if (DomainSocketAddress.class.isAssignableFrom(addressClass)) {
+                throw new IllegalArgumentException("io_uring does not support DomainSocketAddress");
+            }
             return IOUringServerSocketChannel.class;
         } else if (useEpoll(group)) {
             return DomainSocketAddress.class.isAssignableFrom(addressClass) ? EpollServerDomainSocketChannel.class :
@@ -132,6 +137,29 @@ public final class BuilderUtils {
         return null;
     }
 
+    /**
+     * Determine if {@link FileRegion} messages can be written to the passed {@link Channel}.
+     *
+     * @param channel the {@link Channel} to test.
+     * @return {@code true} if {@link FileRegion} messages can be written to the passed {@link Channel}.
+     */
+    public static boolean isFileRegionSupported(Channel channel) {
+        return NativeTransportUtils.isFileRegionSupported(channel.eventLoop());
+    }
+
+    /**
+     * Returns the {@link ChannelOption} which enables {@code SO_REUSEPORT} for server sockets of the passed
+     * {@link EventLoopGroup}, if the transport distributes incoming connections between server sockets bound to the
+     * same address.
+     *
+     * @param group the {@link EventLoopGroup} for which the option is needed
+     * @return the {@link ChannelOption} which enables {@code SO_REUSEPORT}, or {@code null} if not supported
+     */
+    @Nullable
+    public static ChannelOption<Boolean> reusePortOption(EventLoopGroup group) {
+        return NativeTransportUtils.reusePortOption(group);
+    }
+
     /**
      * If {@code address} if a ServiceTalk specific address it is unwrapped into a Netty address.
      *
@@ -18,19 +18,23 @@ package io.servicetalk.transport.netty.internal;
 import io.servicetalk.transport.api.DomainSocketAddress;
 import io.servicetalk.transport.api.FileDescriptorSocketAddress;
 
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.kqueue.KQueue;
 import io.netty.channel.kqueue.KQueueEventLoopGroup;
 import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringChannelOption;
 import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
 import io.netty.util.internal.PlatformDependent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
 
 import static io.netty.util.internal.PlatformDependent.normalizedArch;
 import static java.lang.Boolean.getBoolean;
@@ -131,7 +135,9 @@ final class NativeTransportUtils {
      * @return {@code true} if native {@link IOUring} transport could be used
      */
     static boolean useIoUring(final EventLoopGroup group) {
-        if (!isIoUringAvailable()) {
+        // Do not check TRY_IO_URING here, it only controls the default transport selection. An explicitly created
+        // IOUringEventLoopGroup can not be used with any other transport.
+        if (!IS_LINUX || !IOUring.isAvailable()) {
             return false;
         }
         // Check if we should use the io_uring transport. This is true if either the IOUringEventLoopGroup is used
@@ -192,6 +198,52 @@ final class NativeTransportUtils {
         return useEpoll(group) || useKQueue(group);
     }
 
+    /**
+     * Throws if {@link IOUring} transport is not available.
+     *
+     * @throws IllegalStateException if {@link IOUring} transport is not available
+     */
+    static void ensureIoUringAvailability() {
+        if (!IS_LINUX) {
+            throw new IllegalStateException("io_uring transport is only supported on Linux, current OS: " +
+                    PlatformDependent.normalizedOs());
+        }
+        if (!IOUring.isAvailable()) {
+            throw new IllegalStateException("io_uring transport is not available", IOUring.unavailabilityCause());
+        }
+    }
+
+    /**
+     * Determine if {@link io.netty.channel.FileRegion} messages can be written to channels of the passed
+     * {@link EventLoopGroup}.
+     *
+     * @param group the group to test.
+     * @return {@code true} if {@link io.netty.channel.FileRegion} is supported by {@code group}
+     */
+    static boolean isFileRegionSupported(final EventLoopGroup group) {
+        // io_uring channels accept only ByteBuf messages.
+        return !useIoUring(group);
+    }
+
+    /**
+     * Returns the {@link ChannelOption} which enables {@code SO_REUSEPORT} with load balancing of incoming connections
+     * between server sockets, or {@code null} if not supported.
+     *
+     * @param group the group to test.
+     * @return the {@link ChannelOption} which enables {@code SO_REUSEPORT}, or {@code null} if not supported
+     */
+    @Nullable
+    static ChannelOption<Boolean> reusePortOption(final EventLoopGroup group) {
+        if (useIoUring(group)) {
+            return IOUringChannelOption.SO_REUSEPORT;
+        }
+        if (useEpoll(group)) {
+            return EpollChannelOption.SO_REUSEPORT;
+        }
+        // KQueue supports SO_REUSEPORT too, but macOS does not distribute connections between server sockets.
+        return null;
+    }
+
     static void tryIoUring(final boolean tryIoUring) {
         TRY_IO_URING.set(tryIoUring);
     }
@@ -15,6 +15,7 @@
  */
 package io.servicetalk.transport.netty.internal;
 
+import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.concurrent.api.internal.SubscribablePublisher;
 import io.servicetalk.concurrent.internal.DuplicateSubscribeException;
 import io.servicetalk.concurrent.internal.TerminalNotification;
@@ -30,6 +31,7 @@ import java.util.ArrayDeque;
 import java.util.Queue;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.buffer.netty.BufferUtils.release;
 import static io.servicetalk.concurrent.internal.FlowControlUtils.addWithOverflowProtection;
 import static io.servicetalk.concurrent.internal.SubscriberUtils.deliverErrorFromSource;
 import static io.servicetalk.concurrent.internal.SubscriberUtils.isRequestNValid;
@@ -77,6 +79,7 @@ final class NettyChannelPublisher<T> extends SubscribablePublisher<T> {
             return;
         }
         if (fatalError != null) {
+            releaseIfBuffer(data);
             return;
         }
 
@@ -243,7 +246,6 @@ final class NettyChannelPublisher<T> extends SubscribablePublisher<T> {
         return false;
     }
 
-    @SuppressWarnings("StatementWithEmptyBody")
     private void emitCatchError(@Nullable SubscriptionImpl target, Throwable cause,
                                 boolean drainPendingToNextTerminal) {
         // If we have items queued, we avoid delivering partial content to the next subscriber by draining until we see
@@ -251,7 +253,8 @@ final class NettyChannelPublisher<T> extends SubscribablePublisher<T> {
         if (pending != null && drainPendingToNextTerminal) {
             Object top;
             while ((top = pending.poll()) != null && !(top instanceof TerminalNotification)) {
-                // intentionally empty
+                // Pooled data which is never delivered to the user has to be released here.
+                releaseIfBuffer(top);
             }
         }
         if (fatalError == null) {
@@ -344,6 +347,12 @@ final class NettyChannelPublisher<T> extends SubscribablePublisher<T> {
         pending.add(p);
     }
 
+    private static void releaseIfBuffer(Object data) {
+        if (data instanceof Buffer) {
+            release((Buffer) data);
+        }
+    }
+
     private boolean shouldBuffer() {
         return hasQueuedSignals() || requestCount == 0;
     }
@@ -28,6 +28,7 @@ import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.servicetalk.transport.netty.internal.NativeTransportUtils.ensureIoUringAvailability;
 import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isEpollAvailable;
 import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isIoUringAvailable;
 import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isKQueueAvailable;
@@ -111,6 +112,49 @@ public final class NettyIoExecutors {
         return new EventLoopGroupIoExecutor(createEventLoopGroup(ioThreads, threadFactory), true, true);
     }
 
+    /**
+     * Create a new {@link NettyIoExecutor} which uses the
+     * <a href="https://github.com/netty/netty-incubator-transport-io_uring">io_uring</a> transport.
+     * <p>
+     * Unlike {@link #createIoExecutor(int, IoThreadFactory)}, this method does not depend on the
+     * {@code io.servicetalk.transport.netty.tryIoUring} system property. Note that io_uring transport does not support
+     * {@link io.servicetalk.transport.api.DomainSocketAddress} and
+     * {@link io.servicetalk.transport.api.FileDescriptorSocketAddress}.
+     *
+     * @param ioThreads number of threads or {@code 0} (zero) to use the default value.
+     * @param threadNamePrefix the name prefix used for the created {@link Thread}s.
+     * @return The created {@link IoExecutor}
+     * @throws IllegalStateException if io_uring transport is not available
+     */
+    public static EventLoopAwareNettyIoExecutor createIoUringIoExecutor(int ioThreads, String threadNamePrefix) {
+        return createIoUringIoExecutor(ioThreads, newIoThreadFactory(threadNamePrefix));
+    }
+
+    /**
+     * Create a new {@link NettyIoExecutor} which uses the
+     * <a href="https://github.com/netty/netty-incubator-transport-io_uring">io_uring</a> transport.
+     * <p>
+     * Unlike {@link #createIoExecutor(int, IoThreadFactory)}, this method does not depend on the
+     * {@code io.servicetalk.transport.netty.tryIoUring} system property. Note that io_uring transport does not support
+     * {@link io.servicetalk.transport.api.DomainSocketAddress} and
+     * {@link io.servicetalk.transport.api.FileDescriptorSocketAddress}.
+     *
+     * @param <T> Type of the IO thread instances created by factory.
+     * @param ioThreads number of threads or {@code 0} (zero) to use the default value.
+     * @param threadFactory the {@link IoThreadFactory} to use. If possible you should use an instance of
+     * {@link NettyIoThreadFactory} as it allows internal optimizations.
+     * @return The created {@link IoExecutor}
+     * @throws IllegalStateException if io_uring transport is not available
+     */
+    public static <T extends Thread & IoThread> EventLoopAwareNettyIoExecutor createIoUringIoExecutor(
+            int ioThreads, IoThreadFactory<T> threadFactory) {
+        validateIoThreads(ioThreads);
+        ensureIoUringAvailability();
+        final EventLoopGroup group = new IOUringEventLoopGroup(ioThreads, threadFactory);
+        LOGGER.debug("Created {} for {} threads using {}.", group.getClass().getSimpleName(), ioThreads, threadFactory);
+        return new EventLoopGroupIoExecutor(group, true, true);
+    }
+
     private static <T extends Thread & IoThread> EventLoopGroup createEventLoopGroup(int ioThreads,
             IoThreadFactory<T> threadFactory) {
         validateIoThreads(ioThreads);
@@ -18,6 +18,7 @@ package io.servicetalk.transport.netty.internal;
 import io.servicetalk.concurrent.api.AsyncCloseable;
 import io.servicetalk.concurrent.api.Completable;
 import io.servicetalk.concurrent.api.CompositeCloseable;
+import io.servicetalk.concurrent.api.Executor;
 import io.servicetalk.concurrent.api.ListenableAsyncCloseable;
 import io.servicetalk.transport.api.ExecutionContext;
 import io.servicetalk.transport.api.ServerContext;
@@ -25,24 +26,27 @@ import io.servicetalk.transport.api.ServerContext;
 import io.netty.channel.Channel;
 
 import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nullable;
 
 import static io.servicetalk.concurrent.api.AsyncCloseables.newCompositeCloseable;
 import static io.servicetalk.concurrent.api.AsyncCloseables.toListenableAsyncCloseable;
 import static io.servicetalk.concurrent.api.Executors.immediate;
+import static java.util.Collections.singletonList;
 
 /**
  * {@link ServerContext} implementation using a netty {@link Channel}.
  */
 public final class NettyServerContext implements ServerContext {
 
-    private final Channel listenChannel;
+    private final List<Channel> listenChannels;
     private final ListenableAsyncCloseable closeable;
     private final ExecutionContext<?> executionContext;
 
-    private NettyServerContext(Channel listenChannel, final ListenableAsyncCloseable closeable,
+    private NettyServerContext(List<Channel> listenChannels, final ListenableAsyncCloseable closeable,
                                final ExecutionContext<?> executionContext) {
-        this.listenChannel = listenChannel;
+        this.listenChannels = listenChannels;
         this.closeable = closeable;
         this.executionContext = executionContext;
     }
@@ -55,7 +59,7 @@ public final class NettyServerContext implements ServerContext {
      * @return A new {@link NettyServerContext} instance.
      */
     public static ServerContext wrap(NettyServerContext toWrap, AsyncCloseable closeBefore) {
-        return new NettyServerContext(toWrap.listenChannel,
+        return new NettyServerContext(toWrap.listenChannels,
                 toListenableAsyncCloseable(newCompositeCloseable().appendAll(closeBefore, toWrap.closeable)),
                 toWrap.executionContext);
     }
@@ -71,24 +75,48 @@ public final class NettyServerContext implements ServerContext {
      */
     public static ServerContext wrap(Channel listenChannel, ListenableAsyncCloseable channelSetCloseable,
                                      @Nullable AsyncCloseable closeBefore, ExecutionContext<?> executionContext) {
-        final NettyChannelListenableAsyncCloseable channelCloseable =
-                new NettyChannelListenableAsyncCloseable(listenChannel,
-                        executionContext.executionStrategy().isCloseOffloaded() ?
-                                executionContext.executor() : immediate());
-        final CompositeCloseable closeAsync = closeBefore == null ?
-                newCompositeCloseable().appendAll(channelCloseable, channelSetCloseable) :
-                newCompositeCloseable().appendAll(closeBefore, channelCloseable, channelSetCloseable);
-        return new NettyServerContext(listenChannel, toListenableAsyncCloseable(closeAsync), executionContext);
+        return wrap(singletonList(listenChannel), channelSetCloseable, closeBefore, executionContext);
+    }
+
+    /**
+     * Wrap the passed listen {@link Channel}s which are bound to the same address into a single
+     * {@link NettyServerContext}.
+     *
+     * @param listenChannels {@link Channel}s to wrap, all of them are bound to the same address.
+     * @param channelSetCloseable {@link ChannelSet} of the connections accepted by all {@code listenChannels}.
+     * @param closeBefore {@link Completable} which needs to closed first before {@code listenChannels} will be closed.
+     * @param executionContext {@link ExecutionContext} used by this server.
+     * @return A new {@link NettyServerContext} instance.
+     */
+    public static ServerContext wrap(List<Channel> listenChannels, ListenableAsyncCloseable channelSetCloseable,
+                                     @Nullable AsyncCloseable closeBefore, ExecutionContext<?> executionContext) {
+        if (listenChannels.isEmpty()) {
+            throw new IllegalArgumentException("listenChannels: no channels (expected >0)");
+        }
+        final Executor closeExecutor = executionContext.executionStrategy().isCloseOffloaded() ?
+                executionContext.executor() : immediate();
+        final CompositeCloseable closeAsync = newCompositeCloseable();
+        if (closeBefore != null) {
+            closeAsync.append(closeBefore);
+        }
+        for (Channel listenChannel : listenChannels) {
+            closeAsync.append(new NettyChannelListenableAsyncCloseable(listenChannel, closeExecutor));
+        }
+        closeAsync.append(channelSetCloseable);
+        return new NettyServerContext(new ArrayList<>(listenChannels), toListenableAsyncCloseable(closeAsync),
+                executionContext);
     }
 
     @Override
     public SocketAddress listenAddress() {
-        return listenChannel.localAddress();
+        return listenChannels.get(0).localAddress();
     }
 
     @Override
     public void acceptConnections(final boolean accept) {
-        listenChannel.config().setAutoRead(accept);
+        for (Channel listenChannel : listenChannels) {
+            listenChannel.config().setAutoRead(accept);
+        }
     }
 
     @Override
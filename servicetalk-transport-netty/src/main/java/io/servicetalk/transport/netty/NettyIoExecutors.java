@@ -91,4 +91,42 @@ public final class NettyIoExecutors {
     public static IoExecutor createIoExecutor() {
         return io.servicetalk.transport.netty.internal.NettyIoExecutors.createIoExecutor();
     }
+
+    /**
+     * Creates a new {@link IoExecutor} which uses the
+     * <a href="https://github.com/netty/netty-incubator-transport-io_uring">io_uring</a> transport.
+     * <p>
+     * io_uring transport is available only on recent Linux kernels and does not support
+     * {@link io.servicetalk.transport.api.DomainSocketAddress} and
+     * {@link io.servicetalk.transport.api.FileDescriptorSocketAddress}.
+     *
+     * @param ioThreads number of threads or {@code 0} (zero) to use the default value.
+     * @param threadNamePrefix the name prefix used for the created {@link Thread}s.
+     * @return The created {@link IoExecutor}
+     * @throws IllegalStateException if io_uring transport is not available
+     */
+    public static IoExecutor createIoUringIoExecutor(int ioThreads, String threadNamePrefix) {
+        return io.servicetalk.transport.netty.internal.NettyIoExecutors.createIoUringIoExecutor(ioThreads,
+                threadNamePrefix);
+    }
+
+    /**
+     * Creates a new {@link IoExecutor} which uses the
+     * <a href="https://github.com/netty/netty-incubator-transport-io_uring">io_uring</a> transport.
+     * <p>
+     * io_uring transport is available only on recent Linux kernels and does not support
+     * {@link io.servicetalk.transport.api.DomainSocketAddress} and
+     * {@link io.servicetalk.transport.api.FileDescriptorSocketAddress}.
+     *
+     * @param <T> Type of the IO thread instances created by factory.
+     * @param ioThreads number of threads or {@code 0} (zero) to use the default value.
+     * @param threadFactory the {@link IoThreadFactory} to use.
+     * @return The created {@link IoExecutor}
+     * @throws IllegalStateException if io_uring transport is not available
+     */
+    public static <T extends Thread & IoThread> IoExecutor createIoUringIoExecutor(int ioThreads,
+            IoThreadFactory<T> threadFactory) {
+        return io.servicetalk.transport.netty.internal.NettyIoExecutors.createIoUringIoExecutor(ioThreads,
+                threadFactory);
+    }
 }
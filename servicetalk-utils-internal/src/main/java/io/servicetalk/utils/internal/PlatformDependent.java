@@ -30,11 +30,13 @@
  */
 package io.servicetalk.utils.internal;
 
+import org.jctools.queues.MpmcArrayQueue;
 import org.jctools.queues.MpscChunkedArrayQueue;
 import org.jctools.queues.MpscLinkedQueue;
 import org.jctools.queues.MpscUnboundedArrayQueue;
 import org.jctools.queues.SpscChunkedArrayQueue;
 import org.jctools.queues.SpscUnboundedArrayQueue;
+import org.jctools.queues.atomic.MpmcAtomicArrayQueue;
 import org.jctools.queues.atomic.MpscGrowableAtomicArrayQueue;
 import org.jctools.queues.atomic.MpscLinkedAtomicQueue;
 import org.jctools.queues.atomic.MpscUnboundedAtomicArrayQueue;
@@ -73,6 +75,7 @@ public final class PlatformDependent {
     private static final int QUEUE_CHUNK_SIZE = 1024;
     private static final int MIN_MAX_MPSC_CAPACITY = 4; // JCTools does not allow lower max capacity.
     private static final int MIN_MAX_SPSC_CAPACITY = 16; // JCTools does not allow lower max capacity.
+    private static final int MIN_MPMC_CAPACITY = 2; // JCTools does not allow lower capacity.
     private static final int MAX_ALLOWED_QUEUE_CAPACITY = Pow2.MAX_POW2;
     private static final int MIN_ALLOWED_SPSC_CHUNK_SIZE = 8; // JCTools does not allow lower initial capacity.
     private static final int MIN_ALLOWED_MPSC_CHUNK_SIZE = 2; // JCTools does not allow lower initial capacity.
@@ -216,6 +219,20 @@ public final class PlatformDependent {
         return Queues.newMpscQueue(initialCapacity, maxCapacity);
     }
 
+    /**
+     * Create a new {@link Queue} which is safe to use for multiple producers (different threads) and multiple
+     * consumers (different threads).
+     * <p>
+     * Unlike the MPSC queues, the memory for {@code maxCapacity} items is allocated upfront.
+     *
+     * @param maxCapacity of the queue.
+     * @param <T> Type of items stored in the queue.
+     * @return A new MPMC {@link Queue} with max capacity of at least {@code maxCapacity}.
+     */
+    public static <T> Queue<T> newMpmcQueue(final int maxCapacity) {
+        return Queues.newMpmcQueue(maxCapacity);
+    }
+
     /**
      * Create a new MPSC {@link Queue} that will use a linked data structure and supports {@link Queue#remove(Object)}.
      * <p>
@@ -341,6 +358,12 @@ public final class PlatformDependent {
                     : new MpscUnboundedAtomicArrayQueue<>(max(MIN_ALLOWED_MPSC_CHUNK_SIZE, initialCapacity));
         }
 
+        static <T> Queue<T> newMpmcQueue(final int maxCapacity) {
+            // MpmcArrayQueue rounds the capacity up to the next power of two and so will overflow otherwise.
+            final int capacity = max(min(maxCapacity, MAX_ALLOWED_QUEUE_CAPACITY), MIN_MPMC_CAPACITY);
+            return USE_UNSAFE_QUEUES ? new MpmcArrayQueue<>(capacity) : new MpmcAtomicArrayQueue<>(capacity);
+        }
+
         static <T> Queue<T> newUnboundedLinkedMpscQueue() {
             return USE_UNSAFE_QUEUES ?
                     USE_UNPADDED_QUEUES ?
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2023 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.utils.internal;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+
+/**
+ * Utilities for {@link Buffer}s which own (potentially pooled) memory that has to be released after use.
+ * <p>
+ * Such {@link Buffer}s implement {@link AutoCloseable}, closing them releases the memory. This allows consumers which
+ * keep data beyond the signal that delivered it (e.g. aggregation or deserialization) to detect them without
+ * depending on the transport.
+ */
+public final class ReleasableBufferUtils {
+
+    private ReleasableBufferUtils() {
+        // No instances
+    }
+
+    /**
+     * Determines if the passed {@link Buffer} owns memory which has to be released after use.
+     *
+     * @param buffer the {@link Buffer} to check.
+     * @return {@code true} if the passed {@link Buffer} has to be released via {@link #release(Buffer)}.
+     */
+    public static boolean isReleasable(final Buffer buffer) {
+        return buffer instanceof AutoCloseable;
+    }
+
+    /**
+     * Releases the passed {@link Buffer} if it {@link #isReleasable(Buffer) is releasable}, otherwise this method is a
+     * noop.
+     *
+     * @param buffer the {@link Buffer} to release.
+     */
+    public static void release(final Buffer buffer) {
+        if (buffer instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) buffer).close();
+            } catch (Exception e) {
+                ThrowableUtils.throwException(e);
+            }
+        }
+    }
+
+    /**
+     * If the passed {@link Buffer} {@link #isReleasable(Buffer) is releasable}, copies its readable bytes into a new
+     * {@link Buffer} allocated by the passed {@link BufferAllocator} and releases it. Otherwise, returns the passed
+     * {@link Buffer}.
+     *
+     * @param buffer the {@link Buffer} to detach from pooled memory.
+     * @param allocator the {@link BufferAllocator} to allocate the copy.
+     * @return a {@link Buffer} which does not need to be released.
+     */
+    public static Buffer copyAndRelease(final Buffer buffer, final BufferAllocator allocator) {
+        if (!(buffer instanceof AutoCloseable)) {
+            return buffer;
+        }
+        try {
+            return allocator.newBuffer(buffer.readableBytes(), buffer.isDirect()).writeBytes(buffer);
+        } finally {
+            release(buffer);
+        }
+    }
+}